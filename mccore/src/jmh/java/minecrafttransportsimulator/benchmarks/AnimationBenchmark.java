@@ -0,0 +1,64 @@
+package minecrafttransportsimulator.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.entities.instances.APart;
+import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
+
+/**
+ * Benchmarks for animation evaluation.  This runs every animated object switchbox on a vehicle
+ * and all its parts, which is what the renderer does once per frame for every visible vehicle.
+ * The vehicle is ticked a few times before measuring so all variables have values.
+ *
+ * @author don_bruce
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AnimationBenchmark {
+    @Param({ "12", "48" })
+    public int partCount;
+
+    @Param({ "8", "32" })
+    public int animationCount;
+
+    private final List<AnimationSwitchbox> switchboxes = new ArrayList<>();
+    private EntityVehicleF_Physics vehicle;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkWorld world = new BenchmarkWorld(false);
+        vehicle = BenchmarkFixtures.spawnVehicle(world, BenchmarkFixtures.loadVehicle(partCount, animationCount), new Point3D(0, 1, 0));
+        vehicle.setVariable("door", 1);
+        for (int i = 0; i < 20; ++i) {
+            world.tickAll();
+        }
+        switchboxes.addAll(vehicle.animatedObjectSwitchboxes.values());
+        for (APart part : vehicle.allParts) {
+            switchboxes.addAll(part.animatedObjectSwitchboxes.values());
+        }
+    }
+
+    @Benchmark
+    public void runSwitchboxes(Blackhole blackhole) {
+        for (AnimationSwitchbox switchbox : switchboxes) {
+            blackhole.consume(switchbox.runSwitchbox(0.5F, true));
+            blackhole.consume(switchbox.netMatrix);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package minecrafttransportsimulator.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
+import minecrafttransportsimulator.items.instances.ItemVehicle;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.packloading.PackParser;
+import minecrafttransportsimulator.systems.ConfigSystem;
+
+/**
+ * Reproducible fixtures for benchmarks.  This sets up the headless interfaces, and generates
+ * a synthetic pack jar with a vehicle that has a set number of parts and animations.  The pack
+ * is generated from the counts alone, so the same counts always give the same vehicle, and the
+ * same pack jar bytes.  Packs are loaded through the normal {@link PackParser}, so the vehicle
+ * goes through the same validation and legacy-compat code as a real pack.
+ * <br><br>
+ * The vehicle has four wheels, and the remaining parts are generic parts.  The vehicle and every generic
+ * part have the set number of animated objects, each with a translation, rotation, and visibility animation,
+ * as well as a collision group that is toggled by one of those variables.  Models are simple boxes,
+ * with one box for each animated object.
+ *
+ * @author don_bruce
+ */
+public final class BenchmarkFixtures {
+    public static final String PACK_ID = "mtsbench";
+    private static final String[] ANIMATION_VARIABLES = new String[] { "tick", "yaw", "speed", "door", "ground_rotation" };
+    private static File fixtureDirectory;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Sets up the headless interfaces and config, if they haven't been set up already.
+     * This must be called before any entity or pack code is used.
+     */
+    public static synchronized void init() {
+        if (fixtureDirectory == null) {
+            try {
+                fixtureDirectory = Files.createTempDirectory("mtsbench").toFile();
+                fixtureDirectory.deleteOnExit();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not create benchmark fixture directory.", e);
+            }
+            InterfaceManager.coreModID = "mts";
+            InterfaceManager.gameDirectory = fixtureDirectory.getAbsolutePath();
+            InterfaceManager.coreInterface = new BenchmarkInterfaceCore();
+            InterfaceManager.packetInterface = new BenchmarkInterfacePacket();
+            File configDirectory = new File(fixtureDirectory, "config");
+            configDirectory.mkdirs();
+            ConfigSystem.loadFromDisk(configDirectory, false);
+        }
+    }
+
+    /**
+     * Returns the system name of the vehicle for the passed-in counts.
+     */
+    public static String getVehicleName(int partCount, int animationCount) {
+        return "benchcar_" + partCount + "_" + animationCount;
+    }
+
+    /**
+     * Loads the synthetic pack for the passed-in counts, if it hasn't been loaded yet,
+     * and returns the vehicle item for it.
+     */
+    public static synchronized ItemVehicle loadVehicle(int partCount, int animationCount) {
+        init();
+        String vehicleName = getVehicleName(partCount, animationCount);
+        ItemVehicle item = PackParser.getItem(PACK_ID, vehicleName, "");
+        if (item == null) {
+            File packDirectory = new File(fixtureDirectory, vehicleName);
+            packDirectory.mkdirs();
+            File packJar = new File(packDirectory, vehicleName + ".jar");
+            createPackJar(packJar, partCount, animationCount);
+            ((BenchmarkInterfaceCore) InterfaceManager.coreInterface).addPackJar(packJar);
+            PackParser.parsePacks(Collections.singletonList(packDirectory));
+            item = PackParser.getItem(PACK_ID, vehicleName, "");
+            if (item == null) {
+                throw new IllegalStateException("Synthetic vehicle " + vehicleName + " failed to load.  Check the error log.");
+            }
+        }
+        return item;
+    }
+
+    /**
+     * Creates a new vehicle with all its default parts, and spawns it in the world at the passed-in position.
+     */
+    public static EntityVehicleF_Physics spawnVehicle(AWrapperWorld world, ItemVehicle item, Point3D position) {
+        EntityVehicleF_Physics vehicle = new EntityVehicleF_Physics(world, null, item, null);
+        vehicle.addPartsPostAddition(null, null);
+        vehicle.position.set(position);
+        vehicle.prevPosition.set(position);
+        world.spawnEntity(vehicle);
+        return vehicle;
+    }
+
+    /**
+     * Writes the synthetic pack jar for the passed-in counts to the passed-in file.
+     */
+    public static void createPackJar(File file, int partCount, int animationCount) {
+        String vehicleName = getVehicleName(partCount, animationCount);
+        String prefix = "assets/" + PACK_ID + "/";
+        try (ZipOutputStream jarStream = new ZipOutputStream(new FileOutputStream(file))) {
+            JsonObject packDef = new JsonObject();
+            packDef.addProperty("packID", PACK_ID);
+            packDef.addProperty("packName", "Benchmark Pack");
+            packDef.addProperty("fileStructure", 0);
+            writeEntry(jarStream, prefix + "packdefinition.json", packDef.toString());
+            writeEntry(jarStream, prefix + "jsondefs/vehicles/" + vehicleName + ".json", createVehicle(partCount, animationCount).toString());
+            writeEntry(jarStream, prefix + "jsondefs/parts/benchwheel.json", createWheel().toString());
+            writeEntry(jarStream, prefix + "jsondefs/parts/benchgeneric_" + animationCount + ".json", createGenericPart(animationCount).toString());
+            writeEntry(jarStream, prefix + "objmodels/vehicles/" + vehicleName + ".obj", createModel(2.0F, 1.0F, 4.0F, animationCount));
+            writeEntry(jarStream, prefix + "objmodels/parts/benchwheel.obj", createModel(0.25F, 0.75F, 0.75F, 0));
+            writeEntry(jarStream, prefix + "objmodels/parts/benchgeneric_" + animationCount + ".obj", createModel(0.25F, 0.25F, 0.25F, animationCount));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write benchmark pack jar " + file.getName() + ".", e);
+        }
+    }
+
+    private static void writeEntry(ZipOutputStream jarStream, String name, String contents) throws IOException {
+        //Fixed times so jars are byte-for-byte the same for the same counts.
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTime(0);
+        jarStream.putNextEntry(entry);
+        Writer writer = new OutputStreamWriter(jarStream, StandardCharsets.UTF_8);
+        writer.write(contents);
+        writer.flush();
+        jarStream.closeEntry();
+    }
+
+    private static JsonObject createVehicle(int partCount, int animationCount) {
+        JsonObject vehicle = createItem("Benchmark Vehicle");
+        JsonObject motorized = new JsonObject();
+        motorized.addProperty("litVariable", "running_light");
+        motorized.addProperty("panel", "mts:default_car");
+        motorized.addProperty("axleRatio", 3.5F);
+        motorized.addProperty("brakingFactor", 1.0F);
+        motorized.addProperty("dragCoefficient", 2.0F);
+        motorized.addProperty("emptyMass", 1000);
+        vehicle.add("motorized", motorized);
+
+        JsonArray parts = new JsonArray();
+        for (int i = 0; i < partCount; ++i) {
+            JsonObject partDef = new JsonObject();
+            JsonArray types = new JsonArray();
+            if (i < 4) {
+                //Wheels go at the corners.
+                partDef.add("pos", createPoint(i % 2 == 0 ? -1 : 1, 0, i < 2 ? 1.5 : -1.5));
+                types.add("ground_wheel");
+                partDef.addProperty("defaultPart", PACK_ID + ":benchwheel");
+                partDef.addProperty("turnsWithSteer", i < 2);
+                partDef.addProperty("minValue", 0.5F);
+                partDef.addProperty("maxValue", 1.0F);
+            } else {
+                //Generic parts go in a grid on top of the vehicle.
+                int index = i - 4;
+                partDef.add("pos", createPoint(-1 + (index % 4) * 0.5, 1.0, -1.5 + (index / 4 % 8) * 0.375));
+                types.add("generic");
+                partDef.addProperty("defaultPart", PACK_ID + ":benchgeneric_" + animationCount);
+            }
+            partDef.add("types", types);
+            parts.add(partDef);
+        }
+        vehicle.add("parts", parts);
+        vehicle.add("collisionGroups", createCollisionGroups(2.0F, 1.0F, 4.0F));
+        vehicle.add("rendering", createRendering(animationCount));
+        return vehicle;
+    }
+
+    private static JsonObject createWheel() {
+        JsonObject wheel = createItem("Benchmark Wheel");
+        JsonObject generic = new JsonObject();
+        generic.addProperty("type", "ground_wheel");
+        generic.addProperty("width", 0.25F);
+        generic.addProperty("height", 0.75F);
+        wheel.add("generic", generic);
+        JsonObject ground = new JsonObject();
+        ground.addProperty("isWheel", true);
+        ground.addProperty("width", 0.25F);
+        ground.addProperty("height", 0.75F);
+        ground.addProperty("motiveFriction", 0.5F);
+        ground.addProperty("lateralFriction", 2.0F);
+        wheel.add("ground", ground);
+        wheel.add("rendering", createRendering(0));
+        return wheel;
+    }
+
+    private static JsonObject createGenericPart(int animationCount) {
+        JsonObject part = createItem("Benchmark Part");
+        JsonObject generic = new JsonObject();
+        generic.addProperty("type", "generic");
+        generic.addProperty("width", 0.25F);
+        generic.addProperty("height", 0.25F);
+        part.add("generic", generic);
+        part.add("collisionGroups", createCollisionGroups(0.25F, 0.25F, 0.25F));
+        part.add("rendering", createRendering(animationCount));
+        return part;
+    }
+
+    private static JsonObject createItem(String name) {
+        JsonObject item = new JsonObject();
+        JsonObject general = new JsonObject();
+        general.addProperty("name", name);
+        general.addProperty("health", 100);
+        JsonArray materialLists = new JsonArray();
+        materialLists.add(new JsonArray());
+        general.add("materialLists", materialLists);
+        item.add("general", general);
+
+        JsonArray definitions = new JsonArray();
+        JsonObject definition = new JsonObject();
+        definition.addProperty("subName", "");
+        JsonArray extraMaterialLists = new JsonArray();
+        extraMaterialLists.add(new JsonArray());
+        definition.add("extraMaterialLists", extraMaterialLists);
+        definitions.add(definition);
+        item.add("definitions", definitions);
+        return item;
+    }
+
+    private static JsonArray createCollisionGroups(float width, float height, float depth) {
+        JsonArray collisionGroups = new JsonArray();
+        for (int i = 0; i < 2; ++i) {
+            JsonObject collisionGroup = new JsonObject();
+            JsonArray collisionTypes = new JsonArray();
+            collisionTypes.add("block");
+            collisionTypes.add("entity");
+            collisionTypes.add("attack");
+            collisionTypes.add("click");
+            collisionGroup.add("collisionTypes", collisionTypes);
+            JsonArray collisions = new JsonArray();
+            JsonObject collision = new JsonObject();
+            collision.add("pos", createPoint(0, height / 2, i == 0 ? depth / 4 : -depth / 4));
+            collision.addProperty("width", width);
+            collision.addProperty("height", height);
+            collisions.add(collision);
+            collisionGroup.add("collisions", collisions);
+            if (i == 1) {
+                //Second group is only active when the door variable is set, so toggling it changes the active boxes.
+                JsonArray animations = new JsonArray();
+                animations.add(createAnimation("visibility", "door", 0));
+                collisionGroup.add("animations", animations);
+            }
+            collisionGroups.add(collisionGroup);
+        }
+        return collisionGroups;
+    }
+
+    private static JsonObject createRendering(int animationCount) {
+        JsonObject rendering = new JsonObject();
+        rendering.addProperty("modelType", "obj");
+        if (animationCount > 0) {
+            JsonArray animatedObjects = new JsonArray();
+            for (int i = 0; i < animationCount; ++i) {
+                JsonObject animatedObject = new JsonObject();
+                animatedObject.addProperty("objectName", "object_" + i);
+                JsonArray animations = new JsonArray();
+                animations.add(createAnimation("translation", ANIMATION_VARIABLES[i % ANIMATION_VARIABLES.length], i));
+                animations.add(createAnimation("rotation", ANIMATION_VARIABLES[(i + 1) % ANIMATION_VARIABLES.length], i));
+                animations.add(createAnimation("visibility", ANIMATION_VARIABLES[(i + 2) % ANIMATION_VARIABLES.length], i));
+                animatedObject.add("animations", animations);
+                animatedObjects.add(animatedObject);
+            }
+            rendering.add("animatedObjects", animatedObjects);
+        }
+        return rendering;
+    }
+
+    private static JsonObject createAnimation(String type, String variable, int index) {
+        JsonObject animation = new JsonObject();
+        animation.addProperty("animationType", type);
+        animation.addProperty("variable", variable);
+        switch (type) {
+            case "translation": {
+                animation.add("axis", createPoint(0, 0.001 * (index + 1), 0));
+                break;
+            }
+            case "rotation": {
+                animation.add("centerPoint", createPoint(0, 0.5, 0));
+                animation.add("axis", createPoint(0, 1, 0));
+                break;
+            }
+            default: {
+                animation.addProperty("clampMin", 1);
+                animation.addProperty("clampMax", 1);
+                break;
+            }
+        }
+        return animation;
+    }
+
+    private static String createModel(float width, float height, float depth, int animationCount) {
+        //One box for the main model, and one for each animated object.
+        StringBuilder builder = new StringBuilder();
+        appendBox(builder, "body", 0, width, height, depth);
+        for (int i = 0; i < animationCount; ++i) {
+            appendBox(builder, "object_" + i, i + 1, width / 4, height / 4, depth / 4);
+        }
+        return builder.toString();
+    }
+
+    private static void appendBox(StringBuilder builder, String objectName, int boxIndex, float width, float height, float depth) {
+        builder.append("o ").append(objectName).append('\n');
+        for (int i = 0; i < 8; ++i) {
+            builder.append("v ").append((i & 1) == 0 ? -width / 2 : width / 2).append(' ').append((i & 2) == 0 ? 0 : height).append(' ').append((i & 4) == 0 ? -depth / 2 : depth / 2).append('\n');
+        }
+        builder.append("vt 0 0\nvt 1 0\nvt 1 1\nvt 0 1\n");
+        builder.append("vn -1 0 0\nvn 1 0 0\nvn 0 -1 0\nvn 0 1 0\nvn 0 0 -1\nvn 0 0 1\n");
+        int[][] faces = new int[][] { { 0, 4, 6, 2 }, { 1, 3, 7, 5 }, { 0, 1, 5, 4 }, { 2, 6, 7, 3 }, { 0, 2, 3, 1 }, { 4, 5, 7, 6 } };
+        for (int i = 0; i < faces.length; ++i) {
+            builder.append('f');
+            for (int j = 0; j < 4; ++j) {
+                builder.append(' ').append(boxIndex * 8 + faces[i][j] + 1).append('/').append(boxIndex * 4 + j + 1).append('/').append(boxIndex * 6 + i + 1);
+            }
+            builder.append('\n');
+        }
+    }
+
+    private static JsonArray createPoint(double x, double y, double z) {
+        JsonArray point = new JsonArray();
+        point.add(x);
+        point.add(y);
+        point.add(z);
+        return point;
+    }
+}
@@ -0,0 +1,123 @@
+package minecrafttransportsimulator.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import minecrafttransportsimulator.items.components.AItemBase;
+import minecrafttransportsimulator.mcinterface.IInterfaceCore;
+import minecrafttransportsimulator.mcinterface.IWrapperItemStack;
+import minecrafttransportsimulator.mcinterface.IWrapperNBT;
+
+/**
+ * Headless core interface for benchmarks.  No other mods or fluids exist,
+ * resources are loaded from the classpath or pack jars, and errors go to the standard error stream.
+ * Stacks may only hold our own items, as MC items don't exist.
+ *
+ * @author don_bruce
+ */
+public class BenchmarkInterfaceCore implements IInterfaceCore {
+    private final List<File> packJars = new ArrayList<>();
+
+    /**
+     * Adds a pack jar for resource lookups.  In-game, pack jars are on the classpath,
+     * but benchmark pack jars are generated at runtime, so they need to be checked manually.
+     */
+    public void addPackJar(File packJar) {
+        packJars.add(packJar);
+    }
+
+    @Override
+    public boolean isGameFlattened() {
+        return false;
+    }
+
+    @Override
+    public boolean isModPresent(String modID) {
+        return false;
+    }
+
+    @Override
+    public boolean isFluidValid(String fluidID) {
+        return false;
+    }
+
+    @Override
+    public String getModName(String modID) {
+        return modID;
+    }
+
+    @Override
+    public String getModVersion(String modID) {
+        return "benchmark";
+    }
+
+    @Override
+    public InputStream getPackResource(String resource) {
+        InputStream stream = BenchmarkInterfaceCore.class.getResourceAsStream(resource);
+        if (stream == null) {
+            //Not on the classpath, check the pack jars.  Read the whole entry so we can close the jar.
+            String entryName = resource.startsWith("/") ? resource.substring(1) : resource;
+            for (File packJar : packJars) {
+                try (ZipFile jarFile = new ZipFile(packJar)) {
+                    ZipEntry entry = jarFile.getEntry(entryName);
+                    if (entry != null) {
+                        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                        try (InputStream entryStream = jarFile.getInputStream(entry)) {
+                            byte[] buffer = new byte[8192];
+                            int bytesRead;
+                            while ((bytesRead = entryStream.read(buffer)) != -1) {
+                                bytes.write(buffer, 0, bytesRead);
+                            }
+                        }
+                        return new ByteArrayInputStream(bytes.toByteArray());
+                    }
+                } catch (IOException e) {
+                    logError("Could not read " + resource + " from pack jar " + packJar.getName() + ".");
+                }
+            }
+        }
+        return stream;
+    }
+
+    @Override
+    public void logError(String message) {
+        System.err.println("MTSERROR: " + message);
+    }
+
+    @Override
+    public IWrapperNBT getNewNBTWrapper() {
+        return new BenchmarkWrapperNBT();
+    }
+
+    @Override
+    public IWrapperItemStack getAutoGeneratedStack(AItemBase item, IWrapperNBT data) {
+        return new BenchmarkWrapperItemStack(item, data, 1);
+    }
+
+    @Override
+    public IWrapperItemStack getStackForProperties(String name, int meta, int qty) {
+        return new BenchmarkWrapperItemStack(null, null, 0);
+    }
+
+    @Override
+    public String getStackItemName(IWrapperItemStack stack) {
+        return "";
+    }
+
+    @Override
+    public boolean isOredictMatch(IWrapperItemStack stackA, IWrapperItemStack stackB) {
+        return false;
+    }
+
+    @Override
+    public List<IWrapperItemStack> getOredictMaterials(String oreName, int stackSize) {
+        return new ArrayList<>();
+    }
+}
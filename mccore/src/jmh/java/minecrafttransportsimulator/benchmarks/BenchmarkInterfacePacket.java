@@ -0,0 +1,53 @@
+package minecrafttransportsimulator.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.mcinterface.IInterfacePacket;
+import minecrafttransportsimulator.mcinterface.IWrapperNBT;
+import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
+import minecrafttransportsimulator.packets.components.APacketBase;
+
+/**
+ * Headless packet interface for benchmarks.  There are no clients to send to,
+ * so packets are counted and dropped.  The count lets benchmarks check how much
+ * network traffic the code they are measuring would create.
+ *
+ * @author don_bruce
+ */
+public class BenchmarkInterfacePacket implements IInterfacePacket {
+    public int packetsSent;
+
+    @Override
+    public void registerPacket(byte packetIndex, Class<? extends APacketBase> packetClass) {
+        //Nothing to register, packets are never encoded.
+    }
+
+    @Override
+    public byte getPacketIndex(APacketBase packet) {
+        return 0;
+    }
+
+    @Override
+    public void sendToServer(APacketBase packet) {
+        ++packetsSent;
+    }
+
+    @Override
+    public void sendToAllClients(APacketBase packet) {
+        ++packetsSent;
+    }
+
+    @Override
+    public void sendToPlayer(APacketBase packet, IWrapperPlayer player) {
+        ++packetsSent;
+    }
+
+    @Override
+    public void writeDataToBuffer(IWrapperNBT data, ByteBuf buf) {
+        throw new UnsupportedOperationException("Packets are not encoded in benchmarks.");
+    }
+
+    @Override
+    public IWrapperNBT readDataFromBuffer(ByteBuf buf) {
+        throw new UnsupportedOperationException("Packets are not decoded in benchmarks.");
+    }
+}
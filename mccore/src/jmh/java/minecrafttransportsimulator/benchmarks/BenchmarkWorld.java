@@ -0,0 +1,424 @@
+package minecrafttransportsimulator.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import minecrafttransportsimulator.baseclasses.BlockHitResult;
+import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.ColorRGB;
+import minecrafttransportsimulator.baseclasses.Damage;
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.blocks.components.ABlockBase;
+import minecrafttransportsimulator.blocks.components.ABlockBase.Axis;
+import minecrafttransportsimulator.blocks.components.ABlockBase.BlockMaterial;
+import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityBase;
+import minecrafttransportsimulator.entities.components.AEntityB_Existing;
+import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
+import minecrafttransportsimulator.jsondefs.AJSONMultiModelProvider;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.mcinterface.IWrapperEntity;
+import minecrafttransportsimulator.mcinterface.IWrapperItemStack;
+import minecrafttransportsimulator.mcinterface.IWrapperNBT;
+import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
+
+/**
+ * Headless world for benchmarks.  The world is an infinite, flat plane of full stone blocks
+ * below Y=0, and air above it.  There are no external entities, players, or tile entities,
+ * and block-changing operations do nothing.  Block collisions follow the same rules as the
+ * game wrappers, so entity movement and ground device code does the same work it does in-game.
+ * Time only advances when {@link #tickAll()} is called.
+ *
+ * @author don_bruce
+ */
+public class BenchmarkWorld extends AWrapperWorld {
+    private final boolean isClient;
+    private final Map<String, IWrapperNBT> savedData = new HashMap<>();
+    private long time;
+
+    public BenchmarkWorld(boolean isClient) {
+        this.isClient = isClient;
+    }
+
+    @Override
+    public AWrapperWorld getWorld() {
+        return this;
+    }
+
+    @Override
+    public void tickAll() {
+        ++time;
+        super.tickAll();
+    }
+
+    @Override
+    public boolean isClient() {
+        return isClient;
+    }
+
+    @Override
+    public long getTime() {
+        return time;
+    }
+
+    @Override
+    public String getName() {
+        return "benchmark";
+    }
+
+    @Override
+    public long getMaxHeight() {
+        return 256;
+    }
+
+    @Override
+    public void beginProfiling(String name, boolean subProfile) {
+        //No profiler exists, benchmarks are the profiler.
+    }
+
+    @Override
+    public void endProfiling() {
+        //No profiler exists, benchmarks are the profiler.
+    }
+
+    @Override
+    public IWrapperNBT getData(String name) {
+        return savedData.get(name);
+    }
+
+    @Override
+    public void setData(String name, IWrapperNBT value) {
+        savedData.put(name, value);
+    }
+
+    @Override
+    public File getDataFile() {
+        return null;
+    }
+
+    @Override
+    public IWrapperEntity getExternalEntity(UUID entityID) {
+        return null;
+    }
+
+    @Override
+    public List<IWrapperEntity> getEntitiesWithin(BoundingBox box) {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public List<IWrapperPlayer> getPlayersWithin(BoundingBox box) {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public List<IWrapperEntity> getEntitiesHostile(IWrapperEntity lookingEntity, double radius) {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public void spawnEntity(AEntityB_Existing entity) {
+        //No external entities exist to be the builder for this entity, so just add it.
+        addEntity(entity);
+    }
+
+    @Override
+    public List<IWrapperEntity> attackEntities(Damage damage, Point3D motion, boolean generateList) {
+        return generateList ? new ArrayList<>() : null;
+    }
+
+    @Override
+    public void loadEntities(BoundingBox box, AEntityE_Interactable<?> entityToLoad) {
+        //No external entities exist to load.
+    }
+
+    @Override
+    public void populateItemStackEntities(Map<IWrapperEntity, IWrapperItemStack> map, BoundingBox b) {
+        //No item entities exist.
+    }
+
+    @Override
+    public void removeItemStackEntity(IWrapperEntity entity) {
+        //No item entities exist.
+    }
+
+    @Override
+    public boolean chunkLoaded(Point3D position) {
+        return true;
+    }
+
+    @Override
+    public ABlockBase getBlock(Point3D position) {
+        return null;
+    }
+
+    @Override
+    public float getBlockHardness(Point3D position) {
+        return isGround(position) ? 1.5F : 0;
+    }
+
+    @Override
+    public float getBlockSlipperiness(Point3D position) {
+        return 0.6F;
+    }
+
+    @Override
+    public BlockMaterial getBlockMaterial(Point3D position) {
+        return isGround(position) ? BlockMaterial.STONE : null;
+    }
+
+    @Override
+    public ColorRGB getBlockColor(Point3D position) {
+        return ColorRGB.LIGHT_GRAY;
+    }
+
+    @Override
+    public List<IWrapperItemStack> getBlockDrops(Point3D position) {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public BlockHitResult getBlockHit(Point3D position, Point3D delta) {
+        //Only the ground can be hit, and only from above.
+        if (position.y >= 0 && position.y + delta.y < 0) {
+            double factor = position.y / -delta.y;
+            Point3D hitPosition = delta.copy().scale(factor).add(position);
+            hitPosition.y = 0;
+            return new BlockHitResult(new Point3D(Math.floor(hitPosition.x), -1, Math.floor(hitPosition.z)), hitPosition, Axis.UP);
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean isBlockSolid(Point3D position, Axis axis) {
+        return axis.blockBased && isGround(position);
+    }
+
+    @Override
+    public boolean isBlockLiquid(Point3D position) {
+        return false;
+    }
+
+    @Override
+    public boolean isBlockBelowBottomSlab(Point3D position) {
+        return false;
+    }
+
+    @Override
+    public boolean isBlockAboveTopSlab(Point3D position) {
+        return false;
+    }
+
+    @Override
+    public double getHeight(Point3D position) {
+        return position.y;
+    }
+
+    @Override
+    public void updateBoundingBoxCollisions(BoundingBox box, Point3D collisionMotion, boolean ignoreIfGreater) {
+        double minX = box.globalCenter.x - box.widthRadius;
+        double maxX = box.globalCenter.x + box.widthRadius;
+        double minY = box.globalCenter.y - box.heightRadius;
+        double maxY = box.globalCenter.y + box.heightRadius;
+        double minZ = box.globalCenter.z - box.depthRadius;
+        double maxZ = box.globalCenter.z + box.depthRadius;
+        box.collidingBlockPositions.clear();
+        box.currentCollisionDepth.set(0D, 0D, 0D);
+        double boxCollisionDepth;
+        for (int i = (int) Math.floor(minX); i < Math.ceil(maxX); ++i) {
+            for (int j = (int) Math.floor(minY); j < Math.ceil(maxY) && j < 0; ++j) {
+                for (int k = (int) Math.floor(minZ); k < Math.ceil(maxZ); ++k) {
+                    box.collidingBlockPositions.add(i, j, k);
+                    if (collisionMotion.x > 0) {
+                        boxCollisionDepth = maxX - i;
+                        if (box.currentCollisionDepth.x < boxCollisionDepth) {
+                            box.currentCollisionDepth.x = boxCollisionDepth;
+                        }
+                    } else if (collisionMotion.x < 0) {
+                        boxCollisionDepth = -(i + 1 - minX);
+                        if (box.currentCollisionDepth.x > boxCollisionDepth) {
+                            box.currentCollisionDepth.x = boxCollisionDepth;
+                        }
+                    }
+                    if (collisionMotion.y > 0) {
+                        boxCollisionDepth = maxY - j;
+                        if (box.currentCollisionDepth.y < boxCollisionDepth) {
+                            box.currentCollisionDepth.y = boxCollisionDepth;
+                        }
+                    } else if (collisionMotion.y < 0) {
+                        boxCollisionDepth = -(j + 1 - minY);
+                        if (box.currentCollisionDepth.y > boxCollisionDepth) {
+                            box.currentCollisionDepth.y = boxCollisionDepth;
+                        }
+                    }
+                    if (collisionMotion.z > 0) {
+                        boxCollisionDepth = maxZ - k;
+                        if (box.currentCollisionDepth.z < boxCollisionDepth) {
+                            box.currentCollisionDepth.z = boxCollisionDepth;
+                        }
+                    } else if (collisionMotion.z < 0) {
+                        boxCollisionDepth = -(k + 1 - minZ);
+                        if (box.currentCollisionDepth.z > boxCollisionDepth) {
+                            box.currentCollisionDepth.z = boxCollisionDepth;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (ignoreIfGreater) {
+            if (collisionMotion.x > 0 && box.currentCollisionDepth.x > collisionMotion.x) {
+                box.currentCollisionDepth.x = collisionMotion.x;
+            } else if (collisionMotion.x < 0 && box.currentCollisionDepth.x < collisionMotion.x) {
+                box.currentCollisionDepth.x = collisionMotion.x;
+            }
+            if (collisionMotion.y > 0 && box.currentCollisionDepth.y > collisionMotion.y) {
+                box.currentCollisionDepth.y = collisionMotion.y;
+            } else if (collisionMotion.y < 0 && box.currentCollisionDepth.y < collisionMotion.y) {
+                box.currentCollisionDepth.y = collisionMotion.y;
+            }
+            if (collisionMotion.z > 0 && box.currentCollisionDepth.z > collisionMotion.z) {
+                box.currentCollisionDepth.z = collisionMotion.z;
+            } else if (collisionMotion.z < 0 && box.currentCollisionDepth.z < collisionMotion.z) {
+                box.currentCollisionDepth.z = collisionMotion.z;
+            }
+        }
+
+        if (box.currentCollisionDepth.isZero()) {
+            box.collidingBlockPositions.clear();
+        }
+    }
+
+    @Override
+    public boolean checkForCollisions(BoundingBox box, Point3D offset, boolean clearCache, boolean breakLeaves) {
+        return box.globalCenter.y + offset.y - box.heightRadius < 0;
+    }
+
+    @Override
+    public int getRedstonePower(Point3D position) {
+        return 0;
+    }
+
+    @Override
+    public float getRainStrength(Point3D position) {
+        return 0;
+    }
+
+    @Override
+    public float getTemperature(Point3D position) {
+        return 0.8F;
+    }
+
+    @Override
+    public <TileEntityType extends ATileEntityBase<JSONDefinition>, JSONDefinition extends AJSONMultiModelProvider> boolean setBlock(ABlockBase block, Point3D position, IWrapperPlayer playerIWrapper, Axis axis) {
+        return false;
+    }
+
+    @Override
+    public <TileEntityType extends ATileEntityBase<?>> TileEntityType getTileEntity(Point3D position) {
+        return null;
+    }
+
+    @Override
+    public void markTileEntityChanged(Point3D position) {
+        //No tile entities exist.
+    }
+
+    @Override
+    public float getLightBrightness(Point3D position, boolean calculateBlock) {
+        return 1.0F;
+    }
+
+    @Override
+    public void updateLightBrightness(Point3D position) {
+        //Lighting is constant.
+    }
+
+    @Override
+    public void destroyBlock(Point3D position, boolean spawnDrops) {
+        //Blocks are never changed.
+    }
+
+    @Override
+    public boolean isAir(Point3D position) {
+        return !isGround(position);
+    }
+
+    @Override
+    public boolean isFire(Point3D position) {
+        return false;
+    }
+
+    @Override
+    public void setToFire(Point3D position, Axis side) {
+        //Blocks are never changed.
+    }
+
+    @Override
+    public void extinguish(Point3D position, Axis side) {
+        //Blocks are never changed.
+    }
+
+    @Override
+    public boolean placeBlock(Point3D position, IWrapperItemStack stack) {
+        return false;
+    }
+
+    @Override
+    public boolean fertilizeBlock(Point3D position, IWrapperItemStack stack) {
+        return false;
+    }
+
+    @Override
+    public List<IWrapperItemStack> harvestBlock(Point3D position) {
+        return null;
+    }
+
+    @Override
+    public boolean plantBlock(Point3D position, IWrapperItemStack stack) {
+        return false;
+    }
+
+    @Override
+    public boolean plowBlock(Point3D position) {
+        return false;
+    }
+
+    @Override
+    public boolean removeSnow(Point3D position) {
+        return false;
+    }
+
+    @Override
+    public boolean hydrateBlock(Point3D position) {
+        return false;
+    }
+
+    @Override
+    public boolean insertStack(Point3D position, Axis axis, IWrapperItemStack stack) {
+        return false;
+    }
+
+    @Override
+    public IWrapperItemStack extractStack(Point3D position, Axis axis) {
+        return null;
+    }
+
+    @Override
+    public void spawnItemStack(IWrapperItemStack stack, Point3D point) {
+        //No item entities exist.
+    }
+
+    @Override
+    public void spawnExplosion(Point3D location, double strength, boolean flames) {
+        //Blocks are never changed.
+    }
+
+    private static boolean isGround(Point3D position) {
+        return position.y < 0;
+    }
+}
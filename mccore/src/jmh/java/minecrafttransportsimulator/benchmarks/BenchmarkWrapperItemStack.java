@@ -0,0 +1,101 @@
+package minecrafttransportsimulator.benchmarks;
+
+import minecrafttransportsimulator.entities.instances.EntityFluidTank;
+import minecrafttransportsimulator.items.components.AItemBase;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.mcinterface.IWrapperItemStack;
+import minecrafttransportsimulator.mcinterface.IWrapperNBT;
+import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
+
+/**
+ * Headless item stack for benchmarks.  Only holds our own items, as there are no MC items
+ * off-game.  This is enough for entities to create their default parts from stacks.
+ *
+ * @author don_bruce
+ */
+public class BenchmarkWrapperItemStack implements IWrapperItemStack {
+    private final AItemBase item;
+    private IWrapperNBT data;
+    private int size;
+
+    public BenchmarkWrapperItemStack(AItemBase item, IWrapperNBT data, int size) {
+        this.item = item;
+        this.data = data;
+        this.size = size;
+    }
+
+    @Override
+    public boolean isCompleteMatch(IWrapperItemStack other) {
+        return other.getItem() == item && IWrapperNBT.isDataEqual(data, other.getData());
+    }
+
+    @Override
+    public int getFuelValue() {
+        return 0;
+    }
+
+    @Override
+    public IWrapperItemStack getSmeltedItem(AWrapperWorld world) {
+        return new BenchmarkWrapperItemStack(null, null, 0);
+    }
+
+    @Override
+    public int getSmeltingTime(AWrapperWorld world) {
+        return 0;
+    }
+
+    @Override
+    public AItemBase getItem() {
+        return item;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return item == null || size <= 0;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public int getMaxSize() {
+        return 64;
+    }
+
+    @Override
+    public int add(int qty) {
+        int newSize = Math.max(0, Math.min(getMaxSize(), size + qty));
+        int remainder = size + qty - newSize;
+        size = newSize;
+        return remainder;
+    }
+
+    @Override
+    public IWrapperItemStack copy() {
+        return new BenchmarkWrapperItemStack(item, data, size);
+    }
+
+    @Override
+    public IWrapperItemStack split(int qty) {
+        int splitSize = Math.min(qty, size);
+        size -= splitSize;
+        return new BenchmarkWrapperItemStack(item, data, splitSize);
+    }
+
+    @Override
+    public boolean interactWith(EntityFluidTank tank, IWrapperPlayer player) {
+        return false;
+    }
+
+    @Override
+    public IWrapperNBT getData() {
+        return data;
+    }
+
+    @Override
+    public void setData(IWrapperNBT data) {
+        this.data = data;
+    }
+}
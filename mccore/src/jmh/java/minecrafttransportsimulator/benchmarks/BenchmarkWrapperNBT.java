@@ -0,0 +1,227 @@
+package minecrafttransportsimulator.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.mcinterface.IWrapperItemStack;
+import minecrafttransportsimulator.mcinterface.IWrapperNBT;
+
+/**
+ * Headless NBT wrapper for benchmarks.  Values are stored in a plain map rather than an
+ * MC tag, but follow the same rules as the game wrappers: missing values return 0 or empty,
+ * and setting a 0 or false value removes it.  Item stacks are not supported.
+ *
+ * @author don_bruce
+ */
+public class BenchmarkWrapperNBT implements IWrapperNBT {
+    private final Map<String, Object> values = new HashMap<>();
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof BenchmarkWrapperNBT && values.equals(((BenchmarkWrapperNBT) obj).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return values.hashCode();
+    }
+
+    @Override
+    public boolean getBoolean(String name) {
+        return values.containsKey(name) && (Boolean) values.get(name);
+    }
+
+    @Override
+    public void setBoolean(String name, boolean value) {
+        if (value) {
+            values.put(name, true);
+        } else {
+            values.remove(name);
+        }
+    }
+
+    @Override
+    public int getInteger(String name) {
+        return values.containsKey(name) ? ((Number) values.get(name)).intValue() : 0;
+    }
+
+    @Override
+    public void setInteger(String name, int value) {
+        if (value != 0) {
+            values.put(name, value);
+        } else {
+            values.remove(name);
+        }
+    }
+
+    @Override
+    public double getDouble(String name) {
+        return values.containsKey(name) ? ((Number) values.get(name)).doubleValue() : 0;
+    }
+
+    @Override
+    public void setDouble(String name, double value) {
+        if (value != 0) {
+            values.put(name, value);
+        } else {
+            values.remove(name);
+        }
+    }
+
+    @Override
+    public String getString(String name) {
+        return values.containsKey(name) ? (String) values.get(name) : "";
+    }
+
+    @Override
+    public void setString(String name, String value) {
+        values.put(name, value);
+    }
+
+    @Override
+    public List<String> getStrings(String name) {
+        return getStrings(name, getInteger(name + "count"));
+    }
+
+    @Override
+    public List<String> getStrings(String name, int count) {
+        List<String> strings = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            strings.add(getString(name + i));
+        }
+        return strings;
+    }
+
+    @Override
+    public void setStrings(String name, Collection<String> strings) {
+        setInteger(name + "count", strings.size());
+        int index = 0;
+        for (String value : strings) {
+            setString(name + index++, value);
+        }
+    }
+
+    @Override
+    public UUID getUUID(String name) {
+        return values.containsKey(name) ? UUID.fromString(getString(name)) : null;
+    }
+
+    @Override
+    public void setUUID(String name, UUID value) {
+        setString(name, value.toString());
+    }
+
+    @Override
+    public List<IWrapperItemStack> getStacks(int count) {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public void setStacks(List<IWrapperItemStack> stacks) {
+        //No stacks exist off-game, so there's nothing to save.
+    }
+
+    @Override
+    public Point3D getPoint3d(String name) {
+        return new Point3D(getDouble(name + "x"), getDouble(name + "y"), getDouble(name + "z"));
+    }
+
+    @Override
+    public void setPoint3d(String name, Point3D value) {
+        if (!value.isZero()) {
+            setDouble(name + "x", value.x);
+            setDouble(name + "y", value.y);
+            setDouble(name + "z", value.z);
+        }
+    }
+
+    @Override
+    public List<Point3D> getPoint3ds(String name) {
+        List<Point3D> points = new ArrayList<>();
+        int count = getInteger(name + "count");
+        for (int i = 0; i < count; ++i) {
+            Point3D point = getPoint3d(name + i);
+            if (!point.isZero()) {
+                points.add(point);
+            }
+        }
+        return points;
+    }
+
+    @Override
+    public void setPoint3ds(String name, Collection<Point3D> points) {
+        setInteger(name + "count", points.size());
+        int index = 0;
+        for (Point3D value : points) {
+            setPoint3d(name + index++, value);
+        }
+    }
+
+    @Override
+    public Point3D getPoint3dCompact(String name) {
+        return new Point3D(getInteger(name + "x"), getInteger(name + "y"), getInteger(name + "z"));
+    }
+
+    @Override
+    public void setPoint3dCompact(String name, Point3D value) {
+        if (!value.isZero()) {
+            setInteger(name + "x", (int) Math.floor(value.x));
+            setInteger(name + "y", (int) Math.floor(value.y));
+            setInteger(name + "z", (int) Math.floor(value.z));
+        }
+    }
+
+    @Override
+    public List<Point3D> getPoint3dsCompact(String name) {
+        List<Point3D> points = new ArrayList<>();
+        int count = getInteger(name + "count");
+        for (int i = 0; i < count; ++i) {
+            Point3D point = getPoint3dCompact(name + i);
+            if (!point.isZero()) {
+                points.add(point);
+            }
+        }
+        return points;
+    }
+
+    @Override
+    public void setPoint3dsCompact(String name, Collection<Point3D> points) {
+        setInteger(name + "count", points.size());
+        int index = 0;
+        for (Point3D value : points) {
+            setPoint3dCompact(name + index++, value);
+        }
+    }
+
+    @Override
+    public BenchmarkWrapperNBT getData(String name) {
+        Object value = values.get(name);
+        return value instanceof BenchmarkWrapperNBT ? (BenchmarkWrapperNBT) value : null;
+    }
+
+    @Override
+    public void setData(String name, IWrapperNBT value) {
+        values.put(name, value);
+    }
+
+    @Override
+    public boolean hasKey(String name) {
+        return values.containsKey(name);
+    }
+
+    @Override
+    public void deleteEntry(String name) {
+        values.remove(name);
+    }
+
+    @Override
+    public Set<String> getAllNames() {
+        return values.keySet();
+    }
+}
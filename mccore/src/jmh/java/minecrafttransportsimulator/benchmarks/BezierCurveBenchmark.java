@@ -0,0 +1,66 @@
+package minecrafttransportsimulator.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import minecrafttransportsimulator.baseclasses.BezierCurve;
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.RotationMatrix;
+
+/**
+ * Benchmarks for {@link BezierCurve}.  Curves are created whenever a road segment is placed or loaded,
+ * and sampled every tick by vehicles driving on them.  The length parameter sets the distance
+ * between the start and end point, which sets how many points are cached.
+ *
+ * @author don_bruce
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BezierCurveBenchmark {
+    @Param({ "16", "64" })
+    public int length;
+
+    private final Point3D startPos = new Point3D();
+    private final Point3D endPos = new Point3D();
+    private final RotationMatrix startRotation = new RotationMatrix();
+    private final RotationMatrix endRotation = new RotationMatrix();
+    private final Point3D point = new Point3D();
+    private BezierCurve curve;
+
+    @Setup
+    public void setup() {
+        endPos.set(length / 2D, 1, length);
+        endRotation.setToAngles(new Point3D(0, 45, 0));
+        curve = new BezierCurve(startPos, endPos, startRotation, endRotation);
+    }
+
+    @Benchmark
+    public BezierCurve create() {
+        return new BezierCurve(startPos, endPos, startRotation, endRotation);
+    }
+
+    @Benchmark
+    public BezierCurve createOffset() {
+        return curve.generateOffsetCurve(new Point3D(2, 0, 0));
+    }
+
+    @Benchmark
+    public void samplePath(Blackhole blackhole) {
+        for (float segmentPoint = 0; segmentPoint < curve.pathLength; segmentPoint += 0.25F) {
+            point.set(0, 0, 0);
+            curve.offsetPointByPositionAt(point, segmentPoint);
+            blackhole.consume(point);
+            blackhole.consume(curve.getRotationAt(segmentPoint));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package minecrafttransportsimulator.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.BoundingBoxHitResult;
+import minecrafttransportsimulator.baseclasses.Point3D;
+
+/**
+ * Benchmarks for {@link BoundingBox} checks.  Intersections are done for every click, bullet,
+ * and entity raytrace against every box on every entity in range, so they are one of the most
+ * common operations on servers with many guns.
+ *
+ * @author don_bruce
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoundingBoxBenchmark {
+    private final BoundingBox box = new BoundingBox(new Point3D(0, 1, 0), 1.5, 1.0, 2.5);
+    private final BoundingBox otherBox = new BoundingBox(new Point3D(1, 1.5, 2), 1.0, 1.0, 1.0);
+    private final BoundingBox missedBox = new BoundingBox(new Point3D(10, 1.5, 2), 1.0, 1.0, 1.0);
+    private final Point3D start = new Point3D(-5, 3, -5);
+    private final Point3D hitEnd = new Point3D(2, 0.5, 3);
+    private final Point3D missEnd = new Point3D(-5, 10, 5);
+
+    @Benchmark
+    public BoundingBoxHitResult getIntersectionHit() {
+        return box.getIntersection(start, hitEnd);
+    }
+
+    @Benchmark
+    public BoundingBoxHitResult getIntersectionMiss() {
+        return box.getIntersection(start, missEnd);
+    }
+
+    @Benchmark
+    public boolean intersectsHit() {
+        return box.intersects(otherBox);
+    }
+
+    @Benchmark
+    public boolean intersectsMiss() {
+        return box.intersects(missedBox);
+    }
+
+    @Benchmark
+    public boolean isPointInside() {
+        return box.isPointInside(hitEnd, null);
+    }
+}
@@ -0,0 +1,80 @@
+package minecrafttransportsimulator.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import minecrafttransportsimulator.jsondefs.JSONPart;
+import minecrafttransportsimulator.jsondefs.JSONVehicle;
+import minecrafttransportsimulator.packloading.JSONParser;
+
+/**
+ * Benchmarks for parsing pack JSON files.  Files are read into memory from a synthetic pack
+ * jar during setup, so this measures only the parser and not disk access.
+ *
+ * @author don_bruce
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JSONParserBenchmark {
+    @Param({ "12", "48" })
+    public int partCount;
+
+    @Param({ "8", "32" })
+    public int animationCount;
+
+    private String vehicleName;
+    private byte[] vehicleBytes;
+    private byte[] partBytes;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BenchmarkFixtures.init();
+        vehicleName = BenchmarkFixtures.getVehicleName(partCount, animationCount);
+        File packFile = File.createTempFile(vehicleName, ".jar");
+        packFile.deleteOnExit();
+        BenchmarkFixtures.createPackJar(packFile, partCount, animationCount);
+        String prefix = "assets/" + BenchmarkFixtures.PACK_ID + "/jsondefs/";
+        try (JarFile jarFile = new JarFile(packFile)) {
+            vehicleBytes = readEntry(jarFile, prefix + "vehicles/" + vehicleName + ".json");
+            partBytes = readEntry(jarFile, prefix + "parts/benchgeneric_" + animationCount + ".json");
+        }
+    }
+
+    @Benchmark
+    public JSONVehicle parseVehicle() throws IOException {
+        return JSONParser.parseStream(new ByteArrayInputStream(vehicleBytes), JSONVehicle.class, BenchmarkFixtures.PACK_ID, vehicleName);
+    }
+
+    @Benchmark
+    public JSONPart parsePart() throws IOException {
+        return JSONParser.parseStream(new ByteArrayInputStream(partBytes), JSONPart.class, BenchmarkFixtures.PACK_ID, "benchgeneric_" + animationCount);
+    }
+
+    private static byte[] readEntry(JarFile jarFile, String name) throws IOException {
+        try (InputStream stream = jarFile.getInputStream(jarFile.getEntry(name))) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
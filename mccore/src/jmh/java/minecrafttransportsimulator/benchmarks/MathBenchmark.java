@@ -0,0 +1,107 @@
+package minecrafttransportsimulator.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.RotationMatrix;
+import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+
+/**
+ * Benchmarks for the core math classes.  These are called many thousands of times a tick
+ * by entity movement and animation code, so even small changes here show up everywhere.
+ * All operations work on pre-made objects, so these measure the math, not allocation.
+ *
+ * @author don_bruce
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MathBenchmark {
+    private final Point3D point = new Point3D();
+    private final Point3D basePoint = new Point3D(1.5, -2.25, 3.75);
+    private final Point3D otherPoint = new Point3D(-0.5, 4.0, 1.25);
+    private final Point3D angles = new Point3D(15, 45, -30);
+    private final RotationMatrix rotation = new RotationMatrix();
+    private final RotationMatrix baseRotation = new RotationMatrix();
+    private final RotationMatrix otherRotation = new RotationMatrix();
+    private final TransformationMatrix transform = new TransformationMatrix();
+    private final TransformationMatrix baseTransform = new TransformationMatrix();
+    private final TransformationMatrix otherTransform = new TransformationMatrix();
+
+    @Setup
+    public void setup() {
+        baseRotation.setToAngles(angles);
+        otherRotation.setToAngles(new Point3D(-10, 120, 5));
+        baseTransform.setTranslation(basePoint).applyRotation(baseRotation);
+        otherTransform.setTranslation(otherPoint).applyRotation(otherRotation).applyScaling(1.5, 1.5, 1.5);
+    }
+
+    @Benchmark
+    public Point3D pointCrossProduct() {
+        return basePoint.crossProduct(otherPoint);
+    }
+
+    @Benchmark
+    public double pointDotProduct() {
+        return basePoint.dotProduct(otherPoint, true);
+    }
+
+    @Benchmark
+    public Point3D pointNormalize() {
+        return point.set(basePoint).normalize();
+    }
+
+    @Benchmark
+    public Point3D pointGetAngles() {
+        return basePoint.getAngles(true);
+    }
+
+    @Benchmark
+    public Point3D pointRotate() {
+        return point.set(basePoint).rotate(baseRotation);
+    }
+
+    @Benchmark
+    public Point3D pointReOrigin() {
+        return point.set(basePoint).reOrigin(baseRotation);
+    }
+
+    @Benchmark
+    public RotationMatrix rotationSetToAngles() {
+        angles.y += 1;
+        return rotation.setToAngles(angles);
+    }
+
+    @Benchmark
+    public Point3D rotationConvertToAngles() {
+        return rotation.set(baseRotation).multiply(otherRotation).convertToAngles();
+    }
+
+    @Benchmark
+    public RotationMatrix rotationMultiply() {
+        return rotation.set(baseRotation).multiply(otherRotation);
+    }
+
+    @Benchmark
+    public RotationMatrix rotationAxisAngle() {
+        return rotation.setToAxisAngle(basePoint, 30);
+    }
+
+    @Benchmark
+    public TransformationMatrix transformationMultiply() {
+        return transform.set(baseTransform).multiply(otherTransform);
+    }
+
+    @Benchmark
+    public Point3D transformationTransform() {
+        return point.set(basePoint).transform(otherTransform);
+    }
+}
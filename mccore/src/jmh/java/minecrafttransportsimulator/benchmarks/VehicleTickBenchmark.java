@@ -0,0 +1,54 @@
+package minecrafttransportsimulator.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
+
+/**
+ * Benchmarks for a full server-side world tick with a single vehicle in it.  This covers
+ * physics, ground devices, collision, part updates, and variable-driven animations on
+ * the synthetic vehicle from {@link BenchmarkFixtures}.
+ *
+ * @author don_bruce
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VehicleTickBenchmark {
+    @Param({ "12", "48" })
+    public int partCount;
+
+    @Param({ "8", "32" })
+    public int animationCount;
+
+    private BenchmarkWorld world;
+    private EntityVehicleF_Physics vehicle;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = new BenchmarkWorld(false);
+        vehicle = BenchmarkFixtures.spawnVehicle(world, BenchmarkFixtures.loadVehicle(partCount, animationCount), new Point3D(0, 1, 0));
+
+        //Let the vehicle settle onto the ground before measuring.
+        for (int i = 0; i < 40; ++i) {
+            world.tickAll();
+        }
+    }
+
+    @Benchmark
+    public EntityVehicleF_Physics tick() {
+        world.tickAll();
+        return vehicle;
+    }
+}
@@ -29,13 +29,14 @@ public class AnimationSwitchbox {
     //Computational variables.
     protected final AEntityD_Definable<?> entity;
     private final String applyAfter;
-    private final List<DurationDelayClock> clocks = new ArrayList<>();
+    protected final List<DurationDelayClock> clocks = new ArrayList<>();
     private final Point3D helperPoint = new Point3D();
     private final Point3D helperScalingVector = new Point3D();
     private final RotationMatrix helperRotationMatrix = new RotationMatrix();
     private final TransformationMatrix helperOffsetOperationMatrix = new TransformationMatrix();
     private boolean inhibitAnimations;
     private boolean switchboxEnabled;
+    private boolean hasRun;
     private long lastTickRun;
     private float lastPartialTickRun;
 
@@ -43,14 +44,45 @@ public class AnimationSwitchbox {
         this.entity = entity;
         this.applyAfter = applyAfter;
         for (JSONAnimationDefinition animation : animations) {
-            clocks.add(new DurationDelayClock(animation));
+            DurationDelayClock clock = new DurationDelayClock(animation);
+            //Resolve the variable now so we don't have to when we run the switchbox.
+            clock.getVariableHandle(entity);
+            clocks.add(clock);
         }
     }
 
+    /**
+     * Returns true if all variables used by this switchbox, and any switchbox it is applied after, are local.
+     * See {@link AEntityD_Definable#isLocalVariable(VariableHandle)}.
+     */
+    public boolean isLocal() {
+        if (applyAfter != null) {
+            AnimationSwitchbox switchbox = entity.animatedObjectSwitchboxes.get(applyAfter);
+            if (switchbox == null || !switchbox.isLocal()) {
+                return false;
+            }
+        }
+        for (DurationDelayClock clock : clocks) {
+            if (!clock.getVariableHandle(entity).isLocal()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Like {@link #runSwitchbox(float, boolean)}, but only runs the switchbox if it hasn't been run before.
+     * Otherwise, the result and transforms of the last run are kept.  Used to freeze animations.
+     */
+    public boolean runSwitchboxIfNeverRun(float partialTicks) {
+        return hasRun ? switchboxEnabled : runSwitchbox(partialTicks, false);
+    }
+
     public boolean runSwitchbox(float partialTicks, boolean forceSameTick) {
         if (forceSameTick || lastTickRun != entity.ticksExisted || lastPartialTickRun != partialTicks) {
             lastTickRun = entity.ticksExisted;
             lastPartialTickRun = partialTicks;
+            hasRun = true;
 
             if (applyAfter != null) {
                 AnimationSwitchbox switchbox = entity.animatedObjectSwitchboxes.get(applyAfter);
@@ -0,0 +1,81 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.Arrays;
+
+/**
+ * List of block positions, stored as packed longs rather than as objects.
+ * This allows collision sweeps to add and clear positions every tick without
+ * creating any garbage.  Positions are packed with 26 bits for X and Z, and
+ * 12 bits for Y, which covers the entire world in all supported versions.
+ *
+ * @author don_bruce
+ */
+public class BlockPositionList {
+    private long[] positions = new long[16];
+    private int size;
+
+    /**
+     * Adds the block position to this list.
+     */
+    public void add(int x, int y, int z) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        positions[size++] = pack(x, y, z);
+    }
+
+    /**
+     * Sets the passed-in point to the block position at the passed-in index, and returns it.
+     */
+    public Point3D get(int index, Point3D point) {
+        long packed = positions[index];
+        return point.set(getX(packed), getY(packed), getZ(packed));
+    }
+
+    /**
+     * Returns the packed block position at the passed-in index.
+     */
+    public long getPacked(int index) {
+        return positions[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Packs the block position into a single long.
+     */
+    public static long pack(int x, int y, int z) {
+        return ((x & 0x3FFFFFFL) << 38) | ((z & 0x3FFFFFFL) << 12) | (y & 0xFFFL);
+    }
+
+    /**
+     * Returns the X component of the packed block position.
+     */
+    public static int getX(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    /**
+     * Returns the Y component of the packed block position.
+     */
+    public static int getY(long packed) {
+        return (int) (packed << 52 >> 52);
+    }
+
+    /**
+     * Returns the Z component of the packed block position.
+     */
+    public static int getZ(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+}
@@ -0,0 +1,86 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.Arrays;
+
+/**
+ * Set of block positions, stored as packed longs in an open-addressing table.
+ * Used for caches of block states that are queried many times per tick, where
+ * a set of BlockPos objects would create garbage for every add and lookup.
+ * Positions are packed via {@link BlockPositionList#pack(int, int, int)}.
+ *
+ * @author don_bruce
+ */
+public class BlockPositionSet {
+    /**Marker for empty slots.  This packs to an X of -33554432, which is far outside any world border.**/
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys = new long[64];
+    private int size;
+
+    public BlockPositionSet() {
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Returns true if the block position is in this set.
+     */
+    public boolean contains(int x, int y, int z) {
+        long key = BlockPositionList.pack(x, y, z);
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        long existingKey;
+        while ((existingKey = keys[index]) != EMPTY) {
+            if (existingKey == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the block position to this set.
+     */
+    public void add(int x, int y, int z) {
+        long key = BlockPositionList.pack(x, y, z);
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        long existingKey;
+        while ((existingKey = keys[index]) != EMPTY) {
+            if (existingKey == key) {
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+
+        //Keep the table at most half-full.
+        if (++size * 2 > keys.length) {
+            long[] oldKeys = keys;
+            keys = new long[oldKeys.length * 2];
+            Arrays.fill(keys, EMPTY);
+            mask = keys.length - 1;
+            for (long oldKey : oldKeys) {
+                if (oldKey != EMPTY) {
+                    index = hash(oldKey) & mask;
+                    while (keys[index] != EMPTY) {
+                        index = (index + 1) & mask;
+                    }
+                    keys[index] = oldKey;
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        if (size != 0) {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+    }
+
+    private static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
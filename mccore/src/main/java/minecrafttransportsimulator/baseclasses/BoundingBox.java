@@ -1,7 +1,5 @@
 package minecrafttransportsimulator.baseclasses;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Set;
 
 import minecrafttransportsimulator.blocks.components.ABlockBase.Axis;
@@ -37,7 +35,7 @@ public class BoundingBox {
     public final Point3D localCenter;
     public final Point3D globalCenter;
     public final Point3D currentCollisionDepth;
-    public final List<Point3D> collidingBlockPositions = new ArrayList<>();
+    public final BlockPositionList collidingBlockPositions = new BlockPositionList();
     private RenderableData wireframeRenderable;
     private RenderableData holographicRenderable;
     private final Point3D tempGlobalCenter;
@@ -0,0 +1,138 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
+import minecrafttransportsimulator.entities.instances.EntityBullet;
+
+/**
+ * Collision stage for bullets.  Rather than each bullet querying for the multiparts along its path
+ * when it updates, bullets are queued here, and once all entities have updated, the paths of all
+ * queued bullets are checked against the multiparts in one sweep.  Each bullet then does its own
+ * hitbox checks against only the multiparts near its path.  This keeps large numbers of bullets from
+ * each doing their own search of the world, and means all bullets check against the final positions
+ * of the multiparts for the tick.
+ * <br><br>
+ * The sweep sorts the paths and multiparts along the X-axis, and only checks the other axes for
+ * the multiparts whose X-bounds overlap the path being checked.
+ *
+ * @author don_bruce
+ */
+public class BulletCollisionStage {
+    private static final Comparator<BulletPath> PATH_SORTER = Comparator.comparingDouble(path -> path.minX);
+    private static final Comparator<AEntityF_Multipart<?>> MULTIPART_SORTER = Comparator.comparingDouble(multipart -> multipart.encompassingBox.globalCenter.x - multipart.encompassingBox.widthRadius);
+
+    /**Paths for queued bullets, in queue order.  Entries past the queued count are kept for re-use.**/
+    private final List<BulletPath> paths = new ArrayList<>();
+    private final List<BulletPath> sortedPaths = new ArrayList<>();
+    private final List<AEntityF_Multipart<?>> multiparts = new ArrayList<>();
+    private final List<AEntityF_Multipart<?>> activeMultiparts = new ArrayList<>();
+    private int queuedBullets;
+
+    /**
+     * Queues the bullet for collision checks on the next call to {@link #checkCollisions(EntitySpatialGrid)}.
+     */
+    public void queue(EntityBullet bullet) {
+        if (queuedBullets == paths.size()) {
+            paths.add(new BulletPath());
+        }
+        paths.get(queuedBullets++).bullet = bullet;
+    }
+
+    /**
+     * Checks all queued bullets for collisions against the multiparts in the passed-in grid, then clears the queue.
+     */
+    public void checkCollisions(EntitySpatialGrid multipartGrid) {
+        if (queuedBullets == 0) {
+            return;
+        }
+
+        //Get the bounds of each path, and the bounds of all paths together.
+        Point3D minPoint = new Point3D(Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE);
+        Point3D maxPoint = new Point3D(-Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE);
+        for (int i = 0; i < queuedBullets; ++i) {
+            BulletPath path = paths.get(i);
+            path.setBounds();
+            minPoint.set(Math.min(minPoint.x, path.minX), Math.min(minPoint.y, path.minY), Math.min(minPoint.z, path.minZ));
+            maxPoint.set(Math.max(maxPoint.x, path.maxX), Math.max(maxPoint.y, path.maxY), Math.max(maxPoint.z, path.maxZ));
+            sortedPaths.add(path);
+        }
+
+        //Get the multiparts in the bounds of all paths, then sweep them against the paths.
+        //Multiparts are added once their start is before the end of a path, and removed once their end
+        //is before the start of a path.  As paths are sorted by start, removed multiparts can't be near any later paths.
+        multipartGrid.getEntitiesWithin(new BoundingBox(minPoint, maxPoint), multiparts);
+        if (!multiparts.isEmpty()) {
+            sortedPaths.sort(PATH_SORTER);
+            multiparts.sort(MULTIPART_SORTER);
+            int nextMultiparts = 0;
+            for (BulletPath path : sortedPaths) {
+                while (nextMultiparts < multiparts.size()) {
+                    AEntityF_Multipart<?> multipart = multiparts.get(nextMultiparts);
+                    if (multipart.encompassingBox.globalCenter.x - multipart.encompassingBox.widthRadius <= path.maxX) {
+                        activeMultiparts.add(multipart);
+                        ++nextMultiparts;
+                    } else {
+                        break;
+                    }
+                }
+                Iterator<AEntityF_Multipart<?>> iterator = activeMultiparts.iterator();
+                while (iterator.hasNext()) {
+                    AEntityF_Multipart<?> multipart = iterator.next();
+                    BoundingBox box = multipart.encompassingBox;
+                    if (box.globalCenter.x + box.widthRadius < path.minX) {
+                        iterator.remove();
+                    } else if (box.globalCenter.x - box.widthRadius <= path.maxX && box.globalCenter.y - box.heightRadius <= path.maxY && box.globalCenter.y + box.heightRadius >= path.minY && box.globalCenter.z - box.depthRadius <= path.maxZ && box.globalCenter.z + box.depthRadius >= path.minZ) {
+                        path.nearbyMultiparts.add(multipart);
+                    }
+                }
+            }
+        }
+
+        //Now let the bullets check their own hitboxes, in the order they were queued.
+        for (int i = 0; i < queuedBullets; ++i) {
+            BulletPath path = paths.get(i);
+            if (path.bullet.isValid) {
+                path.bullet.updateCollisions(path.nearbyMultiparts);
+            }
+            path.bullet = null;
+            path.nearbyMultiparts.clear();
+        }
+        queuedBullets = 0;
+        sortedPaths.clear();
+        multiparts.clear();
+        activeMultiparts.clear();
+    }
+
+    private static class BulletPath {
+        private final List<AEntityF_Multipart<?>> nearbyMultiparts = new ArrayList<>();
+        private EntityBullet bullet;
+        private double minX;
+        private double minY;
+        private double minZ;
+        private double maxX;
+        private double maxY;
+        private double maxZ;
+
+        /**
+         * Sets the bounds of this path to cover the bullet's motion, and any proximity fuze checks.
+         * Proximity fuzes check along the bullet's velocity rather than its motion, so we need to include that too.
+         */
+        private void setBounds() {
+            Point3D position = bullet.position;
+            Point3D motion = bullet.motion;
+            double motionLength = motion.length();
+            double pathScale = motionLength != 0 ? Math.max(1, bullet.velocity / motionLength) : 1;
+            double proximityFuze = bullet.definition.bullet.proximityFuze;
+            minX = Math.min(position.x, position.x + motion.x * pathScale) - proximityFuze;
+            minY = Math.min(position.y, position.y + motion.y * pathScale) - proximityFuze;
+            minZ = Math.min(position.z, position.z + motion.z * pathScale) - proximityFuze;
+            maxX = Math.max(position.x, position.x + motion.x * pathScale) + proximityFuze;
+            maxY = Math.max(position.y, position.y + motion.y * pathScale) + proximityFuze;
+            maxZ = Math.max(position.z, position.z + motion.z * pathScale) + proximityFuze;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
+import minecrafttransportsimulator.entities.instances.APart;
+import minecrafttransportsimulator.jsondefs.JSONCollisionGroup.CollisionType;
+
+/**
+ * Registry of all collision boxes on a {@link AEntityF_Multipart}, including those on its parts.
+ * Boxes are bucketed by their {@link CollisionType}s, so code that only wants one type of box
+ * doesn't have to check every box, and each box is mapped to the part that owns it, so finding
+ * the part a box belongs to doesn't require searching all parts.  This registry is only rebuilt
+ * when the boxes on the multipart or its parts change, not every tick.
+ *
+ * @author don_bruce
+ */
+public class CollisionBoxRegistry {
+    private static final CollisionType[] COLLISION_TYPES = CollisionType.values();
+
+    private final List<List<BoundingBox>> boxesByType = new ArrayList<>();
+    private final Map<BoundingBox, APart> boxOwners = new HashMap<>();
+
+    public CollisionBoxRegistry() {
+        for (int i = 0; i < COLLISION_TYPES.length; ++i) {
+            boxesByType.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Adds the box to this registry.  The owner is the part the box is on,
+     * or null if the box is on the multipart itself.
+     */
+    public void add(BoundingBox box, APart owner) {
+        for (CollisionType type : box.collisionTypes) {
+            boxesByType.get(type.ordinal()).add(box);
+        }
+        if (owner != null) {
+            boxOwners.put(box, owner);
+        }
+    }
+
+    /**
+     * Returns all boxes with the passed-in collision type.  Do NOT modify this list.
+     */
+    public List<BoundingBox> getBoxes(CollisionType type) {
+        return boxesByType.get(type.ordinal());
+    }
+
+    /**
+     * Adds all boxes with the passed-in collision type to the passed-in collection.
+     */
+    public void addBoxes(CollisionType type, Collection<BoundingBox> boxes) {
+        boxes.addAll(boxesByType.get(type.ordinal()));
+    }
+
+    /**
+     * Returns the part that owns the passed-in box, or null if the box
+     * isn't in this registry or is on the multipart itself.
+     */
+    public APart getOwner(BoundingBox box) {
+        return boxOwners.get(box);
+    }
+
+    public void clear() {
+        for (List<BoundingBox> boxes : boxesByType) {
+            boxes.clear();
+        }
+        boxOwners.clear();
+    }
+}
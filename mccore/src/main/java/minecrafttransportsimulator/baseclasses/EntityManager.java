@@ -9,6 +9,8 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 import minecrafttransportsimulator.entities.components.AEntityA_Base;
 import minecrafttransportsimulator.entities.components.AEntityC_Renderable;
@@ -17,6 +19,7 @@ import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.entities.components.AEntityG_Towable;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityBullet;
+import minecrafttransportsimulator.entities.instances.EntityParticle;
 import minecrafttransportsimulator.entities.instances.EntityPlacedPart;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.entities.instances.PartGun;
@@ -25,6 +28,8 @@ import minecrafttransportsimulator.jsondefs.JSONCollisionGroup.CollisionType;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.rendering.ModelPrefetcher;
+import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**
  * Class that manages entities in a world.
@@ -40,6 +45,11 @@ public abstract class EntityManager {
     private final ConcurrentHashMap<UUID, AEntityA_Base> trackedEntityMap = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<UUID, PartGun> gunMap = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<UUID, Map<Integer, EntityBullet>> bulletMap = new ConcurrentHashMap<>();
+    private final EntitySpatialGrid multipartGrid = new EntitySpatialGrid();
+    private final BulletCollisionStage bulletCollisions = new BulletCollisionStage();
+    public final ParticleManager particles = new ParticleManager();
+    private final Set<AEntityF_Multipart<?>> parallelUpdateEntities = new HashSet<>();
+    private static ForkJoinPool parallelUpdatePool;
     
     private static final byte hotloadCountdownPreset = 20;
     private static byte hotloadCountdown;
@@ -67,6 +77,11 @@ public abstract class EntityManager {
      * constructors won't complete before the entity is accessed from this list.
      */
     public <EntityType extends AEntityA_Base> void addEntity(EntityType entity) {
+        //Particles are handled by their own manager, as there's far too many of them for the normal lists.
+        if (entity instanceof EntityParticle) {
+            particles.add((EntityParticle) entity);
+            return;
+        }
         allEntities.add(entity);
         if (entity.shouldAutomaticallyUpdate()) {
             allTickableEntities.add(entity);
@@ -75,6 +90,9 @@ public abstract class EntityManager {
             renderableEntities.add((AEntityC_Renderable) entity);
             if (entity instanceof AEntityD_Definable) {
                 ((AEntityD_Definable<?>) entity).initializeAnimations();
+                if (entity.world.isClient()) {
+                    ModelPrefetcher.prefetch((AEntityD_Definable<?>) entity);
+                }
             }
         }
         if (entity instanceof PartGun) {
@@ -85,6 +103,9 @@ public abstract class EntityManager {
             EntityBullet bullet = (EntityBullet) entity;
             bulletMap.get(bullet.gun.uniqueUUID).put(bullet.bulletNumber, bullet);
         }
+        if (entity instanceof EntityVehicleF_Physics || entity instanceof EntityPlacedPart) {
+            multipartGrid.add((AEntityF_Multipart<?>) entity);
+        }
 
         @SuppressWarnings("unchecked")
         ConcurrentLinkedQueue<EntityType> classList = (ConcurrentLinkedQueue<EntityType>) entitiesByClass.get(entity.getClass());
@@ -154,23 +175,100 @@ public abstract class EntityManager {
         return list;
     }
 
+    /**
+     * Returns a new list of all vehicles and placed parts whose encompassing box intersects the passed-in box.
+     */
+    public List<AEntityF_Multipart<?>> getMultipartsWithin(BoundingBox box) {
+        List<AEntityF_Multipart<?>> multiparts = new ArrayList<>();
+        multipartGrid.getEntitiesWithin(box, multiparts);
+        return multiparts;
+    }
+
+    /**
+     * Returns a new list of all vehicles and placed parts whose encompassing box intersects the bounds
+     * of the line between the two passed-in points.  Much faster than {@link #getMultipartsWithin(BoundingBox)}
+     * for long lines, such as raytraces and bullet paths.
+     */
+    public List<AEntityF_Multipart<?>> getMultipartsAlong(Point3D startPoint, Point3D endPoint) {
+        List<AEntityF_Multipart<?>> multiparts = new ArrayList<>();
+        multipartGrid.getEntitiesAlong(startPoint, endPoint, multiparts);
+        return multiparts;
+    }
+
+    /**
+     * Returns a new list of all vehicles and placed parts whose position is closer than the radius to the passed-in point.
+     */
+    public List<AEntityF_Multipart<?>> getMultipartsNear(Point3D center, double radius) {
+        List<AEntityF_Multipart<?>> multiparts = new ArrayList<>();
+        multipartGrid.getEntitiesNear(center, radius, multiparts);
+        return multiparts;
+    }
+
+    /**
+     * Updates the spatial lookup for the passed-in multipart.  This should be called any time
+     * the multipart's encompassing box changes for the above methods to find it properly.
+     * Multiparts that aren't vehicles or placed parts are ignored.
+     */
+    public void updateMultipartBounds(AEntityF_Multipart<?> multipart) {
+        multipartGrid.update(multipart);
+    }
+
+    /**
+     * Queues the bullet to be checked for collisions.  Bullets are checked all at once
+     * after all entities have been ticked, see {@link BulletCollisionStage}.
+     */
+    public void queueBulletCollisions(EntityBullet bullet) {
+        bulletCollisions.queue(bullet);
+    }
+
     /**
      * Ticks all entities that exist and need ticking.  These are any entities that
      * are not parts, since parts are ticked by their parents.
      */
     public void tickAll() {
+        //If we are doing parallel updates, do variable modifiers up-front for all entities that can have them done off the main thread.
+        //Modifiers only modify the entity they are on and its parts, so each top-level multipart and its parts is one task.
+        //Towed entities are updated by the entity towing them, so they don't get their own task here, same as the main update.
+        //Only entities whose modifiers use local variables are done, as anything else could query the world, or other
+        //entities while they are being modified.  Those are done on the main thread in the main update as normal.
+        boolean parallelUpdates = ConfigSystem.settings.general.parallelEntityUpdates.value && !getWorld().isClient();
+        if (parallelUpdates) {
+            getWorld().beginProfiling("MTSParallelVariableModifiers", true);
+            for (AEntityA_Base entity : allTickableEntities) {
+                if (entity instanceof AEntityF_Multipart && (!(entity instanceof AEntityG_Towable) || !(((AEntityG_Towable<?>) entity).blockMainUpdateCall()))) {
+                    AEntityF_Multipart<?> multipart = (AEntityF_Multipart<?>) entity;
+                    if (prepareParallelVariableModifiers(multipart)) {
+                        parallelUpdateEntities.add(multipart);
+                    }
+                }
+            }
+            if (!parallelUpdateEntities.isEmpty()) {
+                if (parallelUpdatePool == null) {
+                    parallelUpdatePool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), pool -> {
+                        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                        thread.setName("MTS-EntityUpdate-" + thread.getPoolIndex());
+                        return thread;
+                    }, null, false);
+                }
+                //Streams run in the pool of the task that starts them, so this keeps us off the common pool.
+                parallelUpdatePool.submit(() -> parallelUpdateEntities.parallelStream().forEach(multipart -> updateVariableModifiers(multipart))).join();
+            }
+            getWorld().endProfiling();
+        }
+
         for (AEntityA_Base entity : allTickableEntities) {
             if (!(entity instanceof AEntityG_Towable) || !(((AEntityG_Towable<?>) entity).blockMainUpdateCall())) {
                 entity.world.beginProfiling("MTSEntity_" + entity.uniqueUUID, true);
                 if (entity instanceof AEntityD_Definable) {
                     AEntityD_Definable<?> definable = (AEntityD_Definable<?>) entity;
                     //Need to do this before updating as these require knowledge of prior states.
-                    entity.world.beginProfiling("VariableModifiers", true);
-                    definable.updateVariableModifiers();
-                    if (definable instanceof AEntityF_Multipart) {
-                        ((AEntityF_Multipart<?>) definable).allParts.forEach(part -> part.updateVariableModifiers());
+                    if (parallelUpdateEntities.contains(entity)) {
+                        entity.world.beginProfiling("MainUpdate", true);
+                    } else {
+                        entity.world.beginProfiling("VariableModifiers", true);
+                        updateVariableModifiers(definable);
+                        entity.world.beginProfiling("MainUpdate", false);
                     }
-                    entity.world.beginProfiling("MainUpdate", false);
                     entity.update();
                     entity.world.beginProfiling("PostUpdate", false);
                     definable.doPostUpdateLogic();
@@ -181,6 +279,19 @@ public abstract class EntityManager {
                 entity.world.endProfiling();
             }
         }
+        parallelUpdateEntities.clear();
+
+        //Update particles.  These are done on their own as there can be thousands of them.
+        if (particles.getParticleCount() != 0) {
+            getWorld().beginProfiling("MTSParticles", true);
+            particles.tickAll();
+            getWorld().endProfiling();
+        }
+
+        //Now that all entities have moved, check bullets for collisions.
+        getWorld().beginProfiling("MTSBulletCollisions", true);
+        bulletCollisions.checkCollisions(multipartGrid);
+        getWorld().endProfiling();
         
         //Do hotload operations.
         //This operates on all threads concurrently as long as we're counting down.
@@ -288,6 +399,33 @@ public abstract class EntityManager {
         }
     }
 
+    /**
+     * Helper method to prepare the entity, and all its parts, for a parallel update of their variable modifiers.
+     * Returns true if they can all be updated off the main thread.  If not, nothing is prepared, and they are
+     * updated on the main thread as normal.
+     */
+    private static boolean prepareParallelVariableModifiers(AEntityF_Multipart<?> multipart) {
+        if (multipart.canUpdateVariableModifiersInParallel()) {
+            multipart.prepareParallelVariableModifiers();
+            for (APart part : multipart.allParts) {
+                part.prepareParallelVariableModifiers();
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Helper method to update the variable modifiers for the entity, and all its parts, if it has any.
+     */
+    private static void updateVariableModifiers(AEntityD_Definable<?> definable) {
+        definable.updateVariableModifiers();
+        if (definable instanceof AEntityF_Multipart) {
+            ((AEntityF_Multipart<?>) definable).allParts.forEach(part -> part.updateVariableModifiers());
+        }
+    }
+
     /**
      * Gets the closest multipart intersected with, be it a vehicle, a part on that vehicle, or a placed part.
      * If nothing is intersected, null is returned.
@@ -295,15 +433,11 @@ public abstract class EntityManager {
     public EntityInteractResult getMultipartEntityIntersect(Point3D startPoint, Point3D endPoint) {
         EntityInteractResult closestResult = null;
         BoundingBox vectorBounds = new BoundingBox(startPoint, endPoint);
-        List<AEntityF_Multipart<?>> multiparts = new ArrayList<>();
-        multiparts.addAll(getEntitiesOfType(EntityVehicleF_Physics.class));
-        multiparts.addAll(getEntitiesOfType(EntityPlacedPart.class));
-
-        for (AEntityF_Multipart<?> multipart : multiparts) {
-            if (multipart.encompassingBox.intersects(vectorBounds) && multipart.canBeClicked()) {
+        for (AEntityF_Multipart<?> multipart : getMultipartsAlong(startPoint, endPoint)) {
+            if (multipart.canBeClicked()) {
                 //Could have hit this multipart, check if and what we did via raytracing.
-                for (BoundingBox box : multipart.allCollisionBoxes) {
-                    if (box.collisionTypes.contains(CollisionType.CLICK) && box.intersects(vectorBounds)) {
+                for (BoundingBox box : multipart.collisionBoxRegistry.getBoxes(CollisionType.CLICK)) {
+                    if (box.intersects(vectorBounds)) {
                         BoundingBoxHitResult intersectionPoint = box.getIntersection(startPoint, endPoint);
                         if (intersectionPoint != null) {
                             if (closestResult == null || startPoint.isFirstCloserThanSecond(intersectionPoint.position, closestResult.position)) {
@@ -328,6 +462,10 @@ public abstract class EntityManager {
      * Removes this entity from the world.  Taking it off the update/functional lists.
      */
     public void removeEntity(AEntityA_Base entity) {
+        //Particles are dropped by their manager once they are invalid, so we don't need to remove them.
+        if (entity instanceof EntityParticle) {
+            return;
+        }
         allEntities.remove(entity);
         allTickableEntities.remove(entity);
         if (entity instanceof AEntityC_Renderable) {
@@ -341,6 +479,9 @@ public abstract class EntityManager {
             EntityBullet bullet = (EntityBullet) entity;
             bulletMap.get(bullet.gun.uniqueUUID).remove(bullet.bulletNumber);
         }
+        if (entity instanceof EntityVehicleF_Physics || entity instanceof EntityPlacedPart) {
+            multipartGrid.remove((AEntityF_Multipart<?>) entity);
+        }
     }
     
     /**
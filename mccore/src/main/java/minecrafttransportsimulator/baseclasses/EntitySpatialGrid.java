@@ -0,0 +1,275 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
+
+/**
+ * Uniform grid of multipart entities, bucketed by the chunk-aligned columns their
+ * {@link AEntityF_Multipart#encompassingBox} covers.  This lets queries for entities
+ * in an area only check the entities in the columns of that area, rather than every
+ * entity in the world.  Entries are only re-bucketed when the columns they cover change,
+ * so most movement updates are just a comparison of the prior bounds.
+ * <br><br>
+ * Columns are used rather than cubes as most worlds are far wider than they are tall, and
+ * entities are rarely stacked on top of each other.  Entities that cover a large number of columns,
+ * or any query that would check more columns than there are entities, fall back to a linear check.
+ *
+ * @author don_bruce
+ */
+public class EntitySpatialGrid {
+    private static final int CELL_SHIFT = 4;
+    private static final double CELL_SIZE = 1 << CELL_SHIFT;
+    private static final int MAX_ENTRY_CELLS = 32;
+
+    private final Map<Long, List<GridEntry>> cells = new HashMap<>();
+    private final Map<AEntityF_Multipart<?>, GridEntry> entries = new HashMap<>();
+    private final List<GridEntry> oversizedEntries = new ArrayList<>();
+    private int currentQuery;
+
+    /**
+     * Adds the entity to this grid.  The entity will be bucketed by its current bounds.
+     */
+    public void add(AEntityF_Multipart<?> entity) {
+        if (!entries.containsKey(entity)) {
+            GridEntry entry = new GridEntry(entity);
+            updateBounds(entry, false);
+            entries.put(entity, entry);
+        }
+    }
+
+    /**
+     * Removes the entity from this grid.
+     */
+    public void remove(AEntityF_Multipart<?> entity) {
+        GridEntry entry = entries.remove(entity);
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+
+    /**
+     * Updates the buckets for the entity to match its current bounds.
+     * Entities that are not in this grid are ignored.
+     */
+    public void update(AEntityF_Multipart<?> entity) {
+        GridEntry entry = entries.get(entity);
+        if (entry != null) {
+            updateBounds(entry, true);
+        }
+    }
+
+    /**
+     * Adds all entities whose encompassing box intersects the passed-in box to the list.
+     */
+    public void getEntitiesWithin(BoundingBox box, List<AEntityF_Multipart<?>> results) {
+        int minX = getCell(box.globalCenter.x - box.widthRadius);
+        int minZ = getCell(box.globalCenter.z - box.depthRadius);
+        int maxX = getCell(box.globalCenter.x + box.widthRadius);
+        int maxZ = getCell(box.globalCenter.z + box.depthRadius);
+        ++currentQuery;
+        if ((long) (maxX - minX + 1) * (maxZ - minZ + 1) > entries.size()) {
+            for (GridEntry entry : entries.values()) {
+                if (entry.entity.encompassingBox.intersects(box)) {
+                    results.add(entry.entity);
+                }
+            }
+        } else {
+            for (int x = minX; x <= maxX; ++x) {
+                for (int z = minZ; z <= maxZ; ++z) {
+                    List<GridEntry> cell = cells.get(getKey(x, z));
+                    if (cell != null) {
+                        for (GridEntry entry : cell) {
+                            if (entry.lastQuery != currentQuery) {
+                                entry.lastQuery = currentQuery;
+                                if (entry.entity.encompassingBox.intersects(box)) {
+                                    results.add(entry.entity);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            for (GridEntry entry : oversizedEntries) {
+                if (entry.entity.encompassingBox.intersects(box)) {
+                    results.add(entry.entity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds all entities whose encompassing box intersects the bounds of the line between the passed-in points to the list.
+     * Only the columns the line passes through are checked, so this is far quicker than a box query for long lines.
+     */
+    public void getEntitiesAlong(Point3D start, Point3D end, List<AEntityF_Multipart<?>> results) {
+        BoundingBox vectorBounds = new BoundingBox(start, end);
+        int cellX = getCell(start.x);
+        int cellZ = getCell(start.z);
+        int endCellX = getCell(end.x);
+        int endCellZ = getCell(end.z);
+        int steps = Math.abs(endCellX - cellX) + Math.abs(endCellZ - cellZ);
+        ++currentQuery;
+        if (steps + 1 > entries.size()) {
+            for (GridEntry entry : entries.values()) {
+                if (entry.entity.encompassingBox.intersects(vectorBounds)) {
+                    results.add(entry.entity);
+                }
+            }
+        } else {
+            //Walk the columns the line crosses, stepping on whichever axis hits its next boundary first.
+            double deltaX = end.x - start.x;
+            double deltaZ = end.z - start.z;
+            int stepX = deltaX > 0 ? 1 : -1;
+            int stepZ = deltaZ > 0 ? 1 : -1;
+            double nextBoundaryX = deltaX != 0 ? (deltaX > 0 ? (cellX + 1) * CELL_SIZE - start.x : start.x - cellX * CELL_SIZE) / Math.abs(deltaX) : Double.POSITIVE_INFINITY;
+            double nextBoundaryZ = deltaZ != 0 ? (deltaZ > 0 ? (cellZ + 1) * CELL_SIZE - start.z : start.z - cellZ * CELL_SIZE) / Math.abs(deltaZ) : Double.POSITIVE_INFINITY;
+            double boundaryDeltaX = deltaX != 0 ? CELL_SIZE / Math.abs(deltaX) : Double.POSITIVE_INFINITY;
+            double boundaryDeltaZ = deltaZ != 0 ? CELL_SIZE / Math.abs(deltaZ) : Double.POSITIVE_INFINITY;
+            addCellEntitiesWithin(cellX, cellZ, vectorBounds, results);
+            for (int step = 0; step < steps; ++step) {
+                if (nextBoundaryX < nextBoundaryZ) {
+                    cellX += stepX;
+                    nextBoundaryX += boundaryDeltaX;
+                } else {
+                    cellZ += stepZ;
+                    nextBoundaryZ += boundaryDeltaZ;
+                }
+                addCellEntitiesWithin(cellX, cellZ, vectorBounds, results);
+            }
+            for (GridEntry entry : oversizedEntries) {
+                if (entry.entity.encompassingBox.intersects(vectorBounds)) {
+                    results.add(entry.entity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds all entities whose position is closer than the radius to the passed-in point to the list.
+     */
+    public void getEntitiesNear(Point3D center, double radius, List<AEntityF_Multipart<?>> results) {
+        int minX = getCell(center.x - radius);
+        int minZ = getCell(center.z - radius);
+        int maxX = getCell(center.x + radius);
+        int maxZ = getCell(center.z + radius);
+        ++currentQuery;
+        if ((long) (maxX - minX + 1) * (maxZ - minZ + 1) > entries.size()) {
+            for (GridEntry entry : entries.values()) {
+                if (entry.entity.position.isDistanceToCloserThan(center, radius)) {
+                    results.add(entry.entity);
+                }
+            }
+        } else {
+            for (int x = minX; x <= maxX; ++x) {
+                for (int z = minZ; z <= maxZ; ++z) {
+                    List<GridEntry> cell = cells.get(getKey(x, z));
+                    if (cell != null) {
+                        for (GridEntry entry : cell) {
+                            if (entry.lastQuery != currentQuery) {
+                                entry.lastQuery = currentQuery;
+                                if (entry.entity.position.isDistanceToCloserThan(center, radius)) {
+                                    results.add(entry.entity);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            for (GridEntry entry : oversizedEntries) {
+                if (entry.entity.position.isDistanceToCloserThan(center, radius)) {
+                    results.add(entry.entity);
+                }
+            }
+        }
+    }
+
+    private void addCellEntitiesWithin(int x, int z, BoundingBox box, List<AEntityF_Multipart<?>> results) {
+        List<GridEntry> cell = cells.get(getKey(x, z));
+        if (cell != null) {
+            for (GridEntry entry : cell) {
+                if (entry.lastQuery != currentQuery) {
+                    entry.lastQuery = currentQuery;
+                    if (entry.entity.encompassingBox.intersects(box)) {
+                        results.add(entry.entity);
+                    }
+                }
+            }
+        }
+    }
+
+    private void updateBounds(GridEntry entry, boolean linked) {
+        //Include the position, as the box may not have been updated yet for new entities.
+        BoundingBox box = entry.entity.encompassingBox;
+        Point3D position = entry.entity.position;
+        int minX = getCell(Math.min(box.globalCenter.x - box.widthRadius, position.x));
+        int minZ = getCell(Math.min(box.globalCenter.z - box.depthRadius, position.z));
+        int maxX = getCell(Math.max(box.globalCenter.x + box.widthRadius, position.x));
+        int maxZ = getCell(Math.max(box.globalCenter.z + box.depthRadius, position.z));
+        if (!linked || minX != entry.minX || minZ != entry.minZ || maxX != entry.maxX || maxZ != entry.maxZ) {
+            if (linked) {
+                unlink(entry);
+            }
+            entry.minX = minX;
+            entry.minZ = minZ;
+            entry.maxX = maxX;
+            entry.maxZ = maxZ;
+            link(entry);
+        }
+    }
+
+    private void link(GridEntry entry) {
+        if (entry.maxX - entry.minX >= MAX_ENTRY_CELLS || entry.maxZ - entry.minZ >= MAX_ENTRY_CELLS) {
+            oversizedEntries.add(entry);
+        } else {
+            for (int x = entry.minX; x <= entry.maxX; ++x) {
+                for (int z = entry.minZ; z <= entry.maxZ; ++z) {
+                    cells.computeIfAbsent(getKey(x, z), k -> new ArrayList<>()).add(entry);
+                }
+            }
+        }
+    }
+
+    private void unlink(GridEntry entry) {
+        if (entry.maxX - entry.minX >= MAX_ENTRY_CELLS || entry.maxZ - entry.minZ >= MAX_ENTRY_CELLS) {
+            oversizedEntries.remove(entry);
+        } else {
+            for (int x = entry.minX; x <= entry.maxX; ++x) {
+                for (int z = entry.minZ; z <= entry.maxZ; ++z) {
+                    Long key = getKey(x, z);
+                    List<GridEntry> cell = cells.get(key);
+                    if (cell != null) {
+                        cell.remove(entry);
+                        if (cell.isEmpty()) {
+                            cells.remove(key);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static int getCell(double coord) {
+        return ((int) Math.floor(coord)) >> CELL_SHIFT;
+    }
+
+    private static long getKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private static class GridEntry {
+        private final AEntityF_Multipart<?> entity;
+        private int minX;
+        private int minZ;
+        private int maxX;
+        private int maxZ;
+        private int lastQuery;
+
+        private GridEntry(AEntityF_Multipart<?> entity) {
+            this.entity = entity;
+        }
+    }
+}
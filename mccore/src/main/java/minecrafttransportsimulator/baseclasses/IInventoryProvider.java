@@ -1,7 +1,6 @@
 package minecrafttransportsimulator.baseclasses;
 
 import java.util.List;
-import java.util.Map;
 
 import minecrafttransportsimulator.entities.components.AEntityA_Base;
 import minecrafttransportsimulator.items.components.AItemBase;
@@ -27,18 +26,13 @@ public interface IInventoryProvider {
      * and extend that class.
      */
     default double getInventoryMass() {
-        Map<String, Double> heavyItems = ConfigSystem.settings.general.itemWeights.weights;
         double currentMass = 0;
         for (int i = 0; i < getSize(); ++i) {
             IWrapperItemStack stack = getStack(i);
-            double weightMultiplier = 1.0;
-            for (String heavyItemName : heavyItems.keySet()) {
-                if (InterfaceManager.coreInterface.getStackItemName(stack).contains(heavyItemName)) {
-                    weightMultiplier = heavyItems.get(heavyItemName);
-                    break;
-                }
+            if (!stack.isEmpty()) {
+                double weightMultiplier = ConfigSystem.settings.general.itemWeights.getWeightMultiplier(InterfaceManager.coreInterface.getStackItemName(stack));
+                currentMass += 5F * stack.getSize() / stack.getMaxSize() * weightMultiplier;
             }
-            currentMass += 5F * stack.getSize() / stack.getMaxSize() * weightMultiplier;
         }
         return currentMass;
     }
@@ -0,0 +1,231 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import minecrafttransportsimulator.entities.instances.EntityParticle;
+import minecrafttransportsimulator.jsondefs.JSONParticle;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.rendering.ParticleRenderBatch;
+import minecrafttransportsimulator.systems.ConfigSystem;
+
+/**
+ * Class that manages the particles in a world.  Particles are kept out of the main entity lists, as there
+ * are far more of them than any other entity, and they come and go every few ticks.  Instead, they are kept
+ * in pools here, one for each particle definition.  Each pool is updated in one pass each tick, with dead
+ * particles being dropped as it goes, and is rendered as one {@link ParticleRenderBatch}, so particles that
+ * share a definition are drawn together rather than one at a time.
+ * <br><br>
+ * The number of particles is also limited by the particle budget in the config.  Once half the budget is used,
+ * new particles have a decreasing chance to spawn, reaching zero once the budget is full.  This thins
+ * out particles evenly rather than having whatever spawns last not show up at all.
+ * <br><br>
+ * Particles tend to be bunched up, so the world lookups they do are cached here by block for the rest of the tick.
+ * This keeps a cloud of smoke from asking the world for the light at the same block hundreds of times.
+ *
+ * @author don_bruce
+ */
+public class ParticleManager {
+    private final Map<JSONParticle, ParticlePool> pools = new LinkedHashMap<>();
+    private final List<EntityParticle> spawnedParticles = new ArrayList<>();
+    private final Random spawnRandom = new Random();
+    private int particleCount;
+
+    private final BlockLookupCache lightCache = new BlockLookupCache();
+    private final BlockLookupCache liquidCache = new BlockLookupCache();
+    private final BlockLookupCache airCache = new BlockLookupCache();
+    private final BlockLookupCache groundCache = new BlockLookupCache();
+
+    /**
+     * Returns true if a new particle should be spawned, based on the particle budget.
+     * This should be checked before creating particles, as creating them isn't free.
+     */
+    public boolean shouldSpawnParticle() {
+        int maxParticles = ConfigSystem.client.renderingSettings.maxParticles.value;
+        int thinningParticles = maxParticles / 2;
+        if (particleCount < thinningParticles) {
+            return true;
+        } else if (particleCount >= maxParticles) {
+            return false;
+        } else {
+            return spawnRandom.nextInt(maxParticles - thinningParticles) >= particleCount - thinningParticles;
+        }
+    }
+
+    /**
+     * Adds the particle to this manager.  It will be updated with the next call to {@link #tickAll()}.
+     */
+    public void add(EntityParticle particle) {
+        spawnedParticles.add(particle);
+        ++particleCount;
+    }
+
+    /**
+     * Returns the number of particles in this manager.
+     */
+    public int getParticleCount() {
+        return particleCount;
+    }
+
+    /**
+     * Updates all particles, and removes any that are no longer valid.
+     */
+    public void tickAll() {
+        lightCache.clear();
+        liquidCache.clear();
+        airCache.clear();
+        groundCache.clear();
+
+        //Particles may spawn sub-particles while updating.  These are held until all pools are done, and aren't updated until next tick.
+        addSpawnedParticles();
+        Iterator<ParticlePool> iterator = pools.values().iterator();
+        while (iterator.hasNext()) {
+            ParticlePool pool = iterator.next();
+            particleCount -= pool.tickAll();
+            if (pool.particles.isEmpty()) {
+                iterator.remove();
+            }
+        }
+        addSpawnedParticles();
+    }
+
+    /**
+     * Renders all particles.  Each definition's particles are rendered as one batch, so this should be called
+     * with the rendering origin at the passed-in camera position, as particles are rendered relative to it.
+     */
+    public void render(Point3D cameraPosition, boolean blendingEnabled, float partialTicks) {
+        for (ParticlePool pool : pools.values()) {
+            for (EntityParticle particle : pool.particles) {
+                particle.renderToBatch(pool.batch, cameraPosition, blendingEnabled, partialTicks);
+            }
+            pool.batch.render();
+        }
+    }
+
+    /**
+     * Returns the light value at the position, as given by {@link InterfaceManager#renderingInterface}.
+     */
+    public int getLightValue(Point3D position) {
+        long key = getBlockKey(position);
+        if (!lightCache.contains(key)) {
+            lightCache.put(key, InterfaceManager.renderingInterface.getLightingAtPosition(position));
+        }
+        return lightCache.get(key);
+    }
+
+    /**
+     * Returns true if the block at the position is liquid, as given by {@link AWrapperWorld#isBlockLiquid(Point3D)}.
+     */
+    public boolean isBlockLiquid(AWrapperWorld world, Point3D position) {
+        long key = getBlockKey(position);
+        if (!liquidCache.contains(key)) {
+            liquidCache.put(key, world.isBlockLiquid(position) ? 1 : 0);
+        }
+        return liquidCache.get(key) == 1;
+    }
+
+    /**
+     * Returns true if the block at the position is air, as given by {@link AWrapperWorld#isAir(Point3D)}.
+     */
+    public boolean isAir(AWrapperWorld world, Point3D position) {
+        long key = getBlockKey(position);
+        if (!airCache.contains(key)) {
+            airCache.put(key, world.isAir(position) ? 1 : 0);
+        }
+        return airCache.get(key) == 1;
+    }
+
+    /**
+     * Returns the y-coordinate of the first solid block at or below the position.  This is the block
+     * {@link AWrapperWorld#getHeight(Point3D)} measures to, which only depends on the block of the position.
+     */
+    public int getGroundBlockY(AWrapperWorld world, Point3D position) {
+        long key = getBlockKey(position);
+        if (!groundCache.contains(key)) {
+            //Center of block for safety of FPEs.
+            groundCache.put(key, (int) Math.floor(position.y - world.getHeight(position) - 0.5));
+        }
+        return groundCache.get(key);
+    }
+
+    private static long getBlockKey(Point3D position) {
+        long x = (long) Math.floor(position.x);
+        long y = (long) Math.floor(position.y);
+        long z = (long) Math.floor(position.z);
+        return (x & 0x3FFFFFFL) << 38 | (z & 0x3FFFFFFL) << 12 | (y & 0xFFFL);
+    }
+
+    private void addSpawnedParticles() {
+        for (EntityParticle particle : spawnedParticles) {
+            pools.computeIfAbsent(particle.definition, k -> new ParticlePool()).particles.add(particle);
+        }
+        spawnedParticles.clear();
+    }
+
+    private static class ParticlePool {
+        private final List<EntityParticle> particles = new ArrayList<>();
+        private final ParticleRenderBatch batch = new ParticleRenderBatch();
+
+        /**
+         * Updates all particles in this pool, and returns the number that were removed.
+         */
+        private int tickAll() {
+            int tickedParticles = particles.size();
+            int validParticles = 0;
+            for (int i = 0; i < tickedParticles; ++i) {
+                EntityParticle particle = particles.get(i);
+                if (particle.isValid) {
+                    particle.update();
+                    if (particle.isValid) {
+                        particles.set(validParticles++, particle);
+                    }
+                }
+            }
+            particles.subList(validParticles, tickedParticles).clear();
+            return tickedParticles - validParticles;
+        }
+    }
+
+    /**
+     * Cache of integer values by block, valid until cleared.  Each block maps to one slot, and a block
+     * that maps to a used slot replaces the prior value there, so this never needs to grow.
+     * Clearing just moves to a new generation, rather than going through all the slots.
+     */
+    private static class BlockLookupCache {
+        private static final int CACHE_BITS = 12;
+
+        private final long[] keys = new long[1 << CACHE_BITS];
+        private final int[] values = new int[1 << CACHE_BITS];
+        private final int[] generations = new int[1 << CACHE_BITS];
+        private int generation = 1;
+
+        private static int getIndex(long key) {
+            return (int) ((key ^ (key >>> 32)) * 0x9E3779B97F4A7C15L >>> (64 - CACHE_BITS));
+        }
+
+        private boolean contains(long key) {
+            int index = getIndex(key);
+            return generations[index] == generation && keys[index] == key;
+        }
+
+        private int get(long key) {
+            return values[getIndex(key)];
+        }
+
+        private void put(long key, int value) {
+            int index = getIndex(key);
+            keys[index] = key;
+            values[index] = value;
+            generations[index] = generation;
+        }
+
+        private void clear() {
+            ++generation;
+        }
+    }
+}
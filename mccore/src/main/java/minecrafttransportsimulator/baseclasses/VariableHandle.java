@@ -0,0 +1,131 @@
+package minecrafttransportsimulator.baseclasses;
+
+import minecrafttransportsimulator.blocks.components.ABlockBase.BlockMaterial;
+import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
+import minecrafttransportsimulator.entities.instances.APart;
+import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
+import minecrafttransportsimulator.entities.instances.PartEngine;
+import minecrafttransportsimulator.entities.instances.PartGun;
+
+/**
+ * A pre-resolved variable for a specific entity.  Handles are created once per variable name
+ * via {@link AEntityD_Definable#getVariableHandle(String)}, and have all the information that would
+ * otherwise be parsed out of the variable name on every call to {@link AEntityD_Definable#getRawVariableValue(String, float)}.
+ * This lets animations get their values without string comparisons or parsing every frame.
+ * Variables that can't be resolved ahead of time are of type {@link VariableType#RAW}, and use the
+ * string-based lookup as normal.
+ * <br><br>
+ * Handles that forward to a handle on another entity, such as a part or a towing vehicle, cache the handle
+ * they forward to.  This is re-resolved whenever the entity forwarded to changes, so handles follow parts
+ * being added and removed, and vehicles being connected and disconnected.
+ *
+ * @author don_bruce
+ */
+public class VariableHandle {
+    /**The entity this handle was resolved for.  Handles may not be used on other entities.**/
+    public final AEntityD_Definable<?> entity;
+    /**The variable name, without any inversion prefix.**/
+    public final String variable;
+    /**True if the variable was prefixed with a "!", and the value should be inverted.**/
+    public final boolean inverted;
+    public final VariableType type;
+    /**The variable index for the fixed-name types, 0-indexed text index for {@link VariableType#TEXT_PRESENT}, slot index of the part for {@link VariableType#PART_SPECIFIC},
+     * and variable store slot for {@link VariableType#STORED} and {@link VariableType#PARENT}.  Slots may be -1 if there is no slot.**/
+    public final int index;
+    /**Parsed numeric parameters.  The off, on, and total cycle time for {@link VariableType#CYCLE}, and the parameters of parameterized {@link VariableType#ENGINE} variables.**/
+    public final int[] parameters;
+    /**The material to check for {@link VariableType#BLOCK_MATERIAL} and {@link VariableType#TERRAIN_BLOCK_MATERIAL}.  May be null if the material doesn't exist.**/
+    public final BlockMaterial material;
+    /**The variable to query on the entity forwarded to for {@link VariableType#PART_SPECIFIC}, {@link VariableType#PARENT} and {@link VariableType#HOOKUP}.**/
+    public final String forwardedVariable;
+    /**The handle to use when not forwarding for {@link VariableType#HOOKUP}.**/
+    public final VariableHandle localHandle;
+
+    private AEntityD_Definable<?> forwardedEntity;
+    private VariableHandle forwardedHandle;
+
+    public VariableHandle(AEntityD_Definable<?> entity, String variable, boolean inverted, VariableType type) {
+        this(entity, variable, inverted, type, 0, null, null, null);
+    }
+
+    public VariableHandle(AEntityD_Definable<?> entity, String variable, boolean inverted, VariableType type, int index, int[] parameters, BlockMaterial material, String forwardedVariable) {
+        this(entity, variable, inverted, type, index, parameters, material, forwardedVariable, null);
+    }
+
+    public VariableHandle(AEntityD_Definable<?> entity, String variable, boolean inverted, VariableType type, int index, int[] parameters, BlockMaterial material, String forwardedVariable, VariableHandle localHandle) {
+        this.entity = entity;
+        this.variable = variable;
+        this.inverted = inverted;
+        this.type = type;
+        this.index = index;
+        this.parameters = parameters;
+        this.material = material;
+        this.forwardedVariable = forwardedVariable;
+        this.localHandle = localHandle;
+    }
+
+    /**
+     * Returns the raw value of this variable.  This is the same as would be returned by
+     * {@link AEntityD_Definable#getRawVariableValue(String, float)}, so may be NaN.
+     * Inversion is NOT applied here as it's only used for animations.
+     */
+    public double getRawValue(float partialTicks) {
+        return entity.getRawVariableValue(this, partialTicks);
+    }
+
+    /**
+     * Returns true if this variable is local.  See {@link AEntityD_Definable#isLocalVariable(VariableHandle)}.
+     */
+    public boolean isLocal() {
+        return entity.isLocalVariable(this);
+    }
+
+    /**
+     * Returns the handle for {@link #forwardedVariable} on the passed-in entity.  The handle is cached,
+     * and only looked up again if the entity is different than the one last passed-in.
+     */
+    public VariableHandle getForwardedHandle(AEntityD_Definable<?> forwardEntity) {
+        if (forwardEntity != forwardedEntity) {
+            forwardedHandle = forwardEntity.getVariableHandle(forwardedVariable);
+            forwardedEntity = forwardEntity;
+        }
+        return forwardedHandle;
+    }
+
+    @Override
+    public String toString() {
+        return (inverted ? "!" : "") + variable + " (" + type + ")";
+    }
+
+    public enum VariableType {
+        /**Variable must be looked up by name every call.**/
+        RAW,
+        /**Variable is one of the fixed-name variables in {@link AEntityD_Definable}.**/
+        BUILTIN,
+        /**Variable is in the form of off_on_delay_cycle.**/
+        CYCLE,
+        /**Variable is in the form of text_x_present.**/
+        TEXT_PRESENT,
+        /**Variable is in the form of blockmaterial_x.**/
+        BLOCK_MATERIAL,
+        /**Variable is in the form of terrain_blockmaterial_x.**/
+        TERRAIN_BLOCK_MATERIAL,
+        /**Variable isn't known to any class, so is a generic variable in the entity's variable store.**/
+        STORED,
+        /**Variable is for a specific part on a {@link AEntityF_Multipart}, and is in the form of variable_x.**/
+        PART_SPECIFIC,
+        /**Variable is one of the variables in {@link APart}.**/
+        PART,
+        /**Variable is one of the variables in {@link PartEngine}, including the parameterized ones.**/
+        ENGINE,
+        /**Variable is one of the variables in {@link PartGun}.**/
+        GUN,
+        /**Variable is one of the fixed-name variables in {@link EntityVehicleF_Physics}.**/
+        VEHICLE,
+        /**Variable isn't one of a part's own, so is either set on the part, or forwarded to the entity the part is on.**/
+        PARENT,
+        /**Variable is a trailer hookup variable.  Forwarded to the towing vehicle when connected, and {@link #localHandle} otherwise.**/
+        HOOKUP;
+    }
+}
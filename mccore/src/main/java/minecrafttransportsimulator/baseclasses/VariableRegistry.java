@@ -0,0 +1,77 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.Collection;
+
+/**
+ * Registry of the variable names that are known ahead of time for a definition.
+ * Each name is assigned a dense slot index, which {@link VariableStore}s use to
+ * store the variable's value in an array rather than a map.  Registries are
+ * immutable once created, so they may be shared between all entities of a definition,
+ * on both the client and server.
+ *
+ * @author don_bruce
+ */
+public class VariableRegistry {
+    private final String[] names;
+    private final String[] tableKeys;
+    private final int[] tableSlots;
+    private final int tableMask;
+
+    public VariableRegistry(Collection<String> variableNames) {
+        this.names = variableNames.toArray(new String[0]);
+
+        //Size the table to be at most half-full to keep probe chains short.
+        int tableSize = 8;
+        while (tableSize < names.length * 2) {
+            tableSize <<= 1;
+        }
+        this.tableKeys = new String[tableSize];
+        this.tableSlots = new int[tableSize];
+        this.tableMask = tableSize - 1;
+        for (int slot = 0; slot < names.length; ++slot) {
+            int index = hash(names[slot]) & tableMask;
+            while (tableKeys[index] != null) {
+                index = (index + 1) & tableMask;
+            }
+            tableKeys[index] = names[slot];
+            tableSlots[index] = slot;
+        }
+    }
+
+    /**
+     * Returns the slot for the passed-in variable, or -1 if this variable isn't in this registry.
+     */
+    public int getSlot(String variable) {
+        int index = hash(variable) & tableMask;
+        String key;
+        while ((key = tableKeys[index]) != null) {
+            if (key == variable || key.equals(variable)) {
+                return tableSlots[index];
+            }
+            index = (index + 1) & tableMask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the name of the variable in the passed-in slot.
+     */
+    public String getName(int slot) {
+        return names[slot];
+    }
+
+    /**
+     * Returns the number of slots in this registry.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Spreads the bits of the string hash so the lower bits used for indexing are well-distributed.
+     */
+    static int hash(String variable) {
+        int hash = variable.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,271 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Predicate;
+
+/**
+ * Primitive storage for entity variables.  Variables that are in the {@link VariableRegistry}
+ * for the entity are stored in dense arrays by slot, all others are stored in an open-addressing
+ * table keyed by name.  Both use primitive doubles, so reads and writes don't box values or allocate
+ * map nodes.  Like the map this replaces, variables are either present or not: a variable that has
+ * been removed is not the same as a variable with a value of 0, though both return 0 for their value.
+ *
+ * @author don_bruce
+ */
+public class VariableStore {
+    private static final int INITIAL_OVERFLOW_SIZE = 8;
+
+    private final VariableRegistry registry;
+    private final double[] slotValues;
+    private final boolean[] slotsActive;
+    private int activeSlots;
+
+    private String[] overflowKeys;
+    private double[] overflowValues;
+    private int overflowCount;
+
+    public VariableStore(VariableRegistry registry) {
+        this.registry = registry;
+        this.slotValues = new double[registry.size()];
+        this.slotsActive = new boolean[registry.size()];
+    }
+
+    /**
+     * Returns the slot for the passed-in variable, or -1 if it is not in the registry.
+     * Slots may be cached and used with the slot-based methods to skip name lookups.
+     */
+    public int getSlot(String variable) {
+        return registry.getSlot(variable);
+    }
+
+    /**
+     * Returns true if the variable is present.
+     */
+    public boolean isActive(String variable) {
+        int slot = registry.getSlot(variable);
+        if (slot != -1) {
+            return slotsActive[slot];
+        } else {
+            return findOverflow(variable) != -1;
+        }
+    }
+
+    /**
+     * Returns true if the variable in the slot is present.
+     */
+    public boolean isActive(int slot) {
+        return slotsActive[slot];
+    }
+
+    /**
+     * Returns the value of the variable, or the default value if the variable isn't present.
+     */
+    public double get(String variable, double defaultValue) {
+        int slot = registry.getSlot(variable);
+        if (slot != -1) {
+            return slotsActive[slot] ? slotValues[slot] : defaultValue;
+        } else {
+            int index = findOverflow(variable);
+            return index != -1 ? overflowValues[index] : defaultValue;
+        }
+    }
+
+    /**
+     * Returns the value of the variable in the slot, or the default value if the variable isn't present.
+     */
+    public double get(int slot, double defaultValue) {
+        return slotsActive[slot] ? slotValues[slot] : defaultValue;
+    }
+
+    /**
+     * Sets the variable to the value, making it present if it wasn't already.
+     */
+    public void put(String variable, double value) {
+        int slot = registry.getSlot(variable);
+        if (slot != -1) {
+            put(slot, value);
+        } else {
+            putOverflow(variable, value);
+        }
+    }
+
+    /**
+     * Sets the variable in the slot to the value, making it present if it wasn't already.
+     */
+    public void put(int slot, double value) {
+        if (!slotsActive[slot]) {
+            slotsActive[slot] = true;
+            ++activeSlots;
+        }
+        slotValues[slot] = value;
+    }
+
+    /**
+     * Adds all variables in the map to this store.
+     */
+    public void putAll(Map<String, Double> variables) {
+        for (Entry<String, Double> variableEntry : variables.entrySet()) {
+            put(variableEntry.getKey(), variableEntry.getValue());
+        }
+    }
+
+    /**
+     * Removes the variable.  Returns true if the variable was present.
+     */
+    public boolean remove(String variable) {
+        int slot = registry.getSlot(variable);
+        if (slot != -1) {
+            return remove(slot);
+        } else {
+            int index = findOverflow(variable);
+            if (index != -1) {
+                removeOverflow(index);
+                return true;
+            } else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Removes the variable in the slot.  Returns true if the variable was present.
+     */
+    public boolean remove(int slot) {
+        if (slotsActive[slot]) {
+            slotsActive[slot] = false;
+            slotValues[slot] = 0;
+            --activeSlots;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Removes all variables that match the filter.  Returns the names of the removed variables.
+     */
+    public List<String> removeIf(Predicate<String> filter) {
+        List<String> removedVariables = new ArrayList<>();
+        for (String variable : getActiveVariables()) {
+            if (filter.test(variable)) {
+                remove(variable);
+                removedVariables.add(variable);
+            }
+        }
+        return removedVariables;
+    }
+
+    /**
+     * Returns true if no variables are present.
+     */
+    public boolean isEmpty() {
+        return activeSlots == 0 && overflowCount == 0;
+    }
+
+    /**
+     * Returns a new list of the names of all variables that are present.
+     * This allocates, so should only be used for saving and other infrequent operations.
+     */
+    public List<String> getActiveVariables() {
+        List<String> activeVariables = new ArrayList<>(activeSlots + overflowCount);
+        if (activeSlots != 0) {
+            for (int slot = 0; slot < slotsActive.length; ++slot) {
+                if (slotsActive[slot]) {
+                    activeVariables.add(registry.getName(slot));
+                }
+            }
+        }
+        if (overflowCount != 0) {
+            for (String key : overflowKeys) {
+                if (key != null) {
+                    activeVariables.add(key);
+                }
+            }
+        }
+        return activeVariables;
+    }
+
+    private int findOverflow(String variable) {
+        if (overflowCount != 0) {
+            int mask = overflowKeys.length - 1;
+            int index = VariableRegistry.hash(variable) & mask;
+            String key;
+            while ((key = overflowKeys[index]) != null) {
+                if (key == variable || key.equals(variable)) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+        return -1;
+    }
+
+    private void putOverflow(String variable, double value) {
+        if (overflowKeys == null) {
+            overflowKeys = new String[INITIAL_OVERFLOW_SIZE];
+            overflowValues = new double[INITIAL_OVERFLOW_SIZE];
+        }
+        int mask = overflowKeys.length - 1;
+        int index = VariableRegistry.hash(variable) & mask;
+        String key;
+        while ((key = overflowKeys[index]) != null) {
+            if (key == variable || key.equals(variable)) {
+                overflowValues[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        overflowKeys[index] = variable;
+        overflowValues[index] = value;
+
+        //Keep the table at most half-full.
+        if (++overflowCount * 2 > overflowKeys.length) {
+            resizeOverflow();
+        }
+    }
+
+    private void removeOverflow(int index) {
+        //Shift following entries in the probe chain back so lookups don't stop at the hole.
+        int mask = overflowKeys.length - 1;
+        int hole = index;
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            String key = overflowKeys[next];
+            if (key == null) {
+                break;
+            }
+            int home = VariableRegistry.hash(key) & mask;
+            boolean canMove = next > hole ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (canMove) {
+                overflowKeys[hole] = key;
+                overflowValues[hole] = overflowValues[next];
+                hole = next;
+            }
+        }
+        overflowKeys[hole] = null;
+        overflowValues[hole] = 0;
+        --overflowCount;
+    }
+
+    private void resizeOverflow() {
+        String[] oldKeys = overflowKeys;
+        double[] oldValues = overflowValues;
+        overflowKeys = new String[oldKeys.length * 2];
+        overflowValues = new double[oldKeys.length * 2];
+        int mask = overflowKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldKeys[i] != null) {
+                int index = VariableRegistry.hash(oldKeys[i]) & mask;
+                while (overflowKeys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                overflowKeys[index] = oldKeys[i];
+                overflowValues[index] = oldValues[i];
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.entities.instances.PartGroundDevice;
@@ -65,35 +66,33 @@ public class VehicleGroundDeviceBox {
     public void updateMembers() {
         //Get all liquid collision boxes.  Parts can add these via their collision boxes.
         liquidCollisionBoxes.clear();
-        for (BoundingBox box : vehicle.allCollisionBoxes) {
-            if (box.collisionTypes.contains(CollisionType.BLOCK)) {
-                APart partOn = vehicle.getPartWithBox(box);
-                if (box.collidesWithLiquids) {
-                    final boolean boxFront;
-                    final boolean boxLeft;
-                    final boolean boxRight;
-                    if (partOn != null) {
-                        Point3D relativePosition = partOn.position.copy().subtract(partOn.vehicleOn.position).reOrigin(partOn.vehicleOn.orientation);
-                        boxFront = relativePosition.z > 0;
-                        boxLeft = relativePosition.x >= -MAX_DELTA_FROM_ZERO;
-                        boxRight = relativePosition.x <= MAX_DELTA_FROM_ZERO;
-                    } else {
-                        boxFront = box.localCenter.z > 0;
-                        boxLeft = box.localCenter.x >= 0;
-                        boxRight = box.localCenter.x <= 0;
+        for (BoundingBox box : vehicle.collisionBoxRegistry.getBoxes(CollisionType.BLOCK)) {
+            APart partOn = vehicle.getPartWithBox(box);
+            if (box.collidesWithLiquids) {
+                final boolean boxFront;
+                final boolean boxLeft;
+                final boolean boxRight;
+                if (partOn != null) {
+                    Point3D relativePosition = partOn.position.copy().subtract(partOn.vehicleOn.position).reOrigin(partOn.vehicleOn.orientation);
+                    boxFront = relativePosition.z > 0;
+                    boxLeft = relativePosition.x >= -MAX_DELTA_FROM_ZERO;
+                    boxRight = relativePosition.x <= MAX_DELTA_FROM_ZERO;
+                } else {
+                    boxFront = box.localCenter.z > 0;
+                    boxLeft = box.localCenter.x >= 0;
+                    boxRight = box.localCenter.x <= 0;
+                }
+                if (isFront && boxFront) {
+                    if (isLeft && boxLeft) {
+                        liquidCollisionBoxes.add(box);
+                    } else if (!isLeft && boxRight) {
+                        liquidCollisionBoxes.add(box);
                     }
-                    if (isFront && boxFront) {
-                        if (isLeft && boxLeft) {
-                            liquidCollisionBoxes.add(box);
-                        } else if (!isLeft && boxRight) {
-                            liquidCollisionBoxes.add(box);
-                        }
-                    } else if (!isFront && !boxFront) {
-                        if (isLeft && boxLeft) {
-                            liquidCollisionBoxes.add(box);
-                        } else if (!isLeft && boxRight) {
-                            liquidCollisionBoxes.add(box);
-                        }
+                } else if (!isFront && !boxFront) {
+                    if (isLeft && boxLeft) {
+                        liquidCollisionBoxes.add(box);
+                    } else if (!isLeft && boxRight) {
+                        liquidCollisionBoxes.add(box);
                     }
                 }
             }
@@ -424,13 +423,17 @@ public class VehicleGroundDeviceBox {
      */
     private boolean checkEntityCollisions(Point3D collisionMotion) {
         boolean didCollision = false;
-        for (EntityVehicleF_Physics otherVehicle : vehicle.world.getEntitiesOfType(EntityVehicleF_Physics.class)) {
-            if (!otherVehicle.equals(vehicle) && vehicle.canCollideWith(otherVehicle) && !otherVehicle.collidedEntities.contains(vehicle) && otherVehicle.encompassingBox.intersects(solidBox)) {
+        for (AEntityF_Multipart<?> multipart : vehicle.world.getMultipartsWithin(solidBox)) {
+            if (!(multipart instanceof EntityVehicleF_Physics)) {
+                continue;
+            }
+            EntityVehicleF_Physics otherVehicle = (EntityVehicleF_Physics) multipart;
+            if (!otherVehicle.equals(vehicle) && vehicle.canCollideWith(otherVehicle) && !otherVehicle.collidedEntities.contains(vehicle)) {
                 //We know we could have hit this entity.  Check if we actually did.
                 BoundingBox collidingBox = null;
                 double boxCollisionDepth;
-                for (BoundingBox box : otherVehicle.allCollisionBoxes) {
-                    if (box.collisionTypes.contains(CollisionType.VEHICLE) && box.intersects(solidBox)) {
+                for (BoundingBox box : otherVehicle.collisionBoxRegistry.getBoxes(CollisionType.VEHICLE)) {
+                    if (box.intersects(solidBox)) {
                         if (collisionMotion.y > 0) {
                             boxCollisionDepth = solidBox.globalCenter.y + solidBox.heightRadius - (box.globalCenter.y - box.heightRadius);
                             if (boxCollisionDepth > solidBox.currentCollisionDepth.y) {
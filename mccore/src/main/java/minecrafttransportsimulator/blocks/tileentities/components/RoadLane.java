@@ -67,6 +67,24 @@ public class RoadLane {
         }
     }
 
+    /**
+     * Creates a lane with the passed-in curves that isn't part of a road and has no connections.
+     * Used to test lane lookups without needing a road to generate the curves.
+     */
+    RoadLane(List<BezierCurve> curves) {
+        this.road = null;
+        this.sectorNumber = 0;
+        this.sectorLaneNumber = 0;
+        this.laneNumber = 0;
+        this.curves = curves;
+        this.priorConnections = new ArrayList<>();
+        this.nextConnections = new ArrayList<>();
+        for (int i = 0; i < curves.size(); ++i) {
+            priorConnections.add(new ArrayList<>());
+            nextConnections.add(new ArrayList<>());
+        }
+    }
+
     private void generateCurves() {
         //Curves are generated based on the definition of the road, and the points for our lane.
         //If we are a dynamic road, then we don't use end points.  Instead, we use an
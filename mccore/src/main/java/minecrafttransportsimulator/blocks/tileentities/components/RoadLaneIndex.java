@@ -0,0 +1,134 @@
+package minecrafttransportsimulator.blocks.tileentities.components;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import minecrafttransportsimulator.baseclasses.BezierCurve;
+import minecrafttransportsimulator.baseclasses.Point3D;
+
+/**
+ * Spatial index of the lanes on a road.  Every 1-block step of every lane curve is put into a grid
+ * of 1-block cells, so finding the lane at a position only needs to check the steps in the cells around
+ * that position rather than every step of every curve on the road.  Steps are numbered in lane, curve,
+ * and step order, and queries return the lowest-numbered match, so the same lane is found as if
+ * all steps had been checked in order.
+ *
+ * @author don_bruce
+ */
+public class RoadLaneIndex {
+    /**Max distance a position can be from a curve step for that step to be considered.**/
+    private static final double MAX_STEP_DISTANCE = 1;
+    /**Max yaw delta to be considered going the same direction as a curve.  Deltas over 180 minus this are considered going the opposite direction.**/
+    private static final double MAX_YAW_DELTA = 10;
+
+    private final List<RoadLane> lanes;
+    private final int[] stepLanes;
+    private final int[] stepCurves;
+    private final int[] stepSegments;
+    /**Steps in each cell, in ascending order.  Cells are keyed by {@link #getCellKey(int, int, int)}.**/
+    private final Map<Long, int[]> cells = new HashMap<>();
+
+    public RoadLaneIndex(List<RoadLane> lanes) {
+        this.lanes = lanes;
+        int totalSteps = 0;
+        for (RoadLane lane : lanes) {
+            for (BezierCurve curve : lane.curves) {
+                totalSteps += (int) Math.ceil(curve.pathLength);
+            }
+        }
+        this.stepLanes = new int[totalSteps];
+        this.stepCurves = new int[totalSteps];
+        this.stepSegments = new int[totalSteps];
+
+        Map<Long, Integer> cellSizes = new HashMap<>();
+        Point3D stepPoint = new Point3D();
+        int stepNumber = 0;
+        for (int i = 0; i < lanes.size(); ++i) {
+            List<BezierCurve> curves = lanes.get(i).curves;
+            for (int j = 0; j < curves.size(); ++j) {
+                BezierCurve curve = curves.get(j);
+                for (int f = 0; f < curve.pathLength; ++f) {
+                    curve.setPointToPositionAt(stepPoint, f);
+                    long cellKey = getCellKey(getCell(stepPoint.x), getCell(stepPoint.y), getCell(stepPoint.z));
+                    int[] cellSteps = cells.get(cellKey);
+                    int cellSize = cellSizes.getOrDefault(cellKey, 0);
+                    if (cellSteps == null) {
+                        cellSteps = new int[4];
+                    } else if (cellSize == cellSteps.length) {
+                        cellSteps = Arrays.copyOf(cellSteps, cellSize * 2);
+                    }
+                    cellSteps[cellSize] = stepNumber;
+                    cells.put(cellKey, cellSteps);
+                    cellSizes.put(cellKey, cellSize + 1);
+
+                    stepLanes[stepNumber] = i;
+                    stepCurves[stepNumber] = j;
+                    stepSegments[stepNumber] = f;
+                    ++stepNumber;
+                }
+            }
+        }
+
+        //Trim cells to their actual size so queries don't need the sizes.
+        for (Map.Entry<Long, int[]> cellEntry : cells.entrySet()) {
+            cellEntry.setValue(Arrays.copyOf(cellEntry.getValue(), cellSizes.get(cellEntry.getKey())));
+        }
+    }
+
+    /**
+     * Returns a new following state for the lane at the passed-in position, for something facing the passed-in yaw.
+     * Only lanes going in the same or opposite direction as the yaw are considered.  Returns null if there is no such lane.
+     */
+    public RoadFollowingState getFollowingState(Point3D position, double yaw) {
+        int cellX = getCell(position.x);
+        int cellY = getCell(position.y);
+        int cellZ = getCell(position.z);
+        int bestStep = Integer.MAX_VALUE;
+        boolean bestSameDirection = false;
+        Point3D stepPoint = new Point3D();
+
+        //Steps closer than 1 block can only be in the cells next to ours, so we only need to check those.
+        for (int x = cellX - 1; x <= cellX + 1; ++x) {
+            for (int y = cellY - 1; y <= cellY + 1; ++y) {
+                for (int z = cellZ - 1; z <= cellZ + 1; ++z) {
+                    int[] cellSteps = cells.get(getCellKey(x, y, z));
+                    if (cellSteps != null) {
+                        for (int step : cellSteps) {
+                            if (step >= bestStep) {
+                                //Steps are in order, so no later steps in this cell can be better.
+                                break;
+                            }
+                            BezierCurve curve = lanes.get(stepLanes[step]).curves.get(stepCurves[step]);
+                            curve.setPointToPositionAt(stepPoint, stepSegments[step]);
+                            if (stepPoint.isDistanceToCloserThan(position, MAX_STEP_DISTANCE)) {
+                                double yawDelta = Math.abs(curve.getRotationAt(stepSegments[step]).angles.getClampedYDelta(yaw));
+                                if (yawDelta < MAX_YAW_DELTA || yawDelta > 180 - MAX_YAW_DELTA) {
+                                    bestStep = step;
+                                    bestSameDirection = yawDelta < MAX_YAW_DELTA;
+                                    break;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        if (bestStep != Integer.MAX_VALUE) {
+            RoadLane lane = lanes.get(stepLanes[bestStep]);
+            return new RoadFollowingState(lane, lane.curves.get(stepCurves[bestStep]), bestSameDirection, stepSegments[bestStep]);
+        } else {
+            return null;
+        }
+    }
+
+    private static int getCell(double position) {
+        return (int) Math.floor(position);
+    }
+
+    private static long getCellKey(int cellX, int cellY, int cellZ) {
+        return ((cellX & 0x3FFFFFFL) << 38) | ((cellY & 0xFFFL) << 26) | (cellZ & 0x3FFFFFFL);
+    }
+}
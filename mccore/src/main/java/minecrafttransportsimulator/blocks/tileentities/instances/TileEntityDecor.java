@@ -1,5 +1,7 @@
 package minecrafttransportsimulator.blocks.tileentities.instances;
 
+import java.util.Set;
+
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityBase;
 import minecrafttransportsimulator.items.instances.ItemDecor;
@@ -49,6 +51,13 @@ public class TileEntityDecor extends ATileEntityBase<JSONDecor> {
         }
     }
 
+    @Override
+    protected void addKnownVariables(Set<String> knownVariables) {
+        super.addKnownVariables(knownVariables);
+        knownVariables.add(CLICKED_VARIABLE);
+        knownVariables.add(ACTIVATED_VARIABLE);
+    }
+
     @Override
     public void update() {
         //Need to do this before updating as these require knowledge of prior states.
@@ -10,7 +10,6 @@ import minecrafttransportsimulator.items.components.AItemBase;
 import minecrafttransportsimulator.items.instances.ItemDecor;
 import minecrafttransportsimulator.items.instances.ItemPartInteractable;
 import minecrafttransportsimulator.jsondefs.JSONPart.InteractableComponentType;
-import minecrafttransportsimulator.jsondefs.JSONText;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IWrapperItemStack;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
@@ -148,12 +147,12 @@ public class TileEntityFuelPump extends ATileEntityFuelPump implements ITileEnti
     }
 
     @Override
-    public String getRawTextVariableValue(JSONText textDef, float partialTicks) {
-        if (textDef.variableName.equals("fuelpump_fluid")) {
+    public String getRawTextVariableValue(String variable, float partialTicks) {
+        if (variable.equals("fuelpump_fluid")) {
             return tank.getFluidLevel() > 0 ? InterfaceManager.clientInterface.getFluidName(tank.getFluid()) : "";
         }
 
-        return super.getRawTextVariableValue(textDef, partialTicks);
+        return super.getRawTextVariableValue(variable, partialTicks);
     }
 
     @Override
@@ -18,8 +18,10 @@ import minecrafttransportsimulator.blocks.components.ABlockBase.Axis;
 import minecrafttransportsimulator.blocks.instances.BlockCollision;
 import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityBase;
 import minecrafttransportsimulator.blocks.tileentities.components.RoadClickData;
+import minecrafttransportsimulator.blocks.tileentities.components.RoadFollowingState;
 import minecrafttransportsimulator.blocks.tileentities.components.RoadLane;
 import minecrafttransportsimulator.blocks.tileentities.components.RoadLaneConnection;
+import minecrafttransportsimulator.blocks.tileentities.components.RoadLaneIndex;
 import minecrafttransportsimulator.items.instances.ItemRoadComponent;
 import minecrafttransportsimulator.jsondefs.JSONRoadComponent;
 import minecrafttransportsimulator.jsondefs.JSONRoadComponent.JSONLaneSector;
@@ -59,6 +61,7 @@ public class TileEntityRoad extends ATileEntityBase<JSONRoadComponent> {
     //Static variables based on core definition.
     public BezierCurve dynamicCurve;
     public final List<RoadLane> lanes = new ArrayList<>();
+    private RoadLaneIndex laneIndex;
 
     //Dynamic variables based on states.
     private boolean isActive;
@@ -236,6 +239,15 @@ public class TileEntityRoad extends ATileEntityBase<JSONRoadComponent> {
                 }
             }
         }
+        laneIndex = new RoadLaneIndex(lanes);
+    }
+
+    /**
+     * Returns a new following state for the lane of this road at the passed-in position, for something facing
+     * the passed-in yaw.  Returns null if there is no lane there going in the same or opposite direction as the yaw.
+     */
+    public RoadFollowingState getFollowingState(Point3D position, double yaw) {
+        return laneIndex != null ? laneIndex.getFollowingState(position, yaw) : null;
     }
 
     /**
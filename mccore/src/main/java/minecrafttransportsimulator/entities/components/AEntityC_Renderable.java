@@ -1,5 +1,6 @@
 package minecrafttransportsimulator.entities.components;
 
+import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
@@ -7,6 +8,7 @@ import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**
  * Base class for entities that are rendered in the world in 3D.
@@ -20,6 +22,8 @@ public abstract class AEntityC_Renderable extends AEntityB_Existing {
     private static final Point3D interpolatedScaleHolder = new Point3D();
     private static final TransformationMatrix translatedMatrix = new TransformationMatrix();
     private static final TransformationMatrix rotatedMatrix = new TransformationMatrix();
+    /**Distance added to all sides of the culling box, to account for models that stick out of it.**/
+    private static final double CULLING_MARGIN = 2.0;
 
     /**
      * The scale of this entity, in X/Y/Z components.
@@ -33,6 +37,16 @@ public abstract class AEntityC_Renderable extends AEntityB_Existing {
 
     public int worldLightValue;
 
+    /**
+     * The distance between the camera and this entity, as of the last render.
+     */
+    public double cameraDistance;
+
+    /**
+     * Box used to check if this entity is in view.  Set from {@link #getCullingBox()} with the culling margin added.
+     */
+    private final BoundingBox cullingBox = new BoundingBox(new Point3D(), 0, 0, 0);
+
     /**
      * Constructor for synced entities
      **/
@@ -72,41 +86,12 @@ public abstract class AEntityC_Renderable extends AEntityB_Existing {
     public final void render(boolean blendingEnabled, float partialTicks) {
         //If we need to render, do so now.
         if (!disableRendering()) {
-
-            //Get interpolated orientation if required.
-            world.beginProfiling("RenderSetup", true);
-            if (requiresDeltaUpdates()) {
-                getInterpolatedOrientation(interpolatedOrientationHolder, partialTicks);
-            } else {
-                interpolatedOrientationHolder.set(orientation);
-            }
-
-            //Set up matrixes.
-            translatedMatrix.resetTransforms();
-            if (requiresDeltaUpdates()) {
-                interpolatedPositionHolder.set(prevPosition).interpolate(position, partialTicks).subtract(position);
-                translatedMatrix.setTranslation(interpolatedPositionHolder);
-            }
-            rotatedMatrix.set(translatedMatrix);
-            rotatedMatrix.applyRotation(interpolatedOrientationHolder);
-            interpolatedScaleHolder.set(scale).subtract(prevScale).scale(partialTicks).add(prevScale);
-            rotatedMatrix.applyScaling(interpolatedScaleHolder);
+            //Don't render the model if it can't be seen.  Sounds still need updating though, as they can be heard.
+            world.beginProfiling("RenderCulling", true);
+            boolean culled = isCulled();
             world.endProfiling();
-
-            //Render the main model.
-            renderModel(rotatedMatrix, blendingEnabled, partialTicks);
-
-            //End rotation render matrix.
-            //Render holoboxes.
-            if (blendingEnabled) {
-                renderHolographicBoxes(translatedMatrix);
-            }
-
-            //Render bounding boxes.
-            if (!blendingEnabled && InterfaceManager.renderingInterface.shouldRenderBoundingBoxes()) {
-                world.beginProfiling("BoundingBoxes", true);
-                renderBoundingBoxes(translatedMatrix);
-                world.endProfiling();
+            if (!culled) {
+                renderVisible(blendingEnabled, partialTicks);
             }
 
             //Handle sounds.  These will be partial-tick only ones.
@@ -117,6 +102,73 @@ public abstract class AEntityC_Renderable extends AEntityB_Existing {
         }
     }
 
+    /**
+     * Renders the model, and all other visible things, of this entity.  Only called if the entity isn't culled.
+     */
+    private void renderVisible(boolean blendingEnabled, float partialTicks) {
+        //Get interpolated orientation if required.
+        world.beginProfiling("RenderSetup", true);
+        if (requiresDeltaUpdates()) {
+            getInterpolatedOrientation(interpolatedOrientationHolder, partialTicks);
+        } else {
+            interpolatedOrientationHolder.set(orientation);
+        }
+
+        //Set up matrixes.
+        translatedMatrix.resetTransforms();
+        if (requiresDeltaUpdates()) {
+            interpolatedPositionHolder.set(prevPosition).interpolate(position, partialTicks).subtract(position);
+            translatedMatrix.setTranslation(interpolatedPositionHolder);
+        }
+        rotatedMatrix.set(translatedMatrix);
+        rotatedMatrix.applyRotation(interpolatedOrientationHolder);
+        interpolatedScaleHolder.set(scale).subtract(prevScale).scale(partialTicks).add(prevScale);
+        rotatedMatrix.applyScaling(interpolatedScaleHolder);
+        world.endProfiling();
+
+        //Render the main model.
+        renderModel(rotatedMatrix, blendingEnabled, partialTicks);
+
+        //End rotation render matrix.
+        //Render holoboxes.
+        if (blendingEnabled) {
+            renderHolographicBoxes(translatedMatrix);
+        }
+
+        //Render bounding boxes.
+        if (!blendingEnabled && InterfaceManager.renderingInterface.shouldRenderBoundingBoxes()) {
+            world.beginProfiling("BoundingBoxes", true);
+            renderBoundingBoxes(translatedMatrix);
+            world.endProfiling();
+        }
+    }
+
+    /**
+     * Returns true if this entity shouldn't be rendered, either because it's past the
+     * render distance, or because it's out of the view of the camera.
+     * Also updates {@link #cameraDistance}.
+     */
+    protected boolean isCulled() {
+        BoundingBox box = getCullingBox();
+        cameraDistance = position.distanceTo(InterfaceManager.clientInterface.getCameraPosition());
+        if (cameraDistance > ConfigSystem.client.renderingSettings.renderDistance.value + Math.max(box.widthRadius, Math.max(box.heightRadius, box.depthRadius))) {
+            return true;
+        }
+        cullingBox.globalCenter.set(box.globalCenter);
+        cullingBox.widthRadius = box.widthRadius + CULLING_MARGIN;
+        cullingBox.heightRadius = box.heightRadius + CULLING_MARGIN;
+        cullingBox.depthRadius = box.depthRadius + CULLING_MARGIN;
+        return !InterfaceManager.renderingInterface.isBoxInView(cullingBox);
+    }
+
+    /**
+     * Returns the box that's checked against the view of the camera to see if this entity should be rendered.
+     * This should contain everything the entity renders, though models may stick out of it by a small amount.
+     */
+    protected BoundingBox getCullingBox() {
+        return boundingBox;
+    }
+
     /**
      * If rendering needs to be skipped for any reason, return true here.
      */
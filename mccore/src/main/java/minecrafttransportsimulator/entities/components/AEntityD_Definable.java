@@ -5,11 +5,11 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -19,6 +19,10 @@ import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableHandle;
+import minecrafttransportsimulator.baseclasses.VariableHandle.VariableType;
+import minecrafttransportsimulator.baseclasses.VariableRegistry;
+import minecrafttransportsimulator.baseclasses.VariableStore;
 import minecrafttransportsimulator.blocks.components.ABlockBase.BlockMaterial;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityParticle;
@@ -29,6 +33,7 @@ import minecrafttransportsimulator.jsondefs.AJSONMultiModelProvider;
 import minecrafttransportsimulator.jsondefs.JSONAnimatedObject;
 import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition;
 import minecrafttransportsimulator.jsondefs.JSONCameraObject;
+import minecrafttransportsimulator.jsondefs.JSONLevelOfDetail;
 import minecrafttransportsimulator.jsondefs.JSONLight;
 import minecrafttransportsimulator.jsondefs.JSONParticle;
 import minecrafttransportsimulator.jsondefs.JSONRendering.ModelType;
@@ -48,6 +53,7 @@ import minecrafttransportsimulator.packets.instances.PacketEntityVariableToggle;
 import minecrafttransportsimulator.packloading.PackParser;
 import minecrafttransportsimulator.rendering.AModelParser;
 import minecrafttransportsimulator.rendering.DurationDelayClock;
+import minecrafttransportsimulator.rendering.ModelPrefetcher;
 import minecrafttransportsimulator.rendering.RenderText;
 import minecrafttransportsimulator.rendering.RenderableModelObject;
 import minecrafttransportsimulator.sound.SoundInstance;
@@ -79,9 +85,9 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
     public final LinkedHashMap<JSONText, String> text = new LinkedHashMap<>();
 
     /**
-     * Map of variables.  These are generic and can be interfaced with in the JSON.  Some names are hard-coded to specific variables.Used for animations/physics.
+     * Store of variables.  These are generic and can be interfaced with in the JSON.  Some names are hard-coded to specific variables.Used for animations/physics.
      **/
-    protected final Map<String, Double> variables = new HashMap<>();
+    protected final VariableStore variables;
 
     private final List<JSONSound> allSoundDefs = new ArrayList<>();
     private final Map<JSONSound, AnimationSwitchbox> soundActiveSwitchboxes = new HashMap<>();
@@ -97,6 +103,11 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
     private long lastTickParticlesSpawned;
     private float lastPartialTickParticlesSpawned;
 
+    /**
+     * Handles for variables that have been requested on this entity.  Keyed by the requested name, including any inversion prefix.
+     **/
+    private final Map<String, VariableHandle> variableHandles = new HashMap<>();
+
     /**
      * Maps animated (model) object names to their JSON bits for this entity.  Used for model lookups as the same model might be used on multiple JSONs,
      * and iterating through the entire rendering section of the JSON is time-consuming.
@@ -129,9 +140,10 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
     public final Map<String, JSONLight> lightObjectDefinitions = new HashMap<>();
 
     /**
-     * Object lists for models parsed for this entity.
+     * Object lists for models parsed for this entity, keyed by model location.
+     * There will be more than one list if any levels of detail have their own model.
      **/
-    private List<RenderableModelObject> objectList;
+    private final Map<String, List<RenderableModelObject>> objectLists = new HashMap<>();
 
     /**
      * List of players interacting with this entity via a GUI.
@@ -162,9 +174,11 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
         super(world, placingPlayer, data);
         if (item != null) {
             this.definition = item.definition;
+            this.variables = new VariableStore(getVariableRegistry());
             updateSubDefinition(item.subDefinition.subName);
         } else {
             this.definition = generateDefaultDefinition();
+            this.variables = new VariableStore(getVariableRegistry());
             updateSubDefinition("");
         }
 
@@ -198,9 +212,50 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
     public AEntityD_Definable(AWrapperWorld world, Point3D position, Point3D motion, Point3D angles, AItemSubTyped<JSONDefinition> item) {
         super(world, position, motion, angles);
         this.definition = item.definition;
+        this.variables = new VariableStore(getVariableRegistry());
         updateSubDefinition(item.subDefinition.subName);
     }
 
+    /**
+     * Returns the variable registry for the definition of this entity, creating it if it doesn't exist.
+     */
+    private VariableRegistry getVariableRegistry() {
+        if (definition.variableRegistry == null) {
+            Set<String> knownVariables = new LinkedHashSet<>();
+            addKnownVariables(knownVariables);
+            definition.variableRegistry = new VariableRegistry(knownVariables);
+        }
+        return definition.variableRegistry;
+    }
+
+    /**
+     * Adds all variables that are known to be set on this entity to the passed-in set.  These
+     * get dedicated slots in the variable store, and don't need to be hashed to be stored.
+     * Variables not added here can still be set, they will just be slower to access.
+     * Note that this is called during construction, so fields in sub-classes will not be set.
+     */
+    protected void addKnownVariables(Set<String> knownVariables) {
+        if (definition.initialVariables != null) {
+            knownVariables.addAll(definition.initialVariables);
+        }
+        if (definition.constantValues != null) {
+            knownVariables.addAll(definition.constantValues.keySet());
+        }
+        for (JSONSubDefinition subDef : definition.definitions) {
+            if (subDef.constants != null) {
+                knownVariables.addAll(subDef.constants);
+            }
+        }
+        if (definition.variableModifiers != null) {
+            for (JSONVariableModifier modifier : definition.variableModifiers) {
+                knownVariables.add(modifier.variable);
+            }
+        }
+        if (definition.rendering != null && definition.rendering.customVariables != null) {
+            knownVariables.addAll(definition.rendering.customVariables);
+        }
+    }
+
     @Override
     public String toString() {
         return definition.packID + ":" + definition.systemName + subDefinition.subName;
@@ -238,12 +293,15 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 
         //Only update radar once a second, and only if we requested it via variables.
         if (definition.general.radarRange > 0 && ticksExisted % 20 == 0) {
-            Collection<EntityVehicleF_Physics> allVehicles = world.getEntitiesOfType(EntityVehicleF_Physics.class);
             aircraftOnRadar.clear();
             groundersOnRadar.clear();
             Point3D searchVector = new Point3D();
             Point3D LOSVector = new Point3D();
-            for (EntityVehicleF_Physics vehicle : allVehicles) {
+            for (AEntityF_Multipart<?> multipart : world.getMultipartsNear(position, definition.general.radarRange)) {
+                if (!(multipart instanceof EntityVehicleF_Physics)) {
+                    continue;
+                }
+                EntityVehicleF_Physics vehicle = (EntityVehicleF_Physics) multipart;
                 searchVector.set(0, 0, definition.general.radarRange).rotate(orientation);
                 LOSVector.set(vehicle.position).subtract(position).normalize();
                 double coneAngle = definition.general.radarWidth;
@@ -291,7 +349,7 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
             if (testSubDef.subName.equals(newSubDefName)) {
                 //Remove existing constants, if we have them, then add them, if we have them.
                 if (subDefinition != null && subDefinition.constants != null) {
-                    variables.keySet().removeAll(subDefinition.constants);
+                    subDefinition.constants.forEach(var -> variables.remove(var));
                 }
                 if (testSubDef.constants != null) {
                     testSubDef.constants.forEach(var -> variables.put(var, 1D));
@@ -299,6 +357,7 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
                 subDefinition = testSubDef;
                 cachedItem = PackParser.getItem(definition.packID, definition.systemName, subDefinition.subName);
                 resetModelsAndAnimations();
+                resetParallelVariableModifiers();
                 return;
             }
         }
@@ -392,9 +451,7 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
             
             //Clear rendering assignments.
             if (world.isClient()) {
-                if (objectList != null) {
-                    objectList.forEach(object -> object.destroy());
-                }
+                objectLists.values().forEach(objectList -> objectList.forEach(object -> object.destroy()));
             }
         }
     }
@@ -495,7 +552,9 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
                             if (spawningSwitchbox != null) {
                                 spawningSwitchbox.runSwitchbox(partialTicks, false);
                             }
-                            world.addEntity(new EntityParticle(this, particleDef, spawningPosition, spawningSwitchbox));
+                            if (world.particles.shouldSpawnParticle()) {
+                                world.addEntity(new EntityParticle(this, particleDef, spawningPosition, spawningSwitchbox));
+                            }
                         }
                         lastParticlePosition.set(spawningPosition);
                     }
@@ -508,7 +567,9 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
                             if (spawningSwitchbox != null) {
                                 spawningSwitchbox.runSwitchbox(partialTicks, false);
                             }
-                            world.addEntity(new EntityParticle(this, particleDef, position, spawningSwitchbox));
+                            if (world.particles.shouldSpawnParticle()) {
+                                world.addEntity(new EntityParticle(this, particleDef, position, spawningSwitchbox));
+                            }
                         }
                         lastTickParticleSpawned.put(particleDef, ticksExisted);
                     }
@@ -807,102 +868,252 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
      * found, then the super() method should be called to return those as a default.
      */
     public double getRawVariableValue(String variable, float partialTicks) {
+        DefinableVariable builtinVariable = DefinableVariable.byName.get(variable);
+        if (builtinVariable != null) {
+            return getBuiltinVariableValue(builtinVariable, partialTicks);
+        }
+
+        //Check if this is a cycle variable.
+        if (variable.endsWith("_cycle")) {
+            String[] parsedVariable = variable.split("_");
+            int offTime = Integer.parseInt(parsedVariable[0]);
+            int onTime = Integer.parseInt(parsedVariable[1]);
+            int totalTime = offTime + onTime + Integer.parseInt(parsedVariable[2]);
+            return getCycleVariableValue(offTime, onTime, totalTime);
+        }
+
+        //Check if this is a text_x_ispresent variable.
+        if (variable.startsWith("text_") && variable.endsWith("_present")) {
+            if (definition.rendering != null && definition.rendering.textObjects != null) {
+                return getTextPresentVariableValue(Integer.parseInt(variable.substring("text_".length(), variable.length() - "_present".length())) - 1);
+            }
+            return 0;
+        }
+
+        //Check if this is a blockmaterial_x variable.
+        if (variable.startsWith("blockmaterial_")) {
+            return getBlockMaterialVariableValue(getBlockMaterial(variable.substring("blockmaterial_".length())), false);
+        } else if (variable.startsWith("terrain_blockmaterial_")) {
+            return getBlockMaterialVariableValue(getBlockMaterial(variable.substring("terrain_blockmaterial_".length())), true);
+        }
+
+        //Check if this is a generic variable.  This contains lights in most cases.
+        //If we didn't find a variable, return NaN.
+        return variables.get(variable, Double.NaN);
+    }
+
+    /**
+     * Like {@link #getRawVariableValue(String, float)}, but uses a pre-resolved handle.
+     * Handles that have been resolved to a specific type are handled here without any string
+     * operations, all others are passed to the string-based method.  Sub-classes that resolve
+     * their own handle types in {@link #createVariableHandle(String, boolean)} should extend this
+     * method to return their values.
+     */
+    public double getRawVariableValue(VariableHandle handle, float partialTicks) {
+        switch (handle.type) {
+            case BUILTIN:
+                return getBuiltinVariableValue(BUILTIN_VARIABLES[handle.index], partialTicks);
+            case CYCLE:
+                return getCycleVariableValue(handle.parameters[0], handle.parameters[1], handle.parameters[2]);
+            case TEXT_PRESENT:
+                return getTextPresentVariableValue(handle.index);
+            case BLOCK_MATERIAL:
+                return getBlockMaterialVariableValue(handle.material, false);
+            case TERRAIN_BLOCK_MATERIAL:
+                return getBlockMaterialVariableValue(handle.material, true);
+            case STORED:
+                return handle.index != -1 ? variables.get(handle.index, Double.NaN) : variables.get(handle.variable, Double.NaN);
+            default:
+                return getRawVariableValue(handle.variable, partialTicks);
+        }
+    }
+
+    /**
+     * Returns true if the value of the passed-in handle only depends on this entity, or other entities
+     * in the same top-level entity, and doesn't query the world.  Such variables may be evaluated off the
+     * main thread, provided nothing else is changing those entities at the time.  Sub-classes that resolve
+     * their own handle types should extend this method for them.  Anything not known to be local, such
+     * as {@link VariableType#RAW} handles, isn't.
+     */
+    public boolean isLocalVariable(VariableHandle handle) {
+        switch (handle.type) {
+            case BUILTIN:
+                return BUILTIN_VARIABLES[handle.index].isLocal;
+            case CYCLE:
+            case TEXT_PRESENT:
+            case STORED:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns the handle for the passed-in variable.  Handles are created the first time they
+     * are requested, and are cached for the life of this entity.  Variables prefixed with a "!"
+     * will return an inverted handle.
+     */
+    public final VariableHandle getVariableHandle(String variable) {
+        VariableHandle handle = variableHandles.get(variable);
+        if (handle == null) {
+            boolean inverted = variable.startsWith("!");
+            handle = createVariableHandle(inverted ? variable.substring(1) : variable, inverted);
+            variableHandles.put(variable, handle);
+        }
+        return handle;
+    }
+
+    /**
+     * Creates a new handle for the passed-in variable.  This should parse out everything from the variable
+     * name that {@link #getRawVariableValue(String, float)} would parse when called.  Sub-classes that check
+     * for variables prior to calling super in that method MUST extend this method and return a
+     * {@link VariableType#RAW} handle for those variables, as they otherwise wouldn't be checked.
+     * Variables that no class knows are passed to {@link #createUnknownVariableHandle(String, boolean)}.
+     */
+    protected VariableHandle createVariableHandle(String variable, boolean inverted) {
+        DefinableVariable builtinVariable = DefinableVariable.byName.get(variable);
+        if (builtinVariable != null) {
+            return new VariableHandle(this, variable, inverted, VariableType.BUILTIN, builtinVariable.ordinal(), null, null, null);
+        }
+
+        if (variable.endsWith("_cycle")) {
+            String[] parsedVariable = variable.split("_");
+            if (parsedVariable.length >= 4) {
+                try {
+                    int offTime = Integer.parseInt(parsedVariable[0]);
+                    int onTime = Integer.parseInt(parsedVariable[1]);
+                    int totalTime = offTime + onTime + Integer.parseInt(parsedVariable[2]);
+                    return new VariableHandle(this, variable, inverted, VariableType.CYCLE, 0, new int[] { offTime, onTime, totalTime }, null, null);
+                } catch (NumberFormatException e) {
+                    //Not a valid cycle variable, leave it to the raw lookup.
+                }
+            }
+        } else if (variable.startsWith("text_") && variable.endsWith("_present")) {
+            try {
+                int textIndex = Integer.parseInt(variable.substring("text_".length(), variable.length() - "_present".length())) - 1;
+                return new VariableHandle(this, variable, inverted, VariableType.TEXT_PRESENT, textIndex, null, null, null);
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                //Not a valid text variable, leave it to the raw lookup.
+            }
+        } else if (variable.startsWith("blockmaterial_")) {
+            return new VariableHandle(this, variable, inverted, VariableType.BLOCK_MATERIAL, 0, null, getBlockMaterial(variable.substring("blockmaterial_".length())), null);
+        } else if (variable.startsWith("terrain_blockmaterial_")) {
+            return new VariableHandle(this, variable, inverted, VariableType.TERRAIN_BLOCK_MATERIAL, 0, null, getBlockMaterial(variable.substring("terrain_blockmaterial_".length())), null);
+        }
+        return createUnknownVariableHandle(variable, inverted);
+    }
+
+    /**
+     * Creates a handle for a variable that no class knows by name.  This is either a generic variable in the
+     * variable store, or a variable that isn't present.  These are {@link VariableType#RAW} by default, as
+     * sub-classes may do other things with unknown variables, such as forwarding them to other entities,
+     * or checking them after calling super.  Sub-classes that claim all their variables may return
+     * {@link VariableType#STORED} handles instead.
+     */
+    protected VariableHandle createUnknownVariableHandle(String variable, boolean inverted) {
+        return new VariableHandle(this, variable, inverted, VariableType.RAW);
+    }
+
+    /**
+     * Returns the value for the passed-in built-in variable.
+     */
+    private double getBuiltinVariableValue(DefinableVariable variable, float partialTicks) {
         switch (variable) {
-            case ("tick"):
+            case TICK:
                 return ticksExisted + partialTicks;
-            case ("tick_sin"):
+            case TICK_SIN:
                 return Math.sin(Math.toRadians(ticksExisted + partialTicks));
-            case ("tick_cos"):
+            case TICK_COS:
                 return Math.cos(Math.toRadians(ticksExisted + partialTicks));
-            case ("time"):
+            case TIME:
                 return world.getTime();
-            case ("random"):
+            case RANDOM:
                 return Math.random();
-            case ("random_flip"):
+            case RANDOM_FLIP:
                 return Math.random() < 0.5 ? 0 : 1;
-            case ("rain_strength"):
+            case RAIN_STRENGTH:
                 return (int) world.getRainStrength(position);
-            case ("rain_sin"): {
+            case RAIN_SIN: {
                 int rainStrength = (int) world.getRainStrength(position);
                 return rainStrength > 0 ? Math.sin(rainStrength * Math.toRadians(360 * (ticksExisted + partialTicks) / 20)) / 2D + 0.5 : 0;
             }
-            case ("rain_cos"): {
+            case RAIN_COS: {
                 int rainStrength = (int) world.getRainStrength(position);
                 return rainStrength > 0 ? Math.cos(rainStrength * Math.toRadians(360 * (ticksExisted + partialTicks) / 20)) / 2D + 0.5 : 0;
             }
-            case ("light_sunlight"):
+            case LIGHT_SUNLIGHT:
                 return world.getLightBrightness(position, false);
-            case ("light_total"):
+            case LIGHT_TOTAL:
                 return world.getLightBrightness(position, true);
-            case ("terrain_distance"):
+            case TERRAIN_DISTANCE:
                 return world.getHeight(position);
-            case ("posX"):
+            case POS_X:
                 return position.x;
-            case ("posY"):
+            case POS_Y:
                 return position.y;
-            case ("posZ"):
+            case POS_Z:
                 return position.z;
-            case ("inliquid"):
+            case INLIQUID:
                 return world.isBlockLiquid(position) ? 1 : 0;
-            case ("player_interacting"):
+            case PLAYER_INTERACTING:
                 return !playersInteracting.isEmpty() ? 1 : 0;
-            case ("player_crafteditem"):
+            case PLAYER_CRAFTEDITEM:
                 return playerCraftedItem ? 1 : 0;
-            case ("config_simplethrottle"):
+            case CONFIG_SIMPLETHROTTLE:
                 return ConfigSystem.client.controlSettings.simpleThrottle.value ? 1 : 0;
-            case ("config_innerwindows"):
+            case CONFIG_INNERWINDOWS:
                 return ConfigSystem.client.renderingSettings.innerWindows.value ? 1 : 0;
         }
+        return Double.NaN;
+    }
 
-        //Check if this is a cycle variable.
-        if (variable.endsWith("_cycle")) {
-            String[] parsedVariable = variable.split("_");
-            int offTime = Integer.parseInt(parsedVariable[0]);
-            int onTime = Integer.parseInt(parsedVariable[1]);
-            int totalTime = offTime + onTime + Integer.parseInt(parsedVariable[2]);
-            long timeInCycle = ticksExisted % totalTime;
-            return timeInCycle > offTime && timeInCycle - offTime < onTime ? 1 : 0;
-        }
+    /**
+     * Returns the value for a cycle variable with the passed-in timings.
+     */
+    private double getCycleVariableValue(int offTime, int onTime, int totalTime) {
+        long timeInCycle = ticksExisted % totalTime;
+        return timeInCycle > offTime && timeInCycle - offTime < onTime ? 1 : 0;
+    }
 
-        //Check if this is a text_x_ispresent variable.
-        if (variable.startsWith("text_") && variable.endsWith("_present")) {
-            if (definition.rendering != null && definition.rendering.textObjects != null) {
-                int textIndex = Integer.parseInt(variable.substring("text_".length(), variable.length() - "_present".length())) - 1;
-                if (definition.rendering.textObjects.size() > textIndex) {
-                    return !text.get(definition.rendering.textObjects.get(textIndex)).isEmpty() ? 1 : 0;
-                }
-            }
-            return 0;
+    /**
+     * Returns the value for a text_x_present variable with the passed-in 0-indexed text index.
+     */
+    private double getTextPresentVariableValue(int textIndex) {
+        if (definition.rendering != null && definition.rendering.textObjects != null && definition.rendering.textObjects.size() > textIndex) {
+            return !text.get(definition.rendering.textObjects.get(textIndex)).isEmpty() ? 1 : 0;
         }
+        return 0;
+    }
 
-        //Check if this is a blockmaterial_x variable.
-        if (variable.startsWith("blockmaterial_")) {
-            BlockMaterial material = world.getBlockMaterial(position);
-            if (material != null) {
-                return material.name().equals(variable.substring("blockmaterial_".length()).toUpperCase()) ? 1 : 0;
-            } else {
-                return 0;
-            }
-        } else if (variable.startsWith("terrain_blockmaterial_")) {
+    /**
+     * Returns the value for a block material variable.  If terrain is true, then the block
+     * below this entity on the ground is checked rather than the block this entity is in.
+     * A null material will always return 0, as the block can't be of an invalid material.
+     */
+    private double getBlockMaterialVariableValue(BlockMaterial material, boolean terrain) {
+        BlockMaterial currentMaterial;
+        if (terrain) {
             double height = world.getHeight(position) + 1;
             position.y -= height;
-            BlockMaterial material = world.getBlockMaterial(position);
+            currentMaterial = world.getBlockMaterial(position);
             position.y += height;
-            if (material != null) {
-                return material.name().equals(variable.substring("terrain_blockmaterial_".length()).toUpperCase()) ? 1 : 0;
-            } else {
-                return 0;
-            }
+        } else {
+            currentMaterial = world.getBlockMaterial(position);
         }
+        return material != null && currentMaterial == material ? 1 : 0;
+    }
 
-        //Check if this is a generic variable.  This contains lights in most cases.
-        Double variableValue = variables.get(variable);
-        if (variableValue != null) {
-            return variableValue;
+    /**
+     * Returns the block material for the passed-in variable suffix, or null if the material doesn't exist.
+     */
+    private static BlockMaterial getBlockMaterial(String materialName) {
+        materialName = materialName.toUpperCase();
+        for (BlockMaterial material : BlockMaterial.values()) {
+            if (material.name().equals(materialName)) {
+                return material;
+            }
         }
-
-        //Didn't find a variable.  Return NaN.
-        return Double.NaN;
+        return null;
     }
 
     /**
@@ -919,7 +1130,7 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
      * a String for text-based parameters rather than a double.  If no match
      * is found, return null.  Otherwise, return the string.
      */
-    public String getRawTextVariableValue(JSONText textDef, float partialTicks) {
+    public String getRawTextVariableValue(String variable, float partialTicks) {
         return null;
     }
 
@@ -930,15 +1141,13 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
      * the scale parameter as only the variable value should be scaled, not the offset..
      */
     public final double getAnimatedVariableValue(DurationDelayClock clock, double scaleFactor, double offset, float partialTicks) {
-        double value;
-        if (clock.animation.variable.startsWith("!")) {
-            value = getCleanRawVariableValue(clock.animation.variable.substring(1), partialTicks);
+        VariableHandle handle = clock.getVariableHandle(this);
+        double value = handle.getRawValue(partialTicks);
+        if (Double.isNaN(value)) {
+            value = 0;
+        }
+        if (handle.inverted) {
             value = value == 0 ? 1 : 0;
-        } else {
-            value = getRawVariableValue(clock.animation.variable, partialTicks);
-            if (Double.isNaN(value)) {
-                value = 0;
-            }
         }
         if (!clock.isUseful) {
             return clampAndScale(value, clock.animation, scaleFactor, offset);
@@ -979,7 +1188,7 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
      */
     public final String getAnimatedTextVariableValue(JSONText textDef, float partialTicks) {
         //Check text values first, then animated values.
-        String value = getRawTextVariableValue(textDef, 0);
+        String value = getRawTextVariableValue(textDef.variableName, 0);
         if (value == null) {
             return String.format(textDef.variableFormat, getCleanRawVariableValue(textDef.variableName, 0) * textDef.variableFactor + textDef.variableOffset);
         } else {
@@ -992,8 +1201,8 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
      */
     public void toggleVariable(String variable) {
         //Try to remove the variable,this requires only one key-search operation, unlike a containsKey followed by a remove.
-        if (variables.remove(variable) == null) {
-            //No key was in this map prior, so this variable was off, set it on.
+        if (!variables.remove(variable)) {
+            //No key was in this store prior, so this variable was off, set it on.
             variables.put(variable, 1D);
         }
     }
@@ -1003,7 +1212,7 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
      */
     public void setVariable(String variable, double value) {
         if (value == 0) {
-            //Remove variable from the map so we don't have as many to deal with.
+            //Remove variable from the store so we don't have as many to deal with.
             variables.remove(variable);
         } else {
             variables.put(variable, value);
@@ -1037,21 +1246,15 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
      * Helper method to get get a variable for this entity.
      */
     public double getVariable(String variable) {
-        Double value = variables.get(variable);
-        if (value == null) {
-            //Don't add the variable to the map, just return 0 here.
-            return 0;
-        } else {
-            return value;
-        }
+        //Don't add the variable to the store, just return 0 here.
+        return variables.get(variable, 0);
     }
 
     /**
      * Helper method to check if a variable is non-zero.
-     * This is a bit quicker than getting the value due to auto-boxing off the map.
      */
     public boolean isVariableActive(String variable) {
-        return variables.containsKey(variable);
+        return variables.isActive(variable);
     }
 
     /**
@@ -1176,20 +1379,68 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
         }
     }
 
+    /**
+     * Returns true if {@link #updateVariableModifiers()} may be called off the main thread, which is only
+     * the case if all modifiers use local variables as defined by {@link #isLocalVariable(VariableHandle)}.
+     * This walks all the modifiers, so callers should cache the result until {@link #resetParallelVariableModifiers()}
+     * is called.
+     */
+    public boolean hasLocalVariableModifiers() {
+        for (VariableModifierSwitchbox switchbox : variableModiferSwitchboxes.values()) {
+            if (!switchbox.isLocal()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Called on the main thread prior to a parallel update of variable modifiers.  Sub-classes that need
+     * world state in {@link #updateVariableModifiers()} should get it here.
+     */
+    public void prepareParallelVariableModifiers() {
+    }
+
+    /**
+     * Called when something changes that may change the result of {@link #hasLocalVariableModifiers()},
+     * such as the definition or the entities this entity gets variables from.
+     */
+    public void resetParallelVariableModifiers() {
+    }
+
     @Override
     protected void renderModel(TransformationMatrix transform, boolean blendingEnabled, float partialTicks) {
         //Update internal lighting states.
         world.beginProfiling("LightStateUpdates", true);
         updateLightBrightness(partialTicks);
 
-        //Parse model if it hasn't been already.
+        //Set up model if it hasn't been already.
+        //If the model isn't parsed yet, or we're out of setup time this frame, don't render until it is.
         world.beginProfiling("MainModel", false);
+        JSONLevelOfDetail levelOfDetail = getLevelOfDetail();
+        String modelLocation = definition.getModelLocation(subDefinition, levelOfDetail);
+        List<RenderableModelObject> objectList = objectLists.get(modelLocation);
+        long setupStartTime = 0;
         if (objectList == null) {
-            objectList = AModelParser.generateRenderables(this);
+            if (!ModelPrefetcher.canSetupModel(this, modelLocation)) {
+                world.endProfiling();
+                return;
+            }
+            setupStartTime = System.nanoTime();
+            objectList = AModelParser.generateRenderables(this, modelLocation);
+            objectLists.put(modelLocation, objectList);
         }
 
-        //Render model object individually.
-        objectList.forEach(modelObject -> modelObject.render(this, transform, blendingEnabled, partialTicks));
+        //Render model object individually, skipping any that are hidden at this level of detail.
+        boolean freezeAnimations = levelOfDetail != null && levelOfDetail.disableAnimations;
+        for (RenderableModelObject modelObject : objectList) {
+            if (levelOfDetail == null || levelOfDetail.hiddenObjects == null || !levelOfDetail.hiddenObjects.contains(modelObject.renderable.vertexObject.name)) {
+                modelObject.render(this, transform, blendingEnabled, partialTicks, freezeAnimations);
+            }
+        }
+        if (setupStartTime != 0) {
+            ModelPrefetcher.finishSetup(setupStartTime);
+        }
 
         //Render any static text.
         world.beginProfiling("MainText", false);
@@ -1211,6 +1462,22 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
         world.endProfiling();
     }
 
+    /**
+     * Returns the level of detail this entity should be rendered at, based on its distance from the camera.
+     * Returns null if the entity should be rendered at full detail.
+     */
+    private JSONLevelOfDetail getLevelOfDetail() {
+        JSONLevelOfDetail currentLevel = null;
+        if (definition.rendering.levelsOfDetail != null) {
+            for (JSONLevelOfDetail level : definition.rendering.levelsOfDetail) {
+                if (cameraDistance > level.distance && (currentLevel == null || level.distance > currentLevel.distance)) {
+                    currentLevel = level;
+                }
+            }
+        }
+        return currentLevel;
+    }
+
     @Override
     protected boolean disableRendering() {
         //Don't render if we don't have a model.
@@ -1222,10 +1489,8 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
      */
     public void resetModelsAndAnimations() {
     	if (definition.rendering.modelType != ModelType.NONE) {
-            if (objectList != null) {
-                objectList.forEach(object -> object.destroy());
-                objectList = null;
-            }
+            objectLists.values().forEach(objectList -> objectList.forEach(object -> object.destroy()));
+            objectLists.clear();
         }
     }
 
@@ -1240,18 +1505,68 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
             }
         }
         if (!variables.isEmpty()) {
-            data.setStrings("variables", variables.keySet());
-            for (String variableName : variables.keySet()) {
-                data.setDouble(variableName, variables.get(variableName));
+            List<String> activeVariables = variables.getActiveVariables();
+            data.setStrings("variables", activeVariables);
+            for (String variableName : activeVariables) {
+                data.setDouble(variableName, variables.get(variableName, 0));
             }
         }
         return data;
     }
 
+    /**
+     * Variables that are provided by all definable entities.  These are indexed by ordinal in
+     * {@link VariableType#BUILTIN} handles to avoid string lookups when getting their values.
+     */
+    private enum DefinableVariable {
+        TICK("tick"),
+        TICK_SIN("tick_sin"),
+        TICK_COS("tick_cos"),
+        TIME("time", false),
+        RANDOM("random"),
+        RANDOM_FLIP("random_flip"),
+        RAIN_STRENGTH("rain_strength", false),
+        RAIN_SIN("rain_sin", false),
+        RAIN_COS("rain_cos", false),
+        LIGHT_SUNLIGHT("light_sunlight", false),
+        LIGHT_TOTAL("light_total", false),
+        TERRAIN_DISTANCE("terrain_distance", false),
+        POS_X("posX"),
+        POS_Y("posY"),
+        POS_Z("posZ"),
+        INLIQUID("inliquid", false),
+        PLAYER_INTERACTING("player_interacting"),
+        PLAYER_CRAFTEDITEM("player_crafteditem"),
+        CONFIG_SIMPLETHROTTLE("config_simplethrottle"),
+        CONFIG_INNERWINDOWS("config_innerwindows");
+
+        private static final Map<String, DefinableVariable> byName = new HashMap<>();
+        static {
+            for (DefinableVariable variable : values()) {
+                byName.put(variable.variableName, variable);
+            }
+        }
+
+        private final String variableName;
+        /**False if this variable queries the world, so isn't local.**/
+        private final boolean isLocal;
+
+        private DefinableVariable(String variableName) {
+            this(variableName, true);
+        }
+
+        private DefinableVariable(String variableName, boolean isLocal) {
+            this.variableName = variableName;
+            this.isLocal = isLocal;
+        }
+    }
+
+    private static final DefinableVariable[] BUILTIN_VARIABLES = DefinableVariable.values();
+
     /**
      * Indicates that this field is a derived value from
      * one of the variables in {@link AEntityD_Definable#variables}.
-     * Variables that are derived are parsed from the map every update.
+     * Variables that are derived are parsed from the store every update.
      * To modify them you will need to update their values in the respective
      * variable set via
      * {@link PacketEntityVariableToggle},
@@ -14,6 +14,8 @@ import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableHandle;
+import minecrafttransportsimulator.baseclasses.VariableHandle.VariableType;
 import minecrafttransportsimulator.items.components.AItemSubTyped;
 import minecrafttransportsimulator.items.instances.ItemInstrument;
 import minecrafttransportsimulator.jsondefs.AJSONInteractableEntity;
@@ -21,7 +23,6 @@ import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition;
 import minecrafttransportsimulator.jsondefs.JSONCollisionBox;
 import minecrafttransportsimulator.jsondefs.JSONCollisionGroup;
 import minecrafttransportsimulator.jsondefs.JSONConnectionGroup;
-import minecrafttransportsimulator.jsondefs.JSONInstrument.JSONInstrumentComponent;
 import minecrafttransportsimulator.jsondefs.JSONInstrumentDefinition;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
@@ -32,9 +33,7 @@ import minecrafttransportsimulator.packets.instances.PacketEntityVariableSet;
 import minecrafttransportsimulator.packets.instances.PacketPlayerChatMessage;
 import minecrafttransportsimulator.packloading.PackParser;
 import minecrafttransportsimulator.rendering.RenderInstrument;
-import minecrafttransportsimulator.rendering.RenderInstrument.InstrumentSwitchbox;
-import minecrafttransportsimulator.rendering.RenderableData;
-import minecrafttransportsimulator.rendering.RenderableVertices;
+import minecrafttransportsimulator.rendering.RenderInstrument.InstrumentComposite;
 import minecrafttransportsimulator.systems.LanguageSystem;
 
 /**
@@ -60,6 +59,12 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
     public final List<List<BoundingBox>> definitionCollisionBoxes = new ArrayList<>();
     public final Set<BoundingBox> collisionBoxes = new HashSet<>();
     private final Map<JSONCollisionGroup, AnimationSwitchbox> collisionSwitchboxes = new HashMap<>();
+    private boolean[] activeCollisionGroups = new boolean[0];
+    /**
+     * True if the boxes in {@link #collisionBoxes} may have changed since this was last reset.  Lists built
+     * from the collision boxes use this to know when they need to be re-built, and are responsible for resetting it.
+     **/
+    protected boolean collisionBoxesChanged = true;
 
     /**
      * Box that encompasses all boxes on this entity.  This can be used as a pre-check for collision operations
@@ -83,15 +88,10 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
     public final List<ItemInstrument> instruments = new ArrayList<>();
 
     /**
-     * Similar to {@link #instruments}, except this is the renderable bits for them.  There's one entry for each component,
-     * with text being a null entry as text components render via the text rendering system.
+     * Similar to {@link #instruments}, except this is the cached rendering state for them.
+     * This also contains the switchboxes for the instrument components.
      */
-    public final List<List<RenderableData>> instrumentRenderables = new ArrayList<>();
-
-    /**
-     * Maps instrument components to their respective switchboxes.
-     **/
-    public final Map<JSONInstrumentComponent, InstrumentSwitchbox> instrumentComponentSwitchboxes = new LinkedHashMap<>();
+    public final List<InstrumentComposite> instrumentComposites = new ArrayList<>();
 
     /**
      * Maps instrument slot transforms to their respective switchboxes.
@@ -124,7 +124,7 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
             //Need to init lists.
             for (int i = 0; i < definition.instruments.size(); ++i) {
                 instruments.add(null);
-                instrumentRenderables.add(null);
+                instrumentComposites.add(null);
             }
 
             if (data != null) {
@@ -162,6 +162,21 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
         }
     }
 
+    @Override
+    protected void addKnownVariables(Set<String> knownVariables) {
+        super.addKnownVariables(knownVariables);
+        knownVariables.add(DAMAGE_VARIABLE);
+        if (definition.collisionGroups != null) {
+            for (JSONCollisionGroup groupDef : definition.collisionGroups) {
+                for (JSONCollisionBox boxDef : groupDef.collisions) {
+                    if (boxDef.variableName != null) {
+                        knownVariables.add(boxDef.variableName);
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     public void initializeAnimations() {
         super.initializeAnimations();
@@ -181,6 +196,8 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
                     collisionSwitchboxes.put(groupDef, new AnimationSwitchbox(this, animations, groupDef.applyAfter));
                 }
             }
+            activeCollisionGroups = new boolean[definition.collisionGroups.size()];
+            collisionBoxesChanged = true;
         }
 
         //Create instrument animation clocks.
@@ -231,6 +248,16 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
         return super.getRawVariableValue(variable, partialTicks);
     }
 
+    @Override
+    protected VariableHandle createVariableHandle(String variable, boolean inverted) {
+        //Damage variables are only checked by name, but need to be claimed so they aren't treated as unknown.
+        if ("damage_percent".equals(variable) || "damage_totaled".equals(variable)) {
+            return new VariableHandle(this, variable, inverted, VariableType.RAW);
+        } else {
+            return super.createVariableHandle(variable, inverted);
+        }
+    }
+
     /**
      * Updates the state and position of all collision boxes.
      */
@@ -240,6 +267,7 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
             for (int i = 0; i < definition.collisionGroups.size(); ++i) {
                 JSONCollisionGroup groupDef = definition.collisionGroups.get(i);
                 List<BoundingBox> boxes = definitionCollisionBoxes.get(i);
+                boolean groupActive = false;
                 if (groupDef.health == 0 || getVariable("collision_" + (i + 1) + "_damage") < groupDef.health) {
                     AnimationSwitchbox switchBox = collisionSwitchboxes.get(groupDef);
                     if (switchBox != null) {
@@ -250,15 +278,23 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
                                     box.updateToEntity(this, box.globalCenter);
                                 }
                             }
-                        } else {
-                            continue;
+                            groupActive = true;
                         }
-                    } else if (requiresDeltaUpdates) {
-                        for (BoundingBox box : boxes) {
-                            box.updateToEntity(this, null);
+                    } else {
+                        if (requiresDeltaUpdates) {
+                            for (BoundingBox box : boxes) {
+                                box.updateToEntity(this, null);
+                            }
                         }
+                        groupActive = true;
+                    }
+                    if (groupActive) {
+                        collisionBoxes.addAll(boxes);
                     }
-                    collisionBoxes.addAll(boxes);
+                }
+                if (activeCollisionGroups[i] != groupActive) {
+                    activeCollisionGroups[i] = groupActive;
+                    collisionBoxesChanged = true;
                 }
             }
         }
@@ -280,6 +316,12 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
         encompassingBox.updateToEntity(this, null);
     }
 
+    @Override
+    protected BoundingBox getCullingBox() {
+        //Encompassing box is only set from collision boxes, so it won't have any size if we don't have any.
+        return encompassingBox.widthRadius == 0 && encompassingBox.heightRadius == 0 && encompassingBox.depthRadius == 0 ? super.getCullingBox() : encompassingBox;
+    }
+
     /**
      * Applies damage to the collision group the passed-in box is a part of.
      * The box MUST have a {@link BoundingBox#groupDef} defined or this method will crash.
@@ -315,18 +357,7 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
      */
     public void addInstrument(ItemInstrument instrument, int slot) {
         instruments.set(slot, instrument);
-        List<RenderableData> renderables = new ArrayList<>();
-        for (JSONInstrumentComponent component : instrument.definition.components) {
-            if (component.textObject != null) {
-                renderables.add(null);
-            } else {
-                renderables.add(new RenderableData(RenderableVertices.createSprite(1, null, null)));
-            }
-            if (component.animations != null) {
-                instrumentComponentSwitchboxes.put(component, new InstrumentSwitchbox(this, component));
-            }
-        }
-        instrumentRenderables.set(slot, renderables);
+        instrumentComposites.set(slot, new InstrumentComposite(this, slot, false));
     }
 
     /**
@@ -335,10 +366,7 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
     public void removeIntrument(int slot) {
         ItemInstrument removedInstrument = instruments.set(slot, null);
         if (removedInstrument != null) {
-            for (JSONInstrumentComponent component : removedInstrument.definition.components) {
-                instrumentComponentSwitchboxes.remove(component);
-            }
-            instrumentRenderables.set(slot, null);
+            instrumentComposites.set(slot, null);
         }
     }
 
@@ -406,7 +434,7 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
 
                         //Instruments render with 1 unit being 1 pixel, not 1 block, so scale by 1/16.
                         instrumentTransform.applyScaling(1 / 16F, 1 / 16F, 1 / 16F);
-                        RenderInstrument.drawInstrument(this, instrumentTransform, i, false, blendingEnabled, partialTicks);
+                        RenderInstrument.drawInstrument(instrumentComposites.get(i), instrumentTransform, blendingEnabled, partialTicks);
                     }
                 }
             }
@@ -16,10 +16,13 @@ import java.util.TreeMap;
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.BoundingBoxHitResult;
+import minecrafttransportsimulator.baseclasses.CollisionBoxRegistry;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableHandle.VariableType;
+import minecrafttransportsimulator.baseclasses.VariableHandle;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityBullet;
 import minecrafttransportsimulator.entities.instances.EntityBullet.HitType;
@@ -65,6 +68,13 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
      **/
     public final Set<BoundingBox> allCollisionBoxes = new HashSet<>();
 
+    /**
+     * Registry of all collision boxes, with all part collision boxes included.  Like {@link #allCollisionBoxes},
+     * but bucketed by collision type and with the part for each box.  Only re-built when boxes change.
+     **/
+    public final CollisionBoxRegistry collisionBoxRegistry = new CollisionBoxRegistry();
+    private boolean allCollisionBoxesChanged = true;
+
     /**
      * This list contains all parts this entity has.  Do NOT directly modify this list.  Instead,
      * call {@link #addPart}, {@link #addPartFromItem}, or {@link #removePart} to ensure all sub-classed
@@ -104,6 +114,8 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
     private APart partToPlace;
     private EntityPlacedPart placedPart;
     private int placeTimer;
+    /**Cached result of {@link #canUpdateVariableModifiersInParallel()}, or null if it needs to be checked again.**/
+    private Boolean parallelVariableModifiers;
 
     public AEntityF_Multipart(AWrapperWorld world, IWrapperPlayer placingPlayer, AItemSubTyped<JSONDefinition> item, IWrapperNBT data) {
         super(world, placingPlayer, item, data);
@@ -487,6 +499,47 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
         }
     }
 
+    @Override
+    public double getRawVariableValue(VariableHandle handle, float partialTicks) {
+        if (handle.type == VariableType.PART_SPECIFIC) {
+            APart foundPart = handle.index != -1 && handle.index < partsInSlots.size() ? partsInSlots.get(handle.index) : null;
+            if (foundPart != null) {
+                return handle.getForwardedHandle(foundPart).getRawValue(partialTicks);
+            } else {
+                return 0;
+            }
+        } else {
+            return super.getRawVariableValue(handle, partialTicks);
+        }
+    }
+
+    @Override
+    public boolean isLocalVariable(VariableHandle handle) {
+        if (handle.type == VariableType.PART_SPECIFIC) {
+            APart foundPart = handle.index != -1 && handle.index < partsInSlots.size() ? partsInSlots.get(handle.index) : null;
+            return foundPart == null || handle.getForwardedHandle(foundPart).isLocal();
+        } else {
+            return super.isLocalVariable(handle);
+        }
+    }
+
+    @Override
+    protected VariableHandle createUnknownVariableHandle(String variable, boolean inverted) {
+        //All multipart classes claim their variables, so anything else is in our variable store.
+        return new VariableHandle(this, variable, inverted, VariableType.STORED, variables.getSlot(variable), null, null, null);
+    }
+
+    @Override
+    protected VariableHandle createVariableHandle(String variable, boolean inverted) {
+        int partNumber = getVariableNumber(variable);
+        if (partNumber != -1) {
+            //Slots are fixed by the definition, so we can find the slot now.  The part in it is checked on each call.
+            return new VariableHandle(this, variable, inverted, VariableType.PART_SPECIFIC, getSpecificPartSlot(variable, partNumber), null, null, variable.substring(0, variable.lastIndexOf("_")));
+        } else {
+            return super.createVariableHandle(variable, inverted);
+        }
+    }
+
     @Override
     public void toggleVariable(String variable) {
         int partNumber = getVariableNumber(variable);
@@ -521,11 +574,18 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
      * define a number, then -1 is returned.
      */
     public static int getVariableNumber(String variable) {
-        if (variable.matches("^.*_\\d+$")) {
-            return Integer.parseInt(variable.substring(variable.lastIndexOf('_') + 1)) - 1;
-        } else {
+        //Check the characters manually rather than with a regex, as this gets called a lot.
+        int suffixStart = variable.lastIndexOf('_') + 1;
+        if (suffixStart == 0 || suffixStart == variable.length()) {
             return -1;
         }
+        for (int i = suffixStart; i < variable.length(); ++i) {
+            char c = variable.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+        return Integer.parseInt(variable.substring(suffixStart)) - 1;
     }
 
     /**
@@ -635,10 +695,12 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
         if (part.ticksExisted == 0) {
             world.addEntity(part);
         }
+        allCollisionBoxesChanged = true;
 
         //Let parts know a change was made.
         part.masterEntity.updateAllpartList();
         part.masterEntity.updatePartList();
+        resetParallelVariableModifiers();
     }
 
     /**
@@ -670,11 +732,42 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
             if (!world.isClient()) {
                 InterfaceManager.packetInterface.sendToAllClients(new PacketPartChange_Remove(part, removeFromWorld));
             }
+            allCollisionBoxesChanged = true;
         }
 
         //Let parts know a change was made.
         part.masterEntity.updateAllpartList();
         part.masterEntity.updatePartList();
+        resetParallelVariableModifiers();
+    }
+
+    /**
+     * Returns true if the variable modifiers of this entity, and all its parts, may be updated off the main thread.
+     * See {@link #hasLocalVariableModifiers()}.  This is only checked again after {@link #resetParallelVariableModifiers()}
+     * is called on this entity or any of its parts, so should only be called on the top-level entity.
+     */
+    public boolean canUpdateVariableModifiersInParallel() {
+        if (parallelVariableModifiers == null) {
+            boolean canUpdate = hasLocalVariableModifiers();
+            for (APart part : allParts) {
+                if (!part.hasLocalVariableModifiers()) {
+                    canUpdate = false;
+                    break;
+                }
+            }
+            parallelVariableModifiers = canUpdate;
+        }
+        return parallelVariableModifiers;
+    }
+
+    @Override
+    public void resetParallelVariableModifiers() {
+        super.resetParallelVariableModifiers();
+        //Parts get variables from the entities they are on, and are checked with them, so reset the top-level entity too.
+        parallelVariableModifiers = null;
+        if (this instanceof APart && ((APart) this).masterEntity != null) {
+            ((APart) this).masterEntity.resetParallelVariableModifiers();
+        }
     }
 
     /**
@@ -710,16 +803,7 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
      * to know exactly what it went to.
      */
     public APart getPartWithBox(BoundingBox box) {
-        for (APart part : parts) {
-            if (part.allCollisionBoxes.contains(box)) {
-                if (part.collisionBoxes.contains(box)) {
-                    return part;
-                } else {
-                    return part.getPartWithBox(box);
-                }
-            }
-        }
-        return null;
+        return collisionBoxRegistry.getOwner(box);
     }
 
     /**
@@ -753,6 +837,7 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
      */
     private void recalculatePartSlots() {
         partSlotBoxes.clear();
+        allCollisionBoxesChanged = true;
         if (world.isClient()) {
             activeClientPartSlotBoxes.clear();
         }
@@ -785,12 +870,13 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
         if (world.isClient()) {
             if (!partSlotBoxes.isEmpty()) {
                 world.beginProfiling("PartSlotActives", false);
-                activeClientPartSlotBoxes.clear();
+                boolean checkedSlots = false;
                 if (canBeClicked()) {
                     IWrapperPlayer player = InterfaceManager.clientInterface.getClientPlayer();
                     AItemBase heldItem = player.getHeldItem();
                     boolean holdingScanner = heldItem instanceof ItemItem && ((ItemItem) heldItem).definition.item.type == ItemComponentType.SCANNER;
                     if (holdingScanner || heldItem instanceof AItemPart) {
+                        checkedSlots = true;
                         for (Entry<BoundingBox, JSONPartDefinition> partSlotBoxEntry : partSlotBoxes.entrySet()) {
                             BoundingBox box = partSlotBoxEntry.getKey();
                             JSONPartDefinition slotDef = partSlotBoxEntry.getValue();
@@ -814,7 +900,9 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
                             }
                             if (activeSlotFound) {
                                 collisionBoxes.add(box);
-                                activeClientPartSlotBoxes.put(box, slotDef);
+                                if (activeClientPartSlotBoxes.put(box, slotDef) == null) {
+                                    collisionBoxesChanged = true;
+                                }
                                 if (requiresDeltaUpdates) {
                                     AnimationSwitchbox switchBox = partSlotSwitchboxes.get(slotDef);
                                     if (switchBox != null) {
@@ -828,10 +916,17 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
                                 }
                             } else {
                                 collisionBoxes.remove(box);
+                                if (activeClientPartSlotBoxes.remove(box) != null) {
+                                    collisionBoxesChanged = true;
+                                }
                             }
                         }
                     }
                 }
+                if (!checkedSlots && !activeClientPartSlotBoxes.isEmpty()) {
+                    activeClientPartSlotBoxes.clear();
+                    collisionBoxesChanged = true;
+                }
             }
         }
     }
@@ -846,11 +941,28 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
             collisionBoxes.addAll(partSlotBoxes.keySet());
         }
 
-        //Populate all box list.
-        allCollisionBoxes.clear();
-        allCollisionBoxes.addAll(collisionBoxes);
-        for (APart part : parts) {
-            allCollisionBoxes.addAll(part.allCollisionBoxes);
+        //Populate all box lists, if any of the boxes changed.
+        if (allCollisionBoxesChanged || collisionBoxesChanged) {
+            allCollisionBoxes.clear();
+            allCollisionBoxes.addAll(collisionBoxes);
+            collisionBoxRegistry.clear();
+            for (BoundingBox box : collisionBoxes) {
+                collisionBoxRegistry.add(box, null);
+            }
+            for (APart part : parts) {
+                allCollisionBoxes.addAll(part.allCollisionBoxes);
+                for (BoundingBox box : part.allCollisionBoxes) {
+                    APart partOwner = part.getPartWithBox(box);
+                    collisionBoxRegistry.add(box, partOwner != null ? partOwner : part);
+                }
+            }
+            allCollisionBoxesChanged = false;
+            collisionBoxesChanged = false;
+
+            //Our boxes are part of the boxes of the entity we are on, so it needs to update too.
+            if (this instanceof APart) {
+                ((APart) this).entityOn.allCollisionBoxesChanged = true;
+            }
         }
 
         //Update encompassing bounding box to reflect all bounding boxes of all parts.
@@ -864,6 +976,7 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
             }
         }
         encompassingBox.updateToEntity(this, null);
+        world.updateMultipartBounds(this);
     }
 
     /**
@@ -871,19 +984,27 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
      * Returns null if the part doesn't exist.
      */
     public APart getSpecificPart(String variable, int partNumber) {
+        int slot = getSpecificPartSlot(variable, partNumber);
+        return slot != -1 && slot < partsInSlots.size() ? partsInSlots.get(slot) : null;
+    }
+
+    /**
+     * Helper method to get the slot for the part with the passed-in variable and index, as used by
+     * {@link #getSpecificPart(String, int)}.  Returns -1 if there is no such slot.
+     */
+    private int getSpecificPartSlot(String variable, int partNumber) {
         //Iterate through our parts to find the index of the pack def for the part we want.
         String partType = variable.substring(0, variable.indexOf("_"));
         if (partType.equals("part")) {
             //Shortcut as we can just get the part for the slot.
-            //Check index just in case someone screwed up a JSON.
-            return partNumber < partsInSlots.size() ? partsInSlots.get(partNumber) : null;
+            return partNumber;
         } else if (definition.parts != null) {
             for (int i = 0; i < definition.parts.size(); ++i) {
                 JSONPartDefinition partDef = definition.parts.get(i);
                 for (String defPartType : partDef.types) {
                     if (defPartType.startsWith(partType)) {
                         if (partNumber == 0) {
-                            return partsInSlots.get(i);
+                            return i;
                         } else {
                             --partNumber;
                         }
@@ -893,8 +1014,8 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
             }
         }
 
-        //No valid sub-part definitions found.  This is an error, but not one we should crash for.  Return null.
-        return null;
+        //No valid sub-part definitions found.  This is an error, but not one we should crash for.  Return -1.
+        return -1;
     }
 
     /**
@@ -2,10 +2,13 @@ package minecrafttransportsimulator.entities.components;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TowingConnection;
+import minecrafttransportsimulator.baseclasses.VariableHandle.VariableType;
+import minecrafttransportsimulator.baseclasses.VariableHandle;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.guis.components.AGUIBase;
@@ -68,6 +71,12 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
         }
     }
 
+    @Override
+    protected void addKnownVariables(Set<String> knownVariables) {
+        super.addKnownVariables(knownVariables);
+        knownVariables.add(TOWING_CONNECTION_REQUEST_VARIABLE);
+    }
+
     @Override
     public void update() {
         super.update();
@@ -252,6 +261,16 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
         return super.getRawVariableValue(variable, partialTicks);
     }
 
+    @Override
+    protected VariableHandle createVariableHandle(String variable, boolean inverted) {
+        //Connection variables are parsed based on current connections, so we can't resolve them here.
+        if (variable.startsWith("connection")) {
+            return new VariableHandle(this, variable, inverted, VariableType.RAW);
+        } else {
+            return super.createVariableHandle(variable, inverted);
+        }
+    }
+
     @Override
     public void doPostUpdateLogic() {
         super.doPostUpdateLogic();
@@ -492,6 +511,7 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
     public void connectTrailer(TowingConnection connection, boolean notifyClient) {
         towingConnections.add(connection);
         connection.towedVehicle.towedByConnection = connection;
+        connection.towedVehicle.resetParallelVariableModifiers();
         connection.towingEntity.connectionGroupsIndexesInUse.add(connection.hitchGroupIndex);
         connection.towedEntity.connectionGroupsIndexesInUse.add(connection.hookupGroupIndex);
 
@@ -519,6 +539,7 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
     public void disconnectTrailer(int connectionIndex) {
         TowingConnection connection = towingConnections.remove(connectionIndex);
         connection.towedVehicle.towedByConnection = null;
+        connection.towedVehicle.resetParallelVariableModifiers();
 
         if (connection.hitchConnectionGroup.isSnap || connection.hookupConnectionGroup.isSnap) {
             disconnectedTowingConnections.add(connection);
@@ -545,6 +566,7 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
     public void disconnectAllConnections() {
         towingConnections.clear();
         towedByConnection = null;
+        resetParallelVariableModifiers();
     }
 
     @Override
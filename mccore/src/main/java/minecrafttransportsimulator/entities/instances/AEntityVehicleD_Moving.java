@@ -1,11 +1,14 @@
 package minecrafttransportsimulator.entities.instances;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.UUID;
 
-import minecrafttransportsimulator.baseclasses.BezierCurve;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
@@ -14,7 +17,6 @@ import minecrafttransportsimulator.baseclasses.VehicleGroundDeviceCollection;
 import minecrafttransportsimulator.blocks.components.ABlockBase;
 import minecrafttransportsimulator.blocks.instances.BlockCollision;
 import minecrafttransportsimulator.blocks.tileentities.components.RoadFollowingState;
-import minecrafttransportsimulator.blocks.tileentities.components.RoadLane;
 import minecrafttransportsimulator.blocks.tileentities.components.RoadLane.LaneSelectionRequest;
 import minecrafttransportsimulator.blocks.tileentities.instances.TileEntityRoad;
 import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
@@ -101,6 +103,7 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
     private final Point3D serverDeltaMApplied = new Point3D();
     private final Point3D serverDeltaRApplied = new Point3D();
     private double serverDeltaPApplied;
+    private final Map<IWrapperPlayer, ServerDeltaSyncState> serverDeltaSyncStates = new HashMap<>();
 
     private final Point3D clientDeltaM;
     private final Point3D clientDeltaR;
@@ -146,17 +149,23 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
         this.placingPlayer = placingPlayer;
     }
 
+    @Override
+    protected void addKnownVariables(Set<String> knownVariables) {
+        super.addKnownVariables(knownVariables);
+        knownVariables.add(LEFTTURNLIGHT_VARIABLE);
+        knownVariables.add(RIGHTTURNLIGHT_VARIABLE);
+        knownVariables.add(BRAKE_VARIABLE);
+        knownVariables.add(PARKINGBRAKE_VARIABLE);
+        knownVariables.add(LOCKED_VARIABLE);
+    }
+
     @Override
     public void update() {
         super.update();
         world.beginProfiling("VehicleD_Level", true);
         //Update block collision box list with current boxes.
         allBlockCollisionBoxes.clear();
-        for (BoundingBox box : allCollisionBoxes) {
-            if (box.collisionTypes.contains(CollisionType.BLOCK)) {
-                allBlockCollisionBoxes.add(box);
-            }
-        }
+        collisionBoxRegistry.addBoxes(CollisionType.BLOCK, allBlockCollisionBoxes);
 
         //If we were placed down, and this is our first tick, check our collision boxes to make sure we are't in the ground.
         if (ticksExisted == 1 && placingPlayer != null && !world.isClient()) {
@@ -243,8 +252,8 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
                     //Check each box individually.  Need to do this to know which delta to apply.
                     BoundingBox entityBounds = entity.getBounds();
                     entityBounds.heightRadius += 0.25;
-                    for (BoundingBox box : allCollisionBoxes) {
-                        if (box.collisionTypes.contains(CollisionType.ENTITY) && entityBounds.intersects(box)) {
+                    for (BoundingBox box : collisionBoxRegistry.getBoxes(CollisionType.ENTITY)) {
+                        if (entityBounds.intersects(box)) {
                             //If the entity is within 0.5 units of the top of the box, we can move them.
                             //If not, they are just colliding and not on top of the entity and we should leave them be.
                             double entityBottomDelta = box.globalCenter.y + box.heightRadius - (entityBounds.globalCenter.y - entityBounds.heightRadius + 0.25F);
@@ -347,24 +356,7 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
                 TileEntityRoad road = ((BlockCollision) block).getMasterRoad(world, contactPoint);
                 if (road != null) {
                     //Check to see which lane we are on, if any.
-                    Point3D testPoint = new Point3D();
-                    Point3D testRotation;
-                    for (RoadLane lane : road.lanes) {
-                        //Check path-points on the curve.  If our angles and position are close, set this as the curve.
-                        for (BezierCurve curve : lane.curves) {
-                            for (float f = 0; f < curve.pathLength; ++f) {
-                                curve.setPointToPositionAt(testPoint, f);
-                                if (testPoint.isDistanceToCloserThan(contactPoint, 1)) {
-                                    testRotation = curve.getRotationAt(f).angles;
-                                    boolean sameDirection = Math.abs(testRotation.getClampedYDelta(orientation.angles.y)) < 10;
-                                    boolean oppositeDirection = Math.abs(testRotation.getClampedYDelta(orientation.angles.y)) > 170;
-                                    if (sameDirection || oppositeDirection) {
-                                        return new RoadFollowingState(lane, curve, sameDirection, f);
-                                    }
-                                }
-                            }
-                        }
-                    }
+                    return road.getFollowingState(contactPoint, orientation.angles.y);
                 }
             }
         }
@@ -996,13 +988,15 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
     private boolean correctCollidingMovement() {
         double hardnessHitThisTick = 0;
         Point3D collisionMotion = motion.copy().scale(speedFactor);
+        Point3D blockPosition = new Point3D();
         for (BoundingBox box : allBlockCollisionBoxes) {
             //If we collided, so check to see if we can break some blocks or if we need to explode.
             //Don't bother with this logic if it's impossible for us to break anything.
             if (box.updateCollisions(world, collisionMotion, true)) {
                 float hardnessHitThisBox = 0;
                 boolean inhibitMovement = false;
-                for (Point3D blockPosition : box.collidingBlockPositions) {
+                for (int i = 0; i < box.collidingBlockPositions.size(); ++i) {
+                    box.collidingBlockPositions.get(i, blockPosition);
                     float blockHardness = world.getBlockHardness(blockPosition);
                     if (!world.isBlockLiquid(blockPosition)) {
                         if (ConfigSystem.settings.damage.vehicleBlockBreaking.value && blockHardness <= velocity * currentMass / 250F && blockHardness >= 0) {
@@ -1063,6 +1057,16 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
         return false;
     }
 
+    /**
+     * Sets the server deltas to the passed-in totals.  Used on clients when the server sends its totals
+     * rather than what changed, which happens when there's too much change to send normally.
+     */
+    public void setServerDeltas(Point3D totalMotion, Point3D totalRotation, double totalPathing) {
+        serverDeltaM.set(totalMotion);
+        serverDeltaR.set(totalRotation);
+        serverDeltaP = totalPathing;
+    }
+
     public void addToServerDeltas(Point3D motionAdded, Point3D rotationAdded, double pathingAdded) {
         if (rotationAdded != null) {
             //Packet call from server, add directly.
@@ -1081,11 +1085,66 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
                 }
                 serverDeltaPApplied += pathingApplied;
                 serverDeltaP += pathingApplied;
-                InterfaceManager.packetInterface.sendToAllClients(new PacketVehicleServerMovement((EntityVehicleF_Physics) this, motionApplied, rotationApplied.angles, pathingApplied));
+            }
+            sendServerDeltas();
+        }
+    }
+
+    /**
+     * Sends any pending server deltas to the players tracking this vehicle.  Players near the vehicle are sent deltas
+     * every tick, while players further away are sent the deltas accumulated over multiple ticks, as they are too far
+     * away to notice the difference.  Players are tracking this vehicle from when they are sent its full data, until
+     * {@link #removeServerDeltas(IWrapperPlayer)} is called for them, as they will request full data again if they
+     * start tracking it later.
+     */
+    private void sendServerDeltas() {
+        if (!serverDeltaSyncStates.isEmpty()) {
+            boolean sendToFarPlayers = ticksExisted % Math.max(ConfigSystem.settings.general.movementSyncFarInterval.value, 1) == 0;
+            double nearDistance = ConfigSystem.settings.general.movementSyncNearDistance.value;
+            boolean moved = !motionApplied.isZero();
+            boolean rotated = moved && !orientation.angles.equals(prevOrientation.angles);
+            Iterator<Entry<IWrapperPlayer, ServerDeltaSyncState>> iterator = serverDeltaSyncStates.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Entry<IWrapperPlayer, ServerDeltaSyncState> entry = iterator.next();
+                IWrapperPlayer player = entry.getKey();
+                if (!player.isValid()) {
+                    //Player left without us being told they stopped tracking.
+                    iterator.remove();
+                    continue;
+                }
+                ServerDeltaSyncState state = entry.getValue();
+                if (moved) {
+                    state.motion.add(motionApplied);
+                    if (rotated) {
+                        state.rotation.add(rotationApplied.angles);
+                    }
+                    state.pathing += pathingApplied;
+                    state.hasDeltas = true;
+                }
+                if (state.hasDeltas && (sendToFarPlayers || player.getPosition().isDistanceToCloserThan(position, nearDistance))) {
+                    state.sendTo(player, (EntityVehicleF_Physics) this, serverDeltaM, serverDeltaR, serverDeltaP);
+                }
             }
         }
     }
 
+    /**
+     * Resets the pending server deltas for the passed-in player.  This should be called whenever the player
+     * is sent the full data for this vehicle, as that data already contains all deltas that would have been sent.
+     * The player is sent deltas from then on, until {@link #removeServerDeltas(IWrapperPlayer)} is called.
+     */
+    public void resetServerDeltas(IWrapperPlayer player) {
+        serverDeltaSyncStates.computeIfAbsent(player, k -> new ServerDeltaSyncState()).reset();
+    }
+
+    /**
+     * Stops sending server deltas to the passed-in player.  This should be called whenever the player stops
+     * tracking this vehicle, as they will be sent the full data again if they start tracking it later.
+     */
+    public void removeServerDeltas(IWrapperPlayer player) {
+        serverDeltaSyncStates.remove(player);
+    }
+
     /**
      * Locks or unlocks this entity.  Allows for supplemental logic.
      * Call this ONLY on the server.
@@ -1097,13 +1156,8 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
 
         //Check for doors to close on locking.
         if (locked) {
-            Iterator<String> iterator = variables.keySet().iterator();
-            while (iterator.hasNext()) {
-                String variable = iterator.next();
-                if (variable.contains("door")) {
-                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(this, variable));
-                    iterator.remove();
-                }
+            for (String variable : variables.removeIf(s -> s.contains("door"))) {
+                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(this, variable));
             }
         }
     }
@@ -1146,4 +1200,65 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
         data.setDouble("serverDeltaP", serverDeltaP);
         return data;
     }
+
+    /**
+     * Server deltas that have been applied to this vehicle, but not yet sent to a specific player.
+     * Deltas are quantized when sent, so any remainder stays here for the next packet.  Deltas too large
+     * for one packet are split over multiple, and if that would take too many packets, the player
+     * is sent the vehicle's total deltas instead, which they use in place of their own.
+     */
+    private static class ServerDeltaSyncState {
+        /**Max packets to split deltas over before sending the total deltas instead.**/
+        private static final int MAX_PACKETS_PER_SEND = 4;
+
+        private final Point3D motion = new Point3D();
+        private final Point3D rotation = new Point3D();
+        private double pathing;
+        private boolean hasDeltas;
+
+        private void sendTo(IWrapperPlayer player, EntityVehicleF_Physics vehicle, Point3D totalMotion, Point3D totalRotation, double totalPathing) {
+            if (getPacketsRequired() > MAX_PACKETS_PER_SEND) {
+                //Too far behind to catch up with deltas, so send the totals.  These include everything we have pending.
+                player.sendPacket(new PacketVehicleServerMovement(vehicle, totalMotion, totalRotation, totalPathing, true));
+                reset();
+                return;
+            }
+
+            //If we have more deltas than fit in a packet, send them over multiple so the player doesn't fall behind.
+            do {
+                Point3D motionSent = quantize(motion, PacketVehicleServerMovement.MOTION_SCALE);
+                Point3D rotationSent = quantize(rotation, PacketVehicleServerMovement.ROTATION_SCALE);
+                double pathingSent = PacketVehicleServerMovement.quantize(pathing, PacketVehicleServerMovement.MOTION_SCALE);
+                if (!motionSent.isZero() || !rotationSent.isZero() || pathingSent != 0) {
+                    player.sendPacket(new PacketVehicleServerMovement(vehicle, motionSent, rotationSent, pathingSent));
+                    motion.subtract(motionSent);
+                    rotation.subtract(rotationSent);
+                    pathing -= pathingSent;
+                }
+                hasDeltas = !quantize(motion, PacketVehicleServerMovement.MOTION_SCALE).isZero() || !quantize(rotation, PacketVehicleServerMovement.ROTATION_SCALE).isZero() || PacketVehicleServerMovement.quantize(pathing, PacketVehicleServerMovement.MOTION_SCALE) != 0;
+            } while (hasDeltas);
+        }
+
+        /**
+         * Returns the number of packets needed to send all pending deltas.
+         */
+        private int getPacketsRequired() {
+            double maxMotion = PacketVehicleServerMovement.getMaxDelta(PacketVehicleServerMovement.MOTION_SCALE);
+            double maxRotation = PacketVehicleServerMovement.getMaxDelta(PacketVehicleServerMovement.ROTATION_SCALE);
+            double motionPackets = Math.max(Math.max(Math.abs(motion.x), Math.abs(motion.y)), Math.max(Math.abs(motion.z), Math.abs(pathing))) / maxMotion;
+            double rotationPackets = Math.max(Math.max(Math.abs(rotation.x), Math.abs(rotation.y)), Math.abs(rotation.z)) / maxRotation;
+            return (int) Math.ceil(Math.max(motionPackets, rotationPackets));
+        }
+
+        private static Point3D quantize(Point3D delta, double scale) {
+            return new Point3D(PacketVehicleServerMovement.quantize(delta.x, scale), PacketVehicleServerMovement.quantize(delta.y, scale), PacketVehicleServerMovement.quantize(delta.z, scale));
+        }
+
+        private void reset() {
+            motion.set(0, 0, 0);
+            rotation.set(0, 0, 0);
+            pathing = 0;
+            hasDeltas = false;
+        }
+    }
 }
@@ -2,6 +2,7 @@ package minecrafttransportsimulator.entities.instances;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
@@ -91,6 +92,21 @@ public abstract class AEntityVehicleE_Powered extends AEntityVehicleD_Moving {
         world.addEntity(fuelTank);
     }
 
+    @Override
+    protected void addKnownVariables(Set<String> knownVariables) {
+        super.addKnownVariables(knownVariables);
+        knownVariables.add(RUNNINGLIGHT_VARIABLE);
+        knownVariables.add(HEADLIGHT_VARIABLE);
+        knownVariables.add(NAVIGATIONLIGHT_VARIABLE);
+        knownVariables.add(STROBELIGHT_VARIABLE);
+        knownVariables.add(TAXILIGHT_VARIABLE);
+        knownVariables.add(LANDINGLIGHT_VARIABLE);
+        knownVariables.add(HORN_VARIABLE);
+        knownVariables.add(GEAR_VARIABLE);
+        knownVariables.add(THROTTLE_VARIABLE);
+        knownVariables.add(REVERSE_THRUST_VARIABLE);
+    }
+
     @Override
     public void update() {
         super.update();
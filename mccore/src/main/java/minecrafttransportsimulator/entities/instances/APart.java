@@ -1,14 +1,18 @@
 package minecrafttransportsimulator.entities.instances;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableHandle.VariableType;
+import minecrafttransportsimulator.baseclasses.VariableHandle;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.items.components.AItemPart;
 import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition;
@@ -569,17 +573,9 @@ public abstract class APart extends AEntityF_Multipart<JSONPart> {
         }
 
         //Check for generic part variables.
-        switch (variable) {
-            case ("part_present"):
-                return 1;
-            case ("part_ismirrored"):
-                return isMirrored ? 1 : 0;
-            case ("part_isonfront"):
-                return placementDefinition.pos.z > 0 ? 1 : 0;
-            case ("part_isspare"):
-                return isSpare ? 1 : 0;
-            case ("part_onvehicle"):
-                return vehicleOn != null ? 1 : 0;
+        PartVariable partVariable = PartVariable.byName.get(variable);
+        if (partVariable != null) {
+            return getPartVariableValue(partVariable, partialTicks);
         }
 
         //No variables, check super variables before doing generic forwarding.
@@ -609,6 +605,91 @@ public abstract class APart extends AEntityF_Multipart<JSONPart> {
         return entityOn.getRawVariableValue(variable, partialTicks);
     }
 
+    @Override
+    public double getRawVariableValue(VariableHandle handle, float partialTicks) {
+        switch (handle.type) {
+            case PART:
+                return getPartVariableValue(PART_VARIABLES[handle.index], partialTicks);
+            case PARENT: {
+                //Same as the end of the name-based lookup, just without checking all the names first.
+                double value = handle.index != -1 ? variables.get(handle.index, Double.NaN) : variables.get(handle.variable, Double.NaN);
+                if (!Double.isNaN(value)) {
+                    return value;
+                }
+                if (!linkedParts.isEmpty() && !checkingLinkedParts) {
+                    checkingLinkedParts = true;
+                    for (APart part : linkedParts) {
+                        value = part.getRawVariableValue(handle.variable, partialTicks);
+                        if (!Double.isNaN(value)) {
+                            checkingLinkedParts = false;
+                            return value;
+                        }
+                    }
+                    checkingLinkedParts = false;
+                }
+                return handle.getForwardedHandle(entityOn).getRawValue(partialTicks);
+            }
+            default:
+                return super.getRawVariableValue(handle, partialTicks);
+        }
+    }
+
+    /**
+     * Returns the value for the passed-in part variable.
+     */
+    private double getPartVariableValue(PartVariable variable, float partialTicks) {
+        switch (variable) {
+            case PRESENT:
+                return 1;
+            case ISMIRRORED:
+                return isMirrored ? 1 : 0;
+            case ISONFRONT:
+                return placementDefinition.pos.z > 0 ? 1 : 0;
+            case ISSPARE:
+                return isSpare ? 1 : 0;
+            case ONVEHICLE:
+                return vehicleOn != null ? 1 : 0;
+        }
+        return Double.NaN;
+    }
+
+    @Override
+    public boolean isLocalVariable(VariableHandle handle) {
+        switch (handle.type) {
+            case PART:
+                return true;
+            case PARENT:
+                //Linked parts are checked by name, so we can't tell what they will use.
+                return linkedParts.isEmpty() && handle.getForwardedHandle(entityOn).isLocal();
+            default:
+                return super.isLocalVariable(handle);
+        }
+    }
+
+    /**
+     * Parts forward any variable they don't know to the entity they are on.  Because of this,
+     * sub-classes MUST claim all their variables in this method, even if only as a
+     * {@link VariableType#RAW} handle, or they will be forwarded rather than checked.
+     */
+    @Override
+    protected VariableHandle createVariableHandle(String variable, boolean inverted) {
+        //Parent variables are forwarded by name, so we can't resolve them here.
+        if (variable.startsWith("parent_")) {
+            return new VariableHandle(this, variable, inverted, VariableType.RAW);
+        }
+        PartVariable partVariable = PartVariable.byName.get(variable);
+        if (partVariable != null) {
+            return new VariableHandle(this, variable, inverted, VariableType.PART, partVariable.ordinal(), null, null, null);
+        } else {
+            return super.createVariableHandle(variable, inverted);
+        }
+    }
+
+    @Override
+    protected VariableHandle createUnknownVariableHandle(String variable, boolean inverted) {
+        return new VariableHandle(this, variable, inverted, VariableType.PARENT, variables.getSlot(variable), null, null, variable);
+    }
+
     @Override
     public int getWorldLightValue() {
         //Use master for lighting consistency.
@@ -626,4 +707,31 @@ public abstract class APart extends AEntityF_Multipart<JSONPart> {
             super.renderBoundingBoxes(transform);
         }
     }
+
+    /**
+     * Variables that are provided by all parts.  These are indexed by ordinal in {@link VariableType#PART}
+     * handles to avoid string lookups when getting their values.
+     */
+    private enum PartVariable {
+        PRESENT("part_present"),
+        ISMIRRORED("part_ismirrored"),
+        ISONFRONT("part_isonfront"),
+        ISSPARE("part_isspare"),
+        ONVEHICLE("part_onvehicle");
+
+        private static final Map<String, PartVariable> byName = new HashMap<>();
+        static {
+            for (PartVariable variable : values()) {
+                byName.put(variable.variableName, variable);
+            }
+        }
+
+        private final String variableName;
+
+        private PartVariable(String variableName) {
+            this.variableName = variableName;
+        }
+    }
+
+    private static final PartVariable[] PART_VARIABLES = PartVariable.values();
 }
@@ -1,6 +1,5 @@
 package minecrafttransportsimulator.entities.instances;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -71,7 +70,6 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet> {
     public Axis sideHit;
     private Point3D relativeGunPos;
     private Point3D prevRelativeGunPos;
-    private final List<AEntityF_Multipart<?>> multiparts = new ArrayList<>();
 
     /**
      * Generic constructor for no target.
@@ -287,261 +285,275 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet> {
 
             //Long-range bullets do checks on server only, all others do so on clients.
             //We only do client checks on the primary client, not all clients.
+            //Checks are done by the world after all entities have updated, as it can then check all bullets at once.
             if (definition.bullet.isLongRange ^ world.isClient() && (!world.isClient() || InterfaceManager.clientInterface.getClientPlayer().getID().equals(gun.lastController.getID()))) {
-                //Now that we have an accurate motion, check for collisions.
-                //First get a damage object to try to attack entities with.
-                double amount = definition.bullet.isHeat ? definition.bullet.damage : (velocity / initialVelocity) * definition.bullet.damage * ConfigSystem.settings.damage.bulletDamageFactor.value * ConfigSystem.settings.damage.packBulletDamageFactors.value.get(gun.lastLoadedBullet.definition.packID);
-                Damage damage = new Damage(gun, boundingBox, amount);
-
-                //Declare variables that may be used for hit logic.
-                AEntityF_Multipart<?> hitMultipart = null;
-                Collection<BoundingBoxHitResult> hitMultipartBoxes = null;
-                IWrapperEntity hitExternalEntity = null;
-                BlockHitResult hitBlock = world.getBlockHit(position, motion);
-                
-                //Check for collided external entities.
-                List<IWrapperEntity> attackedEntities = world.attackEntities(damage, motion, true);
-                for (IWrapperEntity entity : attackedEntities) {
-                    //Check to make sure we don't hit our controller.
-                    //This can happen with hand-held guns at speed.
-                    if (!entity.equals(gun.lastController)) {
-                        //Make sure there's not a block in the way.
-                        if (hitBlock != null && position.isFirstCloserThanSecond(hitBlock.hitPosition, entity.getPosition())) {
-                            continue;
-                        }
+                world.queueBulletCollisions(this);
+            } else {
+                updateMovement();
+            }
+        }
+    }
 
-                        //Check if already-found entity is closer.
-                        if (hitExternalEntity != null) {
-                            //Need to use helper here since the position object will be re-used on next call to other entity.
-                            helperPoint.set(hitExternalEntity.getPosition());
-                            if (position.isFirstCloserThanSecond(helperPoint, entity.getPosition())) {
-                                continue;
-                            }
-                        }
-                        hitExternalEntity = entity;
-                    }
+    /**
+     * Checks this bullet for collisions along its motion, and handles any hits.  If nothing was hit, the
+     * bullet is moved along its motion.  This is called by the world after all entities have been updated,
+     * with all the multiparts whose bounds are near the path of this bullet.
+     */
+    public void updateCollisions(List<AEntityF_Multipart<?>> nearbyMultiparts) {
+        //Now that we have an accurate motion, check for collisions.
+        //First get a damage object to try to attack entities with.
+        double amount = definition.bullet.isHeat ? definition.bullet.damage : (velocity / initialVelocity) * definition.bullet.damage * ConfigSystem.settings.damage.bulletDamageFactor.value * ConfigSystem.settings.damage.packBulletDamageFactors.value.get(gun.lastLoadedBullet.definition.packID);
+        Damage damage = new Damage(gun, boundingBox, amount);
+
+        //Declare variables that may be used for hit logic.
+        AEntityF_Multipart<?> hitMultipart = null;
+        Collection<BoundingBoxHitResult> hitMultipartBoxes = null;
+        IWrapperEntity hitExternalEntity = null;
+        BlockHitResult hitBlock = world.getBlockHit(position, motion);
+        
+        //Check for collided external entities.
+        List<IWrapperEntity> attackedEntities = world.attackEntities(damage, motion, true);
+        for (IWrapperEntity entity : attackedEntities) {
+            //Check to make sure we don't hit our controller.
+            //This can happen with hand-held guns at speed.
+            if (!entity.equals(gun.lastController)) {
+                //Make sure there's not a block in the way.
+                if (hitBlock != null && position.isFirstCloserThanSecond(hitBlock.hitPosition, entity.getPosition())) {
+                    continue;
                 }
 
-                //If we hit a entity, and we have a block hit, we need to discard the block.
-                //The only way tne entity could be hit is if it was in front of the block, and thus the block shouldn't be hit.
+                //Check if already-found entity is closer.
                 if (hitExternalEntity != null) {
-                    hitBlock = null;
+                    //Need to use helper here since the position object will be re-used on next call to other entity.
+                    helperPoint.set(hitExternalEntity.getPosition());
+                    if (position.isFirstCloserThanSecond(helperPoint, entity.getPosition())) {
+                        continue;
+                    }
                 }
+                hitExternalEntity = entity;
+            }
+        }
 
-                //Populate multiparts for following functions.
-                multiparts.clear();
-                multiparts.addAll(world.getEntitiesOfType(EntityVehicleF_Physics.class));
-                multiparts.addAll(world.getEntitiesOfType(EntityPlacedPart.class));
-
-                //Check for collided internal entities.
-                //This is a bit more involved, as we need to check all possible types and check hitbox distance.
-                Point3D endPoint = position.copy().add(motion);
-                BoundingBox bulletMovementBounds = new BoundingBox(position, endPoint);
-                for (AEntityF_Multipart<?> multipart : multiparts) {
-                    //Don't attack the entity that has the gun that fired us.
-                    if (!multipart.allParts.contains(gun)) {
-                        Collection<BoundingBoxHitResult> hitResults = multipart.getHitBoxes(position, endPoint, bulletMovementBounds, true);
-                        if (hitResults != null) {
-                            //Check boxes hit in the last-found multipart against each other to pick the closest part.
-                            boolean anyHitboxCanBeHit = false;
-                            for (BoundingBoxHitResult hitResult : hitResults) {
-                                boolean hitboxCanBeHit = true;
-
-                                //Check the prior multipart, if any of its hit hitboxes are closer, we can't be hit.
-                                if(hitMultipart != null) {
-                                    for (BoundingBoxHitResult oldHitResult : hitMultipartBoxes) {
-                                        if (position.isFirstCloserThanSecond(oldHitResult.position, hitResult.position)) {
-                                            hitboxCanBeHit = false;
-                                            break;
-                                        }
-                                    }
-                                    if (!hitboxCanBeHit) {
-                                        break;
-                                    }
-                                }
-                                
-                                //Can't hit hitboxes behind blocks.
-                                if (hitboxCanBeHit && hitBlock != null && position.isFirstCloserThanSecond(hitBlock.hitPosition, hitResult.position)) {
-                                    hitboxCanBeHit = false;
-                                }
+        //If we hit a entity, and we have a block hit, we need to discard the block.
+        //The only way tne entity could be hit is if it was in front of the block, and thus the block shouldn't be hit.
+        if (hitExternalEntity != null) {
+            hitBlock = null;
+        }
 
-                                //Can't hit hitboxes behind other entities.
-                                if (hitboxCanBeHit && hitExternalEntity != null && position.isFirstCloserThanSecond(hitExternalEntity.getPosition(), hitResult.position)) {
+        //Check for collided internal entities.
+        //This is a bit more involved, as we need to check all possible types and check hitbox distance.
+        //Only need to check the multiparts along our path, not all of them in the world.
+        Point3D endPoint = position.copy().add(motion);
+        BoundingBox bulletMovementBounds = new BoundingBox(position, endPoint);
+        for (AEntityF_Multipart<?> multipart : nearbyMultiparts) {
+            //Don't attack the entity that has the gun that fired us, or entities other bullets removed this tick.
+            if (multipart.isValid && !multipart.allParts.contains(gun)) {
+                Collection<BoundingBoxHitResult> hitResults = multipart.getHitBoxes(position, endPoint, bulletMovementBounds, true);
+                if (hitResults != null) {
+                    //Check boxes hit in the last-found multipart against each other to pick the closest part.
+                    boolean anyHitboxCanBeHit = false;
+                    for (BoundingBoxHitResult hitResult : hitResults) {
+                        boolean hitboxCanBeHit = true;
+
+                        //Check the prior multipart, if any of its hit hitboxes are closer, we can't be hit.
+                        if(hitMultipart != null) {
+                            for (BoundingBoxHitResult oldHitResult : hitMultipartBoxes) {
+                                if (position.isFirstCloserThanSecond(oldHitResult.position, hitResult.position)) {
                                     hitboxCanBeHit = false;
-                                }
-
-                                if (hitboxCanBeHit) {
-                                    anyHitboxCanBeHit = true;
                                     break;
                                 }
                             }
-
-                            if (anyHitboxCanBeHit) {
-                                hitMultipart = multipart;
-                                hitMultipartBoxes = hitResults;
+                            if (!hitboxCanBeHit) {
+                                break;
                             }
                         }
-                    }
-                }
+                        
+                        //Can't hit hitboxes behind blocks.
+                        if (hitboxCanBeHit && hitBlock != null && position.isFirstCloserThanSecond(hitBlock.hitPosition, hitResult.position)) {
+                            hitboxCanBeHit = false;
+                        }
 
-                //At this point, whatever we have to attack should be attacked.
-                //First attack the entity, since the bullet could go through it and hit a entity or block on the other side.
-                if (hitMultipart != null && hitMultipart.attackProjectile(damage, this, hitMultipartBoxes) != null) {
-                    return;
-                }
-                
-                //Now attack the block or external entity, if we have either.
-                if (hitExternalEntity != null) {
-                    if (world.isClient()) {
-                        InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHitExternalEntity(hitExternalEntity, damage));
-                        InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHitGeneric(gun, bulletNumber, hitExternalEntity.getPosition(), Axis.getFromVector(motion), HitType.ENTITY));
-                        waitingOnActionPacket = true;
-                    } else {
-                        performExternalEntityHitLogic(hitExternalEntity, damage);
-                        performGenericHitLogic(gun, bulletNumber, hitExternalEntity.getPosition(), Axis.getFromVector(motion), HitType.ENTITY);
-                    }
-                    displayDebugMessage("HIT MC ENTITY " + hitExternalEntity.getName());
-                    return;
-                }
+                        //Can't hit hitboxes behind other entities.
+                        if (hitboxCanBeHit && hitExternalEntity != null && position.isFirstCloserThanSecond(hitExternalEntity.getPosition(), hitResult.position)) {
+                            hitboxCanBeHit = false;
+                        }
 
-                if (hitBlock != null) {
-                    //Need to remove a super small amount of position if we hit a positive side on the block.
-                    //If we don't, our actual position will be in the wrong block.
-                    if (hitBlock.side.xOffset > 0) {
-                        hitBlock.hitPosition.x -= 0.000001;
-                    }
-                    if (hitBlock.side.yOffset > 0) {
-                        hitBlock.hitPosition.y -= 0.000001;
-                    }
-                    if (hitBlock.side.zOffset > 0) {
-                        hitBlock.hitPosition.z -= 0.000001;
+                        if (hitboxCanBeHit) {
+                            anyHitboxCanBeHit = true;
+                            break;
+                        }
                     }
-                    if (world.isClient()) {
-                        //It is CRITICAL that the generic packet gets sent first.  This allows the bullet on the client to get the request for
-                        //particles and sounds prior to the request from the internal system for the destruction of this block.
-                        InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHitGeneric(gun, bulletNumber, hitBlock.hitPosition, hitBlock.side, HitType.BLOCK));
-                        InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHitBlock(gun, bulletNumber, hitBlock.blockPosition, hitBlock.side));
-                        waitingOnActionPacket = true;
-                    } else {
-                        performGenericHitLogic(gun, bulletNumber, hitBlock.hitPosition, hitBlock.side, HitType.BLOCK);
-                        performBlockHitLogic(gun, bulletNumber, hitBlock.blockPosition, hitBlock.side);
+
+                    if (anyHitboxCanBeHit) {
+                        hitMultipart = multipart;
+                        hitMultipartBoxes = hitResults;
                     }
-                    displayDebugMessage("HIT BLOCK AT " + hitBlock.blockPosition + " WITH ACTUAL POSITION " + hitBlock.hitPosition);
-                    return;
                 }
+            }
+        }
 
-                //Hit nothing this tick.  Check proximity fuze against our target and blocks.
-                if (definition.bullet.proximityFuze != 0 && distanceTraveled > definition.bullet.proximityFuze * 3) {
-                    HitType hitType = null;
-                    Point3D targetToHit = null;
-                    if (targetPosition != null) {
-                        //Have an entity target, check if we got close enough to them.
-                        if (position.distanceTo(targetPosition) < definition.bullet.proximityFuze + velocity) {
-                            targetToHit = targetPosition;
-                            hitType = engineTargeted != null ? HitType.VEHICLE : HitType.ENTITY;
-                            displayDebugMessage("PROX FUZE HIT TRACKED TARGET");
-                        }
-                    } else {
-                        //No entity target, first check blocks.
-                        hitBlock = world.getBlockHit(position, motion.copy().normalize().scale(definition.bullet.proximityFuze + velocity));
-                        if (hitBlock != null) {
-                            targetToHit = hitBlock.hitPosition;
-                            hitType = HitType.BLOCK;
-                            displayDebugMessage("PROX FUZE HIT BLOCK");
-                        } else {
-                            //Need to get an entity target.
-                            //Check at deltas of the prox fuze to see if we hit one along the path.
-                            Point3D stepDelta = motion.copy().normalize().scale(definition.bullet.proximityFuze);
-                            int maxSteps = (int) Math.floor(velocity / definition.bullet.proximityFuze);
-                            proxBounds.globalCenter.set(position);
-                            for (int step = 0; step < maxSteps; ++step) {
-                                for (AEntityF_Multipart<?> multipart : multiparts) {
-                                    //Don't attack the entity that has the gun that fired us.
-                                    if (!multipart.allParts.contains(gun)) {
-                                        if (multipart.encompassingBox.intersects(proxBounds)) {
-                                            //Could have hit this multipart, check all boxes.
-                                            for (BoundingBox box : multipart.allCollisionBoxes) {
-                                                if ((box.collisionTypes.contains(CollisionType.ATTACK) || box.collisionTypes.contains(CollisionType.BULLET)) && box.globalCenter.isDistanceToCloserThan(proxBounds.globalCenter, definition.bullet.proximityFuze)) {
-                                                    targetToHit = box.globalCenter.copy();
-                                                    hitType = HitType.VEHICLE;
-                                                    displayDebugMessage("PROX FUZE HIT VEHICLE");
-                                                    break;
-                                                }
-                                            }
-                                        }
-                                    }
-                                    if (targetToHit != null) {
-                                        break;
-                                    }
-                                }
+        //At this point, whatever we have to attack should be attacked.
+        //First attack the entity, since the bullet could go through it and hit a entity or block on the other side.
+        if (hitMultipart != null && hitMultipart.attackProjectile(damage, this, hitMultipartBoxes) != null) {
+            return;
+        }
+        
+        //Now attack the block or external entity, if we have either.
+        if (hitExternalEntity != null) {
+            if (world.isClient()) {
+                InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHitExternalEntity(hitExternalEntity, damage));
+                InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHitGeneric(gun, bulletNumber, hitExternalEntity.getPosition(), Axis.getFromVector(motion), HitType.ENTITY));
+                waitingOnActionPacket = true;
+            } else {
+                performExternalEntityHitLogic(hitExternalEntity, damage);
+                performGenericHitLogic(gun, bulletNumber, hitExternalEntity.getPosition(), Axis.getFromVector(motion), HitType.ENTITY);
+            }
+            displayDebugMessage("HIT MC ENTITY " + hitExternalEntity.getName());
+            return;
+        }
 
-                                //If we didn't hit a vehicle, try entities.
-                                if (targetToHit == null) {
-                                    for (IWrapperEntity entity : world.getEntitiesWithin(proxBounds)) {
-                                        Point3D entityPos = entity.getPosition();
-                                        if (entityPos.isDistanceToCloserThan(proxBounds.globalCenter, definition.bullet.proximityFuze)) {
-                                            targetToHit = entityPos.copy();
-                                            hitType = HitType.ENTITY;
-                                            displayDebugMessage("PROX FUZE HIT ENTITY " + entity.getName());
-                                            break;
-                                        }
+        if (hitBlock != null) {
+            //Need to remove a super small amount of position if we hit a positive side on the block.
+            //If we don't, our actual position will be in the wrong block.
+            if (hitBlock.side.xOffset > 0) {
+                hitBlock.hitPosition.x -= 0.000001;
+            }
+            if (hitBlock.side.yOffset > 0) {
+                hitBlock.hitPosition.y -= 0.000001;
+            }
+            if (hitBlock.side.zOffset > 0) {
+                hitBlock.hitPosition.z -= 0.000001;
+            }
+            if (world.isClient()) {
+                //It is CRITICAL that the generic packet gets sent first.  This allows the bullet on the client to get the request for
+                //particles and sounds prior to the request from the internal system for the destruction of this block.
+                InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHitGeneric(gun, bulletNumber, hitBlock.hitPosition, hitBlock.side, HitType.BLOCK));
+                InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHitBlock(gun, bulletNumber, hitBlock.blockPosition, hitBlock.side));
+                waitingOnActionPacket = true;
+            } else {
+                performGenericHitLogic(gun, bulletNumber, hitBlock.hitPosition, hitBlock.side, HitType.BLOCK);
+                performBlockHitLogic(gun, bulletNumber, hitBlock.blockPosition, hitBlock.side);
+            }
+            displayDebugMessage("HIT BLOCK AT " + hitBlock.blockPosition + " WITH ACTUAL POSITION " + hitBlock.hitPosition);
+            return;
+        }
+
+        //Hit nothing this tick.  Check proximity fuze against our target and blocks.
+        if (definition.bullet.proximityFuze != 0 && distanceTraveled > definition.bullet.proximityFuze * 3) {
+            HitType hitType = null;
+            Point3D targetToHit = null;
+            if (targetPosition != null) {
+                //Have an entity target, check if we got close enough to them.
+                if (position.distanceTo(targetPosition) < definition.bullet.proximityFuze + velocity) {
+                    targetToHit = targetPosition;
+                    hitType = engineTargeted != null ? HitType.VEHICLE : HitType.ENTITY;
+                    displayDebugMessage("PROX FUZE HIT TRACKED TARGET");
+                }
+            } else {
+                //No entity target, first check blocks.
+                hitBlock = world.getBlockHit(position, motion.copy().normalize().scale(definition.bullet.proximityFuze + velocity));
+                if (hitBlock != null) {
+                    targetToHit = hitBlock.hitPosition;
+                    hitType = HitType.BLOCK;
+                    displayDebugMessage("PROX FUZE HIT BLOCK");
+                } else {
+                    //Need to get an entity target.
+                    //Check at deltas of the prox fuze to see if we hit one along the path.
+                    Point3D stepDelta = motion.copy().normalize().scale(definition.bullet.proximityFuze);
+                    int maxSteps = (int) Math.floor(velocity / definition.bullet.proximityFuze);
+                    proxBounds.globalCenter.set(position);
+                    for (int step = 0; step < maxSteps; ++step) {
+                        for (AEntityF_Multipart<?> multipart : nearbyMultiparts) {
+                            //Don't attack the entity that has the gun that fired us.
+                            if (multipart.isValid && multipart.encompassingBox.intersects(proxBounds) && !multipart.allParts.contains(gun)) {
+                                //Could have hit this multipart, check all boxes.
+                                for (BoundingBox box : multipart.allCollisionBoxes) {
+                                    if ((box.collisionTypes.contains(CollisionType.ATTACK) || box.collisionTypes.contains(CollisionType.BULLET)) && box.globalCenter.isDistanceToCloserThan(proxBounds.globalCenter, definition.bullet.proximityFuze)) {
+                                        targetToHit = box.globalCenter.copy();
+                                        hitType = HitType.VEHICLE;
+                                        displayDebugMessage("PROX FUZE HIT VEHICLE");
+                                        break;
                                     }
                                 }
+                            }
+                            if (targetToHit != null) {
+                                break;
+                            }
+                        }
 
-                                if (targetToHit != null) {
+                        //If we didn't hit a vehicle, try entities.
+                        if (targetToHit == null) {
+                            for (IWrapperEntity entity : world.getEntitiesWithin(proxBounds)) {
+                                Point3D entityPos = entity.getPosition();
+                                if (entityPos.isDistanceToCloserThan(proxBounds.globalCenter, definition.bullet.proximityFuze)) {
+                                    targetToHit = entityPos.copy();
+                                    hitType = HitType.ENTITY;
+                                    displayDebugMessage("PROX FUZE HIT ENTITY " + entity.getName());
                                     break;
-                                } else {
-                                    //Add the step delta for the next check.
-                                    proxBounds.globalCenter.add(stepDelta);
                                 }
                             }
                         }
-                    }
-                    if (hitType != null) {
-                        double distanceToTarget = position.distanceTo(targetToHit);
-                        if (distanceToTarget > definition.bullet.proximityFuze) {
-                            //We will hit this target this tick, but we need to move right to the prox distance before detonating.
-                            position.interpolate(targetToHit, (distanceToTarget - definition.bullet.proximityFuze) / definition.bullet.proximityFuze);
-                        }
-                        if (world.isClient()) {
-                            InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHitGeneric(gun, bulletNumber, position, Axis.getFromVector(motion), hitType));
-                            waitingOnActionPacket = true;
-                        } else {
-                            performGenericHitLogic(gun, bulletNumber, position, Axis.getFromVector(motion), hitType);
-                        }
-                        return;
-                    }
-                }
 
-                //Didn't hit a block either. Check the air-burst time, if it was used.
-                if (definition.bullet.airBurstDelay != 0) {
-                    if (ticksExisted > definition.bullet.airBurstDelay) {
-                        if (world.isClient()) {
-                            InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHitGeneric(gun, bulletNumber, position, Axis.NONE, HitType.BURST));
-                            waitingOnActionPacket = true;
+                        if (targetToHit != null) {
+                            break;
                         } else {
-                            performGenericHitLogic(gun, bulletNumber, position, Axis.NONE, HitType.BURST);
+                            //Add the step delta for the next check.
+                            proxBounds.globalCenter.add(stepDelta);
                         }
-                        displayDebugMessage("BURST");
-                        return;
                     }
                 }
             }
-
-            //Add our updated motion to the position.
-            //Then set the angles to match the motion.
-            //Doing this last lets us damage on the first update tick.
-            position.add(motion);
-            if (!isBomb && (definition.bullet.accelerationDelay == 0 || ticksExisted > definition.bullet.accelerationDelay)) {
-                orientation.setToVector(motion, true);
+            if (hitType != null) {
+                double distanceToTarget = position.distanceTo(targetToHit);
+                if (distanceToTarget > definition.bullet.proximityFuze) {
+                    //We will hit this target this tick, but we need to move right to the prox distance before detonating.
+                    position.interpolate(targetToHit, (distanceToTarget - definition.bullet.proximityFuze) / definition.bullet.proximityFuze);
+                }
+                if (world.isClient()) {
+                    InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHitGeneric(gun, bulletNumber, position, Axis.getFromVector(motion), hitType));
+                    waitingOnActionPacket = true;
+                } else {
+                    performGenericHitLogic(gun, bulletNumber, position, Axis.getFromVector(motion), hitType);
+                }
+                return;
             }
+        }
 
-            //Set gun pos if the gun has requested it by creating it.
-            if (relativeGunPos != null) {
-                prevRelativeGunPos.set(relativeGunPos);
-                relativeGunPos.set(position).subtract(gun.position).reOrigin(gun.orientation);
+        //Didn't hit a block either. Check the air-burst time, if it was used.
+        if (definition.bullet.airBurstDelay != 0) {
+            if (ticksExisted > definition.bullet.airBurstDelay) {
+                if (world.isClient()) {
+                    InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHitGeneric(gun, bulletNumber, position, Axis.NONE, HitType.BURST));
+                    waitingOnActionPacket = true;
+                } else {
+                    performGenericHitLogic(gun, bulletNumber, position, Axis.NONE, HitType.BURST);
+                }
+                displayDebugMessage("BURST");
+                return;
             }
         }
+
+        //Hit nothing, so move along.
+        updateMovement();
+    }
+
+    /**
+     * Moves this bullet along its motion for this tick.
+     */
+    private void updateMovement() {
+        //Add our updated motion to the position.
+        //Then set the angles to match the motion.
+        //Doing this last lets us damage on the first update tick.
+        position.add(motion);
+        if (!isBomb && (definition.bullet.accelerationDelay == 0 || ticksExisted > definition.bullet.accelerationDelay)) {
+            orientation.setToVector(motion, true);
+        }
+
+        //Set gun pos if the gun has requested it by creating it.
+        if (relativeGunPos != null) {
+            prevRelativeGunPos.set(relativeGunPos);
+            relativeGunPos.set(position).subtract(gun.position).reOrigin(gun.orientation);
+        }
     }
 
     @Override
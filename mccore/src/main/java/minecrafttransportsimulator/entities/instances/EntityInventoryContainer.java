@@ -21,6 +21,8 @@ public class EntityInventoryContainer extends AEntityA_Base implements IInventor
     private static final IWrapperNBT blankData = InterfaceManager.coreInterface.getNewNBTWrapper();
     private final List<IWrapperItemStack> inventory;
     private final int stackSize;
+    /**Cached mass of the inventory, or -1 if it needs to be re-calculated.**/
+    private double inventoryMass = -1;
 
     public EntityInventoryContainer(AWrapperWorld world, IWrapperNBT data, int maxSlots) {
         this(world, data, maxSlots, 64);
@@ -45,7 +47,11 @@ public class EntityInventoryContainer extends AEntityA_Base implements IInventor
 
     @Override
     public double getMass() {
-        return getInventoryMass();
+        //Mass only changes when stacks do, so we cache it rather than checking every stack every tick.
+        if (inventoryMass == -1) {
+            inventoryMass = getInventoryMass();
+        }
+        return inventoryMass;
     }
 
     @Override
@@ -66,6 +72,7 @@ public class EntityInventoryContainer extends AEntityA_Base implements IInventor
     @Override
     public void setStack(IWrapperItemStack stackToSet, int index) {
         inventory.set(index, stackToSet);
+        inventoryMass = -1;
         if (!world.isClient()) {
             InterfaceManager.packetInterface.sendToAllClients(new PacketInventoryContainerChange(this, index, stackToSet));
         }
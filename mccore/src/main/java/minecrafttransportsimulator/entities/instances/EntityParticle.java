@@ -22,6 +22,7 @@ import minecrafttransportsimulator.jsondefs.JSONParticle.ParticleType;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.rendering.AModelParser;
+import minecrafttransportsimulator.rendering.ParticleRenderBatch;
 import minecrafttransportsimulator.rendering.RenderableData;
 import minecrafttransportsimulator.rendering.RenderableData.LightingMode;
 import minecrafttransportsimulator.rendering.RenderableVertices;
@@ -41,10 +42,13 @@ public class EntityParticle extends AEntityC_Renderable {
     private static final ColorRGB helperColor = new ColorRGB();
     private static final Map<String, RenderableVertices> parsedParticleModels = new HashMap<>();
     private static final Random particleRandom = new Random();
+    private static final TransformationMatrix batchTransform = new TransformationMatrix();
+    private static final RotationMatrix batchRotation = new RotationMatrix();
+    private static final Point3D batchPosition = new Point3D();
 
     //Constant properties.
     private final AEntityC_Renderable entitySpawning;
-    private final JSONParticle definition;
+    public final JSONParticle definition;
     private final int maxAge;
     private final Point3D initialVelocity;
     private final IWrapperPlayer clientPlayer = InterfaceManager.clientInterface.getClientPlayer();
@@ -159,7 +163,7 @@ public class EntityParticle extends AEntityC_Renderable {
 
         //Now that position is set, check to make sure we aren't an invalid particle.
         if (definition.type == ParticleType.BREAK) {
-            if (world.isAir(position)) {
+            if (world.particles.isAir(world, position)) {
                 //Don't spawn break particles in the air, they're null textures.
                 this.staticColor = null;
                 this.renderable = null;
@@ -220,7 +224,7 @@ public class EntityParticle extends AEntityC_Renderable {
         Point3D blockCheckPosition;
         if(definition.getBlockPropertiesFromGround) {
         	//Center of block for safety of FPEs.
-        	blockCheckPosition = position.copy().add(0, -world.getHeight(position) - 0.5, 0);
+        	blockCheckPosition = new Point3D(position.x, world.particles.getGroundBlockY(world, position) + 0.5, position.z);
     	}else {
     		blockCheckPosition = position;
     	}
@@ -350,7 +354,7 @@ public class EntityParticle extends AEntityC_Renderable {
                     }
                     case BUBBLE: {
                         //Bubbles float up until they break the surface of the water, then they pop.
-                        if (!world.isBlockLiquid(position)) {
+                        if (!world.particles.isBlockLiquid(world, position)) {
                             remove();
                         } else {
                             motion.scale(0.85).add(0, 0.002D, 0);
@@ -456,7 +460,7 @@ public class EntityParticle extends AEntityC_Renderable {
         //Check for sub particles.
         if (definition.subParticles != null) {
             for (JSONSubParticle subDef : definition.subParticles) {
-                if (subDef.particle.spawnEveryTick ? subDef.time >= ticksExisted : subDef.time == ticksExisted) {
+                if ((subDef.particle.spawnEveryTick ? subDef.time >= ticksExisted : subDef.time == ticksExisted) && world.particles.shouldSpawnParticle()) {
                     world.addEntity(new EntityParticle(this, subDef.particle, position, null));
                 }
             }
@@ -478,8 +482,41 @@ public class EntityParticle extends AEntityC_Renderable {
         return false;
     }
 
+    @Override
+    public int getWorldLightValue() {
+        return world.particles.getLightValue(position);
+    }
+
     @Override
     protected void renderModel(TransformationMatrix transform, boolean blendingEnabled, float partialTicks) {
+        if (prepareRenderable(transform, blendingEnabled, partialTicks)) {
+            renderable.render();
+        }
+    }
+
+    /**
+     * Adds this particle to the batch rather than rendering it on its own.  The transform
+     * given to the batch is relative to the camera position, so the batch should be rendered
+     * with the camera at the rendering origin.
+     */
+    public void renderToBatch(ParticleRenderBatch batch, Point3D cameraPosition, boolean blendingEnabled, float partialTicks) {
+        if (!disableRendering() && !isCulled()) {
+            getInterpolatedOrientation(batchRotation, partialTicks);
+            batchPosition.set(prevPosition).interpolate(position, partialTicks).subtract(cameraPosition);
+            batchTransform.resetTransforms();
+            batchTransform.setTranslation(batchPosition);
+            batchTransform.applyRotation(batchRotation);
+            if (prepareRenderable(batchTransform, blendingEnabled, partialTicks)) {
+                batch.add(renderable);
+            }
+        }
+    }
+
+    /**
+     * Sets the state of the renderable for this frame, and returns true if it should
+     * be rendered in this pass.
+     */
+    private boolean prepareRenderable(TransformationMatrix transform, boolean blendingEnabled, float partialTicks) {
         //First set alpha, then check translucent.
         //We could change it this update cycle.
         if (definition.toTransparency != 0) {
@@ -515,8 +552,9 @@ public class EntityParticle extends AEntityC_Renderable {
             }
             renderable.transform.applyScaling(totalScale * entitySpawning.scale.x, totalScale * entitySpawning.scale.y, totalScale * entitySpawning.scale.z);
             renderable.setLightValue(worldLightValue);
-            renderable.render();
+            return true;
         }
+        return false;
     }
 
     @Override
@@ -86,12 +86,10 @@ public class EntityPlacedPart extends AEntityF_Multipart<JSONDummyPartProvider>
                             if (motionApplied.y < motion.y) {
                                 motionApplied.y = motion.y;
                             }
-                            for (BoundingBox box : allCollisionBoxes) {
-                                if (box.collisionTypes.contains(CollisionType.BLOCK)) {
-                                    box.updateCollisions(world, motionApplied, false);
-                                    if (box.currentCollisionDepth.y <= maxCollisionDepth) {
-                                        maxCollisionDepth = box.currentCollisionDepth.y;
-                                    }
+                            for (BoundingBox box : collisionBoxRegistry.getBoxes(CollisionType.BLOCK)) {
+                                box.updateCollisions(world, motionApplied, false);
+                                if (box.currentCollisionDepth.y <= maxCollisionDepth) {
+                                    maxCollisionDepth = box.currentCollisionDepth.y;
                                 }
                             }
                         }
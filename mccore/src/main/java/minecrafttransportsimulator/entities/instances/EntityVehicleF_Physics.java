@@ -1,7 +1,9 @@
 package minecrafttransportsimulator.entities.instances;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
@@ -9,6 +11,8 @@ import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TowingConnection;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableHandle.VariableType;
+import minecrafttransportsimulator.baseclasses.VariableHandle;
 import minecrafttransportsimulator.entities.components.AEntityB_Existing;
 import minecrafttransportsimulator.entities.components.AEntityG_Towable;
 import minecrafttransportsimulator.items.instances.ItemVehicle;
@@ -164,6 +168,24 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
         }
     }
 
+    @Override
+    protected void addKnownVariables(Set<String> knownVariables) {
+        super.addKnownVariables(knownVariables);
+        knownVariables.add(AILERON_INPUT_VARIABLE);
+        knownVariables.add(AILERON_VARIABLE);
+        knownVariables.add(AILERON_TRIM_VARIABLE);
+        knownVariables.add(ELEVATOR_INPUT_VARIABLE);
+        knownVariables.add(ELEVATOR_VARIABLE);
+        knownVariables.add(ELEVATOR_TRIM_VARIABLE);
+        knownVariables.add(RUDDER_INPUT_VARIABLE);
+        knownVariables.add(RUDDER_VARIABLE);
+        knownVariables.add(RUDDER_TRIM_VARIABLE);
+        knownVariables.add(FLAPS_VARIABLE);
+        knownVariables.add(AUTOPILOT_VALUE_VARIABLE);
+        knownVariables.add(AUTOPILOT_ACTIVE_VARIABLE);
+        knownVariables.add(AUTOLEVEL_VARIABLE);
+    }
+
     @Override
     public void update() {
         super.update();
@@ -810,11 +832,124 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
         }
 
         //Not a part of a forwarded variable.  Just return normally.
+        VehicleVariable vehicleVariable = VehicleVariable.byName.get(variable);
+        if (vehicleVariable != null) {
+            return getVehicleVariableValue(vehicleVariable, partialTicks);
+        }
+
+        //Missile incoming variables.
+        //Variable is in the form of missile_X_variablename.
+        if (variable.startsWith("missile_")) {
+            String missileVariable = variable.substring(variable.lastIndexOf("_") + 1);
+            int missileNumber = getVariableNumber(variable.substring(0, variable.lastIndexOf('_')));
+            if (missileNumber != -1) {
+                if (missilesIncoming.size() <= missileNumber) {
+                    return 0;
+                } else {
+                    switch (missileVariable) {
+                        case ("distance"):
+                            return missilesIncoming.get(missileNumber).targetDistance;
+                        case ("direction"): {
+                            Point3D missilePos = missilesIncoming.get(missileNumber).position;
+                            return Math.toDegrees(Math.atan2(-missilePos.z + position.z, -missilePos.x + position.x)) + 90 + orientation.angles.y;
+                        }
+                    }
+                }
+            } else if (missileVariable.equals("incoming")) {
+                return missilesIncoming.isEmpty() ? 0 : 1;
+            }
+        }
+        //Radar variables.
+        if (variable.startsWith("radar_")) {
+            String[] parsedVariable = variable.split("_");
+
+            //First check if we are seeing with our own radar, or being seen.
+            //Variable is in the form of radar_X_variablename for inbound, radar_X_Y_variablename for outbound.
+            List<EntityVehicleF_Physics> radarList;
+            switch (parsedVariable[1]) {
+                case ("aircraft"): {
+                    radarList = aircraftOnRadar;
+                    break;
+                }
+                case ("ground"): {
+                    radarList = groundersOnRadar;
+                    break;
+                }
+                default: {
+                    //Inbound contact from another radar.
+                    switch (parsedVariable.length) {
+                        case 2: {
+                            switch (parsedVariable[1]) {
+                                case ("detected"):
+                                    return radarsTracking.isEmpty() ? 0 : 1;
+                            }
+                            break;
+                        }
+                        case 3: {
+                            int radarNumber = Integer.parseInt(parsedVariable[1]) - 1;
+                            if (radarsTracking.size() <= radarNumber) {
+                                return 0;
+                            } else {
+                                switch (parsedVariable[2]) {
+                                    case ("detected"):
+                                        return 1;
+                                    case ("distance"):
+                                        return radarsTracking.get(radarNumber).position.distanceTo(position);
+                                    case ("direction"): {
+                                        Point3D entityPos = radarsTracking.get(radarNumber).position;
+                                        return Math.toDegrees(Math.atan2(-entityPos.z + position.z, -entityPos.x + position.x)) + 90 + orientation.angles.y;
+                                    }
+                                }
+                            }
+                        }
+                    }
+                    //Invalid inbound radar value, return 0.
+                    return 0;
+                }
+            }
+
+            //Outbound radar found, do logic.
+            int radarNumber = Integer.parseInt(parsedVariable[2]) - 1;
+            if (radarNumber < radarList.size()) {
+                AEntityB_Existing contact = radarList.get(radarNumber);
+                switch (parsedVariable[3]) {
+                    case ("distance"):
+                        return contact.position.distanceTo(position);
+                    case ("direction"):
+                        double delta = Math.toDegrees(Math.atan2(-contact.position.z + position.z, -contact.position.x + position.x)) + 90 + orientation.angles.y;
+                        while (delta < -180)
+                            delta += 360;
+                        while (delta > 180)
+                            delta -= 360;
+                        return delta;
+                    case ("speed"):
+                        return contact.velocity;
+                    case ("altitude"):
+                        return contact.position.y;
+                    case ("angle"):
+                        return -Math.toDegrees(Math.atan2(-contact.position.y + position.y, Math.hypot(-contact.position.z + position.z, -contact.position.x + position.x))) + orientation.angles.x;
+                }
+            }
+
+            //Contact not found or bad variable, return 0.
+            return 0;
+        }
+
+        //Not a vehicle variable or a part variable.  We could have an error, but likely we have an older pack,
+        //a closed door, a missing part, a custom variable that's not on, or something else entirely.
+        //Just return super here.
+        return super.getRawVariableValue(variable, partialTicks);
+    }
+
+    /**
+     * Returns the value for the passed-in vehicle variable.
+     */
+    private double getVehicleVariableValue(VehicleVariable variable, float partialTicks) {
         switch (variable) {
             //Vehicle world state cases.
-            case ("yaw"):
+            case YAW:
                 return orientation.angles.y;
-            case ("heading"):
+            case HEADING:
                 double heading = -orientation.angles.y;
                 if (ConfigSystem.client.controlSettings.north360.value)
                     heading += 180;
@@ -823,202 +958,150 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
                 while (heading > 360)
                     heading -= 360;
                 return heading;
-            case ("pitch"):
+            case PITCH:
                 return orientation.angles.x;
-            case ("roll"):
+            case ROLL:
                 return orientation.angles.z;
-            case ("altitude"):
+            case ALTITUDE:
                 return position.y - seaLevel;
-            case ("speed"):
+            case SPEED:
                 return indicatedSpeed;
-            case ("speed_scaled"):
+            case SPEED_SCALED:
                 return indicatedSpeed / speedFactor;
-            case ("speed_factor"):
+            case SPEED_FACTOR:
                 return speedFactor;
-            case ("acceleration"):
+            case ACCELERATION:
                 return motion.length() - prevMotion.length();
-            case ("road_angle_front"):
+            case ROAD_ANGLE_FRONT:
                 return frontFollower != null ? frontFollower.getCurrentYaw() - orientation.angles.y : 0;
-            case ("road_angle_rear"):
+            case ROAD_ANGLE_REAR:
                 return rearFollower != null ? rearFollower.getCurrentYaw() - orientation.angles.y : 0;
             //Vehicle state cases.
-            case("autopilot_present"):
+            case AUTOPILOT_PRESENT:
                 return definition.motorized.hasAutopilot ? 1 : 0;
-            case ("fuel"):
+            case FUEL:
                 return fuelTank.getFluidLevel() / fuelTank.getMaxLevel();
-            case ("mass"):
+            case MASS:
                 return currentMass;
-            case ("electric_power"):
+            case ELECTRIC_POWER:
                 return electricPower;
-            case ("electric_usage"):
+            case ELECTRIC_USAGE:
                 return electricFlow * 20D;
-            case ("engines_on"):
+            case ENGINES_ON:
                 return enginesOn ? 1 : 0;
-            case ("engines_starting"):
+            case ENGINES_STARTING:
                 return enginesStarting ? 1 : 0;
-            case ("engines_running"):
+            case ENGINES_RUNNING:
                 return enginesRunning ? 1 : 0;
-            case ("reverser"):
+            case REVERSER:
                 return reverseThrust ? 1 : 0;
-            case ("reverser_present"):
+            case REVERSER_PRESENT:
                 return hasReverseThrust ? 1 : 0;
-            case ("locked"):
+            case LOCKED:
                 return locked ? 1 : 0;
-            case ("door"):
+            case DOOR:
                 return parkingBrakeOn && velocity < 0.25 ? 1 : 0;
-            case ("fueling"):
+            case FUELING:
                 return beingFueled ? 1 : 0;
             //Good for tuning aircraft engines.
-            case ("thrust"):
+            case THRUST:
                 return thrustForceValue;
             //State cases generally used on aircraft.
-            case ("flaps_actual"):
+            case FLAPS_ACTUAL:
                 return flapCurrentAngle;
-            case ("flaps_moving"):
+            case FLAPS_MOVING:
                 return flapCurrentAngle != flapDesiredAngle ? 1 : 0;
-            case ("flaps_increasing"):
+            case FLAPS_INCREASING:
                 return flapCurrentAngle < flapDesiredAngle ? 1 : 0;
-            case ("flaps_decreasing"):
+            case FLAPS_DECREASING:
                 return flapCurrentAngle > flapDesiredAngle ? 1 : 0;
-            case ("vertical_speed"):
+            case VERTICAL_SPEED:
                 return motion.y * speedFactor * 20;
-            case ("lift_reserve"):
+            case LIFT_RESERVE:
                 return -trackAngle;
-            case ("turn_coordinator"):
+            case TURN_COORDINATOR:
                 return ((rotation.angles.z) / 10 + rotation.angles.y) / 0.15D * 25;
-            case ("turn_indicator"):
+            case TURN_INDICATOR:
                 return (rotation.angles.y) / 0.15F * 25F;
-            case ("pitch_indicator"):
+            case PITCH_INDICATOR:
                 return (rotation.angles.x) / 0.15F * 25F;
-            case ("slip"):
+            case SLIP:
                 return 75 * sideVector.dotProduct(normalizedVelocityVector, true);
-            case ("slip_degrees"):
+            case SLIP_DEGREES:
                 return -Math.toDegrees(Math.asin(sideVector.dotProduct(normalizedVelocityVector, false)));
-            case ("slip_understeer"):
+            case SLIP_UNDERSTEER:
                 return getSteeringAngle() * (1 - Math.max(0, Math.min(1, Math.abs(turningForce) / 10)));
-            case ("gear_present"):
+            case GEAR_PRESENT:
                 return definition.motorized.gearSequenceDuration != 0 ? 1 : 0;
-            case ("gear_moving"):
+            case GEAR_MOVING:
                 return (isVariableActive(GEAR_VARIABLE) ? gearMovementTime != definition.motorized.gearSequenceDuration : gearMovementTime != 0) ? 1 : 0;
-            case ("beacon_direction"):
+            case BEACON_DIRECTION:
                 return selectedBeacon != null ? orientation.angles.getClampedYDelta(Math.toDegrees(Math.atan2(selectedBeacon.position.x - position.x, selectedBeacon.position.z - position.z))) : 0;
-            case ("beacon_bearing_setpoint"):
+            case BEACON_BEARING_SETPOINT:
                 return selectedBeacon != null ? selectedBeacon.bearing : 0;
-            case ("beacon_bearing_delta"):
+            case BEACON_BEARING_DELTA:
                 return selectedBeacon != null ? selectedBeacon.getBearingDelta(this) : 0;
-            case ("beacon_glideslope_setpoint"):
+            case BEACON_GLIDESLOPE_SETPOINT:
                 return selectedBeacon != null ? selectedBeacon.glideSlope : 0;
-            case ("beacon_glideslope_actual"):
+            case BEACON_GLIDESLOPE_ACTUAL:
                 return selectedBeacon != null ? Math.toDegrees(Math.asin((position.y - selectedBeacon.position.y) / position.distanceTo(selectedBeacon.position))) : 0;
-            case ("beacon_glideslope_delta"):
+            case BEACON_GLIDESLOPE_DELTA:
                 return selectedBeacon != null ? selectedBeacon.glideSlope - Math.toDegrees(Math.asin((position.y - selectedBeacon.position.y) / position.distanceTo(selectedBeacon.position))) : 0;
-            case ("beacon_distance"):
+            case BEACON_DISTANCE:
                 return selectedBeacon != null ? Math.hypot(-selectedBeacon.position.z + position.z,-selectedBeacon.position.x + position.x) : 0;
-            default: {
-                //Missile incoming variables.
-                //Variable is in the form of missile_X_variablename.
-                if (variable.startsWith("missile_")) {
-                    String missileVariable = variable.substring(variable.lastIndexOf("_") + 1);
-                    int missileNumber = getVariableNumber(variable.substring(0, variable.lastIndexOf('_')));
-                    if (missileNumber != -1) {
-                        if (missilesIncoming.size() <= missileNumber) {
-                            return 0;
-                        } else {
-                            switch (missileVariable) {
-                                case ("distance"):
-                                    return missilesIncoming.get(missileNumber).targetDistance;
-                                case ("direction"): {
-                                    Point3D missilePos = missilesIncoming.get(missileNumber).position;
-                                    return Math.toDegrees(Math.atan2(-missilePos.z + position.z, -missilePos.x + position.x)) + 90 + orientation.angles.y;
-                                }
-                            }
-                        }
-                    } else if (missileVariable.equals("incoming")) {
-                        return missilesIncoming.isEmpty() ? 0 : 1;
-                    }
-                }
-                //Radar variables.
-                if (variable.startsWith("radar_")) {
-                    String[] parsedVariable = variable.split("_");
-
-                    //First check if we are seeing with our own radar, or being seen.
-                    //Variable is in the form of radar_X_variablename for inbound, radar_X_Y_variablename for outbound.
-                    List<EntityVehicleF_Physics> radarList;
-                    switch (parsedVariable[1]) {
-                        case ("aircraft"): {
-                            radarList = aircraftOnRadar;
-                            break;
-                        }
-                        case ("ground"): {
-                            radarList = groundersOnRadar;
-                            break;
-                        }
-                        default: {
-                            //Inbound contact from another radar.
-                            switch (parsedVariable.length) {
-                                case 2: {
-                                    switch (parsedVariable[1]) {
-                                        case ("detected"):
-                                            return radarsTracking.isEmpty() ? 0 : 1;
-                                    }
-                                    break;
-                                }
-                                case 3: {
-                                    int radarNumber = Integer.parseInt(parsedVariable[1]) - 1;
-                                    if (radarsTracking.size() <= radarNumber) {
-                                        return 0;
-                                    } else {
-                                        switch (parsedVariable[2]) {
-                                            case ("detected"):
-                                                return 1;
-                                            case ("distance"):
-                                                return radarsTracking.get(radarNumber).position.distanceTo(position);
-                                            case ("direction"): {
-                                                Point3D entityPos = radarsTracking.get(radarNumber).position;
-                                                return Math.toDegrees(Math.atan2(-entityPos.z + position.z, -entityPos.x + position.x)) + 90 + orientation.angles.y;
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                            //Invalid inbound radar value, return 0.
-                            return 0;
-                        }
-                    }
+        }
+        return Double.NaN;
+    }
 
-                    //Outbound radar found, do logic.
-                    int radarNumber = Integer.parseInt(parsedVariable[2]) - 1;
-                    if (radarNumber < radarList.size()) {
-                        AEntityB_Existing contact = radarList.get(radarNumber);
-                        switch (parsedVariable[3]) {
-                            case ("distance"):
-                                return contact.position.distanceTo(position);
-                            case ("direction"):
-                                double delta = Math.toDegrees(Math.atan2(-contact.position.z + position.z, -contact.position.x + position.x)) + 90 + orientation.angles.y;
-                                while (delta < -180)
-                                    delta += 360;
-                                while (delta > 180)
-                                    delta -= 360;
-                                return delta;
-                            case ("speed"):
-                                return contact.velocity;
-                            case ("altitude"):
-                                return contact.position.y;
-                            case ("angle"):
-                                return -Math.toDegrees(Math.atan2(-contact.position.y + position.y, Math.hypot(-contact.position.z + position.z, -contact.position.x + position.x))) + orientation.angles.x;
-                        }
-                    }
+    @Override
+    protected VariableHandle createVariableHandle(String variable, boolean inverted) {
+        //Hookup variables may be forwarded to our towing vehicle, so check for that on each call.
+        //The handle for when we aren't towed is the same as if we weren't a trailer.
+        if (definition.motorized.isTrailer && definition.motorized.hookupVariables.contains(variable)) {
+            return new VariableHandle(this, variable, inverted, VariableType.HOOKUP, 0, null, null, variable, createLocalVariableHandle(variable, inverted));
+        } else {
+            return createLocalVariableHandle(variable, inverted);
+        }
+    }
 
-                    //Contact not found or bad variable, return 0.
-                    return 0;
-                }
-            }
+    /**
+     * Helper method to create a handle for variables that aren't forwarded to our towing vehicle.
+     */
+    private VariableHandle createLocalVariableHandle(String variable, boolean inverted) {
+        VehicleVariable vehicleVariable = VehicleVariable.byName.get(variable);
+        if (vehicleVariable != null) {
+            return new VariableHandle(this, variable, inverted, VariableType.VEHICLE, vehicleVariable.ordinal(), null, null, null);
+        } else if (variable.startsWith("missile_") || variable.startsWith("radar_")) {
+            //Missile and radar variables depend on what we are tracking, so we can't resolve them here.
+            return new VariableHandle(this, variable, inverted, VariableType.RAW);
+        } else {
+            return super.createVariableHandle(variable, inverted);
         }
+    }
 
-        //Not a vehicle variable or a part variable.  We could have an error, but likely we have an older pack,
-        //a closed door, a missing part, a custom variable that's not on, or something else entirely.
-        //Just return super here.
-        return super.getRawVariableValue(variable, partialTicks);
+    @Override
+    public boolean isLocalVariable(VariableHandle handle) {
+        switch (handle.type) {
+            case VEHICLE:
+                return true;
+            case HOOKUP:
+                //When towed, these come from the towing vehicle, which isn't part of us.
+                return towedByConnection == null && handle.localHandle.isLocal();
+            default:
+                return super.isLocalVariable(handle);
+        }
+    }
+
+    @Override
+    public double getRawVariableValue(VariableHandle handle, float partialTicks) {
+        switch (handle.type) {
+            case VEHICLE:
+                return getVehicleVariableValue(VEHICLE_VARIABLES[handle.index], partialTicks);
+            case HOOKUP:
+                return towedByConnection != null ? handle.getForwardedHandle(towedByConnection.towingVehicle).getRawValue(partialTicks) : handle.localHandle.getRawValue(partialTicks);
+            default:
+                return super.getRawVariableValue(handle, partialTicks);
+        }
     }
 
     @Override
@@ -1037,4 +1120,72 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
         data.setDouble("flapCurrentAngle", flapCurrentAngle);
         return data;
     }
+
+    /**
+     * Named variables that are provided by vehicles.  These are indexed by ordinal in {@link VariableType#VEHICLE}
+     * handles to avoid string lookups when getting their values.
+     */
+    private enum VehicleVariable {
+        YAW("yaw"),
+        HEADING("heading"),
+        PITCH("pitch"),
+        ROLL("roll"),
+        ALTITUDE("altitude"),
+        SPEED("speed"),
+        SPEED_SCALED("speed_scaled"),
+        SPEED_FACTOR("speed_factor"),
+        ACCELERATION("acceleration"),
+        ROAD_ANGLE_FRONT("road_angle_front"),
+        ROAD_ANGLE_REAR("road_angle_rear"),
+        AUTOPILOT_PRESENT("autopilot_present"),
+        FUEL("fuel"),
+        MASS("mass"),
+        ELECTRIC_POWER("electric_power"),
+        ELECTRIC_USAGE("electric_usage"),
+        ENGINES_ON("engines_on"),
+        ENGINES_STARTING("engines_starting"),
+        ENGINES_RUNNING("engines_running"),
+        REVERSER("reverser"),
+        REVERSER_PRESENT("reverser_present"),
+        LOCKED("locked"),
+        DOOR("door"),
+        FUELING("fueling"),
+        THRUST("thrust"),
+        FLAPS_ACTUAL("flaps_actual"),
+        FLAPS_MOVING("flaps_moving"),
+        FLAPS_INCREASING("flaps_increasing"),
+        FLAPS_DECREASING("flaps_decreasing"),
+        VERTICAL_SPEED("vertical_speed"),
+        LIFT_RESERVE("lift_reserve"),
+        TURN_COORDINATOR("turn_coordinator"),
+        TURN_INDICATOR("turn_indicator"),
+        PITCH_INDICATOR("pitch_indicator"),
+        SLIP("slip"),
+        SLIP_DEGREES("slip_degrees"),
+        SLIP_UNDERSTEER("slip_understeer"),
+        GEAR_PRESENT("gear_present"),
+        GEAR_MOVING("gear_moving"),
+        BEACON_DIRECTION("beacon_direction"),
+        BEACON_BEARING_SETPOINT("beacon_bearing_setpoint"),
+        BEACON_BEARING_DELTA("beacon_bearing_delta"),
+        BEACON_GLIDESLOPE_SETPOINT("beacon_glideslope_setpoint"),
+        BEACON_GLIDESLOPE_ACTUAL("beacon_glideslope_actual"),
+        BEACON_GLIDESLOPE_DELTA("beacon_glideslope_delta"),
+        BEACON_DISTANCE("beacon_distance");
+
+        private static final Map<String, VehicleVariable> byName = new HashMap<>();
+        static {
+            for (VehicleVariable variable : values()) {
+                byName.put(variable.variableName, variable);
+            }
+        }
+
+        private final String variableName;
+
+        private VehicleVariable(String variableName) {
+            this.variableName = variableName;
+        }
+    }
+
+    private static final VehicleVariable[] VEHICLE_VARIABLES = VehicleVariable.values();
 }
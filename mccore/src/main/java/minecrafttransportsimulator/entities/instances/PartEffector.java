@@ -11,6 +11,8 @@ import java.util.Set;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableHandle;
+import minecrafttransportsimulator.baseclasses.VariableHandle.VariableType;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.items.instances.ItemPartEffector;
 import minecrafttransportsimulator.jsondefs.JSONCollisionGroup.CollisionType;
@@ -316,6 +318,16 @@ public class PartEffector extends APart {
         return super.getRawVariableValue(variable, partialTicks);
     }
 
+    @Override
+    protected VariableHandle createVariableHandle(String variable, boolean inverted) {
+        //Effector variables aren't resolved, but we need to claim them so they don't get forwarded.
+        if (variable.startsWith("effector_")) {
+            return new VariableHandle(this, variable, inverted, VariableType.RAW);
+        } else {
+            return super.createVariableHandle(variable, inverted);
+        }
+    }
+
     @Override
     public IWrapperNBT save(IWrapperNBT data) {
         super.save(data);
@@ -1,11 +1,16 @@
 package minecrafttransportsimulator.entities.instances;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableHandle.VariableType;
+import minecrafttransportsimulator.baseclasses.VariableHandle;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.items.instances.ItemPartEngine;
 import minecrafttransportsimulator.jsondefs.JSONPart;
@@ -192,6 +197,20 @@ public class PartEngine extends APart {
         }
     }
 
+    @Override
+    protected void addKnownVariables(Set<String> knownVariables) {
+        super.addKnownVariables(knownVariables);
+        knownVariables.add(MAGNETO_VARIABLE);
+        knownVariables.add(ELECTRIC_STARTER_VARIABLE);
+        knownVariables.add(HAND_STARTER_VARIABLE);
+        knownVariables.add(UP_SHIFT_VARIABLE);
+        knownVariables.add(DOWN_SHIFT_VARIABLE);
+        knownVariables.add(NEUTRAL_SHIFT_VARIABLE);
+        knownVariables.add(GEAR_SHIFT_VARIABLE);
+        knownVariables.add(GEAR_VARIABLE);
+        knownVariables.add(HOURS_VARIABLE);
+    }
+
     @Override
     public void attack(Damage damage) {
         super.attack(damage);
@@ -880,153 +899,238 @@ public class PartEngine extends APart {
 
     @Override
     public double getRawVariableValue(String variable, float partialTicks) {
+        EngineVariable engineVariable = EngineVariable.byName.get(variable);
+        if (engineVariable != null) {
+            return getEngineVariableValue(engineVariable, partialTicks);
+        }
+        if (variable.startsWith("engine_sin_")) {
+        	//engine_sin_X This will offset the engine rotation INPUT to the trig function by X
+            return getParameterizedVariableValue(ParameterizedEngineVariable.SIN, new int[] { Integer.parseInt(variable.substring("engine_sin_".length())) }, partialTicks);
+        }
+        if (variable.startsWith("engine_cos_")) {
+        	//engine_cos_X This will offset the engine rotation INPUT to the trig function by X
+            return getParameterizedVariableValue(ParameterizedEngineVariable.COS, new int[] { Integer.parseInt(variable.substring("engine_cos_".length())) }, partialTicks);
+        }
+        if (variable.startsWith("engine_driveshaft_sin_")) {
+        	//engine_driveshaft_sin_X This will offset the driveshaft rotation INPUT to the trig function by X
+            return getParameterizedVariableValue(ParameterizedEngineVariable.DRIVESHAFT_SIN, new int[] { Integer.parseInt(variable.substring("engine_driveshaft_sin_".length())) }, partialTicks);
+        }
+        if (variable.startsWith("engine_driveshaft_cos_")) {
+        	//engine_driveshaft_sin_X This will offset the driveshaft rotation INPUT to the trig function by X
+            return getParameterizedVariableValue(ParameterizedEngineVariable.DRIVESHAFT_COS, new int[] { Integer.parseInt(variable.substring("engine_driveshaft_cos_".length())) }, partialTicks);
+        }
+        if (variable.startsWith("engine_piston_")) {
+            return getParameterizedVariableValue(ParameterizedEngineVariable.PISTON, parsePistonParameters(variable), partialTicks);
+        }
+
+        return super.getRawVariableValue(variable, partialTicks);
+    }
+
+    /**
+     * Returns the value for the passed-in engine variable.
+     */
+    private double getEngineVariableValue(EngineVariable variable, float partialTicks) {
         switch (variable) {
-            case ("engine_isautomatic"):
+            case ISAUTOMATIC:
                 return currentIsAutomatic != 0 ? 1 : 0;
-            case ("engine_rotation"):
+            case ROTATION:
                 return getEngineRotation(partialTicks);
-            case ("engine_sin"):
+            case SIN:
                 return Math.sin(Math.toRadians(getEngineRotation(partialTicks)));
-            case ("engine_cos"):
+            case COS:
                 return Math.cos(Math.toRadians(getEngineRotation(partialTicks)));
-            case ("engine_driveshaft_rotation"):
+            case DRIVESHAFT_ROTATION:
                 return getDriveshaftRotation(partialTicks);
-            case ("engine_driveshaft_sin"):
+            case DRIVESHAFT_SIN:
                 return Math.sin(Math.toRadians(getDriveshaftRotation(partialTicks)));
-            case ("engine_driveshaft_cos"):
+            case DRIVESHAFT_COS:
                 return Math.cos(Math.toRadians(getDriveshaftRotation(partialTicks)));
-            case ("engine_rpm"):
+            case RPM:
                 return rpm;
-            case ("engine_rpm_safe"):
+            case RPM_SAFE:
                 return currentMaxSafeRPM;
-            case ("engine_rpm_max"):
+            case RPM_MAX:
                 return currentMaxRPM;
-            case ("engine_rpm_revlimit"):
+            case RPM_REVLIMIT:
                 return currentRevlimitRPM;
-            case ("engine_rpm_percent"):
+            case RPM_PERCENT:
                 return rpm / currentMaxRPM;
-            case ("engine_rpm_percent_safe"):
+            case RPM_PERCENT_SAFE:
                 return rpm / currentMaxSafeRPM;
-            case ("engine_rpm_percent_revlimit"):
+            case RPM_PERCENT_REVLIMIT:
                 return currentRevlimitRPM != -1 ? rpm / currentRevlimitRPM : rpm / currentMaxSafeRPM;
-            case ("engine_rpm_target"):
+            case RPM_TARGET:
             	return engineTargetRPM;
-            case ("engine_rpm_idle"):
+            case RPM_IDLE:
             	return currentIdleRPM;
-            case ("engine_rpm_start"):
+            case RPM_START:
             	return currentStartRPM;
-            case ("engine_rpm_stall"):
+            case RPM_STALL:
             	return currentStallRPM;
-            case ("engine_starter_power"):
+            case STARTER_POWER:
             	return currentStarterPower;
-            case ("engine_fuel_consumption"):
+            case FUEL_CONSUMPTION:
                 return currentFuelConsumption;
-            case ("engine_supercharger_fuel_consumption"):
+            case SUPERCHARGER_FUEL_CONSUMPTION:
                 return currentSuperchargerFuelConsumption;
-            case ("engine_supercharger_efficiency"):
+            case SUPERCHARGER_EFFICIENCY:
                 return currentSuperchargerEfficiency;
-            case ("engine_fuel_flow"):
+            case FUEL_FLOW:
                 return fuelFlow * 20D * 60D / 1000D;
-            case ("engine_fuel_remaining"):
+            case FUEL_REMAINING:
                 return (definition.engine.rocketFuel - rocketFuelUsed) / definition.engine.rocketFuel;
-            case ("engine_temp"):
+            case TEMP:
                 return temp;
-            case ("engine_temp_ambient"):
+            case TEMP_AMBIENT:
                 return ambientTemp;
-            case ("engine_pressure"):
+            case PRESSURE:
                 return pressure;
-            case ("engine_gear"):
+            case GEAR:
                 return currentGear;
-            case ("engine_gearshift"):
+            case GEARSHIFT:
                 return getGearshiftRotation();
-            case ("engine_gearshift_hvertical"):
+            case GEARSHIFT_HVERTICAL:
                 return getGearshiftPosition_Vertical();
-            case ("engine_gearshift_hhorizontal"):
+            case GEARSHIFT_HHORIZONTAL:
                 return getGearshiftPosition_Horizontal();
-            case ("engine_clutch_upshift"):
+            case CLUTCH_UPSHIFT:
                 return upshiftCountdown > 0 ? 1 : 0;
-            case ("engine_clutch_downshift"):
+            case CLUTCH_DOWNSHIFT:
                 return downshiftCountdown > 0 ? 1 : 0;
-            case ("engine_badshift"):
+            case BADSHIFT:
                 return badShift ? 1 : 0;
-            case ("engine_reversed"):
+            case REVERSED:
                 return currentGear < 0 ? 1 : 0;
-            case ("engine_running"):
+            case RUNNING:
                 return running ? 1 : 0;
-            case ("engine_powered"):
+            case POWERED:
                 return running || internalFuel > 0 ? 1 : 0;
-            case ("engine_backfired"):
+            case BACKFIRED:
                 return backfired ? 1 : 0;
-            case ("engine_jumper_cable"):
+            case JUMPER_CABLE:
                 return linkedEngine != null ? 1 : 0;
-            case ("engine_hours"):
+            case HOURS:
                 return hours;
-            case ("engine_bypass_ratio"):
+            case BYPASS_RATIO:
                 return currentBypassRatio;
-            case ("engine_jet_power_factor"):
+            case JET_POWER_FACTOR:
                 return currentJetPowerFactor;
         }
-        if (variable.startsWith("engine_sin_")) {
-        	//engine_sin_X This will offset the engine rotation INPUT to the trig function by X
-            int offset = Integer.parseInt(variable.substring("engine_sin_".length()));
-        	return Math.sin(Math.toRadians(getEngineRotation(partialTicks) + offset));
+        return Double.NaN;
+    }
+
+    @Override
+    protected VariableHandle createVariableHandle(String variable, boolean inverted) {
+        EngineVariable engineVariable = EngineVariable.byName.get(variable);
+        if (engineVariable != null) {
+            return new VariableHandle(this, variable, inverted, VariableType.ENGINE, engineVariable.ordinal(), null, null, null);
         }
-        if (variable.startsWith("engine_cos_")) {
-        	//engine_cos_X This will offset the engine rotation INPUT to the trig function by X
-            int offset = Integer.parseInt(variable.substring("engine_cos_".length()));
-        	return Math.cos(Math.toRadians(getEngineRotation(partialTicks) + offset));
+
+        //Parameterized engine variables end in numbers, so they would be mistaken for part-specific variables.
+        //Parse them here, and leave any that don't parse to the raw lookup like before.
+        try {
+            if (variable.startsWith("engine_sin_")) {
+                return new VariableHandle(this, variable, inverted, VariableType.ENGINE, ParameterizedEngineVariable.SIN.ordinal(), new int[] { Integer.parseInt(variable.substring("engine_sin_".length())) }, null, null);
+            } else if (variable.startsWith("engine_cos_")) {
+                return new VariableHandle(this, variable, inverted, VariableType.ENGINE, ParameterizedEngineVariable.COS.ordinal(), new int[] { Integer.parseInt(variable.substring("engine_cos_".length())) }, null, null);
+            } else if (variable.startsWith("engine_driveshaft_sin_")) {
+                return new VariableHandle(this, variable, inverted, VariableType.ENGINE, ParameterizedEngineVariable.DRIVESHAFT_SIN.ordinal(), new int[] { Integer.parseInt(variable.substring("engine_driveshaft_sin_".length())) }, null, null);
+            } else if (variable.startsWith("engine_driveshaft_cos_")) {
+                return new VariableHandle(this, variable, inverted, VariableType.ENGINE, ParameterizedEngineVariable.DRIVESHAFT_COS.ordinal(), new int[] { Integer.parseInt(variable.substring("engine_driveshaft_cos_".length())) }, null, null);
+            } else if (variable.startsWith("engine_piston_")) {
+                return new VariableHandle(this, variable, inverted, VariableType.ENGINE, ParameterizedEngineVariable.PISTON.ordinal(), parsePistonParameters(variable), null, null);
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return new VariableHandle(this, variable, inverted, VariableType.RAW);
         }
-        if (variable.startsWith("engine_driveshaft_sin_")) {
-        	//engine_driveshaft_sin_X This will offset the driveshaft rotation INPUT to the trig function by X
-            int offset = Integer.parseInt(variable.substring("engine_driveshaft_sin_".length()));
-        	return Math.sin(Math.toRadians(getDriveshaftRotation(partialTicks) + offset));
+        return super.createVariableHandle(variable, inverted);
+    }
+
+    @Override
+    public double getRawVariableValue(VariableHandle handle, float partialTicks) {
+        if (handle.type == VariableType.ENGINE) {
+            //Parameterized variables are the only ones with parameters.
+            if (handle.parameters != null) {
+                return getParameterizedVariableValue(PARAMETERIZED_ENGINE_VARIABLES[handle.index], handle.parameters, partialTicks);
+            } else {
+                return getEngineVariableValue(ENGINE_VARIABLES[handle.index], partialTicks);
+            }
+        } else {
+            return super.getRawVariableValue(handle, partialTicks);
         }
-        if (variable.startsWith("engine_driveshaft_cos_")) {
-        	//engine_driveshaft_sin_X This will offset the driveshaft rotation INPUT to the trig function by X
-            int offset = Integer.parseInt(variable.substring("engine_driveshaft_cos_".length()));
-        	return Math.cos(Math.toRadians(getDriveshaftRotation(partialTicks) + offset));
+    }
+
+    @Override
+    public boolean isLocalVariable(VariableHandle handle) {
+        return handle.type == VariableType.ENGINE || super.isLocalVariable(handle);
+    }
+
+    /**
+     * Parses the parameters of an engine_piston_ variable.  Returns the piston number, total pistons,
+     * offset, and cam multiplier, in that order.
+     */
+    private static int[] parsePistonParameters(String variable) {
+        //Divide the crank shaft rotation into a number of sectors, and return 1 when the crank is in the defined sector.
+        //i.e. engine_piston_2_6_0_crank will return 1 when the crank is in the second of 6 sectors.
+        //When suffixed with _cam, it will instead return the sector the camshaft rotation.
+
+        //If this a camshaft, set the multiplier to 2 and chop off the end of the variable string
+        int camMultiplier = 1;
+        if (variable.endsWith("_crank")) {
+            variable = variable.substring(0, variable.length() - "_crank".length());
         }
-        if (variable.startsWith("engine_piston_")) {
-        	//Divide the crank shaft rotation into a number of sectors, and return 1 when the crank is in the defined sector.
-        	//i.e. engine_piston_2_6_0_crank will return 1 when the crank is in the second of 6 sectors.
-        	//When suffixed with _cam, it will instead return the sector the camshaft rotation.
-
-        	//If this a camshaft, set the multiplier to 2 and chop off the end of the variable string
-        	int camMultiplier = 1;
-        	if (variable.endsWith("_crank")) {
-        		variable = variable.substring(0, variable.length() - "_crank".length());
-        	}
-        	if (variable.endsWith("_cam")) {
-        		camMultiplier = 2;
-        		variable = variable.substring(0, variable.length() - "_cam".length());
-        	}
-        	
-        	//Extract the values we need
-            String[] parsedVariable = variable.substring("engine_piston_".length()).split("_");
-            int pistonNumber = Integer.parseInt(parsedVariable[0]);
-            int totalPistons = Integer.parseInt(parsedVariable[1]);
-            int offset = 0;
-            if (parsedVariable.length >= 3) {
-                offset = camMultiplier * Integer.parseInt(parsedVariable[2]);
-            }
-            
-            //Safety to ensure the value always fluctuates and we don't have more sectors than are possible
-            if (pistonNumber > totalPistons || totalPistons == 1) {
-            	pistonNumber = 1;
-            	totalPistons = 2;
-            }
-            
-            //Map the shaft rotation to a value between 0 and 359.99...
-            double shaftRotation = Math.floorMod(Math.round(10 * (offset + getEngineRotation(partialTicks))), Math.round(3600D * camMultiplier)) / 10;
-            
-            //Calculate the angle of a 'sector'
-            double sector = (360D * camMultiplier) / totalPistons;
-            
-            //If the crank is in the requested sector, return 1, otherwise return 0.
-            return (0 + (sector * (pistonNumber - 1)) <= shaftRotation) && (shaftRotation < sector + (sector * (pistonNumber - 1))) ? 1 : 0;
+        if (variable.endsWith("_cam")) {
+            camMultiplier = 2;
+            variable = variable.substring(0, variable.length() - "_cam".length());
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        //Extract the values we need
+        String[] parsedVariable = variable.substring("engine_piston_".length()).split("_");
+        int pistonNumber = Integer.parseInt(parsedVariable[0]);
+        int totalPistons = Integer.parseInt(parsedVariable[1]);
+        int offset = 0;
+        if (parsedVariable.length >= 3) {
+            offset = camMultiplier * Integer.parseInt(parsedVariable[2]);
+        }
+
+        //Safety to ensure the value always fluctuates and we don't have more sectors than are possible
+        if (pistonNumber > totalPistons || totalPistons == 1) {
+            pistonNumber = 1;
+            totalPistons = 2;
+        }
+        return new int[] { pistonNumber, totalPistons, offset, camMultiplier };
+    }
+
+    /**
+     * Returns the value of the parameterized variable with the passed-in parsed parameters.
+     */
+    private double getParameterizedVariableValue(ParameterizedEngineVariable variable, int[] parameters, float partialTicks) {
+        switch (variable) {
+            case SIN:
+                return Math.sin(Math.toRadians(getEngineRotation(partialTicks) + parameters[0]));
+            case COS:
+                return Math.cos(Math.toRadians(getEngineRotation(partialTicks) + parameters[0]));
+            case DRIVESHAFT_SIN:
+                return Math.sin(Math.toRadians(getDriveshaftRotation(partialTicks) + parameters[0]));
+            case DRIVESHAFT_COS:
+                return Math.cos(Math.toRadians(getDriveshaftRotation(partialTicks) + parameters[0]));
+            case PISTON: {
+                int pistonNumber = parameters[0];
+                int totalPistons = parameters[1];
+                int offset = parameters[2];
+                int camMultiplier = parameters[3];
+
+                //Map the shaft rotation to a value between 0 and 359.99...
+                double shaftRotation = Math.floorMod(Math.round(10 * (offset + getEngineRotation(partialTicks))), Math.round(3600D * camMultiplier)) / 10;
+
+                //Calculate the angle of a 'sector'
+                double sector = (360D * camMultiplier) / totalPistons;
+
+                //If the crank is in the requested sector, return 1, otherwise return 0.
+                return (0 + (sector * (pistonNumber - 1)) <= shaftRotation) && (shaftRotation < sector + (sector * (pistonNumber - 1))) ? 1 : 0;
+            }
+        }
+        return Double.NaN;
     }
 
     //--------------------START OF ENGINE STATE CHANGE METHODS--------------------
@@ -1321,4 +1425,82 @@ public class PartEngine extends APart {
         data.setDouble("rocketFuelUsed", rocketFuelUsed);
         return data;
     }
+
+    /**
+     * Named variables that are provided by engines.  These are indexed by ordinal in {@link VariableType#ENGINE}
+     * handles to avoid string lookups when getting their values.
+     */
+    private enum EngineVariable {
+        ISAUTOMATIC("engine_isautomatic"),
+        ROTATION("engine_rotation"),
+        SIN("engine_sin"),
+        COS("engine_cos"),
+        DRIVESHAFT_ROTATION("engine_driveshaft_rotation"),
+        DRIVESHAFT_SIN("engine_driveshaft_sin"),
+        DRIVESHAFT_COS("engine_driveshaft_cos"),
+        RPM("engine_rpm"),
+        RPM_SAFE("engine_rpm_safe"),
+        RPM_MAX("engine_rpm_max"),
+        RPM_REVLIMIT("engine_rpm_revlimit"),
+        RPM_PERCENT("engine_rpm_percent"),
+        RPM_PERCENT_SAFE("engine_rpm_percent_safe"),
+        RPM_PERCENT_REVLIMIT("engine_rpm_percent_revlimit"),
+        RPM_TARGET("engine_rpm_target"),
+        RPM_IDLE("engine_rpm_idle"),
+        RPM_START("engine_rpm_start"),
+        RPM_STALL("engine_rpm_stall"),
+        STARTER_POWER("engine_starter_power"),
+        FUEL_CONSUMPTION("engine_fuel_consumption"),
+        SUPERCHARGER_FUEL_CONSUMPTION("engine_supercharger_fuel_consumption"),
+        SUPERCHARGER_EFFICIENCY("engine_supercharger_efficiency"),
+        FUEL_FLOW("engine_fuel_flow"),
+        FUEL_REMAINING("engine_fuel_remaining"),
+        TEMP("engine_temp"),
+        TEMP_AMBIENT("engine_temp_ambient"),
+        PRESSURE("engine_pressure"),
+        GEAR("engine_gear"),
+        GEARSHIFT("engine_gearshift"),
+        GEARSHIFT_HVERTICAL("engine_gearshift_hvertical"),
+        GEARSHIFT_HHORIZONTAL("engine_gearshift_hhorizontal"),
+        CLUTCH_UPSHIFT("engine_clutch_upshift"),
+        CLUTCH_DOWNSHIFT("engine_clutch_downshift"),
+        BADSHIFT("engine_badshift"),
+        REVERSED("engine_reversed"),
+        RUNNING("engine_running"),
+        POWERED("engine_powered"),
+        BACKFIRED("engine_backfired"),
+        JUMPER_CABLE("engine_jumper_cable"),
+        HOURS("engine_hours"),
+        BYPASS_RATIO("engine_bypass_ratio"),
+        JET_POWER_FACTOR("engine_jet_power_factor");
+
+        private static final Map<String, EngineVariable> byName = new HashMap<>();
+        static {
+            for (EngineVariable variable : values()) {
+                byName.put(variable.variableName, variable);
+            }
+        }
+
+        private final String variableName;
+
+        private EngineVariable(String variableName) {
+            this.variableName = variableName;
+        }
+    }
+
+    private static final EngineVariable[] ENGINE_VARIABLES = EngineVariable.values();
+
+    /**
+     * Variables that take parameters as part of their name.  These are indexed by ordinal in {@link VariableType#ENGINE}
+     * handles with parameters, with the parameters parsed out of the name when the handle is created.
+     */
+    private enum ParameterizedEngineVariable {
+        SIN,
+        COS,
+        DRIVESHAFT_SIN,
+        DRIVESHAFT_COS,
+        PISTON;
+    }
+
+    private static final ParameterizedEngineVariable[] PARAMETERIZED_ENGINE_VARIABLES = ParameterizedEngineVariable.values();
 }
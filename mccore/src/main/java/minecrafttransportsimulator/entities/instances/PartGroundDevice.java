@@ -1,7 +1,11 @@
 package minecrafttransportsimulator.entities.instances;
 
+import java.util.Set;
+
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableHandle;
+import minecrafttransportsimulator.baseclasses.VariableHandle.VariableType;
 import minecrafttransportsimulator.blocks.components.ABlockBase.BlockMaterial;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.items.instances.ItemPartGroundDevice;
@@ -50,6 +54,8 @@ public class PartGroundDevice extends APart {
     private float lastHeight;
     private final Point3D groundPosition = new Point3D();
     private BlockMaterial materialBelow;
+    private float preparedFrictionLoss;
+    private boolean frictionLossPrepared;
     public final Point3D wheelbasePoint;
 
     //Internal states for control and physics.
@@ -80,6 +86,12 @@ public class PartGroundDevice extends APart {
         }
     }
 
+    @Override
+    protected void addKnownVariables(Set<String> knownVariables) {
+        super.addKnownVariables(knownVariables);
+        knownVariables.add(FLAT_VARIABLE);
+    }
+
     @Override
     public void addPartsPostAddition(IWrapperPlayer placingPlayer, IWrapperNBT data) {
         //Create the initial boxes and slots.
@@ -223,7 +235,9 @@ public class PartGroundDevice extends APart {
 
     @Override
     public void updateVariableModifiers() {
-        float frictionLoss = getFrictionLoss();
+        //Use the friction loss from the main thread if we got it there, as we might not be on it now.
+        float frictionLoss = frictionLossPrepared ? preparedFrictionLoss : getFrictionLoss();
+        frictionLossPrepared = false;
         currentMotiveFriction = definition.ground.motiveFriction - frictionLoss;
         currentLateralFriction = definition.ground.lateralFriction - frictionLoss;
         if (isFlat) {
@@ -260,6 +274,13 @@ public class PartGroundDevice extends APart {
         }
     }
 
+    @Override
+    public void prepareParallelVariableModifiers() {
+        //Friction loss needs the world, so get it now while we are on the main thread.
+        preparedFrictionLoss = getFrictionLoss();
+        frictionLossPrepared = true;
+    }
+
     @Override
     public double getRawVariableValue(String variable, float partialTicks) {
         switch (variable) {
@@ -291,6 +312,16 @@ public class PartGroundDevice extends APart {
         return super.getRawVariableValue(variable, partialTicks);
     }
 
+    @Override
+    protected VariableHandle createVariableHandle(String variable, boolean inverted) {
+        //Ground device variables aren't resolved, but we need to claim them so they don't get forwarded.
+        if (variable.startsWith("ground_")) {
+            return new VariableHandle(this, variable, inverted, VariableType.RAW);
+        } else {
+            return super.createVariableHandle(variable, inverted);
+        }
+    }
+
     @Override
     public double getWidth() {
         return definition.ground.width * scale.x;
@@ -1,8 +1,10 @@
 package minecrafttransportsimulator.entities.instances;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 
@@ -12,6 +14,8 @@ import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableHandle;
+import minecrafttransportsimulator.baseclasses.VariableHandle.VariableType;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.items.components.AItemBase;
 import minecrafttransportsimulator.items.instances.ItemBullet;
@@ -22,7 +26,6 @@ import minecrafttransportsimulator.jsondefs.JSONPart.InteractableComponentType;
 import minecrafttransportsimulator.jsondefs.JSONPart.LockOnType;
 import minecrafttransportsimulator.jsondefs.JSONPart.TargetType;
 import minecrafttransportsimulator.jsondefs.JSONPartDefinition;
-import minecrafttransportsimulator.jsondefs.JSONText;
 import minecrafttransportsimulator.jsondefs.JSONVariableModifier;
 import minecrafttransportsimulator.mcinterface.IWrapperEntity;
 import minecrafttransportsimulator.mcinterface.IWrapperInventory;
@@ -740,7 +743,11 @@ public class PartGun extends APart {
                         normalizedConeVector.set(searchVector).normalize();
                         EntityVehicleF_Physics vehicleTarget = null;
                         double smallestDistance = searchVector.length();
-                        for (EntityVehicleF_Physics vehicle : world.getEntitiesOfType(EntityVehicleF_Physics.class)) {
+                        for (AEntityF_Multipart<?> multipart : world.getMultipartsNear(startPoint, smallestDistance)) {
+                            if (!(multipart instanceof EntityVehicleF_Physics)) {
+                                continue;
+                            }
+                            EntityVehicleF_Physics vehicle = (EntityVehicleF_Physics) multipart;
                             //Make sure we don't lock-on to our own vehicle.  Also, ensure if we want aircraft, or ground, we only get those.
                             if (vehicle != vehicleOn && (definition.gun.targetType != TargetType.AIRCRAFT || vehicle.definition.motorized.isAircraft) && (definition.gun.targetType != TargetType.GROUND || !vehicle.definition.motorized.isAircraft)) {
                                 targetVector.set(vehicle.position).subtract(startPoint);
@@ -1145,97 +1152,136 @@ public class PartGun extends APart {
 
     @Override
     public double getRawVariableValue(String variable, float partialTicks) {
+        GunVariable gunVariable = GunVariable.byName.get(variable);
+        if (gunVariable != null) {
+            return getGunVariableValue(gunVariable, partialTicks);
+        }
+
+        return super.getRawVariableValue(variable, partialTicks);
+    }
+
+    @Override
+    public double getRawVariableValue(VariableHandle handle, float partialTicks) {
+        if (handle.type == VariableType.GUN) {
+            return getGunVariableValue(GUN_VARIABLES[handle.index], partialTicks);
+        } else {
+            return super.getRawVariableValue(handle, partialTicks);
+        }
+    }
+
+    @Override
+    public boolean isLocalVariable(VariableHandle handle) {
+        if (handle.type == VariableType.GUN) {
+            return GUN_VARIABLES[handle.index].isLocal;
+        } else {
+            return super.isLocalVariable(handle);
+        }
+    }
+
+    @Override
+    protected VariableHandle createVariableHandle(String variable, boolean inverted) {
+        GunVariable gunVariable = GunVariable.byName.get(variable);
+        if (gunVariable != null) {
+            return new VariableHandle(this, variable, inverted, VariableType.GUN, gunVariable.ordinal(), null, null, null);
+        } else {
+            return super.createVariableHandle(variable, inverted);
+        }
+    }
+
+    /**
+     * Returns the value for the passed-in gun variable.
+     */
+    private double getGunVariableValue(GunVariable variable, float partialTicks) {
         switch (variable) {
-            case ("gun_inhand"):
+            case INHAND:
                 return entityOn instanceof EntityPlayerGun ? 1 : 0;
-            case ("gun_inhand_sneaking"):
+            case INHAND_SNEAKING:
                 return entityOn instanceof EntityPlayerGun && ((EntityPlayerGun) entityOn).player != null && ((EntityPlayerGun) entityOn).player.isSneaking() ? 1 : 0;
-            case ("gun_inhand_aiming"):
+            case INHAND_AIMING:
                 return isHandHeldGunAimed ? 1 : 0;
-            case ("gun_inhand_equipped"):
+            case INHAND_EQUIPPED:
                 return isHandHeldGunEquipped ? 1 : 0;
-            case ("gun_controller_firstperson"):
+            case CONTROLLER_FIRSTPERSON:
                 return InterfaceManager.clientInterface.getClientPlayer().equals(lastController) && InterfaceManager.clientInterface.getCameraMode() == CameraMode.FIRST_PERSON ? 1 : 0;
-            case ("gun_active"):
+            case ACTIVE:
                 return state.isAtLeast(GunState.CONTROLLED) ? 1 : 0;
-            case ("gun_firing"):
+            case FIRING:
                 return state.isAtLeast(GunState.FIRING_REQUESTED) ? 1 : 0;
-            case ("gun_fired"):
+            case FIRED:
                 return firedThisCheck ? 1 : 0;
-            case ("gun_muzzleflash"):
+            case MUZZLEFLASH:
                 return firedThisCheck && lastMillisecondFired + 25 < System.currentTimeMillis() ? 1 : 0;
-            case ("gun_lockedon"):
+            case LOCKEDON:
                 return entityTarget != null || engineTarget != null ? 1 : 0;
-            case ("gun_lockedon_x"):
+            case LOCKEDON_X:
                 return entityTarget != null ? entityTarget.getPosition().x : (engineTarget != null ? engineTarget.position.x : 0);
-            case ("gun_lockedon_y"):
+            case LOCKEDON_Y:
                 return entityTarget != null ? entityTarget.getPosition().y : (engineTarget != null ? engineTarget.position.y : 0);
-            case ("gun_lockedon_z"):
+            case LOCKEDON_Z:
                 return entityTarget != null ? entityTarget.getPosition().z : (engineTarget != null ? engineTarget.position.z : 0);
-            case ("gun_lockedon_direction"):
+            case LOCKEDON_DIRECTION:
                 return entityTarget != null ? getLockedOnDirection() : (engineTarget != null ? getLockedOnDirection() : 0);
-            case ("gun_lockedon_angle"):
+            case LOCKEDON_ANGLE:
                 return entityTarget != null ? getLockedOnAngle() : (engineTarget != null ? getLockedOnAngle() : 0);
-            case ("gun_lockedon_leadpoint_direction"):
+            case LOCKEDON_LEADPOINT_DIRECTION:
                 return entityTarget != null ? getLeadPointDirection() : (engineTarget != null ? getLeadPointDirection() : 0);
-            case ("gun_lockedon_leadpoint_angle"):
+            case LOCKEDON_LEADPOINT_ANGLE:
                 return entityTarget != null ? (-Math.toDegrees(Math.atan2(-getLockedOnLeadPoint().y + position.y,Math.hypot(-getLockedOnLeadPoint().z + position.z,-getLockedOnLeadPoint().x + position.x))) + orientation.angles.x) : (engineTarget != null ? (-Math.toDegrees(Math.atan2(-getLockedOnLeadPoint().y + position.y,Math.hypot(-getLockedOnLeadPoint().z + position.z,-getLockedOnLeadPoint().x + position.x))) + orientation.angles.x) : 0);
-            case ("gun_lockedon_distance"):
+            case LOCKEDON_DISTANCE:
                 return entityTarget != null ? entityTarget.getPosition().distanceTo(position) : (engineTarget != null ? engineTarget.position.distanceTo(position) : 0);
-            case ("gun_lockedon_leadangle_x"):
+            case LOCKEDON_LEADANGLE_X:
                 return entityTarget != null ? (getLeadPointDirection() - getLockedOnDirection()) : (engineTarget != null ? (getLeadPointDirection() - getLockedOnDirection()) : 0);
-            case ("gun_lockedon_leadangle_y"):
+            case LOCKEDON_LEADANGLE_Y:
                 return entityTarget != null ? getLeadAngleY() : (engineTarget != null ? getLeadAngleY() : 0);
-            case ("gun_pitch"):
+            case PITCH:
                 return partialTicks != 0 ? prevInternalOrientation.angles.x + (internalOrientation.angles.x - prevInternalOrientation.angles.x) * partialTicks : internalOrientation.angles.x;
-            case ("gun_yaw"):
+            case YAW:
                 return partialTicks != 0 ? prevInternalOrientation.angles.y + (internalOrientation.angles.y - prevInternalOrientation.angles.y) * partialTicks : internalOrientation.angles.y;
-            case ("gun_pitching"):
+            case PITCHING:
                 return Math.abs(prevInternalOrientation.angles.x - internalOrientation.angles.x) > 0.01 ? 1 : 0;
-            case ("gun_yawing"):
+            case YAWING:
                 return Math.abs(prevInternalOrientation.angles.y - internalOrientation.angles.y) > 0.01 ? 1 : 0;
-            case ("gun_cooldown"):
+            case COOLDOWN:
                 return cooldownTimeRemaining > 0 ? 1 : 0;
-            case ("gun_windup_time"):
+            case WINDUP_TIME:
                 return windupTimeCurrent;
-            case ("gun_windup_rotation"):
+            case WINDUP_ROTATION:
                 return windupRotation;
-            case ("gun_windup_complete"):
+            case WINDUP_COMPLETE:
                 return windupTimeCurrent == definition.gun.windupTime ? 1 : 0;
-            case ("gun_reload"):
+            case RELOAD:
                 return reloadTimeRemaining > 0 ? 1 : 0;
-            case ("gun_ammo_count"):
+            case AMMO_COUNT:
                 return bulletsLeft;
-            case ("gun_ammo_count_reloading"):
+            case AMMO_COUNT_RELOADING:
                 return reloadingBullet != null ? reloadingBullet.definition.bullet.quantity : 0;
-            case ("gun_ammo_percent"):
+            case AMMO_PERCENT:
                 return bulletsLeft / definition.gun.capacity;
-            case ("gun_active_muzzlegroup"):
+            case ACTIVE_MUZZLEGROUP:
                 return currentMuzzleGroupIndex + 1;
-            case ("gun_bullet_present"):
+            case BULLET_PRESENT:
                 return currentBullet != null ? 1 : 0;
-            case ("gun_bullet_x"):
+            case BULLET_X:
                 return currentBullet != null ? currentBullet.getRelativePos(1, partialTicks) : 0;
-            case ("gun_bullet_y"):
+            case BULLET_Y:
                 return currentBullet != null ? currentBullet.getRelativePos(2, partialTicks) : 0;
-            case ("gun_bullet_z"):
+            case BULLET_Z:
                 return currentBullet != null ? currentBullet.getRelativePos(3, partialTicks) : 0;
-            case ("gun_bullet_yaw"):
+            case BULLET_YAW:
                 return currentBullet != null ? currentBullet.orientation.angles.y - orientation.angles.y : 0;
-            case ("gun_bullet_pitch"):
+            case BULLET_PITCH:
                 return currentBullet != null ? currentBullet.orientation.angles.x - orientation.angles.x : 0;
         }
-
-        return super.getRawVariableValue(variable, partialTicks);
+        return Double.NaN;
     }
 
     @Override
-    public String getRawTextVariableValue(JSONText textDef, float partialTicks) {
-        if (textDef.variableName.equals("gun_lockedon_name")) {
+    public String getRawTextVariableValue(String variable, float partialTicks) {
+        if (variable.equals("gun_lockedon_name")) {
             return entityTarget != null ? entityTarget.getName() : (engineTarget != null ? engineTarget.masterEntity.toString() : "");
         }
 
-        return super.getRawTextVariableValue(textDef, partialTicks);
+        return super.getRawTextVariableValue(variable, partialTicks);
     }
 
     @Override
@@ -1292,4 +1338,72 @@ public class PartGun extends APart {
             return this.ordinal() >= testState.ordinal();
         }
     }
+
+    /**
+     * Variables that are provided by guns.  These are indexed by ordinal in {@link VariableType#GUN}
+     * handles to avoid string lookups when getting their values.
+     */
+    private enum GunVariable {
+        INHAND("gun_inhand"),
+        INHAND_SNEAKING("gun_inhand_sneaking", false),
+        INHAND_AIMING("gun_inhand_aiming"),
+        INHAND_EQUIPPED("gun_inhand_equipped"),
+        CONTROLLER_FIRSTPERSON("gun_controller_firstperson", false),
+        ACTIVE("gun_active"),
+        FIRING("gun_firing"),
+        FIRED("gun_fired"),
+        MUZZLEFLASH("gun_muzzleflash"),
+        LOCKEDON("gun_lockedon"),
+        LOCKEDON_X("gun_lockedon_x", false),
+        LOCKEDON_Y("gun_lockedon_y", false),
+        LOCKEDON_Z("gun_lockedon_z", false),
+        LOCKEDON_DIRECTION("gun_lockedon_direction", false),
+        LOCKEDON_ANGLE("gun_lockedon_angle", false),
+        LOCKEDON_LEADPOINT_DIRECTION("gun_lockedon_leadpoint_direction", false),
+        LOCKEDON_LEADPOINT_ANGLE("gun_lockedon_leadpoint_angle", false),
+        LOCKEDON_DISTANCE("gun_lockedon_distance", false),
+        LOCKEDON_LEADANGLE_X("gun_lockedon_leadangle_x", false),
+        LOCKEDON_LEADANGLE_Y("gun_lockedon_leadangle_y", false),
+        PITCH("gun_pitch"),
+        YAW("gun_yaw"),
+        PITCHING("gun_pitching"),
+        YAWING("gun_yawing"),
+        COOLDOWN("gun_cooldown"),
+        WINDUP_TIME("gun_windup_time"),
+        WINDUP_ROTATION("gun_windup_rotation"),
+        WINDUP_COMPLETE("gun_windup_complete"),
+        RELOAD("gun_reload"),
+        AMMO_COUNT("gun_ammo_count"),
+        AMMO_COUNT_RELOADING("gun_ammo_count_reloading"),
+        AMMO_PERCENT("gun_ammo_percent"),
+        ACTIVE_MUZZLEGROUP("gun_active_muzzlegroup"),
+        BULLET_PRESENT("gun_bullet_present"),
+        BULLET_X("gun_bullet_x"),
+        BULLET_Y("gun_bullet_y"),
+        BULLET_Z("gun_bullet_z"),
+        BULLET_YAW("gun_bullet_yaw"),
+        BULLET_PITCH("gun_bullet_pitch");
+
+        private static final Map<String, GunVariable> byName = new HashMap<>();
+        static {
+            for (GunVariable variable : values()) {
+                byName.put(variable.variableName, variable);
+            }
+        }
+
+        private final String variableName;
+        /**False if this variable queries other entities through the game, so isn't local.**/
+        private final boolean isLocal;
+
+        private GunVariable(String variableName) {
+            this(variableName, true);
+        }
+
+        private GunVariable(String variableName, boolean isLocal) {
+            this.variableName = variableName;
+            this.isLocal = isLocal;
+        }
+    }
+
+    private static final GunVariable[] GUN_VARIABLES = GunVariable.values();
 }
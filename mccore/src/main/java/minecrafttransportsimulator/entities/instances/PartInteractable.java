@@ -2,6 +2,8 @@ package minecrafttransportsimulator.entities.instances;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
+import minecrafttransportsimulator.baseclasses.VariableHandle;
+import minecrafttransportsimulator.baseclasses.VariableHandle.VariableType;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.items.instances.ItemPartInteractable;
 import minecrafttransportsimulator.jsondefs.JSONPart.InteractableComponentType;
@@ -302,6 +304,16 @@ public final class PartInteractable extends APart {
         return super.getRawVariableValue(variable, partialTicks);
     }
 
+    @Override
+    protected VariableHandle createVariableHandle(String variable, boolean inverted) {
+        //Interactable variables aren't resolved, but we need to claim them so they don't get forwarded.
+        if (variable.startsWith("interactable_")) {
+            return new VariableHandle(this, variable, inverted, VariableType.RAW);
+        } else {
+            return super.createVariableHandle(variable, inverted);
+        }
+    }
+
     /**
      * Gets the explosive power of this part.  Used when it is blown up or attacked.
      * For our calculations, only ammo is checked.  While we could check for fuel, we assume
@@ -6,6 +6,8 @@ import java.util.List;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableHandle;
+import minecrafttransportsimulator.baseclasses.VariableHandle.VariableType;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.items.instances.ItemPartPropeller;
 import minecrafttransportsimulator.jsondefs.JSONPartDefinition;
@@ -216,6 +218,16 @@ public class PartPropeller extends APart {
         return super.getRawVariableValue(variable, partialTicks);
     }
 
+    @Override
+    protected VariableHandle createVariableHandle(String variable, boolean inverted) {
+        //Propeller variables aren't resolved, but we need to claim them so they don't get forwarded.
+        if (variable.startsWith("propeller_")) {
+            return new VariableHandle(this, variable, inverted, VariableType.RAW);
+        } else {
+            return super.createVariableHandle(variable, inverted);
+        }
+    }
+
     public double addToForceOutput(Point3D force, Point3D torque) {
         propellerForceValue = 0;
         propellerAxisVector.set(0, 0, 1).rotate(orientation);
@@ -2,8 +2,10 @@ package minecrafttransportsimulator.guis.components;
 
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
 import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
+import minecrafttransportsimulator.items.instances.ItemInstrument;
 import minecrafttransportsimulator.jsondefs.JSONInstrumentDefinition;
 import minecrafttransportsimulator.rendering.RenderInstrument;
+import minecrafttransportsimulator.rendering.RenderInstrument.InstrumentComposite;
 
 /**
  * Custom instrument render class.  This class is designed to render an instrument into
@@ -16,6 +18,7 @@ public class GUIComponentInstrument extends AGUIComponent {
     public final AEntityE_Interactable<?> entity;
     public final int slot;
     private static final TransformationMatrix transform = new TransformationMatrix();
+    private InstrumentComposite composite;
 
     public GUIComponentInstrument(int guiLeft, int guiTop, AEntityE_Interactable<?> entity, int slot) {
         super(guiLeft, guiTop, 0, 0);
@@ -29,7 +32,15 @@ public class GUIComponentInstrument extends AGUIComponent {
 
     @Override
     public void render(AGUIBase gui, int mouseX, int mouseY, boolean renderBright, boolean renderLitTexture, boolean blendingEnabled, float partialTicks) {
-        transform.setTranslation(position.x, position.y, position.z + MODEL_DEFAULT_ZOFFSET * 0.5);
-        RenderInstrument.drawInstrument(entity, transform, slot, true, blendingEnabled, partialTicks);
+        //GUI instruments have their own composite, as they render at a different scale and lighting than on the entity.
+        //Re-create it if the instrument in the slot changes.
+        ItemInstrument instrument = entity.instruments.get(slot);
+        if (instrument != null) {
+            if (composite == null || composite.instrument != instrument) {
+                composite = new InstrumentComposite(entity, slot, true);
+            }
+            transform.setTranslation(position.x, position.y, position.z + MODEL_DEFAULT_ZOFFSET * 0.5);
+            RenderInstrument.drawInstrument(composite, transform, blendingEnabled, partialTicks);
+        }
     }
 }
@@ -3,6 +3,7 @@ package minecrafttransportsimulator.jsondefs;
 import java.util.List;
 import java.util.Map;
 
+import minecrafttransportsimulator.baseclasses.VariableRegistry;
 import minecrafttransportsimulator.packloading.JSONParser.JSONDescription;
 import minecrafttransportsimulator.packloading.JSONParser.JSONRequired;
 import minecrafttransportsimulator.packloading.PackResourceLoader;
@@ -31,15 +32,32 @@ public abstract class AJSONMultiModelProvider extends AJSONItem {
     @Deprecated
     public List<String> constants;
 
+    /**
+     * Registry of variables for entities of this definition.  Created by the first entity that uses this definition.
+     */
+    public transient VariableRegistry variableRegistry;
+
     /**
      * Returns the model location in the classpath for this definition.
      */
     public String getModelLocation(JSONSubDefinition subDefinition) {
+        return getModelLocation(subDefinition.modelName != null ? subDefinition.modelName : systemName);
+    }
+
+    /**
+     * Returns the model location in the classpath for this definition at the passed-in level of detail.
+     * If the level of detail is null, or doesn't have its own model, this is the normal model location.
+     */
+    public String getModelLocation(JSONSubDefinition subDefinition, JSONLevelOfDetail levelOfDetail) {
+        return levelOfDetail != null && levelOfDetail.modelName != null ? getModelLocation(levelOfDetail.modelName) : getModelLocation(subDefinition);
+    }
+
+    private String getModelLocation(String modelName) {
         switch (rendering.modelType) {
             case OBJ:
-                return PackResourceLoader.getPackResource(this, ResourceType.OBJ_MODEL, subDefinition.modelName != null ? subDefinition.modelName : systemName);
+                return PackResourceLoader.getPackResource(this, ResourceType.OBJ_MODEL, modelName);
             case LITTLETILES:
-                return PackResourceLoader.getPackResource(this, ResourceType.LT_MODEL, subDefinition.modelName != null ? subDefinition.modelName : systemName);
+                return PackResourceLoader.getPackResource(this, ResourceType.LT_MODEL, modelName);
             case NONE:
                 return null;
         }
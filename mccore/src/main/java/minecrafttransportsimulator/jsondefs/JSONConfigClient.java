@@ -35,6 +35,14 @@ public class JSONConfigClient {
         public JSONConfigEntry<Boolean> brightLights = new JSONConfigEntry<>(true, "If false, lights from vehicles and blocks will not make themselves bright and instead will render as if they were part of the model at that same brightness.  Useful if you have shaders and this is causing troubles.");
         public JSONConfigEntry<Boolean> blendedLights = new JSONConfigEntry<>(true, "If false, beam-based lights from vehicles and blocks will not do brightness blending.  This is different from the general brightness setting as this will do OpenGL blending on the world to make it brighter, not just the beams themselves.");
 
+        public JSONConfigEntry<Integer> renderDistance = new JSONConfigEntry<>(256, "The max distance, in blocks, that vehicles, parts, and other MTS models will render at.  Models out of view of the camera are never rendered, no matter this setting.  Lower this if large numbers of far-away vehicles are causing low FPS.  Must be a whole number.");
+
+        public JSONConfigEntry<Integer> maxParticles = new JSONConfigEntry<>(4000, "The max number of particles that can exist at once.  Once half of this is reached, fewer and fewer new particles will spawn until this number is reached.  Lower this if vehicle exhaust and tire smoke is causing low FPS.  Must be a whole number.");
+
+        public JSONConfigEntry<Integer> instrumentRefreshRate = new JSONConfigEntry<>(20, "The number of times per second instruments update when they are far away or out of view.  Instruments that are close and in view, or on the HUD, always update every frame.  Lower this if vehicles with lots of instruments are causing low FPS.  Must be a whole number.");
+
+        public JSONConfigEntry<Boolean> prefetchPackModels = new JSONConfigEntry<>(false, "If true, all pack models will be parsed in the background when the game loads, rather than when they first come into view.  This removes any stutter from models being parsed, but uses more memory.");
+
         public JSONConfigEntry<Boolean> playerTweaks = new JSONConfigEntry<>(true, "If true, player hands will be modified when holding guns, and hands and legs will be modified when riding in vehicles.  Set this to false (and restart the game) if mods cause issues, like two-hand rendering or player model issues.  Automatically set to false if some mods are detected.");
 
     }
@@ -6,8 +6,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import minecrafttransportsimulator.entities.instances.EntityFurnace;
 import minecrafttransportsimulator.items.components.AItemPack;
@@ -40,6 +42,9 @@ public class JSONConfigSettings {
         public JSONConfigEntry<Boolean> giveManualsOnJoin = new JSONConfigEntry<>(true, "If true, then whenever a new player joins a world, they will be given a copy of the mod manuals.");
         public JSONConfigEntry<Boolean> performModCompatFunctions = new JSONConfigEntry<>(true, "If true, mod compatibility functions will be executed.  Should be true unless you're configuring a modpack and know and have addressed the various incompatibilities.");
         public JSONConfigEntry<Boolean> devMode = new JSONConfigEntry<>(false, "If enabled, MTS will allow access to the dev mode GUI while sitting in vehicles.  The GUI allows editing JSONs in-game without the need to restart.");
+        public JSONConfigEntry<Boolean> parallelEntityUpdates = new JSONConfigEntry<>(false, "If true, servers will run the per-vehicle variable modifier calculations for all entities in parallel across all CPU cores before the main entity updates.  This can raise TPS on servers with lots of vehicles and spare cores.  Entities with modifiers that depend on the world or other entities are still done on the main thread.  Does not affect client worlds.");
+        public JSONConfigEntry<Double> movementSyncNearDistance = new JSONConfigEntry<>(64D, "Distance (in blocks) within which players are sent vehicle movement every tick.  Players further away are sent movement less often, which saves bandwidth on busy servers.  Raise this if distant vehicles look jerky.");
+        public JSONConfigEntry<Integer> movementSyncFarInterval = new JSONConfigEntry<>(5, "How many ticks between vehicle movement updates for players further away than movementSyncNearDistance.  1 sends updates every tick to all players, like older versions.  Must be a whole number.");
         public JSONConfigEntry<Integer> roadMaxLength = new JSONConfigEntry<>(32, "How long a single segment of road can be, in blocks.  While you can have longer segements, be aware they have more collision boxes and will generate more lag when broken or interacted with, and may not render if outside the chunk they are in.  Must be a whole number.");
         public JSONConfigEntry<Double> aircraftSpeedFactor = new JSONConfigEntry<>(0.35D, "Factor to apply to aircraft movement.  1 is the realistic value, but this makes vehicles move too fast for Minecraft. Adjust with caution.");
         public JSONConfigEntry<Double> carSpeedFactor = new JSONConfigEntry<>(0.35D, "Factor to apply to car movement.  1 is the realistic value, but this makes vehicles move too fast for Minecraft. Adjust with caution.");
@@ -65,6 +70,27 @@ public class JSONConfigSettings {
             public String comment2 = "This mass factors into vehicle performance, with particular emphasis on vehicle payloads.  Some defaults are presented here, but you can add/remove to your liking.";
             public String comment3 = "Note that the part of the name searched is the item's registry name, NOT the in-game display name.  This is similar to what is in the /give command.";
             public Map<String, Double> weights = populateDefaultWeights();
+            /**Cache of multipliers for item names we've already checked.  Concurrent as both the client and server may check at once.**/
+            private final transient Map<String, Double> itemMultipliers = new ConcurrentHashMap<>();
+
+            /**
+             * Returns the weight multiplier for the item with the passed-in registry name.  Multipliers are cached
+             * per item, since checking the name against every weight is too slow to do for every stack every tick.
+             */
+            public double getWeightMultiplier(String itemName) {
+                Double multiplier = itemMultipliers.get(itemName);
+                if (multiplier == null) {
+                    multiplier = 1.0;
+                    for (Entry<String, Double> weight : weights.entrySet()) {
+                        if (itemName.contains(weight.getKey())) {
+                            multiplier = weight.getValue();
+                            break;
+                        }
+                    }
+                    itemMultipliers.put(itemName, multiplier);
+                }
+                return multiplier;
+            }
 
             private static Map<String, Double> populateDefaultWeights() {
                 Map<String, Double> weights = new HashMap<>();
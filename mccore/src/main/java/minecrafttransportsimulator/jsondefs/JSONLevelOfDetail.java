@@ -0,0 +1,21 @@
+package minecrafttransportsimulator.jsondefs;
+
+import java.util.List;
+
+import minecrafttransportsimulator.packloading.JSONParser.JSONDescription;
+import minecrafttransportsimulator.packloading.JSONParser.JSONRequired;
+
+public class JSONLevelOfDetail {
+    @JSONRequired
+    @JSONDescription("The distance from the camera, in blocks, past which this level of detail will be used.  If the model is past the distance of multiple levels, the one with the highest distance is used.")
+    public float distance;
+
+    @JSONDescription("This parameter is optional.  If included, this model will be rendered instead of the normal model while this level of detail is used.  This model should be in the same folder as the normal model, and is specified in the same way as modelName in definitions.  Any objects in this model will be animated and lit in the same way as the objects of the same name in the normal model.")
+    public String modelName;
+
+    @JSONDescription("This parameter is optional.  If included, objects with these names will not be rendered while this level of detail is used.  Useful for hiding small details like interiors and gauges that can't be seen from far away.")
+    public List<String> hiddenObjects;
+
+    @JSONDescription("If true, animations will not be updated while this level of detail is used.  Objects will stay where they were the last time they were animated.  Note that this doesn't affect lights, so lights will still turn on and off.")
+    public boolean disableAnimations;
+}
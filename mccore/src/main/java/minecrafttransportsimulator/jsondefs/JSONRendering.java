@@ -34,6 +34,9 @@ public class JSONRendering {
     @JSONDescription("The type of model that this entity will render from.")
     public ModelType modelType;
 
+    @JSONDescription("Levels of detail allow for less detailed rendering of this model when it's far from the camera.  Each level can use a different model, hide objects, or stop animations, once the model is past the distance of that level.  This is highly recommended for anything that will be placed in large numbers, such as cars in a parking lot or road signs.")
+    public List<JSONLevelOfDetail> levelsOfDetail;
+
     public enum ModelType {
         OBJ,
         LITTLETILES,
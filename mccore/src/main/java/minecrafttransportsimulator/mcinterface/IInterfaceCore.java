@@ -35,6 +35,11 @@ public interface IInterfaceCore {
      * Returns the text-based name for the passed-in mod.
      */
     String getModName(String modID);
+
+    /**
+     * Returns the version of the passed-in mod.
+     */
+    String getModVersion(String modID);
     
     /**
      * Returns the resource for the specified pack.  This is required as higher Forge
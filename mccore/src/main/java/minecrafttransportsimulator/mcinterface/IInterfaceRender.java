@@ -1,7 +1,9 @@
 package minecrafttransportsimulator.mcinterface;
 
+import java.awt.image.BufferedImage;
 import java.io.InputStream;
 
+import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.guis.components.GUIComponentItem;
 import minecrafttransportsimulator.rendering.GIFParser.ParsedGIF;
@@ -26,11 +28,23 @@ public interface IInterfaceRender {
      */
     float[] getDefaultBlockTexture(String name);
 
+    /**
+     * Returns true if the passed-in box is in the view of the camera for the frame being rendered.
+     * The box should be in world coordinates.  If there isn't a camera to check against, true is returned.
+     */
+    boolean isBoxInView(BoundingBox box);
+
     /**
      * Returns a stream of the texture specified.  This can vary depending on what texture packs are loaded!
      */
     InputStream getTextureStream(String name);
 
+    /**
+     * Decodes the texture specified so it's ready to be uploaded the first time it is bound.
+     * This is called from the model prefetch thread, so no OpenGL calls may be made here.
+     */
+    void prefetchTexture(String textureLocation);
+
     /**
      * Renders the item model for the passed-in component.  Only
      * renders the item model: does not render text for counts.
@@ -53,10 +67,18 @@ public interface IInterfaceRender {
     void deleteVertices(RenderableData data);
 
     /**
-     * Binds a URL texture to a stream containing an image.  Pass in a null stream to bind the missing texture to this URL.
+     * Prepares an image that was downloaded for binding with {@link #bindURLTexture(String, BufferedImage)}.
+     * This is called on the thread that downloaded the image, not the render thread, so any conversion of the
+     * image to the form the game uploads should be done here, leaving only the upload for when it's bound.
+     */
+    void prepareURLTexture(String textureURL, BufferedImage image);
+
+    /**
+     * Binds a URL texture to an image that was downloaded.  Pass in a null image to bind the missing texture to this URL.
+     * If the image was prepared with {@link #prepareURLTexture(String, BufferedImage)}, that prepared form is used.
      * Returns true if the texture was bound, false if it couldn't be.
      */
-    boolean bindURLTexture(String textureURL, InputStream strea);
+    boolean bindURLTexture(String textureURL, BufferedImage image);
 
     /**
      * Binds a URL GIF that was downloaded.
@@ -94,6 +94,22 @@ public abstract class APacketBase {
         return true;
     }
 
+    /**
+     * Returns a key for the single piece of state this packet changes, or null if this packet
+     * doesn't change just one piece of state.  Used by {@link PacketBatch} to find redundant packets.
+     */
+    public String getStateKey() {
+        return null;
+    }
+
+    /**
+     * Returns true if this packet sets the state for its {@link #getStateKey()} outright, rather than
+     * modifying the existing state.  If so, a prior packet that also does this is made redundant by this one.
+     */
+    public boolean replacesState() {
+        return false;
+    }
+
     /**
      * This is called to write the field values from this class into a buffer.
      * Used prior to sending the packet off over the network.  Make sure to
@@ -45,6 +45,14 @@ public abstract class APacketEntity<EntityType extends AEntityA_Base> extends AP
         }
     }
 
+    /**
+     * Returns a key for the passed-in state of the entity this packet is for.
+     * Used by packets that change a single piece of state for {@link #getStateKey()}.
+     */
+    protected String getEntityStateKey(String state) {
+        return uniqueUUID + state;
+    }
+
     /**
      * Helper method for handling clamped values.  Mainly comes from
      * control packets where we could go outside our desired bounds if we
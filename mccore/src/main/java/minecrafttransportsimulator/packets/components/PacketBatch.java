@@ -0,0 +1,69 @@
+package minecrafttransportsimulator.packets.components;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Batch of packets that are queued to be sent together in a single frame.  Packets are held as the
+ * bytes they were written to when queued, not as the packets themselves, as packets may reference
+ * state that changes before the batch is sent.  This also lets a packet sent to many players be
+ * written once, with each batch holding a retained slice of the same bytes.
+ * <br><br>
+ * As packets are added, any packet that makes a prior packet in the batch redundant, as defined by
+ * {@link APacketBase#getStateKey()} and {@link APacketBase#replacesState()}, will cause that prior
+ * packet to be dropped.  The order of all other packets is preserved.
+ *
+ * @author don_bruce
+ */
+public class PacketBatch {
+    private final List<ByteBuf> packetData = new ArrayList<>();
+    private final List<Boolean> packetReplacesState = new ArrayList<>();
+    private final Map<String, Integer> stateIndexes = new HashMap<>();
+
+    /**
+     * Adds the packet to this batch, dropping any prior packet it makes redundant.  The data is the packet as
+     * written by {@link APacketBase#writeToBuffer(ByteBuf)}.  This batch takes over the reference to the data,
+     * and releases it when it is dropped or when this batch is cleared.
+     */
+    public void add(APacketBase packet, ByteBuf data) {
+        String stateKey = packet.getStateKey();
+        if (stateKey != null) {
+            Integer priorIndex = stateIndexes.put(stateKey, packetData.size());
+            if (priorIndex != null && packet.replacesState() && packetReplacesState.get(priorIndex)) {
+                packetData.set(priorIndex, null).release();
+            }
+        }
+        packetData.add(data);
+        packetReplacesState.add(packet.replacesState());
+    }
+
+    /**
+     * Returns the data of all packets in this batch, in the order they were added.
+     * Packets that were dropped are null.  The returned data is still owned by this batch.
+     */
+    public List<ByteBuf> getPacketData() {
+        return packetData;
+    }
+
+    public boolean isEmpty() {
+        return packetData.isEmpty();
+    }
+
+    /**
+     * Clears this batch, releasing the data of all packets in it.
+     */
+    public void clear() {
+        for (ByteBuf data : packetData) {
+            if (data != null) {
+                data.release();
+            }
+        }
+        packetData.clear();
+        packetReplacesState.clear();
+        stateIndexes.clear();
+    }
+}
@@ -48,6 +48,11 @@ public class PacketEntityVariableIncrement extends APacketEntity<AEntityD_Defina
         buf.writeDouble(maxValue);
     }
 
+    @Override
+    public String getStateKey() {
+        return getEntityStateKey(variableName);
+    }
+
     @Override
     public boolean handle(AWrapperWorld world, AEntityD_Definable<?> entity) {
         return entity.incrementVariable(variableName, incrementValue, minValue, maxValue);
@@ -39,6 +39,16 @@ public class PacketEntityVariableSet extends APacketEntity<AEntityD_Definable<?>
         buf.writeDouble(variableValue);
     }
 
+    @Override
+    public String getStateKey() {
+        return getEntityStateKey(variableName);
+    }
+
+    @Override
+    public boolean replacesState() {
+        return true;
+    }
+
     @Override
     public boolean handle(AWrapperWorld world, AEntityD_Definable<?> entity) {
         entity.setVariable(variableName, variableValue);
@@ -31,6 +31,11 @@ public class PacketEntityVariableToggle extends APacketEntity<AEntityD_Definable
         writeStringToBuffer(variableName, buf);
     }
 
+    @Override
+    public String getStateKey() {
+        return getEntityStateKey(variableName);
+    }
+
     @Override
     public boolean handle(AWrapperWorld world, AEntityD_Definable<?> entity) {
         entity.toggleVariable(variableName);
@@ -15,39 +15,97 @@ import minecrafttransportsimulator.packets.components.APacketEntity;
  * the position and rotation.  This system of syncing has the side-effect of significant
  * rubberbanding when server TPS suffers or networking goes bad, but it's far better than
  * the alternatives when the connection is good, hence why we use it.
+ * <br><br>
+ * Deltas are sent as fixed-point shorts rather than doubles, as they are small and this packet
+ * is sent far more than any other.  Senders should use {@link #quantize(double, double)} to find
+ * what will actually be sent, and hold back the remainder for the next packet.  If the deltas are too large
+ * to send this way, the packet can instead be sent with the vehicle's total deltas as doubles.  These replace
+ * the total deltas on the client, rather than being added to them.
  *
  * @author don_bruce
  */
 public class PacketVehicleServerMovement extends APacketEntity<EntityVehicleF_Physics> {
+    /**Scale for motion and pathing deltas.  Gives a resolution of 1/1024 blocks, and a max of 32 blocks per packet.**/
+    public static final double MOTION_SCALE = 1024;
+    /**Scale for rotation deltas.  Gives a resolution of 1/128 degrees, and a max of 256 degrees per packet.**/
+    public static final double ROTATION_SCALE = 128;
+
     private final Point3D motion;
     private final Point3D rotation;
     private final double pathing;
+    private final boolean isTotal;
 
     public PacketVehicleServerMovement(EntityVehicleF_Physics vehicle, Point3D motion, Point3D rotation, double pathing) {
+        this(vehicle, motion, rotation, pathing, false);
+    }
+
+    public PacketVehicleServerMovement(EntityVehicleF_Physics vehicle, Point3D motion, Point3D rotation, double pathing, boolean isTotal) {
         super(vehicle);
-        this.motion = motion;
-        this.rotation = rotation;
+        this.motion = motion.copy();
+        this.rotation = rotation.copy();
         this.pathing = pathing;
+        this.isTotal = isTotal;
     }
 
     public PacketVehicleServerMovement(ByteBuf buf) {
         super(buf);
-        this.motion = readPoint3dFromBuffer(buf);
-        this.rotation = readPoint3dFromBuffer(buf);
-        this.pathing = buf.readDouble();
+        this.isTotal = buf.readBoolean();
+        if (isTotal) {
+            this.motion = readPoint3dFromBuffer(buf);
+            this.rotation = readPoint3dFromBuffer(buf);
+            this.pathing = buf.readDouble();
+        } else {
+            this.motion = new Point3D(buf.readShort() / MOTION_SCALE, buf.readShort() / MOTION_SCALE, buf.readShort() / MOTION_SCALE);
+            this.rotation = new Point3D(buf.readShort() / ROTATION_SCALE, buf.readShort() / ROTATION_SCALE, buf.readShort() / ROTATION_SCALE);
+            this.pathing = buf.readShort() / MOTION_SCALE;
+        }
     }
 
     @Override
     public void writeToBuffer(ByteBuf buf) {
         super.writeToBuffer(buf);
-        writePoint3dToBuffer(motion, buf);
-        writePoint3dToBuffer(rotation, buf);
-        buf.writeDouble(pathing);
+        buf.writeBoolean(isTotal);
+        if (isTotal) {
+            writePoint3dToBuffer(motion, buf);
+            writePoint3dToBuffer(rotation, buf);
+            buf.writeDouble(pathing);
+        } else {
+            buf.writeShort(toShort(motion.x, MOTION_SCALE));
+            buf.writeShort(toShort(motion.y, MOTION_SCALE));
+            buf.writeShort(toShort(motion.z, MOTION_SCALE));
+            buf.writeShort(toShort(rotation.x, ROTATION_SCALE));
+            buf.writeShort(toShort(rotation.y, ROTATION_SCALE));
+            buf.writeShort(toShort(rotation.z, ROTATION_SCALE));
+            buf.writeShort(toShort(pathing, MOTION_SCALE));
+        }
     }
 
     @Override
     public boolean handle(AWrapperWorld world, EntityVehicleF_Physics vehicle) {
-        vehicle.addToServerDeltas(motion, rotation, pathing);
+        if (isTotal) {
+            vehicle.setServerDeltas(motion, rotation, pathing);
+        } else {
+            vehicle.addToServerDeltas(motion, rotation, pathing);
+        }
         return false;
     }
+
+    /**
+     * Returns the passed-in value rounded to what can be sent with the passed-in scale.
+     * Values too large to send are clamped to the largest value that can be.
+     */
+    public static double quantize(double value, double scale) {
+        return toShort(value, scale) / scale;
+    }
+
+    /**
+     * Returns the largest delta that can be sent in one packet with the passed-in scale.
+     */
+    public static double getMaxDelta(double scale) {
+        return Short.MAX_VALUE / scale;
+    }
+
+    private static short toShort(double value, double scale) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(value * scale)));
+    }
 }
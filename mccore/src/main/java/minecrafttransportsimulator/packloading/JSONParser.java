@@ -1,6 +1,7 @@
 package minecrafttransportsimulator.packloading;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
@@ -247,6 +248,111 @@ public class JSONParser {
         }
     };
 
+    private static final TypeAdapter<Point3D> cachedPoint3DAdapter = new TypeAdapter<Point3D>() {
+        @Override
+        public Point3D read(JsonReader reader) throws IOException {
+            return point3DAdapter.read(reader);
+        }
+
+        @Override
+        public void write(JsonWriter writer, Point3D value) throws IOException {
+            if (value == null) {
+                writer.nullValue();
+            } else {
+                writer.beginArray();
+                writer.value(value.x);
+                writer.value(value.y);
+                writer.value(value.z);
+                writer.endArray();
+            }
+        }
+    };
+
+    private static final TypeAdapter<RotationMatrix> cachedRotationMatrixAdapter = new TypeAdapter<RotationMatrix>() {
+        @Override
+        public RotationMatrix read(JsonReader reader) throws IOException {
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                return null;
+            } else {
+                reader.beginArray();
+                RotationMatrix value = new RotationMatrix().setToAngles(new Point3D(reader.nextDouble(), reader.nextDouble(), reader.nextDouble()));
+                value.m00 = reader.nextDouble();
+                value.m01 = reader.nextDouble();
+                value.m02 = reader.nextDouble();
+                value.m10 = reader.nextDouble();
+                value.m11 = reader.nextDouble();
+                value.m12 = reader.nextDouble();
+                value.m20 = reader.nextDouble();
+                value.m21 = reader.nextDouble();
+                value.m22 = reader.nextDouble();
+                reader.endArray();
+                return value;
+            }
+        }
+
+        @Override
+        public void write(JsonWriter writer, RotationMatrix value) throws IOException {
+            if (value == null) {
+                writer.nullValue();
+            } else {
+                //Legacy compats may rotate matrices without updating their angles, so we need the whole matrix here.
+                writer.beginArray();
+                writer.value(value.angles.x);
+                writer.value(value.angles.y);
+                writer.value(value.angles.z);
+                writer.value(value.m00);
+                writer.value(value.m01);
+                writer.value(value.m02);
+                writer.value(value.m10);
+                writer.value(value.m11);
+                writer.value(value.m12);
+                writer.value(value.m20);
+                writer.value(value.m21);
+                writer.value(value.m22);
+                writer.endArray();
+            }
+        }
+    };
+
+    private static final TypeAdapter<ColorRGB> cachedColorAdapter = new TypeAdapter<ColorRGB>() {
+        @Override
+        public ColorRGB read(JsonReader reader) throws IOException {
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                return null;
+            } else {
+                reader.beginArray();
+                ColorRGB value = new ColorRGB();
+                value.red = (float) reader.nextDouble();
+                value.green = (float) reader.nextDouble();
+                value.blue = (float) reader.nextDouble();
+                value.rgbInt = reader.nextInt();
+                value.hsv = new int[] { reader.nextInt(), reader.nextInt(), reader.nextInt() };
+                reader.endArray();
+                return value;
+            }
+        }
+
+        @Override
+        public void write(JsonWriter writer, ColorRGB value) throws IOException {
+            if (value == null) {
+                writer.nullValue();
+            } else {
+                //HSV colors don't have an rgbInt that matches their RGB values, so we need all the values here.
+                writer.beginArray();
+                writer.value(value.red);
+                writer.value(value.green);
+                writer.value(value.blue);
+                writer.value(value.rgbInt);
+                writer.value(value.hsv[0]);
+                writer.value(value.hsv[1]);
+                writer.value(value.hsv[2]);
+                writer.endArray();
+            }
+        }
+    };
+
     private static final TypeAdapter<LTBox> ltBoxAdapter = new TypeAdapter<LTBox>() {
         @Override
         public LTBox read(JsonReader reader) throws IOException {
@@ -396,6 +502,15 @@ public class JSONParser {
                 }.getType(), floatListAdapter).registerTypeAdapterFactory(lowercaseEnumFactory).create();
     }
 
+    //This needs to go down here AFTER we create the type adapters.
+    private static final Gson cacheParser = getCacheParserWithAdapters();
+
+    private static Gson getCacheParserWithAdapters() {
+        //Cached definitions need to load back exactly as they were, so we don't use the space-saving adapters here.
+        return new GsonBuilder().disableHtmlEscaping().enableComplexMapKeySerialization() //Used for enum keys.
+                .serializeSpecialFloatingPointValues().registerTypeAdapter(Point3D.class, cachedPoint3DAdapter).registerTypeAdapter(RotationMatrix.class, cachedRotationMatrixAdapter).registerTypeAdapter(ColorRGB.class, cachedColorAdapter).registerTypeAdapterFactory(lowercaseEnumFactory).create();
+    }
+
     //This needs to go down here AFTER we create the type adapters.
     private static final Gson configParser = getConfigParserWithAdapters();
 
@@ -422,6 +537,27 @@ public class JSONParser {
         return json;
     }
 
+    /**
+     * Parses a definition from the {@link PackDefinitionCache}.  Unlike {@link #parseStream(InputStream, Class, String, String)},
+     * this expects data written by {@link #exportCachedDefinition(AJSONBase)}, which keeps all state that legacy compats may have set.
+     *
+     * @throws IOException
+     */
+    public static <JSONClass extends AJSONBase> JSONClass parseCachedDefinition(byte[] data, Class<JSONClass> retClass) throws IOException {
+        InputStreamReader jsonReader = new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8);
+        JSONClass json = cacheParser.fromJson(jsonReader, retClass);
+        jsonReader.close();
+        return json;
+    }
+
+    /**
+     * Exports the passed-in definition for the {@link PackDefinitionCache}.
+     * Definitions are exported as-is, so this should only be done after legacy compats and validation.
+     */
+    public static byte[] exportCachedDefinition(AJSONBase definition) {
+        return cacheParser.toJson(definition, definition.getClass()).getBytes(StandardCharsets.UTF_8);
+    }
+
     /**
      * Exports the passed-JSON to the passed-in stream.
      *
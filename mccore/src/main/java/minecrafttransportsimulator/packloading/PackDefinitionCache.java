@@ -0,0 +1,220 @@
+package minecrafttransportsimulator.packloading;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+
+import minecrafttransportsimulator.jsondefs.AJSONBase;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.systems.ConfigSystem;
+
+/**
+ * On-disk cache of parsed pack definitions.  Each pack jar has its own cache file, which is keyed by a hash of the
+ * jar's entries, the mod version, and any config options that change how definitions are loaded.  Cached definitions
+ * have already had legacy compats and validation performed on them, so loading them skips both of those steps,
+ * as well as any model parsing the legacy compats would have done.  If the key of a cache file doesn't match
+ * the jar, the file is ignored and is replaced once the jar's definitions are parsed again.
+ *
+ * @author don_bruce
+ */
+public class PackDefinitionCache {
+    private static final String CACHE_FOLDER_NAME = "mts_packcache";
+    private static final String CACHE_FILE_SUFFIX = ".dat";
+    /**Version of the cache file format.  Increment when changing how definitions are written, to invalidate all old caches.**/
+    private static final int CACHE_VERSION = 2;
+
+    private final File cacheFile;
+    private final MessageDigest jarDigest;
+    private final Map<String, byte[]> cachedDefinitions = new HashMap<>();
+    private final Map<String, byte[]> newDefinitions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new cache for the passed-in jar.  Entries must be added via {@link #addEntry(ZipEntry)}
+     * for the whole jar, after which {@link #load()} is called to read any existing cached definitions.
+     */
+    public PackDefinitionCache(File packJar) {
+        try {
+            this.jarDigest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not supported by this JVM.  How did you even get this far?", e);
+        }
+        this.cacheFile = new File(new File(InterfaceManager.gameDirectory, CACHE_FOLDER_NAME), packJar.getName() + "_" + getPathHash(packJar) + CACHE_FILE_SUFFIX);
+    }
+
+    /**
+     * Returns a hash of the jar's path.  This goes in the cache file name, as jars with the same name
+     * can be loaded from different folders, and we don't want them to keep replacing each other's cache.
+     */
+    private String getPathHash(File packJar) {
+        String path;
+        try {
+            path = packJar.getCanonicalPath();
+        } catch (IOException e) {
+            path = packJar.getAbsolutePath();
+        }
+        StringBuilder hash = new StringBuilder();
+        byte[] pathDigest = jarDigest.digest(path.getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < 8; ++i) {
+            hash.append(String.format("%02x", pathDigest[i]));
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Adds the passed-in jar entry to this cache's hash.  We use the name, size, and CRC of the entry rather than
+     * the entry contents, as these are stored in the jar's directory and don't require reading the whole jar.
+     */
+    public void addEntry(ZipEntry entry) {
+        jarDigest.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+        long size = entry.getSize();
+        long crc = entry.getCrc();
+        for (int i = 0; i < 8; ++i) {
+            jarDigest.update((byte) (size >>> (i * 8)));
+            jarDigest.update((byte) (crc >>> (i * 8)));
+        }
+    }
+
+    /**
+     * Loads the cached definitions for this jar from disk, if they exist and match the jar hash.
+     * If they don't exist or don't match, this cache is left empty.
+     */
+    public void load() {
+        if (cacheFile.exists()) {
+            try (DataInputStream cacheStream = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(cacheFile.toPath()))))) {
+                if (cacheStream.readInt() == CACHE_VERSION && cacheStream.readUTF().equals(getKey())) {
+                    int definitionCount = cacheStream.readInt();
+                    for (int i = 0; i < definitionCount; ++i) {
+                        String entryName = cacheStream.readUTF();
+                        byte[] data = new byte[cacheStream.readInt()];
+                        cacheStream.readFully(data);
+                        cachedDefinitions.put(entryName, data);
+                    }
+                }
+            } catch (Exception e) {
+                //Bad cache, just re-parse everything.
+                InterfaceManager.coreInterface.logError("Could not load pack cache " + cacheFile.getName() + ", pack will be re-parsed.  Error is: " + e.getMessage());
+                cachedDefinitions.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the cached definition for the passed-in jar entry, or null if it isn't cached.
+     * The returned definition will not have any of its transient fields set.
+     */
+    public <JSONClass extends AJSONBase> JSONClass getDefinition(String entryName, Class<JSONClass> definitionClass) {
+        byte[] data = cachedDefinitions.get(entryName);
+        if (data != null) {
+            try {
+                return JSONParser.parseCachedDefinition(data, definitionClass);
+            } catch (Exception e) {
+                //Cache doesn't match the definition class anymore, parse normally.
+                InterfaceManager.coreInterface.logError("Could not load cached definition " + entryName + ", it will be re-parsed.  Error is: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the passed-in definition to the cache.  This should be done after legacy compats and validation.
+     * May be called from multiple threads at once.
+     */
+    public void putDefinition(String entryName, AJSONBase definition) {
+        try {
+            newDefinitions.put(entryName, JSONParser.exportCachedDefinition(definition));
+        } catch (Exception e) {
+            //Not the end of the world, we'll just parse it again next launch.
+            InterfaceManager.coreInterface.logError("Could not cache definition " + entryName + ".  Error is: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves this cache to disk if any definitions were added since it was loaded.
+     */
+    public void save() {
+        if (!newDefinitions.isEmpty()) {
+            cachedDefinitions.putAll(newDefinitions);
+            newDefinitions.clear();
+            Path cachePath = cacheFile.toPath();
+            Path tempPath = new File(cacheFile.getParentFile(), cacheFile.getName() + ".tmp").toPath();
+            try {
+                cacheFile.getParentFile().mkdirs();
+                try (DataOutputStream cacheStream = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempPath))))) {
+                    cacheStream.writeInt(CACHE_VERSION);
+                    cacheStream.writeUTF(getKey());
+                    cacheStream.writeInt(cachedDefinitions.size());
+                    for (Entry<String, byte[]> cachedEntry : cachedDefinitions.entrySet()) {
+                        cacheStream.writeUTF(cachedEntry.getKey());
+                        cacheStream.writeInt(cachedEntry.getValue().length);
+                        cacheStream.write(cachedEntry.getValue());
+                    }
+                }
+                try {
+                    Files.move(tempPath, cachePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempPath, cachePath, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                InterfaceManager.coreInterface.logError("Could not save pack cache " + cacheFile.getName() + ".  Error is: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the key for this cache.  This is the jar hash, plus the mod version and
+     * any config options that change what legacy compats do.
+     */
+    private String getKey() {
+        StringBuilder key = new StringBuilder();
+        try {
+            MessageDigest keyDigest = (MessageDigest) jarDigest.clone();
+            for (byte hashByte : keyDigest.digest()) {
+                key.append(String.format("%02x", hashByte));
+            }
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-1 digests can't be cloned by this JVM.", e);
+        }
+        key.append(':').append(InterfaceManager.coreInterface.getModVersion(InterfaceManager.coreModID));
+        key.append(':').append(ConfigSystem.settings != null && ConfigSystem.settings.general.doLegacyLightCompats.value);
+        return key.toString();
+    }
+
+    /**
+     * Removes all cache files that don't belong to the passed-in caches.  This keeps
+     * caches for removed packs from building up.
+     */
+    public static void removeUnusedCaches(Collection<PackDefinitionCache> activeCaches) {
+        File[] cacheFiles = new File(InterfaceManager.gameDirectory, CACHE_FOLDER_NAME).listFiles();
+        if (cacheFiles != null) {
+            Set<File> activeFiles = new HashSet<>();
+            for (PackDefinitionCache cache : activeCaches) {
+                activeFiles.add(cache.cacheFile);
+            }
+            for (File cacheFile : cacheFiles) {
+                if (!activeFiles.contains(cacheFile)) {
+                    cacheFile.delete();
+                }
+            }
+        }
+    }
+}
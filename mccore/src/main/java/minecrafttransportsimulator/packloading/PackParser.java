@@ -1,15 +1,22 @@
 package minecrafttransportsimulator.packloading;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -43,6 +50,7 @@ import minecrafttransportsimulator.jsondefs.JSONVehicle;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packloading.PackResourceLoader.ItemClassification;
 import minecrafttransportsimulator.packloading.PackResourceLoader.PackStructure;
+import minecrafttransportsimulator.rendering.ModelPrefetcher;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**
@@ -53,9 +61,10 @@ import minecrafttransportsimulator.systems.ConfigSystem;
  */
 public final class PackParser {
     /**
-     * Links packs to the jar files that they are a part of.  Used for pack loading only: asset loading uses Java classpath systems.
+     * Links packs to the indexes of the jar files that they are a part of.  Used for pack loading only: asset loading uses Java classpath systems.
+     * Packs in the same jar share the same index.
      **/
-    private static final Map<String, File> packJarMap = new HashMap<>();
+    private static final Map<String, PackJarIndex> packJarMap = new HashMap<>();
 
     /**
      * All registered pack definitions are stored in this list as they are added.  Used to handle loading operations.
@@ -271,15 +280,18 @@ public final class PackParser {
     private static void checkJarForPacks(File packJar) {
         try {
             //Try to find a JSON definition.
+            //Index all JSONs while we do this so we don't have to scan the jar again when parsing.
             boolean foundJSON = false;
+            PackJarIndex index = new PackJarIndex(packJar);
             ZipFile jarFile = new ZipFile(packJar);
             Enumeration<? extends ZipEntry> entries = jarFile.entries();
             while (entries.hasMoreElements()) {
                 ZipEntry entry = entries.nextElement();
+                index.addEntry(entry);
                 if (entry.getName().endsWith("packdefinition.json")) {
                     //New style, use def as-is.
                     JSONPack packDef = JSONParser.parseStream(jarFile.getInputStream(entry), JSONPack.class, null, null);
-                    packJarMap.put(packDef.packID, packJar);
+                    packJarMap.put(packDef.packID, index);
                     packMap.put(packDef.packID, packDef);
                     foundJSON = true;
                 }
@@ -297,13 +309,14 @@ public final class PackParser {
                         String[] pathComponents = entry.getName().split("/");
                         packDef.packID = pathComponents[pathComponents.length - 2];
                         packDef.packName = "Auto-Generated: " + packDef.packID;
-                        packJarMap.put(packDef.packID, packJar);
+                        packJarMap.put(packDef.packID, index);
                         packMap.put(packDef.packID, packDef);
                         break;
                     }
                 }
             }
             jarFile.close();
+            index.finish();
         } catch (Exception e) {
             InterfaceManager.coreInterface.logError("A fault was encountered when trying to check file " + packJar.getName() + " for pack data.  This pack will not be loaded.");
             e.printStackTrace();
@@ -319,8 +332,11 @@ public final class PackParser {
      * create and register your pack items and use {@link #registerItem(AJSONItem)}.
      */
     private static void parseAllPacks() {
+        //Sort packs so we always parse them in the same order, no matter the order of the pack files on disk.
         List<String> packIDs = new ArrayList<>(packMap.keySet());
-        for (String s : packMap.keySet()) {
+        Collections.sort(packIDs);
+        List<PendingDefinition> pendingDefinitions = new ArrayList<>();
+        for (String s : packIDs) {
             JSONPack packDef = packMap.get(s);
             //Don't parse the core pack.  THat's all internal.
             if (packDef.packID.equals(InterfaceManager.coreModID)) {
@@ -371,80 +387,89 @@ public final class PackParser {
                 }
             }
 
-            //Load the pack components into the game.
-            //We iterate over all the sub-folders we found from the packDef checks.
+            //Find all definitions to load into the game.
+            //We iterate over all the sub-folders we found from the packDef checks, using the jar index rather than the jar itself.
             PackStructure structure = PackStructure.values()[packDef.fileStructure];
+            PackJarIndex index = packJarMap.get(packDef.packID);
             for (String subDirectory : validSubDirectories) {
                 String assetPathPrefix = "assets/" + packDef.packID + "/";
                 if (!subDirectory.isEmpty()) {
                     assetPathPrefix += subDirectory + "/";
                 }
 
-                try {
-                    ZipFile jarFile = new ZipFile(packJarMap.get(packDef.packID));
-                    Enumeration<? extends ZipEntry> entries = jarFile.entries();
-                    while (entries.hasMoreElements()) {
-                        //Get next entry and path.
-                        ZipEntry entry = entries.nextElement();
-                        String entryFullPath = entry.getName();
-                        if (entryFullPath.startsWith(assetPathPrefix) && entryFullPath.endsWith(".json")) {
-                            //JSON is in correct folder.  Get path properties and ensure they match our specs.
-                            //Need the asset folder structure between the main prefix and the asset itself.
-                            //This lets us know what asset we need to create as all assets are in their own folders.
-                            String fileName = entryFullPath.substring(entryFullPath.lastIndexOf('/') + 1);
-                            String assetPath = entryFullPath.substring(assetPathPrefix.length(), entryFullPath.substring(0, entryFullPath.length() - fileName.length()).lastIndexOf("/") + 1);
-                            if (!structure.equals(PackStructure.MODULAR)) {
-                                //Need to trim the jsondefs folder to get correct sub-folder of jsondefs data.
-                                //Modular structure does not have a jsondefs folder, so we don't need to trim it off for that.
-                                //If we aren't modular, and aren't in a jsondefs folder, skip this entry.
-                                if (assetPath.startsWith("jsondefs/")) {
-                                    assetPath = assetPath.substring("jsondefs/".length());
-                                } else {
-                                    continue;
-                                }
+                for (String entryFullPath : index.jsonEntries) {
+                    if (entryFullPath.startsWith(assetPathPrefix)) {
+                        //JSON is in correct folder.  Get path properties and ensure they match our specs.
+                        //Need the asset folder structure between the main prefix and the asset itself.
+                        //This lets us know what asset we need to create as all assets are in their own folders.
+                        String fileName = entryFullPath.substring(entryFullPath.lastIndexOf('/') + 1);
+                        String assetPath = entryFullPath.substring(assetPathPrefix.length(), entryFullPath.substring(0, entryFullPath.length() - fileName.length()).lastIndexOf("/") + 1);
+                        if (!structure.equals(PackStructure.MODULAR)) {
+                            //Need to trim the jsondefs folder to get correct sub-folder of jsondefs data.
+                            //Modular structure does not have a jsondefs folder, so we don't need to trim it off for that.
+                            //If we aren't modular, and aren't in a jsondefs folder, skip this entry.
+                            if (assetPath.startsWith("jsondefs/")) {
+                                assetPath = assetPath.substring("jsondefs/".length());
+                            } else {
+                                continue;
                             }
+                        }
 
-                            //Check to make sure json isn't an item JSON or our pack definition.
-                            if (!fileName.equals("packdefinition.json") && (structure.equals(PackStructure.MODULAR) ? !fileName.endsWith("_item.json") : entryFullPath.contains("jsondefs"))) {
-                                //Get classification and JSON class type to use with GSON system.
-                                ItemClassification classification;
-                                try {
-                                    classification = ItemClassification.fromDirectory(assetPath.substring(0, assetPath.indexOf("/") + 1));
-                                } catch (Exception e) {
-                                    InterfaceManager.coreInterface.logError("Was given an invalid classifcation sub-folder for asset: " + fileName + ".  Check your folder paths.");
-                                    continue;
-                                }
-
-                                //Create the JSON instance.
-                                String systemName = fileName.substring(0, fileName.length() - ".json".length());
-                                AJSONBase definition;
-                                try {
-                                    definition = JSONParser.parseStream(jarFile.getInputStream(entry), classification.representingClass, packDef.packID, systemName);
-                                } catch (Exception e) {
-                                    InterfaceManager.coreInterface.logError("Could not parse: " + packDef.packID + ":" + fileName);
-                                    InterfaceManager.coreInterface.logError(e.getMessage());
-                                    continue;
-                                }
-
-                                //Remove the classification folder from the assetPath.  We don't use this for the resource-loading code.
-                                //Instead, this will be loaded by referencing the definition.  This also allows us to omit the path
-                                //if we are loading a non-default pack format.
-                                definition.packID = packDef.packID;
-                                definition.systemName = systemName;
-                                definition.classification = classification;
-                                definition.prefixFolders = assetPath.substring(classification.toDirectory().length());
-                                registerItem(definition);
+                        //Check to make sure json isn't an item JSON or our pack definition.
+                        if (!fileName.equals("packdefinition.json") && (structure.equals(PackStructure.MODULAR) ? !fileName.endsWith("_item.json") : entryFullPath.contains("jsondefs"))) {
+                            //Get classification and JSON class type to use with GSON system.
+                            ItemClassification classification;
+                            try {
+                                classification = ItemClassification.fromDirectory(assetPath.substring(0, assetPath.indexOf("/") + 1));
+                            } catch (Exception e) {
+                                InterfaceManager.coreInterface.logError("Was given an invalid classifcation sub-folder for asset: " + fileName + ".  Check your folder paths.");
+                                continue;
                             }
+
+                            //Remove the classification folder from the assetPath.  We don't use this for the resource-loading code.
+                            //Instead, this will be loaded by referencing the definition.  This also allows us to omit the path
+                            //if we are loading a non-default pack format.
+                            pendingDefinitions.add(new PendingDefinition(packDef.packID, index, entryFullPath, fileName, classification, assetPath.substring(classification.toDirectory().length())));
                         }
                     }
+                }
+            }
+        }
 
-                    //Done parsing.  Close the jarfile.
-                    jarFile.close();
-                } catch (Exception e) {
-                    InterfaceManager.coreInterface.logError("Could not start parsing of pack: " + packDef.packID);
-                    e.printStackTrace();
+        //Parse and validate all definitions on worker threads, as this is the bulk of the loading time.
+        //Items are registered on this thread as they finish, in the sorted order from above.
+        //This keeps registration order, and therefore item IDs, the same between launches.
+        ExecutorService parsingPool = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), runnable -> {
+            Thread thread = new Thread(runnable, "MTS Pack Parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> parsingTasks = new ArrayList<>();
+            for (PendingDefinition pendingDefinition : pendingDefinitions) {
+                parsingTasks.add(parsingPool.submit(pendingDefinition));
+            }
+            for (int i = 0; i < parsingTasks.size(); ++i) {
+                PendingDefinition pendingDefinition = pendingDefinitions.get(i);
+                try {
+                    parsingTasks.get(i).get();
+                } catch (ExecutionException e) {
+                    pendingDefinition.parseException = e;
                 }
+                pendingDefinition.register();
             }
+        } catch (InterruptedException e) {
+            InterfaceManager.coreInterface.logError("Pack parsing was interrupted.  Not all packs will be loaded.");
+            Thread.currentThread().interrupt();
+        } finally {
+            parsingPool.shutdownNow();
+            List<PackDefinitionCache> caches = new ArrayList<>();
+            for (PackJarIndex index : new HashSet<>(packJarMap.values())) {
+                index.close();
+                index.cache.save();
+                caches.add(index.cache);
+            }
+            PackDefinitionCache.removeUnusedCaches(caches);
         }
     }
 
@@ -464,60 +489,75 @@ public final class PackParser {
      */
     public static void registerItem(AJSONBase itemDef) {
         try {
-            //Do legacy compats before validating the JSON.
-            //This will populate any required fields that were not in older versions.
-            LegacyCompatSystem.performLegacyCompats(itemDef);
-            JSONParser.validateFields(itemDef, itemDef.packID + ":" + itemDef.systemName + "/", 1);
-
-            //Create all required items.
-            if (itemDef instanceof AJSONMultiModelProvider) {
-                //Check if the definition is a skin.  If so, we need to just add it to the skin map for processing later.
-                //We don't create skin items right away as the pack they go to might not yet be loaded.
-                if (itemDef instanceof JSONSkin) {
-                    JSONSkin skinDef = (JSONSkin) itemDef;
-                    if (!skinMap.containsKey(skinDef.skin.packID)) {
-                        skinMap.put(skinDef.skin.packID, new HashMap<>());
-                    }
-                    if (!skinMap.get(skinDef.skin.packID).containsKey(skinDef.skin.systemName)) {
-                        skinMap.get(skinDef.skin.packID).put(skinDef.skin.systemName, new ArrayList<>());
-                    }
-                    skinMap.get(skinDef.skin.packID).get(skinDef.skin.systemName).add(skinDef);
-                } else {
-                    parseAllDefinitions((AJSONMultiModelProvider) itemDef, ((AJSONMultiModelProvider) itemDef).definitions, itemDef.packID);
+            prepareItem(itemDef);
+            createItems(itemDef);
+        } catch (Exception e) {
+            InterfaceManager.coreInterface.logError(e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Performs legacy compats and validation on the passed-in definition.  This does not touch any
+     * registries, so it is safe to call from multiple threads at once on different definitions.
+     */
+    private static void prepareItem(AJSONBase itemDef) {
+        //Do legacy compats before validating the JSON.
+        //This will populate any required fields that were not in older versions.
+        LegacyCompatSystem.performLegacyCompats(itemDef);
+        JSONParser.validateFields(itemDef, itemDef.packID + ":" + itemDef.systemName + "/", 1);
+    }
+
+    /**
+     * Creates all items for the passed-in definition and adds them to the registries.
+     * The definition must have been through {@link #prepareItem(AJSONBase)} before calling this.
+     */
+    private static void createItems(AJSONBase itemDef) {
+        //Create all required items.
+        if (itemDef instanceof AJSONMultiModelProvider) {
+            //Check if the definition is a skin.  If so, we need to just add it to the skin map for processing later.
+            //We don't create skin items right away as the pack they go to might not yet be loaded.
+            if (itemDef instanceof JSONSkin) {
+                JSONSkin skinDef = (JSONSkin) itemDef;
+                if (!skinMap.containsKey(skinDef.skin.packID)) {
+                    skinMap.put(skinDef.skin.packID, new HashMap<>());
                 }
+                if (!skinMap.get(skinDef.skin.packID).containsKey(skinDef.skin.systemName)) {
+                    skinMap.get(skinDef.skin.packID).put(skinDef.skin.systemName, new ArrayList<>());
+                }
+                skinMap.get(skinDef.skin.packID).get(skinDef.skin.systemName).add(skinDef);
             } else {
-                AItemPack<?> item = null;
-                switch (itemDef.classification) {
-                    case INSTRUMENT:
-                        item = new ItemInstrument((JSONInstrument) itemDef);
-                        break;
-                    case ITEM:
-                        item = new ItemItem((JSONItem) itemDef);
-                        break;
-                    case PANEL:
-                        //Put the panel in the map in the registry.
-                        JSONPanel panelDef = (JSONPanel) itemDef;
-                        if (!panelMap.containsKey(panelDef.packID)) {
-                            panelMap.put(panelDef.packID, new HashMap<>());
-                        }
-                        panelMap.get(panelDef.packID).put(panelDef.systemName, panelDef);
-                        break;
-                    default: {
-                        throw new IllegalArgumentException("No corresponding classification found for asset: " + itemDef.prefixFolders + " Contact the mod author!");
+                parseAllDefinitions((AJSONMultiModelProvider) itemDef, ((AJSONMultiModelProvider) itemDef).definitions, itemDef.packID);
+            }
+        } else {
+            AItemPack<?> item = null;
+            switch (itemDef.classification) {
+                case INSTRUMENT:
+                    item = new ItemInstrument((JSONInstrument) itemDef);
+                    break;
+                case ITEM:
+                    item = new ItemItem((JSONItem) itemDef);
+                    break;
+                case PANEL:
+                    //Put the panel in the map in the registry.
+                    JSONPanel panelDef = (JSONPanel) itemDef;
+                    if (!panelMap.containsKey(panelDef.packID)) {
+                        panelMap.put(panelDef.packID, new HashMap<>());
                     }
+                    panelMap.get(panelDef.packID).put(panelDef.systemName, panelDef);
+                    break;
+                default: {
+                    throw new IllegalArgumentException("No corresponding classification found for asset: " + itemDef.prefixFolders + " Contact the mod author!");
                 }
+            }
 
-                //Put the item in the map in the registry.
-                if(item != null) {
-                    if (!packItemMap.containsKey(item.definition.packID)) {
-                        packItemMap.put(item.definition.packID, new HashMap<>());
-                    }
-                    packItemMap.get(item.definition.packID).put(item.definition.systemName, item);
+            //Put the item in the map in the registry.
+            if(item != null) {
+                if (!packItemMap.containsKey(item.definition.packID)) {
+                    packItemMap.put(item.definition.packID, new HashMap<>());
                 }
+                packItemMap.get(item.definition.packID).put(item.definition.systemName, item);
             }
-        } catch (Exception e) {
-            InterfaceManager.coreInterface.logError(e.getMessage());
-            e.printStackTrace();
         }
     }
 
@@ -601,6 +641,11 @@ public final class PackParser {
             //Add the pack item to the map.  We need to make sure all subDefinitions
             //are okay before adding the entire definition.
             packItems.put(item.definition.systemName + subDefinition.subName, item);
+
+            //Start parsing the model now if we were told to, rather than waiting for the item to be used.
+            if (ConfigSystem.client != null && ConfigSystem.client.renderingSettings.prefetchPackModels.value) {
+                ModelPrefetcher.prefetchModel(mainDefinition, subDefinition);
+            }
         }
 
         //All definitions were okay.  Add items to the registry.
@@ -690,4 +735,145 @@ public final class PackParser {
         }
         return packPanels;
     }
+
+    /**
+     * Index of all JSON entries in a pack jar.  This is created when the jar is first checked for
+     * pack definitions, and is shared by all packs in that jar when they are parsed.  This keeps us
+     * from re-opening and re-scanning the jar for every pack and sub-directory.  Entries are sorted
+     * so parsing order does not depend on the order of entries in the jar.  The index also holds
+     * the definition cache for the jar, as the cache is keyed off the same entries.
+     */
+    private static class PackJarIndex {
+        private final File file;
+        private final List<String> jsonEntries = new ArrayList<>();
+        private final PackDefinitionCache cache;
+        private ZipFile jarFile;
+
+        private PackJarIndex(File file) {
+            this.file = file;
+            this.cache = new PackDefinitionCache(file);
+        }
+
+        private void addEntry(ZipEntry entry) {
+            cache.addEntry(entry);
+            if (entry.getName().endsWith(".json")) {
+                jsonEntries.add(entry.getName());
+            }
+        }
+
+        /**
+         * Call after adding all entries to sort them and load the cache.
+         */
+        private void finish() {
+            Collections.sort(jsonEntries);
+            cache.load();
+        }
+
+        /**
+         * Returns the jar for this index, opening it if required.  The jar may be read from
+         * multiple threads at once, and remains open until {@link #close()} is called.
+         */
+        private synchronized ZipFile getJar() throws IOException {
+            if (jarFile == null) {
+                jarFile = new ZipFile(file);
+            }
+            return jarFile;
+        }
+
+        private synchronized void close() {
+            if (jarFile != null) {
+                try {
+                    jarFile.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                jarFile = null;
+            }
+        }
+    }
+
+    /**
+     * A definition found in a pack jar that has yet to be registered.  Running this loads the definition from
+     * the jar's cache, or parses it and performs all legacy compats and validation if it isn't cached.  This is safe
+     * to do on many definitions at once.  Registration is not, so {@link #register()} must be called afterwards
+     * from the loading thread.
+     */
+    private static class PendingDefinition implements Runnable {
+        private final String packID;
+        private final PackJarIndex index;
+        private final String entryName;
+        private final String fileName;
+        private final ItemClassification classification;
+        private final String prefixFolders;
+        private AJSONBase definition;
+        private Exception parseException;
+        private Exception prepareException;
+
+        private PendingDefinition(String packID, PackJarIndex index, String entryName, String fileName, ItemClassification classification, String prefixFolders) {
+            this.packID = packID;
+            this.index = index;
+            this.entryName = entryName;
+            this.fileName = fileName;
+            this.classification = classification;
+            this.prefixFolders = prefixFolders;
+        }
+
+        @Override
+        public void run() {
+            //Check the cache first.  Cached definitions are already prepared, so we just need to set their properties.
+            String systemName = fileName.substring(0, fileName.length() - ".json".length());
+            definition = index.cache.getDefinition(entryName, classification.representingClass);
+            if (definition != null) {
+                setProperties(systemName);
+                return;
+            }
+
+            //Not cached, create the JSON instance.
+            try {
+                ZipFile jarFile = index.getJar();
+                definition = JSONParser.parseStream(jarFile.getInputStream(jarFile.getEntry(entryName)), classification.representingClass, packID, systemName);
+            } catch (Exception e) {
+                parseException = e;
+                return;
+            }
+
+            setProperties(systemName);
+            try {
+                prepareItem(definition);
+            } catch (Exception e) {
+                prepareException = e;
+                return;
+            }
+
+            //Cache before registration, as registration can modify the definition.
+            index.cache.putDefinition(entryName, definition);
+        }
+
+        private void setProperties(String systemName) {
+            definition.packID = packID;
+            definition.systemName = systemName;
+            definition.classification = classification;
+            definition.prefixFolders = prefixFolders;
+        }
+
+        /**
+         * Registers the definition, or logs why it couldn't be registered.
+         */
+        private void register() {
+            if (parseException != null) {
+                InterfaceManager.coreInterface.logError("Could not parse: " + packID + ":" + fileName);
+                InterfaceManager.coreInterface.logError(parseException.getMessage());
+            } else if (prepareException != null) {
+                InterfaceManager.coreInterface.logError(prepareException.getMessage());
+                prepareException.printStackTrace();
+            } else {
+                try {
+                    createItems(definition);
+                } catch (Exception e) {
+                    InterfaceManager.coreInterface.logError(e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
 }
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
 
@@ -18,7 +19,8 @@ import minecrafttransportsimulator.entities.components.AEntityD_Definable;
  */
 public abstract class AModelParser {
     private static final Map<String, AModelParser> parsers = new HashMap<>();
-    private static final Map<String, List<RenderableVertices>> parsedVertices = new HashMap<>();
+    //Concurrent as legacy compats parse models on pack-loading threads.
+    private static final Map<String, List<RenderableVertices>> parsedVertices = new ConcurrentHashMap<>();
     public static final String WINDOW_OBJECT_NAME = "window";
     public static final String ONLINE_TEXTURE_OBJECT_NAME = "url";
     public static final String TRANSLUCENT_OBJECT_NAME = "translucent";
@@ -69,13 +71,12 @@ public abstract class AModelParser {
     }
 
     /**
-     * Parses the model for the passed-in entity, and generates all {@link RenderableModelObject}s for it.
+     * Parses the model at the passed-in location for the passed-in entity, and generates all {@link RenderableModelObject}s for it.
      * These are returned as a list.  Objects in the parsed model are cross-checked with the passed-in
      * definition to ensure the proper constructors are created.  All objects in the model
      * are assured to be turned into one of the objects in the returned list.
      */
-    public static List<RenderableModelObject> generateRenderables(AEntityD_Definable<?> entity) {
-        String modelLocation = entity.definition.getModelLocation(entity.subDefinition);
+    public static List<RenderableModelObject> generateRenderables(AEntityD_Definable<?> entity, String modelLocation) {
         List<RenderableModelObject> modelObjects = new ArrayList<>();
         for (RenderableVertices parsedObject : parseModel(modelLocation, true)) {
             modelObjects.add(new RenderableModelObject(entity, parsedObject));
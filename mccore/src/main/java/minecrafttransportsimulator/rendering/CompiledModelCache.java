@@ -0,0 +1,185 @@
+package minecrafttransportsimulator.rendering;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+
+/**
+ * On-disk cache of compiled models.  Models are stored by a hash of their file contents, so any change
+ * to a model results in a new cache file rather than needing to check if an old one is still valid.
+ * Vertex data is stored as raw little-endian floats, and is memory-mapped straight into the buffers
+ * of the returned {@link RenderableVertices}, so loading a cached model does no parsing or copying.
+ * Note that this means the returned buffers are read-only.
+ * <br><br>
+ * Cache files that haven't been used in a while are removed the first time the cache is accessed.
+ *
+ * @author don_bruce
+ */
+public class CompiledModelCache {
+    private static final String CACHE_FOLDER_NAME = "mts_modelcache";
+    /**Version of the cache file format.  Part of the file name, so changing it makes all old files unused.**/
+    private static final int CACHE_VERSION = 1;
+    private static final String CACHE_FILE_SUFFIX = "_v" + CACHE_VERSION + ".bin";
+    private static final int CACHE_HEADER = 0x4D54534D;
+    private static final long MAX_UNUSED_TIME = TimeUnit.DAYS.toMillis(30);
+    private static File cacheFolder;
+
+    /**
+     * Returns the hash key for the passed-in model data.  The suffix of the model is included
+     * in the hash, as the same data may compile differently with a different parser.
+     */
+    public static String getKey(String modelSuffix, byte[] modelData) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(modelSuffix.getBytes(StandardCharsets.UTF_8));
+            digest.update(modelData);
+            StringBuilder key = new StringBuilder();
+            for (byte hashByte : digest.digest()) {
+                key.append(String.format("%02x", hashByte));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not supported by this JVM.  How did you even get this far?", e);
+        }
+    }
+
+    /**
+     * Loads the cached model for the passed-in key.  Returns null if the model isn't
+     * cached, or if the cache file couldn't be read.
+     */
+    public static List<RenderableVertices> load(String key) {
+        File cacheFile = getCacheFile(key);
+        if (cacheFile == null || !cacheFile.exists()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(cacheFile.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer mappedData = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mappedData.order(ByteOrder.LITTLE_ENDIAN);
+            if (mappedData.getInt() != CACHE_HEADER || mappedData.getInt() != CACHE_VERSION) {
+                return null;
+            }
+
+            List<RenderableVertices> objectList = new ArrayList<>();
+            int objectCount = mappedData.getInt();
+            for (int i = 0; i < objectCount; ++i) {
+                byte[] nameBytes = new byte[mappedData.getInt()];
+                mappedData.get(nameBytes);
+                int floatCount = mappedData.getInt();
+
+                //Float data starts at the next 4-byte boundary.
+                mappedData.position((mappedData.position() + 3) & ~3);
+                ByteBuffer floatData = mappedData.slice().order(ByteOrder.LITTLE_ENDIAN);
+                floatData.limit(floatCount * Float.BYTES);
+                FloatBuffer vertices = floatData.asFloatBuffer();
+                mappedData.position(mappedData.position() + floatCount * Float.BYTES);
+                objectList.add(new RenderableVertices(new String(nameBytes, StandardCharsets.UTF_8), vertices, true));
+            }
+
+            //Mark this file as used so it doesn't get cleaned up.
+            cacheFile.setLastModified(System.currentTimeMillis());
+            return objectList;
+        } catch (Exception e) {
+            InterfaceManager.coreInterface.logError("Could not load compiled model cache " + cacheFile.getName() + ", model will be re-parsed.  Error is: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Saves the passed-in model to the cache under the passed-in key.  Failures are logged, but
+     * otherwise ignored, as the model will just be parsed again next time.
+     */
+    public static void save(String key, List<RenderableVertices> objectList) {
+        File cacheFile = getCacheFile(key);
+        if (cacheFile == null) {
+            return;
+        }
+
+        //Get the size of the file so we can write it in one go.
+        List<byte[]> objectNames = new ArrayList<>();
+        int fileSize = 3 * Integer.BYTES;
+        for (RenderableVertices object : objectList) {
+            byte[] nameBytes = object.name.getBytes(StandardCharsets.UTF_8);
+            objectNames.add(nameBytes);
+            fileSize += 2 * Integer.BYTES + nameBytes.length;
+            fileSize = ((fileSize + 3) & ~3) + object.vertices.limit() * Float.BYTES;
+        }
+
+        ByteBuffer fileData = ByteBuffer.allocate(fileSize).order(ByteOrder.LITTLE_ENDIAN);
+        fileData.putInt(CACHE_HEADER);
+        fileData.putInt(CACHE_VERSION);
+        fileData.putInt(objectList.size());
+        for (int i = 0; i < objectList.size(); ++i) {
+            FloatBuffer vertices = objectList.get(i).vertices;
+            fileData.putInt(objectNames.get(i).length);
+            fileData.put(objectNames.get(i));
+            fileData.putInt(vertices.limit());
+            fileData.position((fileData.position() + 3) & ~3);
+            for (int j = 0; j < vertices.limit(); ++j) {
+                fileData.putFloat(vertices.get(j));
+            }
+        }
+        fileData.flip();
+
+        //Write to a temp file first, as another thread may be loading the same model.
+        Path tempPath = null;
+        try {
+            tempPath = Files.createTempFile(cacheFolder.toPath(), key, ".tmp");
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                while (fileData.hasRemaining()) {
+                    channel.write(fileData);
+                }
+            }
+            try {
+                Files.move(tempPath, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            InterfaceManager.coreInterface.logError("Could not save compiled model cache " + cacheFile.getName() + ".  Error is: " + e.getMessage());
+            if (tempPath != null) {
+                tempPath.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * Returns the cache file for the passed-in key, or null if there's no game directory to cache to.
+     * The first call to this method also removes any old cache files.
+     */
+    private static synchronized File getCacheFile(String key) {
+        if (cacheFolder == null) {
+            if (InterfaceManager.gameDirectory == null) {
+                return null;
+            }
+            cacheFolder = new File(InterfaceManager.gameDirectory, CACHE_FOLDER_NAME);
+            cacheFolder.mkdirs();
+            File[] cacheFiles = cacheFolder.listFiles();
+            if (cacheFiles != null) {
+                long oldestUsedTime = System.currentTimeMillis() - MAX_UNUSED_TIME;
+                for (File cacheFile : cacheFiles) {
+                    if (!cacheFile.getName().endsWith(CACHE_FILE_SUFFIX) || cacheFile.lastModified() < oldestUsedTime) {
+                        cacheFile.delete();
+                    }
+                }
+            }
+        }
+        return new File(cacheFolder, key + CACHE_FILE_SUFFIX);
+    }
+}
@@ -1,6 +1,7 @@
 package minecrafttransportsimulator.rendering;
 
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableHandle;
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
 import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition;
 import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition.AnimationComponentType;
@@ -37,6 +38,9 @@ public class DurationDelayClock {
     private boolean startedReverseMovement = false;
     private boolean endedReverseMovement = false;
 
+    private VariableHandle variableHandle;
+    private String variableOverride;
+
     public DurationDelayClock(JSONAnimationDefinition animation) {
         this.animation = animation;
         this.animationAxisMagnitude = animation.axis != null ? animation.axis.length() : 1.0;
@@ -45,6 +49,26 @@ public class DurationDelayClock {
         this.isUseful = shouldDoFactoring || animation.animationType.equals(AnimationComponentType.VISIBILITY) || animation.animationType.equals(AnimationComponentType.INHIBITOR) || animation.animationType.equals(AnimationComponentType.ACTIVATOR) || animation.forwardsStartSound != null || animation.forwardsEndSound != null || animation.reverseStartSound != null || animation.reverseEndSound != null;
     }
 
+    /**
+     * Returns the handle for the animation variable of this clock on the passed-in entity.
+     * The handle is resolved on the first call, and re-used on all further calls for that entity.
+     */
+    public VariableHandle getVariableHandle(AEntityD_Definable<?> entity) {
+        if (variableHandle == null || variableHandle.entity != entity) {
+            variableHandle = entity.getVariableHandle(variableOverride != null ? variableOverride : animation.variable);
+        }
+        return variableHandle;
+    }
+
+    /**
+     * Sets this clock to use the passed-in variable rather than the animation variable.  This is used by instruments
+     * to use part-specific versions of variables without modifying the animation, which is shared by all entities.
+     */
+    public void setVariableOverride(String variable) {
+        variableOverride = variable;
+        variableHandle = null;
+    }
+
     /**
      * Returns the actual 0-1 value for a state-based duration/delay variable.
      * Optionally plays sounds if the state changes appropriately.
@@ -0,0 +1,181 @@
+package minecrafttransportsimulator.rendering;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+
+/**
+ * On-disk cache of font metrics.  Getting the metrics for a font requires decoding every texture sheet
+ * of the font and checking every pixel of every char, which takes a while for large fonts.  Since
+ * the metrics only change if the sheets do, they are stored by a hash of all the sheets of the font.
+ * <br><br>
+ * Metrics are stored as a set of per-char arrays, with only the parts of the arrays for the sheets
+ * that were parsed being saved.  The font scale and top offset are saved with them.
+ * Cache files that haven't been used in a while are removed the first time the cache is accessed.
+ *
+ * @author don_bruce
+ */
+public class FontMetricsCache {
+    private static final String CACHE_FOLDER_NAME = "mts_fontcache";
+    /**Version of the cache file format.  Part of the file name, so changing it makes all old files unused.**/
+    private static final int CACHE_VERSION = 1;
+    private static final String CACHE_FILE_SUFFIX = "_v" + CACHE_VERSION + ".bin";
+    private static final int CACHE_HEADER = 0x4D545346;
+    private static final long MAX_UNUSED_TIME = TimeUnit.DAYS.toMillis(30);
+    private static File cacheFolder;
+
+    /**
+     * Returns the hash key for the passed-in sheet data.  Missing sheets should be null.
+     * The index of each sheet is included in the hash, as the same sheet at a different index is a different font.
+     */
+    public static String getKey(byte[][] sheetDatas) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            for (int i = 0; i < sheetDatas.length; ++i) {
+                if (sheetDatas[i] != null) {
+                    digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(i).array());
+                    digest.update(sheetDatas[i]);
+                }
+            }
+            StringBuilder key = new StringBuilder();
+            for (byte hashByte : digest.digest()) {
+                key.append(String.format("%02x", hashByte));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not supported by this JVM.  How did you even get this far?", e);
+        }
+    }
+
+    /**
+     * Loads the cached metrics for the passed-in key into the passed-in per-char arrays.  These must be in the
+     * same order as they were when saved.  Returns the font scale and top offset, in that order, or null if the
+     * metrics aren't cached, or if the cache file couldn't be read.  If null is returned, the arrays may be partly filled.
+     */
+    public static float[] load(String key, int charsPerSheet, float[][] charArrays) {
+        File cacheFile = getCacheFile(key);
+        if (cacheFile == null || !cacheFile.exists()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(cacheFile.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer mappedData = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mappedData.order(ByteOrder.LITTLE_ENDIAN);
+            if (mappedData.getInt() != CACHE_HEADER || mappedData.getInt() != CACHE_VERSION || mappedData.getInt() != charsPerSheet || mappedData.getInt() != charArrays.length) {
+                return null;
+            }
+            float[] fontMetrics = new float[]{mappedData.getFloat(), mappedData.getFloat()};
+            int sheetCount = mappedData.getInt();
+            for (int i = 0; i < sheetCount; ++i) {
+                int firstChar = mappedData.getInt() * charsPerSheet;
+                for (float[] charArray : charArrays) {
+                    mappedData.asFloatBuffer().get(charArray, firstChar, charsPerSheet);
+                    mappedData.position(mappedData.position() + charsPerSheet * Float.BYTES);
+                }
+            }
+
+            //Mark this file as used so it doesn't get cleaned up.
+            cacheFile.setLastModified(System.currentTimeMillis());
+            return fontMetrics;
+        } catch (Exception e) {
+            InterfaceManager.coreInterface.logError("Could not load font metrics cache " + cacheFile.getName() + ", font will be re-parsed.  Error is: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Saves the passed-in metrics to the cache under the passed-in key.  Only the parts of the per-char arrays
+     * for the sheets flagged as parsed are saved.  Failures are logged, but otherwise ignored, as the font
+     * will just be parsed again next time.
+     */
+    public static void save(String key, int charsPerSheet, float[][] charArrays, boolean[] parsedSheets, float charScale, float charTopOffset) {
+        File cacheFile = getCacheFile(key);
+        if (cacheFile == null) {
+            return;
+        }
+
+        //Get the size of the file so we can write it in one go.
+        int sheetCount = 0;
+        for (boolean parsedSheet : parsedSheets) {
+            if (parsedSheet) {
+                ++sheetCount;
+            }
+        }
+        ByteBuffer fileData = ByteBuffer.allocate(5 * Integer.BYTES + 2 * Float.BYTES + sheetCount * (Integer.BYTES + charArrays.length * charsPerSheet * Float.BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+        fileData.putInt(CACHE_HEADER);
+        fileData.putInt(CACHE_VERSION);
+        fileData.putInt(charsPerSheet);
+        fileData.putInt(charArrays.length);
+        fileData.putFloat(charScale);
+        fileData.putFloat(charTopOffset);
+        fileData.putInt(sheetCount);
+        for (int i = 0; i < parsedSheets.length; ++i) {
+            if (parsedSheets[i]) {
+                fileData.putInt(i);
+                for (float[] charArray : charArrays) {
+                    for (int j = i * charsPerSheet; j < (i + 1) * charsPerSheet; ++j) {
+                        fileData.putFloat(charArray[j]);
+                    }
+                }
+            }
+        }
+        fileData.flip();
+
+        //Write to a temp file first, so a partly-written file is never loaded.
+        Path tempPath = null;
+        try {
+            tempPath = Files.createTempFile(cacheFolder.toPath(), key, ".tmp");
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                while (fileData.hasRemaining()) {
+                    channel.write(fileData);
+                }
+            }
+            try {
+                Files.move(tempPath, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            InterfaceManager.coreInterface.logError("Could not save font metrics cache " + cacheFile.getName() + ".  Error is: " + e.getMessage());
+            if (tempPath != null) {
+                tempPath.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * Returns the cache file for the passed-in key, or null if there's no game directory to cache to.
+     * The first call to this method also removes any old cache files.
+     */
+    private static synchronized File getCacheFile(String key) {
+        if (cacheFolder == null) {
+            if (InterfaceManager.gameDirectory == null) {
+                return null;
+            }
+            cacheFolder = new File(InterfaceManager.gameDirectory, CACHE_FOLDER_NAME);
+            cacheFolder.mkdirs();
+            File[] cacheFiles = cacheFolder.listFiles();
+            if (cacheFiles != null) {
+                long oldestUsedTime = System.currentTimeMillis() - MAX_UNUSED_TIME;
+                for (File cacheFile : cacheFiles) {
+                    if (!cacheFile.getName().endsWith(CACHE_FILE_SUFFIX) || cacheFile.lastModified() < oldestUsedTime) {
+                        cacheFile.delete();
+                    }
+                }
+            }
+        }
+        return new File(cacheFolder, key + CACHE_FILE_SUFFIX);
+    }
+}
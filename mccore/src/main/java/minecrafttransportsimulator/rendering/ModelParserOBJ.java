@@ -1,17 +1,22 @@
 package minecrafttransportsimulator.rendering;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 
 /**
  * Class responsible for parsing OBJ models into arrays that can be fed to the GPU.
- * Much more versatile than the Forge system.
+ * Much more versatile than the Forge system.  Parsed models are stored in the
+ * {@link CompiledModelCache}, so each model only needs to be parsed once.
  *
  * @author don_bruce
  */
@@ -24,156 +29,271 @@ public final class ModelParserOBJ extends AModelParser {
 
     @Override
     protected List<RenderableVertices> parseModelInternal(String modelLocation) {
-        List<RenderableVertices> objectList = new ArrayList<>();
-        BufferedReader reader;
-        try {
-            reader = new BufferedReader(new InputStreamReader(InterfaceManager.coreInterface.getPackResource(modelLocation)));
+        byte[] modelData;
+        try (InputStream stream = InterfaceManager.coreInterface.getPackResource(modelLocation)) {
+            ByteArrayOutputStream dataStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = stream.read(buffer)) != -1) {
+                dataStream.write(buffer, 0, bytesRead);
+            }
+            modelData = dataStream.toByteArray();
         } catch (Exception e) {
             throw new NullPointerException("Attempted to parse the OBJ model at: " + modelLocation + " but could not find it.  Check the path and try again.");
         }
 
-        String objectName = null;
-        final List<float[]> vertexList = new ArrayList<>();
-        final List<float[]> normalList = new ArrayList<>();
-        final List<float[]> textureList = new ArrayList<>();
-        final List<String> faceList = new ArrayList<>();
-
-        try {
-            int lineNumber = 0;
-            while (reader.ready()) {
-                String line = reader.readLine();
-                ++lineNumber;
-
-                //Do normal parsing.
-                if (line.startsWith("o ")) {
-                    //Found new object name.  If we are parsing an object, finish up parsing and compile the points for it.
-                    if (objectName != null) {
-                        if (faceList.isEmpty()) {
-                            InterfaceManager.coreInterface.logError("Object " + objectName + " found with no faces defined at line: " + lineNumber + " in: " + modelLocation);
+        //Check the cache before parsing.  Models with errors aren't cached so the errors show up every time they are loaded.
+        String cacheKey = CompiledModelCache.getKey(getModelSuffix(), modelData);
+        List<RenderableVertices> objectList = CompiledModelCache.load(cacheKey);
+        if (objectList == null) {
+            OBJParser parser = new OBJParser(modelLocation);
+            objectList = parser.parse(modelData);
+            if (!parser.hadErrors) {
+                CompiledModelCache.save(cacheKey, objectList);
+            }
+        }
+        return objectList;
+    }
+
+    /**
+     * Helper class that holds the state of a model being parsed.  All vertex data is stored in primitive
+     * arrays, and faces are broken into tris as they are read, so parsing a model creates very little garbage.
+     */
+    private static class OBJParser {
+        private final String modelLocation;
+        private final List<RenderableVertices> objectList = new ArrayList<>();
+        private float[] vertices = new float[3 * 1024];
+        private int vertexFloats;
+        private float[] textures = new float[2 * 1024];
+        private int textureFloats;
+        private float[] normals = new float[3 * 1024];
+        private int normalFloats;
+        /**Vertex, texture, and normal indexes for all face points of the current object, already broken into tris.**/
+        private int[] faceIndexes = new int[3 * 1024];
+        private int faceIndexCount;
+        private boolean hasFaces;
+        private boolean badFaces;
+        private boolean hadErrors;
+
+        private OBJParser(String modelLocation) {
+            this.modelLocation = modelLocation;
+        }
+
+        private List<RenderableVertices> parse(byte[] modelData) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(modelData)));
+            String objectName = null;
+            try {
+                int lineNumber = 0;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    ++lineNumber;
+
+                    //Do normal parsing.
+                    if (line.startsWith("o ")) {
+                        //Found new object name.  If we are parsing an object, finish up parsing and compile the points for it.
+                        if (objectName != null) {
+                            if (!hasFaces) {
+                                logError("Object " + objectName + " found with no faces defined at line: " + lineNumber + " in: " + modelLocation);
+                            } else {
+                                compileVertexArray(objectName);
+                                objectName = null;
+                            }
+                        }
+                        try {
+                            objectName = line.trim().substring(2, line.length());
+                        } catch (Exception e) {
+                            logError("Object found with no name at line: " + lineNumber + " of: " + modelLocation + ".  Make sure your model exporter isn't making things into groups rather than objects.");
+                        }
+                    } else if (line.startsWith("v ")) {
+                        try {
+                            line = line.trim().substring(2).trim();
+                            float x = Float.parseFloat(line.substring(0, line.indexOf(' ')));
+                            float y = Float.parseFloat(line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' ')));
+                            float z = Float.parseFloat(line.substring(line.lastIndexOf(' ') + 1));
+                            vertices = ensureCapacity(vertices, vertexFloats + 3);
+                            vertices[vertexFloats++] = x;
+                            vertices[vertexFloats++] = y;
+                            vertices[vertexFloats++] = z;
+                        } catch (Exception e) {
+                            logError("Could not parse vertex info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex lines must consist of only three numbers (X, Y, Z).");
+                        }
+                    } else if (line.startsWith("vt ")) {
+                        try {
+                            line = line.trim().substring(3).trim();
+                            int space = line.indexOf(' ');
+                            int vertexEnd = line.lastIndexOf(' ') == space ? line.length() : line.lastIndexOf(' ');
+                            float u = Float.parseFloat(line.substring(0, space));
+                            //Need to invert the V of the UV to change from texture origin being top-left to OpenGL origin being bottom-left.
+                            float v = 1 - Float.parseFloat(line.substring(space + 1, vertexEnd));
+                            textures = ensureCapacity(textures, textureFloats + 2);
+                            textures[textureFloats++] = u;
+                            textures[textureFloats++] = v;
+                        } catch (Exception e) {
+                            logError("Could not parse vertex texture info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex texture lines must consist of only two numbers (U, V).");
+                        }
+                    } else if (line.startsWith("vn ")) {
+                        try {
+                            line = line.trim().substring(2).trim();
+                            float x = Float.parseFloat(line.substring(0, line.indexOf(' ')));
+                            float y = Float.parseFloat(line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' ')));
+                            float z = Float.parseFloat(line.substring(line.lastIndexOf(' ') + 1));
+                            normals = ensureCapacity(normals, normalFloats + 3);
+                            normals[normalFloats++] = x;
+                            normals[normalFloats++] = y;
+                            normals[normalFloats++] = z;
+                        } catch (Exception e) {
+                            logError("Could not parse normals info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Normals lines must consist of only three numbers (Xn, Yn, Zn).");
+                        }
+                    } else if (line.startsWith("f ")) {
+                        if (line.trim().length() < 2) {
+                            logError("Could not parse face info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Face lines must consist of sets of three numbers in the format (V1/T1/N1, V2/T2/N2, ...).");
                         } else {
-                            compileVertexArray(objectList, vertexList, normalList, textureList, faceList, modelLocation, objectName);
-                            objectName = null;
+                            hasFaces = true;
+                            if (!badFaces) {
+                                addFace(line);
+                            }
                         }
                     }
-                    try {
-                        objectName = line.trim().substring(2, line.length());
-                    } catch (Exception e) {
-                        InterfaceManager.coreInterface.logError("Object found with no name at line: " + lineNumber + " of: " + modelLocation + ".  Make sure your model exporter isn't making things into groups rather than objects.");
-                    }
-                } else if (line.startsWith("v ")) {
-                    try {
-                        float[] coords = new float[3];
-                        line = line.trim().substring(2).trim();
-                        coords[0] = Float.parseFloat(line.substring(0, line.indexOf(' ')));
-                        coords[1] = Float.parseFloat(line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' ')));
-                        coords[2] = Float.parseFloat(line.substring(line.lastIndexOf(' ') + 1));
-                        vertexList.add(coords);
-                    } catch (Exception e) {
-                        InterfaceManager.coreInterface.logError("Could not parse vertex info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex lines must consist of only three numbers (X, Y, Z).");
-                    }
-                } else if (line.startsWith("vt ")) {
-                    try {
-                        float[] coords = new float[2];
-                        line = line.trim().substring(3).trim();
-                        int space = line.indexOf(' ');
-                        int vertexEnd = line.lastIndexOf(' ') == space ? line.length() : line.lastIndexOf(' ');
-                        coords[0] = Float.parseFloat(line.substring(0, space));
-                        //Need to invert the V of the UV to change from texture origin being top-left to OpenGL origin being bottom-left.
-                        coords[1] = 1 - Float.parseFloat(line.substring(space + 1, vertexEnd));
-                        textureList.add(coords);
-                    } catch (Exception e) {
-                        InterfaceManager.coreInterface.logError("Could not parse vertex texture info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex texture lines must consist of only two numbers (U, V).");
-                    }
-                } else if (line.startsWith("vn ")) {
-                    try {
-                        float[] coords = new float[3];
-                        line = line.trim().substring(2).trim();
-                        coords[0] = Float.parseFloat(line.substring(0, line.indexOf(' ')));
-                        coords[1] = Float.parseFloat(line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' ')));
-                        coords[2] = Float.parseFloat(line.substring(line.lastIndexOf(' ') + 1));
-                        normalList.add(coords);
-                    } catch (Exception e) {
-                        InterfaceManager.coreInterface.logError("Could not parse normals info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Normals lines must consist of only three numbers (Xn, Yn, Zn).");
-                    }
-                } else if (line.startsWith("f ")) {
-                    try {
-                        faceList.add(line.trim().substring(2));
-                    } catch (Exception e) {
-                        InterfaceManager.coreInterface.logError("Could not parse face info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Face lines must consist of sets of three numbers in the format (V1/T1/N1, V2/T2/N2, ...).");
-                    }
                 }
+
+                //End of file.  Save the last part in process and close the file.
+                compileVertexArray(objectName);
+                reader.close();
+                return objectList;
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not finish parsing: " + modelLocation + " due to IOException error.  Did the file change state during parsing?");
+            }
+        }
+
+        /**
+         * Adds the face on the passed-in line to the face indexes.  Faces are in the format V1/T1/N1 V2/T2/N2 ...
+         * If the face is invalid, the current object is flagged as having bad faces and won't be compiled.
+         */
+        private void addFace(String line) {
+            //Trim the line and remove the "f " from it.
+            int faceStart = 0;
+            int faceEnd = line.length();
+            while (faceStart < faceEnd && line.charAt(faceStart) <= ' ') {
+                ++faceStart;
             }
+            while (faceEnd > faceStart && line.charAt(faceEnd - 1) <= ' ') {
+                --faceEnd;
+            }
+            faceStart += 2;
 
-            //End of file.  Save the last part in process and close the file.
-            compileVertexArray(objectList, vertexList, normalList, textureList, faceList, modelLocation, objectName);
-            reader.close();
-            return objectList;
+            int facePoints = 0;
+            int firstPointIndex = faceIndexCount;
+            int defStart = faceStart;
+            while (defStart < faceEnd) {
+                //Get the face vertex in format X/Y/Z.  Use the space as a separator between vertices making up the face.
+                int defEnd = line.indexOf(' ', defStart);
+                if (defEnd == -1 || defEnd > faceEnd) {
+                    defEnd = faceEnd;
+                }
 
-        } catch (IOException e) {
-            throw new IllegalStateException("Could not finish parsing: " + modelLocation + " due to IOException error.  Did the file change state during parsing?");
-        }
-    }
+                //Vertex number is the first entry before the slash.
+                //Texture number is the second entry between the two slashes.
+                //Normal number is the third entry after the second slash.
+                int firstSlash = line.indexOf('/', defStart);
+                int secondSlash = line.lastIndexOf('/', defEnd - 1);
+                if (firstSlash == -1 || firstSlash >= secondSlash || secondSlash < defStart) {
+                    badFaces = true;
+                    return;
+                }
+                int vertexNumber = parseIndex(line, defStart, firstSlash);
+                int textureNumber = parseIndex(line, firstSlash + 1, secondSlash);
+                int normalNumber = parseIndex(line, secondSlash + 1, defEnd);
+                if (vertexNumber < 0 || textureNumber < 0 || normalNumber < 0) {
+                    badFaces = true;
+                    return;
+                }
 
-    private static void compileVertexArray(List<RenderableVertices> objectList, List<float[]> vertexList, List<float[]> normalList, List<float[]> textureList, List<String> faceList, String modelLocation, String objectName) {
-        if (objectName == null) {
-            InterfaceManager.coreInterface.logError("No object name found in the entire OBJ model file of " + modelLocation + ".  Resorting to 'model' as default.  Are you using groups instead of objects by mistake?");
-            objectName = "model";
+                //If we have three or more points in this face, it means we need to make a triangle out of this shape.
+                //Add the first point, the most recent point, and this point to make a triangle.
+                //Otherwise, just add the face as-is.
+                faceIndexes = ensureCapacity(faceIndexes, faceIndexCount + 9);
+                if (facePoints >= 3) {
+                    System.arraycopy(faceIndexes, firstPointIndex, faceIndexes, faceIndexCount, 3);
+                    System.arraycopy(faceIndexes, faceIndexCount - 3, faceIndexes, faceIndexCount + 3, 3);
+                    faceIndexCount += 6;
+                }
+                faceIndexes[faceIndexCount++] = vertexNumber;
+                faceIndexes[faceIndexCount++] = textureNumber;
+                faceIndexes[faceIndexCount++] = normalNumber;
+                ++facePoints;
+                defStart = defEnd + 1;
+            }
         }
 
-        try {
-            List<Integer[]> vertexDataSets = new ArrayList<>();
-            for (String faceString : faceList) {
-                List<Integer[]> faceVertexData = new ArrayList<>();
-                while (!faceString.isEmpty()) {
-                    //Get the face string in format X/Y/Z.  Use the space as a separator between vertices making up the face.
-                    int defEnd = faceString.indexOf(' ');
-                    String faceDef;
-                    if (defEnd != -1) {
-                        //Take the faceDef from the faceString and store it.
-                        faceDef = faceString.substring(0, defEnd);
-                        faceString = faceString.substring(defEnd + 1);
-                    } else {
-                        //We are at the last face vertex here, so just mark the face as the existing string.
-                        faceDef = faceString;
-                        faceString = "";
-                    }
+        private void compileVertexArray(String objectName) {
+            if (objectName == null) {
+                logError("No object name found in the entire OBJ model file of " + modelLocation + ".  Resorting to 'model' as default.  Are you using groups instead of objects by mistake?");
+                objectName = "model";
+            }
+
+            try {
+                if (badFaces) {
+                    throw new IllegalArgumentException();
+                }
 
-                    //Vertex number is the first entry before the slash.
-                    //Texture number is the second entry between the two slashes.
-                    //Normal number is the third entry after the second slash.
-                    //Parse all these out and store them in the array.
-                    int firstSlash = faceDef.indexOf('/');
-                    int secondSlash = faceDef.lastIndexOf('/');
-                    int vertexNumber = Integer.parseInt(faceDef.substring(0, firstSlash)) - 1;
-                    int textureNumber = Integer.parseInt(faceDef.substring(firstSlash + 1, secondSlash)) - 1;
-                    int normalNumber = Integer.parseInt(faceDef.substring(secondSlash + 1)) - 1;
-
-                    //If we have three or more points in faceValues, it means we need to make a triangle out of this shape.
-                    //Add the first point, the most recent point, and this point to make a triangle.
-                    //Otherwise, just add the face as-is.
-                    if (faceVertexData.size() >= 3) {
-                        faceVertexData.add(faceVertexData.get(0));
-                        faceVertexData.add(faceVertexData.get(faceVertexData.size() - 2));
+                //Compile buffer.
+                FloatBuffer compiledBuffer = FloatBuffer.allocate(faceIndexCount / 3 * 8);
+                for (int i = 0; i < faceIndexCount; i += 3) {
+                    int vertexIndex = faceIndexes[i] * 3;
+                    int textureIndex = faceIndexes[i + 1] * 2;
+                    int normalIndex = faceIndexes[i + 2] * 3;
+                    if (vertexIndex + 3 > vertexFloats || textureIndex + 2 > textureFloats || normalIndex + 3 > normalFloats) {
+                        throw new IndexOutOfBoundsException();
                     }
-                    faceVertexData.add(new Integer[]{vertexNumber, textureNumber, normalNumber});
+                    compiledBuffer.put(normals, normalIndex, 3);
+                    compiledBuffer.put(textures, textureIndex, 2);
+                    compiledBuffer.put(vertices, vertexIndex, 3);
                 }
-                vertexDataSets.addAll(faceVertexData);
+                compiledBuffer.flip();
+                objectList.add(new RenderableVertices(objectName, compiledBuffer, true));
+            } catch (Exception e) {
+                logError("Could not compile points of: " + modelLocation + ":" + objectName + ".  This is likely due to missing UV mapping on some or all faces.");
             }
 
-            //Compile buffer.
-            FloatBuffer compiledBuffer = FloatBuffer.allocate(vertexDataSets.size() * 8);
-            for (Integer[] vertexData : vertexDataSets) {
-                compiledBuffer.put(normalList.get(vertexData[2]));
-                compiledBuffer.put(textureList.get(vertexData[1]));
-                compiledBuffer.put(vertexList.get(vertexData[0]));
+            //Clear faces as we don't want to compile them on the next pass.
+            faceIndexCount = 0;
+            hasFaces = false;
+            badFaces = false;
+        }
+
+        private void logError(String message) {
+            hadErrors = true;
+            InterfaceManager.coreInterface.logError(message);
+        }
+
+        /**
+         * Parses the index in the passed-in section of the line, and converts it from 1-based to 0-based.
+         * Returns -1 if the section isn't a valid index.
+         */
+        private static int parseIndex(String line, int start, int end) {
+            if (start >= end) {
+                return -1;
             }
-            compiledBuffer.flip();
-            objectList.add(new RenderableVertices(objectName, compiledBuffer, true));
-        } catch (Exception e) {
-            InterfaceManager.coreInterface.logError("Could not compile points of: " + modelLocation + ":" + objectName + ".  This is likely due to missing UV mapping on some or all faces.");
+            if (line.charAt(start) == '+') {
+                ++start;
+            }
+            int value = 0;
+            for (int i = start; i < end; ++i) {
+                char digit = line.charAt(i);
+                if (digit < '0' || digit > '9') {
+                    return -1;
+                }
+                value = value * 10 + (digit - '0');
+            }
+            return start < end ? value - 1 : -1;
         }
 
-        //Clear face list as we don't want to compile them on the next pass.
-        faceList.clear();
+        private static float[] ensureCapacity(float[] array, int size) {
+            return size > array.length ? Arrays.copyOf(array, Math.max(size, array.length * 2)) : array;
+        }
+
+        private static int[] ensureCapacity(int[] array, int size) {
+            return size > array.length ? Arrays.copyOf(array, Math.max(size, array.length * 2)) : array;
+        }
     }
 }
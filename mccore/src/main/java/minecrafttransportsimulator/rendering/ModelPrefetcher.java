@@ -0,0 +1,120 @@
+package minecrafttransportsimulator.rendering;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+import minecrafttransportsimulator.jsondefs.AJSONMultiModelProvider;
+import minecrafttransportsimulator.jsondefs.JSONLevelOfDetail;
+import minecrafttransportsimulator.jsondefs.JSONRendering.ModelType;
+import minecrafttransportsimulator.jsondefs.JSONSubDefinition;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+
+/**
+ * Class responsible for getting models and textures ready before they are first rendered.
+ * Entities queue their model and texture here when they are added to the world, and the
+ * model is parsed, and the texture decoded, on a background thread.  Entities don't render until
+ * their model is parsed, so the render thread never has to stop and parse a model itself.
+ * <br><br>
+ * Creating the {@link RenderableModelObject}s and uploading their data still has to happen on the
+ * render thread, so only a limited amount of time per frame is allowed for this.  Entities
+ * that don't fit in the current frame will be set up in the following frames.  This keeps
+ * the game from freezing when a large number of entities come into view at once.
+ *
+ * @author don_bruce
+ */
+public class ModelPrefetcher {
+    /**Max time that may be spent setting up models on the render thread per frame.**/
+    private static final long SETUP_TIME_PER_FRAME = TimeUnit.MILLISECONDS.toNanos(4);
+    /**Length of a frame for setup purposes.  We don't get frame events here, so we go off time instead.**/
+    private static final long FRAME_TIME = TimeUnit.MILLISECONDS.toNanos(16);
+    private static final ExecutorService prefetchThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MTS Model Prefetcher");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private static final Map<String, Future<?>> prefetchedModels = new ConcurrentHashMap<>();
+    private static final Map<String, Future<?>> prefetchedTextures = new ConcurrentHashMap<>();
+    private static long frameStartTime;
+    private static long frameSetupTime;
+
+    /**
+     * Queues the model and texture of the passed-in entity to be prefetched.
+     * Should only be called for entities in client worlds.
+     */
+    public static void prefetch(AEntityD_Definable<?> entity) {
+        if (entity.definition.rendering.modelType == ModelType.OBJ) {
+            //Texture goes first, as models wait for their texture before they are set up.
+            prefetchTexture(entity.definition.getTextureLocation(entity.subDefinition));
+            prefetchModel(entity.definition, entity.subDefinition);
+        }
+    }
+
+    /**
+     * Queues the model of the passed-in definition to be prefetched, along with the models for any levels of detail.
+     * Only OBJ models are prefetched, as other model types may depend on textures that aren't loaded until the game is running.
+     */
+    public static void prefetchModel(AJSONMultiModelProvider definition, JSONSubDefinition subDefinition) {
+        if (definition.rendering.modelType == ModelType.OBJ) {
+            prefetchModel(definition.getModelLocation(subDefinition));
+            if (definition.rendering.levelsOfDetail != null) {
+                for (JSONLevelOfDetail levelOfDetail : definition.rendering.levelsOfDetail) {
+                    if (levelOfDetail.modelName != null) {
+                        prefetchModel(definition.getModelLocation(subDefinition, levelOfDetail));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void prefetchTexture(String textureLocation) {
+        prefetchedTextures.computeIfAbsent(textureLocation, location -> prefetchThread.submit(() -> InterfaceManager.renderingInterface.prefetchTexture(location)));
+    }
+
+    private static void prefetchModel(String modelLocation) {
+        prefetchedModels.computeIfAbsent(modelLocation, location -> prefetchThread.submit(() -> {
+            //Parsing exceptions are left for the render thread, as it will re-parse the model and report them there.
+            AModelParser.parseModel(location, true);
+        }));
+    }
+
+    /**
+     * Returns true if the passed-in model for the passed-in entity can be set up on this frame.  If true is returned,
+     * the caller should set up the model, then call {@link #finishSetup(long)} with the value from
+     * {@link System#nanoTime()} from before the setup was started.  If the model or texture hasn't been prefetched,
+     * it is queued here, and false is returned until both are ready.  Waiting on the texture ensures the first bind
+     * uses the prefetched image rather than decoding the texture again on the render thread.
+     */
+    public static boolean canSetupModel(AEntityD_Definable<?> entity, String modelLocation) {
+        if (entity.definition.rendering.modelType == ModelType.OBJ) {
+            Future<?> modelTask = prefetchedModels.get(modelLocation);
+            Future<?> textureTask = prefetchedTextures.get(entity.definition.getTextureLocation(entity.subDefinition));
+            if (modelTask == null || textureTask == null) {
+                prefetch(entity);
+                prefetchModel(modelLocation);
+                return false;
+            } else if (!modelTask.isDone() || !textureTask.isDone()) {
+                return false;
+            }
+        }
+
+        long currentTime = System.nanoTime();
+        if (currentTime - frameStartTime > FRAME_TIME) {
+            frameStartTime = currentTime;
+            frameSetupTime = 0;
+        }
+        return frameSetupTime < SETUP_TIME_PER_FRAME;
+    }
+
+    /**
+     * Adds the time taken by a model setup to the time used this frame.
+     */
+    public static void finishSetup(long setupStartTime) {
+        frameSetupTime += System.nanoTime() - setupStartTime;
+    }
+}
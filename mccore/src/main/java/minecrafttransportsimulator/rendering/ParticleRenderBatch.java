@@ -0,0 +1,150 @@
+package minecrafttransportsimulator.rendering;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+
+/**
+ * Class that batches the rendering of particles.  Rather than each particle rendering its own
+ * {@link RenderableData}, particles add their data to this batch, which transforms their vertices
+ * and puts them into a single vertex buffer for each unique render state.  Each buffer is then
+ * rendered in one call with {@link #render()}.  Particles of the same definition and age share
+ * all of their state, so this is normally only a handful of calls, no matter how many particles there are.
+ * <br><br>
+ * Since vertices are transformed when added, the transform of each added data must be the full
+ * transform from the current rendering origin, and nothing should be translated when rendering the batch.
+ *
+ * @author don_bruce
+ */
+public class ParticleRenderBatch {
+    private static final int FLOATS_PER_VERTEX = 8;
+    /**Initial size of batch buffers, in vertices.  Enough for 64 sprites.**/
+    private static final int INITIAL_BUFFER_VERTICES = 64 * 6;
+
+    private final List<BatchBuffer> buffers = new ArrayList<>();
+    private final List<BatchBuffer> unusedBuffers = new ArrayList<>();
+
+    /**
+     * Adds the passed-in data to this batch.  Its vertices are transformed by its transform as they are added,
+     * so the data may be changed after this call without affecting the batch.
+     */
+    public void add(RenderableData data) {
+        BatchBuffer buffer = null;
+        for (BatchBuffer testBuffer : buffers) {
+            if (testBuffer.hasState(data)) {
+                buffer = testBuffer;
+                break;
+            }
+        }
+        if (buffer == null) {
+            if (unusedBuffers.isEmpty()) {
+                buffer = new BatchBuffer();
+            } else {
+                buffer = unusedBuffers.remove(unusedBuffers.size() - 1);
+            }
+            buffer.setState(data);
+            buffers.add(buffer);
+        }
+        buffer.addVertices(data.vertexObject.vertices, data.transform);
+    }
+
+    /**
+     * Renders all data added since the last call to this method, and clears the batch.
+     */
+    public void render() {
+        for (BatchBuffer buffer : buffers) {
+            buffer.data.vertexObject.vertices.flip();
+            buffer.data.render();
+            buffer.data.vertexObject.vertices.clear();
+        }
+        unusedBuffers.addAll(buffers);
+        buffers.clear();
+    }
+
+    /**
+     * Returns the number of render calls the next {@link #render()} call will make.
+     * This is the number of unique states added since then.
+     */
+    public int getRenderCount() {
+        return buffers.size();
+    }
+
+    private static class BatchBuffer {
+        private RenderableData data = createData(FloatBuffer.allocate(INITIAL_BUFFER_VERTICES * FLOATS_PER_VERTEX));
+
+        private static RenderableData createData(FloatBuffer vertices) {
+            return new RenderableData(new RenderableVertices("PARTICLE_BATCH", vertices, false));
+        }
+
+        private boolean hasState(RenderableData other) {
+            return data.texture.equals(other.texture) && data.isTranslucent == other.isTranslucent && data.lightingMode == other.lightingMode && data.enableBrightBlending == other.enableBrightBlending && data.alpha == other.alpha && data.worldLightValue == other.worldLightValue && data.color.equals(other.color);
+        }
+
+        private void setState(RenderableData other) {
+            copyState(other);
+            if (data.isTranslucent && !other.isTranslucent) {
+                //Translucency was forced for a prior state, which can't be undone, so we need new data.
+                data = createData(data.vertexObject.vertices);
+                copyState(other);
+            }
+        }
+
+        private void copyState(RenderableData other) {
+            data.setTexture(other.texture);
+            data.setColor(other.color);
+            data.setAlpha(other.alpha);
+            data.setLightValue(other.worldLightValue);
+            data.setLightMode(other.lightingMode);
+            data.setBlending(other.enableBrightBlending);
+            if (other.isTranslucent && !data.isTranslucent) {
+                data.setTransucentOverride();
+            }
+        }
+
+        private void addVertices(FloatBuffer vertices, TransformationMatrix transform) {
+            int floatsToAdd = vertices.limit();
+            FloatBuffer batchVertices = data.vertexObject.vertices;
+            if (batchVertices.remaining() < floatsToAdd) {
+                //Out of room, make a bigger buffer and move the state over to it.
+                FloatBuffer newVertices = FloatBuffer.allocate(Math.max(batchVertices.capacity() * 2, batchVertices.position() + floatsToAdd));
+                batchVertices.flip();
+                newVertices.put(batchVertices);
+                RenderableData oldData = data;
+                data = createData(newVertices);
+                setState(oldData);
+                batchVertices = newVertices;
+            }
+
+            //Vertices are read by index so the source buffer's position doesn't change.
+            for (int index = 0; index < floatsToAdd; index += FLOATS_PER_VERTEX) {
+                double normalX = vertices.get(index);
+                double normalY = vertices.get(index + 1);
+                double normalZ = vertices.get(index + 2);
+                double x = vertices.get(index + 5);
+                double y = vertices.get(index + 6);
+                double z = vertices.get(index + 7);
+
+                //Normals only get the rotation, but that may be scaled, so re-normalize them after.
+                double rotatedNormalX = transform.m00 * normalX + transform.m01 * normalY + transform.m02 * normalZ;
+                double rotatedNormalY = transform.m10 * normalX + transform.m11 * normalY + transform.m12 * normalZ;
+                double rotatedNormalZ = transform.m20 * normalX + transform.m21 * normalY + transform.m22 * normalZ;
+                double normalLength = Math.sqrt(rotatedNormalX * rotatedNormalX + rotatedNormalY * rotatedNormalY + rotatedNormalZ * rotatedNormalZ);
+                if (normalLength != 0) {
+                    rotatedNormalX /= normalLength;
+                    rotatedNormalY /= normalLength;
+                    rotatedNormalZ /= normalLength;
+                }
+                batchVertices.put((float) rotatedNormalX);
+                batchVertices.put((float) rotatedNormalY);
+                batchVertices.put((float) rotatedNormalZ);
+                batchVertices.put(vertices.get(index + 3));
+                batchVertices.put(vertices.get(index + 4));
+                batchVertices.put((float) (transform.m00 * x + transform.m01 * y + transform.m02 * z + transform.m03));
+                batchVertices.put((float) (transform.m10 * x + transform.m11 * y + transform.m12 * z + transform.m13));
+                batchVertices.put((float) (transform.m20 * x + transform.m21 * y + transform.m22 * z + transform.m23));
+            }
+        }
+    }
+}
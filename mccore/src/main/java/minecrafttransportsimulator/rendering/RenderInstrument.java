@@ -1,6 +1,9 @@
 package minecrafttransportsimulator.rendering;
 
+import java.util.List;
+
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
+import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
@@ -9,21 +12,25 @@ import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.items.instances.ItemInstrument;
+import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition.AnimationComponentType;
 import minecrafttransportsimulator.jsondefs.JSONInstrument.JSONInstrumentComponent;
 import minecrafttransportsimulator.jsondefs.JSONInstrumentDefinition;
+import minecrafttransportsimulator.jsondefs.JSONText;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.rendering.RenderableData.LightingMode;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**
- * Main render class for instruments.  This class contains a main method that takes an instance of {@link ItemInstrument},
- * as well as the engine associated with that instrument and the vehicle the instrument is on.  This allows for an
- * instrument to be rendered a vehicle, GUI, or HUD.}.
+ * Main render class for instruments.  This class contains a main method that takes an {@link InstrumentComposite},
+ * which contains the instrument in a slot on an entity.  This allows for an instrument to be rendered a vehicle, GUI, or HUD.
  *
  * @author don_bruce
  */
 public final class RenderInstrument {
-    private static int partNumber = 0;
-    private static RenderableData renderable = null;
+    /**Max distance from the camera, in blocks, that in-view instruments update every frame at.  Other instruments update at the configured rate.**/
+    private static final double FULL_RATE_DISTANCE = 16;
+    private static final String[] PART_VARIABLE_PREFIXES = new String[] { "engine_", "propeller_", "gun_", "seat_" };
+    private static final TransformationMatrix componentTransform = new TransformationMatrix();
     private static final TransformationMatrix textTransform = new TransformationMatrix();
     private static final Point3D textureMinCoords = new Point3D();
     private static final Point3D textureMaxCoords = new Point3D();
@@ -31,101 +38,233 @@ public final class RenderInstrument {
     private static final RotationMatrix helperRotationMatrix = new RotationMatrix();
 
     /**
-     * Renders the passed-in instrument using the entity's current state.  Note that this method does NOT take any
+     * Renders the instrument in the passed-in composite using the entity's current state.  Note that this method does NOT take any
      * entity JSON parameters into account as it does not know which instrument is being rendered.  This means that
      * any transformations that need to be applied for translation should be applied prior to calling this method.
      * Also note that the parameters in the JSON here are in png-texture space, so y is inverted.  Hence the various
      * negations in translation transforms.
      */
-    public static void drawInstrument(AEntityE_Interactable<?> entity, TransformationMatrix transform, int slot, boolean onGUI, boolean blendingEnabled, float partialTicks) {
-        //Get the item and slot definition here, as that's needed for future calls.
-        ItemInstrument instrument = entity.instruments.get(slot);
-        JSONInstrumentDefinition slotDefinition = entity.definition.instruments.get(slot);
-
-        //Check if the lights are on.  If so, render the overlays and the text lit if requested.
-        boolean lightsOn = entity.renderTextLit();
-
-        //Get scale of the instrument, before component scaling.
-        float slotScale = onGUI ? slotDefinition.hudScale : slotDefinition.scale;
-
-        //Set the part number for switchbox reference.
-        partNumber = slotDefinition.optionalPartNumber;
-
-        //Finally, render the instrument based on the JSON instrument.definitions.
-        //We cache up all the draw calls for this blend pass, and then render them all at once.
-        //This is more efficient than rendering each one individually.
-        for (int i = 0; i < instrument.definition.components.size(); ++i) {
-            JSONInstrumentComponent component = instrument.definition.components.get(i);
-            if (component.overlayTexture == blendingEnabled) {
-                //If we have text, do a text render.  Otherwise, do a normal instrument render.
+    public static void drawInstrument(InstrumentComposite composite, TransformationMatrix transform, boolean blendingEnabled, float partialTicks) {
+        //Update the composite if required.  Instruments that can be seen up-close update every frame, others only update at the configured rate.
+        int passIndex = blendingEnabled ? 1 : 0;
+        long currentTime = System.currentTimeMillis();
+        if (composite.isFullRate(transform) || currentTime - composite.lastRefreshTimes[passIndex] >= 1000 / Math.max(1, ConfigSystem.client.renderingSettings.instrumentRefreshRate.value)) {
+            composite.lastRefreshTimes[passIndex] = currentTime;
+            composite.refresh(blendingEnabled, partialTicks);
+        }
+
+        //Render the sprites for this pass.  If the lights are on, render the light-up sprites lit.
+        boolean lightsOn = composite.entity.renderTextLit() && ConfigSystem.client.renderingSettings.brightLights.value;
+        for (int i = 0; i < 2; ++i) {
+            boolean lightUpTexture = i == 1;
+            RenderableData batch = composite.spriteBatches[getBatchIndex(blendingEnabled, lightUpTexture)];
+            if (batch != null) {
+                batch.transform.set(transform);
+                batch.setLightValue(composite.entity.worldLightValue);
+                if (lightUpTexture && lightsOn) {
+                    batch.setLightMode(LightingMode.IGNORE_ALL_LIGHTING);
+                } else {
+                    batch.setLightMode(composite.onGUI ? LightingMode.IGNORE_ORIENTATION_LIGHTING : LightingMode.NORMAL);
+                }
+                batch.render();
+            }
+        }
+
+        //Render the text for this pass.
+        List<JSONInstrumentComponent> components = composite.instrument.definition.components;
+        for (int i = 0; i < components.size(); ++i) {
+            JSONInstrumentComponent component = components.get(i);
+            if (component.textObject != null && component.overlayTexture == blendingEnabled && composite.visibleTexts[i]) {
+                textTransform.set(transform).multiply(composite.textTransforms[i]);
+                RenderText.draw3DText(composite.texts[i], composite.entity, textTransform, component.textObject, true);
+            }
+        }
+    }
+
+    private static int getBatchIndex(boolean overlayTexture, boolean lightUpTexture) {
+        return (overlayTexture ? 2 : 0) + (lightUpTexture ? 1 : 0);
+    }
+
+    /**
+     * Returns the part-specific version of the passed-in variable for the passed-in part number.
+     * If the variable isn't for a part, or is already part-specific, it is returned as-is.
+     */
+    private static String getPartVariable(String variable, int partNumber) {
+        if (AEntityF_Multipart.getVariableNumber(variable) == -1) {
+            for (String prefix : PART_VARIABLE_PREFIXES) {
+                if (variable.startsWith(prefix)) {
+                    return variable + "_" + partNumber;
+                }
+            }
+        }
+        return variable;
+    }
+
+    /**
+     * Cached state of the instrument in a slot on an entity.  All sprite components of the instrument are baked into
+     * a few sprite batches, split by render pass and lighting, so the instrument is only a few draw calls rather than one
+     * per component.  The batches, and the formatted text, are only updated when the composite is refreshed, so instruments
+     * that don't need to update every frame can skip running their animations.  Part-specific variables are also worked out
+     * here when the composite is created, rather than on every render.
+     * <br><br>
+     * If the instrument in the slot changes, a new composite must be created.
+     */
+    public static class InstrumentComposite {
+        public final ItemInstrument instrument;
+        private final AEntityE_Interactable<?> entity;
+        private final boolean onGUI;
+        private final float slotScale;
+        private final BoundingBox viewBox;
+        private final InstrumentSwitchbox[] switchboxes;
+        /**Sprite batches, indexed by {@link RenderInstrument#getBatchIndex(boolean, boolean)}.  Null if there are no sprites for that batch.**/
+        private final RenderableData[] spriteBatches = new RenderableData[4];
+        private final int[] spriteIndexes;
+        private final String[] textVariables;
+        private final String[] texts;
+        private final String[] lastRawTexts;
+        private final double[] lastTextValues;
+        private final boolean[] visibleTexts;
+        private final TransformationMatrix[] textTransforms;
+        private final long[] lastRefreshTimes = new long[2];
+
+        public InstrumentComposite(AEntityE_Interactable<?> entity, int slot, boolean onGUI) {
+            this.instrument = entity.instruments.get(slot);
+            this.entity = entity;
+            this.onGUI = onGUI;
+            JSONInstrumentDefinition slotDefinition = entity.definition.instruments.get(slot);
+            this.slotScale = onGUI ? slotDefinition.hudScale : slotDefinition.scale;
+
+            //Part-specific variables use the first part if the slot doesn't specify one.
+            int partNumber = slotDefinition.optionalPartNumber != 0 ? slotDefinition.optionalPartNumber : 1;
+            List<JSONInstrumentComponent> components = instrument.definition.components;
+            this.switchboxes = new InstrumentSwitchbox[components.size()];
+            this.spriteIndexes = new int[components.size()];
+            this.textVariables = new String[components.size()];
+            this.texts = new String[components.size()];
+            this.lastRawTexts = new String[components.size()];
+            this.lastTextValues = new double[components.size()];
+            this.visibleTexts = new boolean[components.size()];
+            this.textTransforms = new TransformationMatrix[components.size()];
+            int[] batchSizes = new int[spriteBatches.length];
+            double maxExtent = 0;
+            for (int i = 0; i < components.size(); ++i) {
+                JSONInstrumentComponent component = components.get(i);
+                if (component.animations != null) {
+                    switchboxes[i] = new InstrumentSwitchbox(entity, component, partNumber);
+                }
                 if (component.textObject != null) {
+                    textVariables[i] = getPartVariable(component.textObject.variableName, partNumber);
+                    textTransforms[i] = new TransformationMatrix();
+                } else {
+                    spriteIndexes[i] = batchSizes[getBatchIndex(component.overlayTexture, component.lightUpTexture)]++;
+                }
+                maxExtent = Math.max(maxExtent, Math.abs(component.xCenter) + Math.abs(component.yCenter) + Math.max(component.textureWidth, component.textureHeight) * component.scale);
+            }
+            String texture = "/assets/" + instrument.definition.packID + "/textures/" + instrument.definition.textureName;
+            for (int i = 0; i < spriteBatches.length; ++i) {
+                if (batchSizes[i] != 0) {
+                    spriteBatches[i] = new RenderableData(RenderableVertices.createSprite(batchSizes[i], null, null), texture);
+                    if (i >= getBatchIndex(true, false)) {
+                        spriteBatches[i].setTransucentOverride();
+                    }
+                }
+            }
+
+            //Instruments render with 1 unit being 1 pixel, not 1 block, so scale by 1/16.  Add a bit for any moving components.
+            double viewRadius = maxExtent * slotScale / 16 + 0.5;
+            this.viewBox = new BoundingBox(new Point3D(), viewRadius, viewRadius, viewRadius);
+        }
+
+        /**
+         * Returns true if this instrument should be updated every frame.  This is the case if it's on the GUI,
+         * or it's close to the camera and in view.
+         */
+        private boolean isFullRate(TransformationMatrix transform) {
+            if (onGUI) {
+                return true;
+            }
+            //Entities render at their position, so the translation of the transform is the offset from that.
+            viewBox.globalCenter.set(transform.m03, transform.m13, transform.m23).add(entity.position);
+            return viewBox.globalCenter.isDistanceToCloserThan(InterfaceManager.clientInterface.getCameraPosition(), FULL_RATE_DISTANCE) && InterfaceManager.renderingInterface.isBoxInView(viewBox);
+        }
+
+        /**
+         * Refreshes the sprites and text for the components in the passed-in pass.
+         */
+        private void refresh(boolean blendingEnabled, float partialTicks) {
+            List<JSONInstrumentComponent> components = instrument.definition.components;
+            for (int i = 0; i < components.size(); ++i) {
+                JSONInstrumentComponent component = components.get(i);
+                if (component.overlayTexture == blendingEnabled) {
+                    //Set the initial component transform, relative to the instrument.
                     //Also translate slightly away from the instrument location to prevent clipping.
-                    textTransform.set(transform);
-                    textTransform.applyTranslation(0, 0, i * RenderableVertices.Z_BUFFER_OFFSET);
-                    double totalScaling = slotScale * component.scale;
-                    textTransform.applyScaling(totalScaling, totalScaling, totalScaling);
+                    componentTransform.resetTransforms();
+                    componentTransform.applyTranslation(0, 0, i * RenderableVertices.Z_BUFFER_OFFSET);
+                    if (component.textObject != null) {
+                        double totalScaling = slotScale * component.scale;
+                        componentTransform.applyScaling(totalScaling, totalScaling, totalScaling);
+                    } else {
+                        componentTransform.applyScaling(slotScale, slotScale, slotScale);
+                        textureMinCoords.set(-component.textureWidth / 2D, -component.textureHeight / 2D, 0);
+                        textureMaxCoords.set(component.textureWidth / 2D, component.textureHeight / 2D, 0);
+                    }
 
                     //Render if we don't have transforms, or of those transforms said we were good.
-                    InstrumentSwitchbox switchbox = entity.instrumentComponentSwitchboxes.get(component);
-                    if (switchbox == null || switchbox.runSwitchbox(partialTicks, true)) {
-                        int variablePartNumber = AEntityF_Multipart.getVariableNumber(component.textObject.variableName);
-                        final boolean addSuffix = variablePartNumber == -1 && ((component.textObject.variableName.startsWith("engine_") || component.textObject.variableName.startsWith("propeller_") || component.textObject.variableName.startsWith("gun_") || component.textObject.variableName.startsWith("seat_")));
-                        if (addSuffix) {
-                            String oldName = component.textObject.variableName;
-                            component.textObject.variableName += "_" + partNumber;
-                            RenderText.draw3DText(entity.getAnimatedTextVariableValue(component.textObject, partialTicks), entity, textTransform, component.textObject, true);
-                            component.textObject.variableName = oldName;
-                        } else {
-                            RenderText.draw3DText(entity.getAnimatedTextVariableValue(component.textObject, partialTicks), entity, textTransform, component.textObject, true);
+                    InstrumentSwitchbox switchbox = switchboxes[i];
+                    boolean visible = switchbox == null || switchbox.runSwitchbox(partialTicks, true);
+                    if (component.textObject != null) {
+                        visibleTexts[i] = visible;
+                        if (visible) {
+                            textTransforms[i].set(componentTransform);
+                            updateText(i, component.textObject);
                         }
-                    }
-                } else {
-                    //Init variables.
-                    renderable = entity.instrumentRenderables.get(slot).get(i);
-                    renderable.setTexture("/assets/" + instrument.definition.packID + "/textures/" + instrument.definition.textureName);
-                    renderable.transform.set(transform);
-                    renderable.transform.applyTranslation(0.0, 0.0, i * RenderableVertices.Z_BUFFER_OFFSET);
-                    renderable.transform.applyScaling(slotScale, slotScale, slotScale);
-                    textureMinCoords.set(-component.textureWidth / 2D, -component.textureHeight / 2D, 0);
-                    textureMaxCoords.set(component.textureWidth / 2D, component.textureHeight / 2D, 0);
+                    } else {
+                        RenderableVertices batch = spriteBatches[getBatchIndex(component.overlayTexture, component.lightUpTexture)].vertexObject;
+                        if (visible) {
+                            //Add the instrument UV-map offsets.
+                            //These don't get added to the initial points to allow for rotation.
+                            textureMinCoords.add(component.textureXCenter, component.textureYCenter, 0);
+                            textureMaxCoords.add(component.textureXCenter, component.textureYCenter, 0);
 
-                    //Render if we don't have transforms, or of those transforms said we were good.
-                    InstrumentSwitchbox switchbox = entity.instrumentComponentSwitchboxes.get(component);
-                    if (switchbox == null || switchbox.runSwitchbox(partialTicks, true)) {
-                        //Add the instrument UV-map offsets.
-                        //These don't get added to the initial points to allow for rotation.
-                        textureMinCoords.add(component.textureXCenter, component.textureYCenter, 0);
-                        textureMaxCoords.add(component.textureXCenter, component.textureYCenter, 0);
-
-                        //Divide the Points by 1024.  This converts the points from pixels to the 0-1 UV values.
-                        textureMinCoords.scale(1D / 1024D);
-                        textureMaxCoords.scale(1D / 1024D);
-
-                        //Translate to the component.
-                        renderable.transform.applyTranslation(component.xCenter, -component.yCenter, 0);
-
-                        //Scale to match definition.
-                        renderable.transform.applyScaling(component.scale, component.scale, component.scale);
-
-                        //Set points to the variables here and render them.
-                        //If the shape is lit, disable lighting for blending.
-                        renderable.setLightValue(entity.worldLightValue);
-                        if (component.lightUpTexture && lightsOn && ConfigSystem.client.renderingSettings.brightLights.value) {
-                            renderable.setLightMode(LightingMode.IGNORE_ALL_LIGHTING);
+                            //Divide the Points by 1024.  This converts the points from pixels to the 0-1 UV values.
+                            textureMinCoords.scale(1D / 1024D);
+                            textureMaxCoords.scale(1D / 1024D);
+
+                            //Translate to the component, and scale to match definition.
+                            componentTransform.applyTranslation(component.xCenter, -component.yCenter, 0);
+                            componentTransform.applyScaling(component.scale, component.scale, component.scale);
+
+                            //Need to invert Y here since we're using pixel-based coords.
+                            batch.setSpriteProperties(spriteIndexes[i], -component.textureWidth / 2, component.textureHeight / 2, component.textureWidth, component.textureHeight, (float) textureMinCoords.x, (float) textureMinCoords.y, (float) textureMaxCoords.x, (float) textureMaxCoords.y, componentTransform);
                         } else {
-                            renderable.setLightMode(onGUI ? LightingMode.IGNORE_ORIENTATION_LIGHTING : LightingMode.NORMAL);
-                        }
-                        
-                        //Need to invert Y here since we're using pixel-based coords.
-                        renderable.vertexObject.setSpriteProperties(0, -component.textureWidth / 2, component.textureHeight / 2, component.textureWidth, component.textureHeight, (float) textureMinCoords.x, (float) textureMinCoords.y, (float) textureMaxCoords.x, (float) textureMaxCoords.y);
-                        if (component.overlayTexture) {
-                            renderable.setTransucentOverride();
+                            //Collapse the sprite so it doesn't render.
+                            batch.setSpriteProperties(spriteIndexes[i], 0, 0, 0, 0, 0, 0, 0, 0);
                         }
-                        renderable.render();
                     }
                 }
             }
         }
+
+        /**
+         * Updates the text for the text component at the passed-in index.  Text is only re-formatted if its value changed.
+         */
+        private void updateText(int index, JSONText textObject) {
+            //Use the part-specific variable, as that's what the entity checks for text values.
+            String rawText = entity.getRawTextVariableValue(textVariables[index], 0);
+            if (rawText != null) {
+                if (!rawText.equals(lastRawTexts[index])) {
+                    lastRawTexts[index] = rawText;
+                    texts[index] = String.format(textObject.variableFormat, rawText);
+                }
+            } else {
+                double value = entity.getCleanRawVariableValue(textVariables[index], 0) * textObject.variableFactor + textObject.variableOffset;
+                if (texts[index] == null || lastRawTexts[index] != null || value != lastTextValues[index]) {
+                    lastRawTexts[index] = null;
+                    lastTextValues[index] = value;
+                    texts[index] = String.format(textObject.variableFormat, value);
+                }
+            }
+        }
     }
 
     /**
@@ -134,38 +273,31 @@ public final class RenderInstrument {
     public static class InstrumentSwitchbox extends AnimationSwitchbox {
         private final JSONInstrumentComponent component;
 
-        public InstrumentSwitchbox(AEntityD_Definable<?> entity, JSONInstrumentComponent component) {
+        public InstrumentSwitchbox(AEntityD_Definable<?> entity, JSONInstrumentComponent component, int partNumber) {
             super(entity, component.animations, null);
             this.component = component;
-        }
 
-        private String convertAnimationPartNumber(DurationDelayClock clock) {
-            //If the partNumber is non-zero, we need to check if we are applying a part-based animation.
-            //If so, we need to let the animation system know by adding a suffix to the variable.
+            //If we aren't a part, we need to check if we are applying a part-based animation.
+            //If so, we need to let the animation system know by using the part-specific variable.
             //Otherwise, as we don't pass-in the part, it will assume it's an entity variable.
-            //We also need to set the partNumber to 1 if we have a part number of 0 and we're
-            //doing a part-specific animation.
-            //Skip adding a suffix if one already exists.
-            int variablePartNumber = AEntityF_Multipart.getVariableNumber(clock.animation.variable);
-            final boolean addSuffix = variablePartNumber == -1 && !(entity instanceof APart) && (clock.animation.variable.startsWith("engine_") || clock.animation.variable.startsWith("propeller_") || clock.animation.variable.startsWith("gun_") || clock.animation.variable.startsWith("seat_"));
-            if (partNumber == 0 && addSuffix) {
-                partNumber = 1;
-            }
-            String oldVariable = clock.animation.variable;
-            if (addSuffix) {
-                clock.animation.variable += "_" + partNumber;
+            if (!(entity instanceof APart)) {
+                for (DurationDelayClock clock : clocks) {
+                    if (clock.animation.animationType == AnimationComponentType.TRANSLATION || clock.animation.animationType == AnimationComponentType.ROTATION) {
+                        String partVariable = getPartVariable(clock.animation.variable, partNumber);
+                        if (partVariable != clock.animation.variable) {
+                            clock.setVariableOverride(partVariable);
+                        }
+                    }
+                }
             }
-            return oldVariable;
         }
 
         @Override
         public void runTranslation(DurationDelayClock clock, float partialTicks) {
             //Offset the coords based on the translated amount.
             //Adjust the window to either move or scale depending on settings.
-            String oldVariable = convertAnimationPartNumber(clock);
             double xTranslation = entity.getAnimatedVariableValue(clock, clock.animation.axis.x, partialTicks);
             double yTranslation = entity.getAnimatedVariableValue(clock, clock.animation.axis.y, partialTicks);
-            clock.animation.variable = oldVariable;
 
             if (component.extendWindow) {
                 //We need to add to the edge of the window in this case rather than move the entire window.
@@ -179,12 +311,9 @@ public final class RenderInstrument {
                 } else if (clock.animation.axis.y > 0) {
                     textureMaxCoords.y += yTranslation;
                 }
-            } else if (component.moveComponent) {
-                //Translate the rather than adjust the window coords.
-                renderable.transform.applyTranslation(xTranslation, yTranslation, 0);
-            } else if (component.textObject != null) {
-                //Text object needs translating with basic operations.
-                textTransform.applyTranslation(xTranslation, yTranslation, 0);
+            } else if (component.moveComponent || component.textObject != null) {
+                //Translate the component rather than adjust the window coords.
+                componentTransform.applyTranslation(xTranslation, yTranslation, 0);
             } else {
                 //Offset the window coords to the appropriate section of the texture sheet.
                 //We don't want to do an OpenGL translation here as that would move the texture's
@@ -202,9 +331,7 @@ public final class RenderInstrument {
 
         @Override
         public void runRotation(DurationDelayClock clock, float partialTicks) {
-            String oldVariable = convertAnimationPartNumber(clock);
             double variableValue = -entity.getAnimatedVariableValue(clock, clock.animation.axis.z, partialTicks);
-            clock.animation.variable = oldVariable;
 
             //Depending on what variables are set we do different rendering operations.
             //If we are rotating the window, but not the texture we should offset the texture points to that rotated point.
@@ -222,16 +349,11 @@ public final class RenderInstrument {
                 //Remove the rotation offsets.
                 textureMinCoords.subtract(clock.animation.centerPoint);
                 textureMaxCoords.subtract(clock.animation.centerPoint);
-            } else if (component.textObject != null) {
-                textTransform.applyTranslation((component.xCenter + clock.animation.centerPoint.x), -(component.yCenter + clock.animation.centerPoint.y), 0.0);
-                helperRotationMatrix.setToAxisAngle(0, 0, 1, variableValue);
-                textTransform.applyRotation(helperRotationMatrix);
-                textTransform.applyTranslation(-(component.xCenter + clock.animation.centerPoint.x), (component.yCenter + clock.animation.centerPoint.y), 0.0);
             } else {
-                renderable.transform.applyTranslation((component.xCenter + clock.animation.centerPoint.x), -(component.yCenter + clock.animation.centerPoint.y), 0.0);
+                componentTransform.applyTranslation((component.xCenter + clock.animation.centerPoint.x), -(component.yCenter + clock.animation.centerPoint.y), 0.0);
                 helperRotationMatrix.setToAxisAngle(0, 0, 1, variableValue);
-                renderable.transform.applyRotation(helperRotationMatrix);
-                renderable.transform.applyTranslation(-(component.xCenter + clock.animation.centerPoint.x), (component.yCenter + clock.animation.centerPoint.y), 0.0);
+                componentTransform.applyRotation(helperRotationMatrix);
+                componentTransform.applyTranslation(-(component.xCenter + clock.animation.centerPoint.x), (component.yCenter + clock.animation.centerPoint.y), 0.0);
             }
         }
     }
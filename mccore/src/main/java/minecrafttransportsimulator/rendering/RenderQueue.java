@@ -0,0 +1,192 @@
+package minecrafttransportsimulator.rendering;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import minecrafttransportsimulator.baseclasses.ColorRGB;
+import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.rendering.RenderableData.LightingMode;
+
+/**
+ * Queue for {@link RenderableData} renders.  Rather than rendering each object as it comes in, which
+ * sets up and tears down the render state for each object, renders are queued here with the state they
+ * had when they were queued.  When the queue is flushed, the solid renders are sorted by their state, so all
+ * solid renders with the same state are done together, with the state only being set up once for them.
+ * Translucent renders are done after solid ones in the order they were queued, as sorting them would
+ * change the order they are blended in.  Only adjacent translucent renders with the same state share it.
+ * <br><br>
+ * Only objects with cached vertices should be queued, as the vertices of other objects may change
+ * before the queue is flushed.  The state of queued objects, however, may be freely changed after queuing.
+ * <br><br>
+ * Renderers that position objects by their own means before rendering them, such as by translating to the
+ * entity being rendered, must tell the queue about it via {@link #setOffset(double, double, double)}, as
+ * that positioning will be gone by the time the queue is flushed.
+ *
+ * @author don_bruce
+ */
+public class RenderQueue {
+    private static final Comparator<QueuedRender> STATE_COMPARATOR = Comparator.comparing((QueuedRender render) -> render.isTranslucent).thenComparing(render -> render.texture, Comparator.nullsFirst(Comparator.naturalOrder())).thenComparing(render -> render.lightingMode).thenComparing(render -> render.enableBrightBlending);
+    private static final Comparator<QueuedRender> STATE_SORTER = Comparator.comparing((QueuedRender render) -> render.isTranslucent).thenComparing((render1, render2) -> render1.isTranslucent ? 0 : STATE_COMPARATOR.compare(render1, render2));
+
+    /**Renders in the order they were queued.  Entries past the queued count are kept for re-use.**/
+    private final List<QueuedRender> renders = new ArrayList<>();
+    private final List<QueuedRender> sortedRenders = new ArrayList<>();
+    private final TransformationMatrix offset = new TransformationMatrix();
+    private int queuedRenders;
+
+    /**
+     * Sets the offset for all renders queued after this call.  When the queue is flushed, the transforms of
+     * these renders will have this offset applied before their own transform, so they render where they would
+     * have had they not been queued.  The offset is reset to none when the queue is flushed.
+     */
+    public void setOffset(double x, double y, double z) {
+        offset.resetTransforms().setTranslation(x, y, z);
+    }
+
+    /**
+     * Queues the passed-in data to be rendered on the next call to {@link #flush(IQueueRenderer)}.
+     */
+    public void queue(RenderableData data, boolean changedSinceLastRender) {
+        if (queuedRenders == renders.size()) {
+            renders.add(new QueuedRender());
+        }
+        renders.get(queuedRenders++).setTo(data, changedSinceLastRender, offset);
+    }
+
+    /**
+     * Removes all queued renders of the passed-in data.  Should be called if the data is destroyed
+     * before the queue is flushed, as its vertices may no longer be valid.
+     */
+    public void remove(RenderableData data) {
+        for (int i = 0; i < queuedRenders; ++i) {
+            QueuedRender render = renders.get(i);
+            if (render.data == data) {
+                //Move this render to the end of the queue so it can be re-used.
+                renders.remove(i);
+                renders.add(render);
+                render.data = null;
+                --queuedRenders;
+                --i;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of renders in this queue.
+     */
+    public int size() {
+        return queuedRenders;
+    }
+
+    /**
+     * Renders everything in this queue with the passed-in renderer, then clears the queue.
+     * Solid renders are sorted by texture, lighting mode, and blending, and are followed by translucent
+     * renders in queue order.  The renderer is only told to change state when one of these changes between renders.
+     */
+    public void flush(IQueueRenderer renderer) {
+        if (queuedRenders == 0) {
+            return;
+        }
+
+        //Sort solid renders by state, and put translucent renders after them.
+        //The sort is stable, so translucent renders, and solid renders with the same state, stay in queue order.
+        for (int i = 0; i < queuedRenders; ++i) {
+            sortedRenders.add(renders.get(i));
+        }
+        sortedRenders.sort(STATE_SORTER);
+
+        //Render, only changing state between renders that don't share it.
+        //Queued state is put back on the data for each call, as this is what the renderer uses.
+        //The transform put back has the offset applied, so the renderer renders it where it was queued.
+        QueuedRender lastRender = null;
+        for (QueuedRender render : sortedRenders) {
+            if (lastRender != null && STATE_COMPARATOR.compare(lastRender, render) != 0) {
+                lastRender.applyToData(true);
+                renderer.clearRenderState(lastRender.data);
+                lastRender = null;
+            }
+            render.applyToData(true);
+            if (lastRender == null) {
+                renderer.setRenderState(render.data);
+            }
+            renderer.renderQueued(render.data, render.changedSinceLastRender);
+            lastRender = render;
+        }
+        lastRender.applyToData(true);
+        renderer.clearRenderState(lastRender.data);
+
+        //Put back the state of the data as it was last queued, so it matches what it was before the queue.
+        for (int i = 0; i < queuedRenders; ++i) {
+            QueuedRender render = renders.get(i);
+            render.applyToData(false);
+            render.data = null;
+        }
+        sortedRenders.clear();
+        queuedRenders = 0;
+        offset.resetTransforms();
+    }
+
+    /**
+     * Interface for renderers of queued renders.  Calls to this interface will always be in the order of
+     * {@link #setRenderState(RenderableData)}, one or more {@link #renderQueued(RenderableData, boolean)}, then
+     * {@link #clearRenderState(RenderableData)}.  All renders between the set and clear calls will have the same
+     * translucency, texture, lighting mode, and blending as the data passed to those calls.
+     */
+    public static interface IQueueRenderer {
+        /**
+         * Sets up the render state that's shared by all renders with the same state as the passed-in data.
+         */
+        void setRenderState(RenderableData data);
+
+        /**
+         * Renders the passed-in data.  The state for it will already be set up, so only
+         * per-render things, such as transforms, color, and light values, should be set here.
+         */
+        void renderQueued(RenderableData data, boolean changedSinceLastRender);
+
+        /**
+         * Clears the render state that was set up for the passed-in data.
+         */
+        void clearRenderState(RenderableData data);
+    }
+
+    private static class QueuedRender {
+        private final TransformationMatrix transform = new TransformationMatrix();
+        private final TransformationMatrix offsetTransform = new TransformationMatrix();
+        private final ColorRGB color = new ColorRGB();
+        private RenderableData data;
+        private boolean changedSinceLastRender;
+        private String texture;
+        private float alpha;
+        private int worldLightValue;
+        private LightingMode lightingMode;
+        private boolean enableBrightBlending;
+        private boolean isTranslucent;
+
+        private void setTo(RenderableData data, boolean changedSinceLastRender, TransformationMatrix offset) {
+            this.data = data;
+            this.changedSinceLastRender = changedSinceLastRender;
+            this.transform.set(data.transform);
+            this.offsetTransform.set(offset).multiply(data.transform);
+            this.color.setTo(data.color);
+            this.texture = data.texture;
+            this.alpha = data.alpha;
+            this.worldLightValue = data.worldLightValue;
+            this.lightingMode = data.lightingMode;
+            this.enableBrightBlending = data.enableBrightBlending;
+            this.isTranslucent = data.isTranslucent;
+        }
+
+        private void applyToData(boolean withOffset) {
+            data.transform.set(withOffset ? offsetTransform : transform);
+            data.color.setTo(color);
+            data.texture = texture;
+            data.alpha = alpha;
+            data.worldLightValue = worldLightValue;
+            data.lightingMode = lightingMode;
+            data.enableBrightBlending = enableBrightBlending;
+            data.isTranslucent = isTranslucent;
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package minecrafttransportsimulator.rendering;
 
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
@@ -34,6 +41,7 @@ public class RenderText {
     public static final char RESET_FORMATTING_CHAR = 'r';
     public static final char UNDERLINE_CHAR = '_';
     public static final char STRIKETHROUGH_CHAR = '-';
+    private static final String RANDOM_FORMATTING_CODE = "" + FORMATTING_CHAR + RANDOM_FORMATTING_CHAR;
 
     private static final Map<String, FontData> fontDatas = new HashMap<>();
     private static final TransformationMatrix transformHelper = new TransformationMatrix();
@@ -124,7 +132,8 @@ public class RenderText {
         private static final ColorRGB[] COLORS = new ColorRGB[]{new ColorRGB(0, 0, 0), new ColorRGB(0, 0, 170), new ColorRGB(0, 170, 0), new ColorRGB(0, 170, 170), new ColorRGB(170, 0, 0), new ColorRGB(170, 0, 170), new ColorRGB(255, 170, 0), new ColorRGB(170, 170, 170), new ColorRGB(85, 85, 85), new ColorRGB(85, 85, 255), new ColorRGB(85, 255, 85), new ColorRGB(85, 255, 255), new ColorRGB(255, 85, 85), new ColorRGB(255, 85, 255), new ColorRGB(255, 255, 85), new ColorRGB(255, 255, 255)};
         private static final FontRenderState[] STATES = FontRenderState.generateDefaults();
         private static final int MAX_VERTCIES_PER_RENDER = 1000 * 6;
-        private static final Point3D adjustmentOffset = new Point3D();
+        private static final int MAX_CACHED_MESHES = 512;
+        private static final int MAX_UNCACHED_KEYS = 512;
 
         /**
          * Texture locations for the font files.
@@ -176,10 +185,31 @@ public class RenderText {
          **/
         private static final Map<String, Map<ColorRGB, RenderableData>> createdRenderObjects = new HashMap<>();
         /**
-         * Active font render objects.  Items are added to this list during string parsing.
+         * Active font mesh.  Objects are added to this mesh during string parsing.
          * At the end, it will be populated and should be looped over for drawing.
          */
-        private final Set<RenderableData> activeRenderObjects = new LinkedHashSet<>();
+        private final TextMesh activeMesh = new TextMesh();
+        /**
+         * Cached font meshes, in least-recently-rendered order.  Meshes are only cached once their
+         * key has been rendered twice, which keeps text that changes every render from pushing
+         * everything else out of the cache.
+         */
+        private final Map<TextMeshKey, TextMesh> cachedMeshes = new LinkedHashMap<TextMeshKey, TextMesh>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TextMeshKey, TextMesh> eldest) {
+                return size() > MAX_CACHED_MESHES;
+            }
+        };
+        /**
+         * Keys that have been rendered once, but don't have a cached mesh yet.  Kept apart from
+         * {@link #cachedMeshes}, with its own bound, so text that changes every render only evicts other such keys.
+         */
+        private final Set<TextMeshKey> uncachedKeys = Collections.newSetFromMap(new LinkedHashMap<TextMeshKey, Boolean>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TextMeshKey, Boolean> eldest) {
+                return size() > MAX_UNCACHED_KEYS;
+            }
+        });
         /**
          * Mutable helper for doing vertex-building operations.
          **/
@@ -206,18 +236,42 @@ public class RenderText {
                 fontBaseLocation = "/assets/" + fontName.substring(0, fontName.indexOf(":")) + "/textures/fonts/" + fontName.substring(fontName.indexOf(":") + 1) + "/unicode_page_";
             }
 
+            //Read the texture sheets.  Not all sheets may be present for any given font, so missing sheets are left null.
+            byte[][] sheetDatas = new byte[fontLocations.length][];
+            for (int i = 0; i < fontLocations.length; ++i) {
+                fontLocations[i] = String.format("%s%02x.png", fontBaseLocation, i);
+                sheetDatas[i] = readSheet(fontLocations[i]);
+            }
+
+            //Check the cache before parsing the sheets, as parsing them takes a while.
+            String metricsKey = FontMetricsCache.getKey(sheetDatas);
+            float[][] metricArrays = new float[][]{charWidths, charSpacings, offsetsMinU, offsetsMaxU, offsetsMinV, offsetsMaxV};
+            float[] cachedMetrics = FontMetricsCache.load(metricsKey, CHARS_PER_TEXTURE_SHEET, metricArrays);
+            if (cachedMetrics != null) {
+                this.charScale = cachedMetrics[0];
+                this.charTopOffset = cachedMetrics[1];
+                return;
+            }
+
             //Parse char widths and the height when applicable.
             float scale = 1.0F;
             float charTopOffset = 0;
+            boolean[] parsedSheets = new boolean[fontLocations.length];
             for (int i = 0; i < fontLocations.length; ++i) {
-                fontLocations[i] = String.format("%s%02x.png", fontBaseLocation, i);
+                if (sheetDatas[i] == null) {
+                    continue;
+                }
                 BufferedImage bufferedImage;
                 try {
-                    bufferedImage = ImageIO.read(InterfaceManager.renderingInterface.getTextureStream(fontLocations[i]));
+                    bufferedImage = ImageIO.read(new ByteArrayInputStream(sheetDatas[i]));
                 } catch (Exception e) {
-                    //Just continue, as we don't care about this file.  Not all files may be present for any given font.
+                    //Just continue, as we don't care about this file.
                     continue;
                 }
+                if (bufferedImage == null) {
+                    continue;
+                }
+                parsedSheets[i] = true;
 
                 //Calculate min/max.
                 //For each char, we look at the row/col bounds and check every pixel in the col
@@ -321,14 +375,72 @@ public class RenderText {
             }
             this.charScale = scale;
             this.charTopOffset = charTopOffset;
+            FontMetricsCache.save(metricsKey, CHARS_PER_TEXTURE_SHEET, metricArrays, parsedSheets, scale, charTopOffset);
+        }
+
+        /**
+         * Returns the data for the passed-in texture sheet, or null if the sheet doesn't exist.
+         */
+        private static byte[] readSheet(String sheetLocation) {
+            try (InputStream sheetStream = InterfaceManager.renderingInterface.getTextureStream(sheetLocation)) {
+                if (sheetStream == null) {
+                    return null;
+                }
+                ByteArrayOutputStream dataStream = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int bytesRead;
+                while ((bytesRead = sheetStream.read(buffer)) != -1) {
+                    dataStream.write(buffer, 0, bytesRead);
+                }
+                return dataStream.toByteArray();
+            } catch (Exception e) {
+                return null;
+            }
         }
 
         private void renderText(String text, TransformationMatrix transform, RotationMatrix rotation, TextAlignment alignment, float scale, boolean autoScale, int wrapWidth, boolean pixelCoords, ColorRGB color, boolean renderLit, int worldLightValue, boolean onGUI) {
-            //Clear out the active object list as it was set last pass.
-            for (RenderableData object : activeRenderObjects) {
+            //Get the mesh for this text.  Text with random chars changes every render, so it is never cached.
+            TextMesh mesh;
+            if (text.contains(RANDOM_FORMATTING_CODE)) {
+                mesh = buildMesh(text, alignment, scale, autoScale, wrapWidth, pixelCoords, color);
+            } else {
+                TextMeshKey meshKey = new TextMeshKey(text, alignment, scale, autoScale, wrapWidth, pixelCoords, color);
+                mesh = cachedMeshes.get(meshKey);
+                if (mesh == null) {
+                    mesh = buildMesh(text, alignment, scale, autoScale, wrapWidth, pixelCoords, color);
+                    if (uncachedKeys.remove(meshKey)) {
+                        mesh = new TextMesh(mesh);
+                        cachedMeshes.put(meshKey, mesh);
+                    } else {
+                        uncachedKeys.add(meshKey);
+                    }
+                }
+            }
+
+            //Prior to rendering we need to scale the font objects to their requested scale, multiplied by their internal scale factor.
+            //After this, we apply the known-constant adjustmentOffset, which will itself be scaled.
+            for (RenderableData object : mesh.objects) {
+                object.setLightValue(worldLightValue);
+                object.setLightMode(renderLit ? LightingMode.IGNORE_ALL_LIGHTING : (onGUI ? LightingMode.IGNORE_ORIENTATION_LIGHTING : LightingMode.NORMAL));
+                object.transform.set(transform);
+                if (rotation != null) {
+                    object.transform.applyRotation(rotation);
+                }
+                object.transform.applyScaling(mesh.scale, mesh.scale, mesh.scale);
+                object.transform.applyTranslation(mesh.adjustmentOffset);
+                object.render();
+            }
+        }
+
+        /**
+         * Builds the vertices for the passed-in text into the active mesh, and returns it.
+         */
+        private TextMesh buildMesh(String text, TextAlignment alignment, float scale, boolean autoScale, int wrapWidth, boolean pixelCoords, ColorRGB color) {
+            //Clear out the active mesh as it was set last pass.
+            for (RenderableData object : activeMesh.objects) {
                 object.vertexObject.vertices.clear();
             }
-            activeRenderObjects.clear();
+            activeMesh.objects.clear();
 
             //Cull text to total chars.
             //This is all we can render in one pass.
@@ -341,7 +453,7 @@ public class RenderText {
 
             //Check the string for a random font code char.  If we have one, we need to substitute chars.
             //Do this prior to rendering operations as this will affect string length and blocks.
-            if (text.indexOf(FORMATTING_CHAR + RANDOM_FORMATTING_CHAR) != -1) {
+            if (text.contains(RANDOM_FORMATTING_CODE)) {
                 char[] textArray = text.toCharArray();
                 boolean randomActive = false;
                 for (int i = 0; i < textArray.length; ++i) {
@@ -362,7 +474,7 @@ public class RenderText {
             }
 
             //Set adjustment offset Y position to make the char go up to be top-aligned.
-            adjustmentOffset.set(0, charTopOffset, 0);
+            activeMesh.adjustmentOffset.set(0, charTopOffset, 0);
 
             //Apply char scaling factor to the scale to account for font upscaling or downscaling.
             scale *= charScale;
@@ -382,7 +494,7 @@ public class RenderText {
                     //Adjust text down based on how much we changed scale.
                     //Adjust based on 1/2 the height of the text, times how much we adjusted scale.
                     //So 1/2 reduction in scale will move the text 1/4 down.
-                    adjustmentOffset.add(0, DEFAULT_PIXELS_PER_CHAR / 2D * (scaleFactor - 1), 0);
+                    activeMesh.adjustmentOffset.add(0, DEFAULT_PIXELS_PER_CHAR / 2D * (scaleFactor - 1), 0);
                 }
                 //Don't use wrap width if we already adjusted scale for it.
                 wrapWidth = 0;
@@ -631,7 +743,7 @@ public class RenderText {
                                     //Add supplemental vertex to render object, and add to active list if required.
                                     RenderableData customRenderObject = getObjectFor(customChar, currentColor);
                                     customRenderObject.vertexObject.vertices.put(normals).put(supplementalUV).put(supplementalVertex);
-                                    activeRenderObjects.add(customRenderObject);
+                                    activeMesh.objects.add(customRenderObject);
                                 }
                             }
                         }
@@ -648,25 +760,16 @@ public class RenderText {
 
                     //Increment offset to next char position and set char points and add render block to active list.
                     currentOffset += charWidth + charSpacings[textChar];
-                    activeRenderObjects.add(currentRenderObject);
+                    activeMesh.objects.add(currentRenderObject);
                 }
             }
 
-            //All points obtained, render.
-            //Prior to rendering we need to scale the font objects to their requested scale, multiplied by their internal scale factor.
-            //After this, we apply the known-constant adjustmentOffset, which will itself be scaled.
-            for (RenderableData object : activeRenderObjects) {
-                object.setLightValue(worldLightValue);
-                object.setLightMode(renderLit ? LightingMode.IGNORE_ALL_LIGHTING : (onGUI ? LightingMode.IGNORE_ORIENTATION_LIGHTING : LightingMode.NORMAL));
-                object.transform.set(transform);
-                if (rotation != null) {
-                    object.transform.applyRotation(rotation);
-                }
-                object.transform.applyScaling(scale, scale, scale);
-                object.transform.applyTranslation(adjustmentOffset);
+            //All points obtained, set the mesh up for rendering.
+            for (RenderableData object : activeMesh.objects) {
                 object.vertexObject.vertices.flip();
-                object.render();
             }
+            activeMesh.scale = scale;
+            return activeMesh;
         }
 
         private RenderableData getObjectFor(char textChar, ColorRGB color) {
@@ -707,6 +810,80 @@ public class RenderText {
             return stringWidth;
         }
 
+        /**
+         * Mesh for a string of text.  Contains the objects with the vertices for the text, and the scale
+         * and offset to render them at.  The active mesh of a font re-uses the same objects for all text,
+         * whereas cached meshes have their own copies of the objects so they stay valid between renders.
+         */
+        private static class TextMesh {
+            private final Collection<RenderableData> objects;
+            private final Point3D adjustmentOffset = new Point3D();
+            private float scale;
+
+            private TextMesh() {
+                this.objects = new LinkedHashSet<>();
+            }
+
+            private TextMesh(TextMesh other) {
+                this.objects = new ArrayList<>(other.objects.size());
+                for (RenderableData otherObject : other.objects) {
+                    FloatBuffer otherVertices = otherObject.vertexObject.vertices;
+                    FloatBuffer vertices = FloatBuffer.allocate(otherVertices.remaining());
+                    vertices.put(otherVertices);
+                    vertices.flip();
+                    otherVertices.rewind();
+                    RenderableData object = new RenderableData(new RenderableVertices("font_block", vertices, false), otherObject.texture);
+                    object.setColor(otherObject.color);
+                    objects.add(object);
+                }
+                this.adjustmentOffset.set(other.adjustmentOffset);
+                this.scale = other.scale;
+            }
+        }
+
+        /**
+         * Key for cached text meshes.  Contains all the parameters that affect the vertices of the text.
+         */
+        private static class TextMeshKey {
+            private final String text;
+            private final TextAlignment alignment;
+            private final float scale;
+            private final boolean autoScale;
+            private final int wrapWidth;
+            private final boolean pixelCoords;
+            private final int color;
+
+            private TextMeshKey(String text, TextAlignment alignment, float scale, boolean autoScale, int wrapWidth, boolean pixelCoords, ColorRGB color) {
+                this.text = text;
+                this.alignment = alignment;
+                this.scale = scale;
+                this.autoScale = autoScale;
+                this.wrapWidth = wrapWidth;
+                this.pixelCoords = pixelCoords;
+                this.color = color.rgbInt;
+            }
+
+            @Override
+            public boolean equals(Object object) {
+                if (object instanceof TextMeshKey) {
+                    TextMeshKey other = (TextMeshKey) object;
+                    return text.equals(other.text) && alignment == other.alignment && scale == other.scale && autoScale == other.autoScale && wrapWidth == other.wrapWidth && pixelCoords == other.pixelCoords && color == other.color;
+                } else {
+                    return false;
+                }
+            }
+
+            @Override
+            public int hashCode() {
+                int hash = text.hashCode();
+                hash = 31 * hash + alignment.hashCode();
+                hash = 31 * hash + Float.floatToIntBits(scale);
+                hash = 31 * hash + wrapWidth;
+                hash = 31 * hash + color;
+                return 31 * hash + (autoScale ? 2 : 0) + (pixelCoords ? 1 : 0);
+            }
+        }
+
         private static class FontRenderState {
             private static final int BOLD_BIT_INDEX = 1;
             private static final int ITALIC_BIT_INDEX = 2;
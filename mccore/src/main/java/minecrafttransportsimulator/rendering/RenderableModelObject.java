@@ -1,20 +1,9 @@
 package minecrafttransportsimulator.rendering;
 
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
-
-import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
-import javax.imageio.stream.ImageInputStream;
 
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
@@ -30,7 +19,6 @@ import minecrafttransportsimulator.jsondefs.JSONLight;
 import minecrafttransportsimulator.jsondefs.JSONLight.JSONLightBlendableComponent;
 import minecrafttransportsimulator.jsondefs.JSONText;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
-import minecrafttransportsimulator.rendering.GIFParser.ParsedGIF;
 import minecrafttransportsimulator.rendering.RenderableData.LightingMode;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
@@ -54,18 +42,18 @@ public class RenderableModelObject {
     private final RenderableData flareRenderable;
     private final RenderableData beamRenderable;
     private final RenderableData coverRenderable;
-    private final List<Double[]> treadPoints;
+    private final RenderableData treadRenderable;
+    private final float[] treadLinks;
 
-    private static final TransformationMatrix treadPathBaseTransform = new TransformationMatrix();
+    /**Number of floats per link in {@link #treadLinks}.**/
+    private static final int TREAD_LINK_FLOATS = 6;
+    private static final TransformationMatrix treadLinkTransform = new TransformationMatrix();
     private static final RotationMatrix treadRotation = new RotationMatrix();
     private static final float COLOR_OFFSET = RenderableVertices.Z_BUFFER_OFFSET;
     private static final float FLARE_OFFSET = COLOR_OFFSET + RenderableVertices.Z_BUFFER_OFFSET;
     private static final float COVER_OFFSET = FLARE_OFFSET + RenderableVertices.Z_BUFFER_OFFSET;
 
-    private final Set<String> downloadingTextures = new HashSet<>();
-    private final Set<String> downloadedTextures = new HashSet<>();
     private static final String ERROR_TEXTURE_NAME = "ERROR";
-    private static final Map<String, String> erroredTextures = new HashMap<>();
     private static boolean errorTextureBound;
 
     public RenderableModelObject(AEntityD_Definable<?> entity, RenderableVertices vertexObject) {
@@ -79,6 +67,10 @@ public class RenderableModelObject {
         //If we are a window, split the model into two parts.  The first will be the exterior which will
         //be our normal model, the second will be a new, inverted, interior model.
         if (isWindow) {
+            //Windows have their texture bounds changed, and vertices from the compiled model cache are read-only.
+            if (vertexObject.vertices.isReadOnly()) {
+                vertexObject = vertexObject.createWritableCopy();
+            }
             this.renderable = new RenderableData(vertexObject, "mts:textures/rendering/glass.png");
             renderable.vertexObject.setTextureBounds(0, 1, 0, 1);
             this.interiorWindowRenderable = new RenderableData(vertexObject.createBackface(), "mts:textures/rendering/glass.png");
@@ -147,11 +139,13 @@ public class RenderableModelObject {
             this.coverRenderable = null;
         }
 
-        //If we are a tread, create tread points.
+        //If we are a tread, create tread links, and the mesh to put them in.
         if (entity instanceof PartGroundDevice && ((PartGroundDevice) entity).definition.ground.isTread && !((PartGroundDevice) entity).isSpare) {
-            this.treadPoints = generateTreads((PartGroundDevice) entity);
+            this.treadLinks = generateTreads((PartGroundDevice) entity);
+            this.treadRenderable = new RenderableData(vertexObject.createCopyBuffer(treadLinks.length / TREAD_LINK_FLOATS));
         } else {
-            this.treadPoints = null;
+            this.treadLinks = null;
+            this.treadRenderable = null;
         }
 
         //Bind the error texture if we haven't already.
@@ -164,11 +158,12 @@ public class RenderableModelObject {
     /**
      * Renders this object, applying any transforms that need to happen.  This method also
      * renders any objects that depend on this object's transforms after rendering.
+     * If animations are frozen, the object is rendered with the animation state it had on the last render.
      */
-    public void render(AEntityD_Definable<?> entity, TransformationMatrix transform, boolean blendingEnabled, float partialTicks) {
+    public void render(AEntityD_Definable<?> entity, TransformationMatrix transform, boolean blendingEnabled, float partialTicks, boolean freezeAnimations) {
         //Do pre-render checks based on the object we are rendering.
         //This may block rendering if there are false visibility transforms or the wrong render pass.
-        if (shouldRender(entity, blendingEnabled, partialTicks)) {
+        if (shouldRender(entity, blendingEnabled, partialTicks, freezeAnimations)) {
             //If we are a online texture, bind that one rather than our own.
             //We do this first since we don't need to calculate other stuff if we aren't rendering.
             if (isOnlineTexture) {
@@ -178,27 +173,22 @@ public class RenderableModelObject {
                     JSONText textDef = textEntry.getKey();
                     if (textDef.fieldName != null && renderable.vertexObject.name.contains(textDef.fieldName)) {
                         String textValue = entity.text.get(textDef);
-                        if (erroredTextures.containsKey(textValue)) {
-                            //Error in texture downloading, set fault data before continuing.
-                            textEntry.setValue(erroredTextures.get(textValue));
-                        }
-                        if (textValue.startsWith(ERROR_TEXTURE_NAME)) {
+                        if (textValue.isEmpty()) {
+                            //Don't render since we don't have any text bound here.
+                            return;
+                        } else if (textValue.startsWith(ERROR_TEXTURE_NAME)) {
                             //Texture didn't download, set to error texture.
                             renderable.setTexture(ERROR_TEXTURE_NAME);
-                        } else if (downloadedTextures.contains(textValue)) {
+                        } else if (URLTextureFetcher.isTextureReady(textValue)) {
                             //Good to render, set texture to object and go.
                             renderable.setTexture(textValue);
-                        } else if (downloadingTextures.contains(textValue)) {
-                            //Still downloading, skip rendering.
-                            return;
-                        } else if (textValue.isEmpty()) {
-                            //Don't render since we don't have any text bound here.
-                            return;
+                        } else if (URLTextureFetcher.getError(textValue) != null) {
+                            //Error in texture downloading, set fault data and render the error texture.
+                            textEntry.setValue(URLTextureFetcher.getError(textValue));
+                            renderable.setTexture(ERROR_TEXTURE_NAME);
                         } else {
-                            //No data at all.  Need to queue up a downloader for this texture.  Do so and skip rendering until it completes.
-                            new ConnectorThread(textValue, this).run();
-                            downloadingTextures.add(textValue);
-                            return;
+                            //Still fetching, render with the entity's texture until it's ready.
+                            renderable.setTexture(entity.getTexture());
                         }
                         break;
                     }
@@ -250,7 +240,7 @@ public class RenderableModelObject {
             }
 
             //Do main rendering based on object properties.
-            if (treadPoints != null) {
+            if (treadLinks != null) {
                 //Active tread.  Do tread-path rendering instead of normal model.
                 renderable.setLightValue(entity.worldLightValue);
                 doTreadRendering((PartGroundDevice) entity, partialTicks);
@@ -347,11 +337,14 @@ public class RenderableModelObject {
      */
     public void destroy() {
         renderable.destroy();
+        if (treadRenderable != null) {
+            treadRenderable.destroy();
+        }
     }
 
-    private boolean shouldRender(AEntityD_Definable<?> entity, boolean blendingEnabled, float partialTicks) {
+    private boolean shouldRender(AEntityD_Definable<?> entity, boolean blendingEnabled, float partialTicks, boolean freezeAnimations) {
         //Treads only render on solid passes.
-        if (treadPoints != null && blendingEnabled) {
+        if (treadLinks != null && blendingEnabled) {
             return false;
         }
         //Block windows if we have them disabled.
@@ -359,11 +352,11 @@ public class RenderableModelObject {
             return false;
         }
         //If we have a switchbox, run it once, and if it returns false for a non-blended object, don't render.
+        //Frozen animations only run the switchbox if it's never been run, so we have something to render with.
         if (switchbox != null) {
-            if (objectDef.blendedAnimations) {
-                switchbox.runSwitchbox(partialTicks, false);
-            } else {
-                return switchbox.runSwitchbox(partialTicks, false);
+            boolean switchboxEnabled = freezeAnimations ? switchbox.runSwitchboxIfNeverRun(partialTicks) : switchbox.runSwitchbox(partialTicks, false);
+            if (!objectDef.blendedAnimations) {
+                return switchboxEnabled;
             }
         }
         //No false conditions, return true.
@@ -371,20 +364,13 @@ public class RenderableModelObject {
     }
 
     private void doTreadRendering(PartGroundDevice tread, float partialTicks) {
-        //Render the treads along their points.
-        //We manually set point 0 here due to the fact it's a joint between two differing angles.
-        //We also need to translate to that point to start rendering as we're currently at 0,0,0.
-        //For each remaining point, we only translate the delta of the point.
+        //Render the treads along their links.
+        //All links are put into the tread mesh at their current position, and then the mesh is rendered in one go.
         float treadLinearPosition = (float) (tread.getRawVariableValue("ground_rotation", partialTicks) / 360D);
         float treadMovementPercentage = (treadLinearPosition % tread.definition.ground.spacing) / tread.definition.ground.spacing;
         if (treadMovementPercentage < 0) {
             ++treadMovementPercentage;
         }
-        Double[] point;
-        Double[] nextPoint;
-        double yDelta;
-        double zDelta;
-        double angleDelta;
 
         //Tread rendering is done via the thing the tread is on, which will assume the part is centered at 0, 0, 0.
         //We need to undo the offset of the tread part for this routine.
@@ -392,10 +378,6 @@ public class RenderableModelObject {
             renderable.transform.applyTranslation(0, -tread.localOffset.y, -tread.localOffset.z);
         }
 
-        //Add initial translation for the first point
-        point = treadPoints.get(0);
-        renderable.transform.applyTranslation(0, point[0], point[1]);
-
         //Get cycle index for later.
         boolean[] renderIndexes = null;
         if (tread.definition.ground.treadOrder != null) {
@@ -413,21 +395,53 @@ public class RenderableModelObject {
             }
         }
 
-        //Now transform all points.
-        for (int i = 0; i < treadPoints.size() - 1; ++i) {
-            //Update variables.
-            //If we're at the last point, set the next point to the first point.
-            //Also adjust angle delta, as it'll likely be almost 360 and needs to be adjusted for this.
-            point = treadPoints.get(i);
-            if (i == treadPoints.size() - 1) {
-                nextPoint = treadPoints.get(0);
-                angleDelta = (nextPoint[2] + 360) - point[2];
-            } else {
-                nextPoint = treadPoints.get(i + 1);
-                angleDelta = nextPoint[2] - point[2];
+        //Now add all links to the mesh.
+        RenderableVertices treadMesh = treadRenderable.vertexObject;
+        treadMesh.vertices.clear();
+        for (int i = 0; i < treadLinks.length / TREAD_LINK_FLOATS; ++i) {
+            //Check if we should render this object as a link in this position.
+            //This is normally true, but for patterns we need to only render in specific spots.
+            if (renderIndexes != null && !renderIndexes[i % renderIndexes.length]) {
+                continue;
             }
-            yDelta = nextPoint[0] - point[0];
-            zDelta = nextPoint[1] - point[1];
+
+            setTreadLinkTransform(treadLinks, i, treadMovementPercentage, treadLinkTransform);
+            treadMesh.addTransformedCopy(renderable.vertexObject, treadLinkTransform);
+        }
+        treadMesh.vertices.flip();
+
+        //Render the mesh with the state of the link object.
+        treadRenderable.transform.set(renderable.transform);
+        treadRenderable.setTexture(renderable.texture);
+        treadRenderable.setLightValue(renderable.worldLightValue);
+        treadRenderable.render();
+    }
+
+    /**
+     * Sets the passed-in transform to the transform of the passed-in link, relative to the tread.
+     * The link is moved towards the next link by the passed-in percentage, which is how far the tread has moved.
+     */
+    static void setTreadLinkTransform(float[] links, int link, float treadMovementPercentage, TransformationMatrix transform) {
+        //Do note that the model needs to be rotated 180 on the X-axis due to all our points
+        //assuming a YZ coordinate system with 0 degrees rotation being in +Y (just how the math comes out).
+        //This is why 180 is added to all points cached when generating the treads.
+        int linkIndex = link * TREAD_LINK_FLOATS;
+        transform.resetTransforms();
+        transform.applyTranslation(0, links[linkIndex] + links[linkIndex + 3] * treadMovementPercentage, links[linkIndex + 1] + links[linkIndex + 4] * treadMovementPercentage);
+        treadRotation.setToAxisAngle(1, 0, 0, links[linkIndex + 2] + links[linkIndex + 5] * treadMovementPercentage);
+        transform.applyRotation(treadRotation);
+    }
+
+    /**
+     * Bakes the passed-in tread points into links.  Each link has {@link #TREAD_LINK_FLOATS} floats, which are the
+     * Y, Z, and angle of the link's point, and the Y, Z, and angle deltas to the next point.
+     */
+    static float[] bakeTreadLinks(List<double[]> points) {
+        float[] links = new float[(points.size() - 1) * TREAD_LINK_FLOATS];
+        for (int i = 0; i < points.size() - 1; ++i) {
+            double[] point = points.get(i);
+            double[] nextPoint = points.get(i + 1);
+            double angleDelta = nextPoint[2] - point[2];
 
             //If our angle delta is greater than 180, we can assume that we're inverted.
             //This happens when we cross the 360 degree rotation barrier.
@@ -437,44 +451,18 @@ public class RenderableModelObject {
                 angleDelta += 360;
             }
 
-            //Check if we should render this object as a link in this position.
-            //This is normally true, but for patterns we need to only render in specific spots.
-            if (renderIndexes != null && !renderIndexes[i % renderIndexes.length]) {
-                renderable.transform.applyTranslation(0, yDelta, zDelta);
-                continue;
-            }
-
-            //Translate to the current position of the tread based on the percent it has moved.
-            //This is determined by partial ticks and actual tread position.
-            //Once there, render the tread.  Then translate the remainder of the way to prepare
-            //to render the next tread.
-            renderable.transform.applyTranslation(0, yDelta * treadMovementPercentage, zDelta * treadMovementPercentage);
-
-            //If there's no rotation to the point, and no delta between points, don't do rotation.  That's just extra math.
-            //Do note that the model needs to be rotated 180 on the X-axis due to all our points
-            //assuming a YZ coordinate system with 0 degrees rotation being in +Y (just how the math comes out).
-            //This is why 180 is added to all points cached in the operations above.
-            if (point[2] != 0 || angleDelta != 0) {
-                //We can't use a running rotation here as we'll end up translating in the rotated
-                //coordinate system.  To combat this, we translate like normal, but then push a
-                //stack and rotate prior to rendering.  This keeps us from having to do another
-                //rotation to get the old coordinate system back.
-                treadPathBaseTransform.set(renderable.transform);
-                treadRotation.setToAxisAngle(1, 0, 0, point[2] + angleDelta * treadMovementPercentage);
-                renderable.transform.applyRotation(treadRotation);
-                renderable.render();
-                renderable.transform.set(treadPathBaseTransform);
-            } else {
-                //Just render as normal as we didn't rotate.
-                renderable.render();
-            }
-
-            //Add remaining translation.
-            renderable.transform.applyTranslation(0, yDelta * (1 - treadMovementPercentage), zDelta * (1 - treadMovementPercentage));
+            int linkIndex = i * TREAD_LINK_FLOATS;
+            links[linkIndex] = (float) point[0];
+            links[linkIndex + 1] = (float) point[1];
+            links[linkIndex + 2] = (float) point[2];
+            links[linkIndex + 3] = (float) (nextPoint[0] - point[0]);
+            links[linkIndex + 4] = (float) (nextPoint[1] - point[1]);
+            links[linkIndex + 5] = (float) angleDelta;
         }
+        return links;
     }
 
-    private static <TreadEntity extends AEntityD_Definable<?>> List<Double[]> generateTreads(PartGroundDevice tread) {
+    private static <TreadEntity extends AEntityD_Definable<?>> float[] generateTreads(PartGroundDevice tread) {
         //If we don't have the deltas, calculate them based on the points of the rollers defined in the JSON.			
         //Search through rotatable parts on the model and grab the rollers.
         List<RenderableVertices> parsedModel = AModelParser.parseModel(tread.entityOn.definition.getModelLocation(tread.entityOn.definition.definitions.get(0)), true);
@@ -576,7 +564,7 @@ public class RenderableModelObject {
         double leftoverPathLength = 0;
         double yPoint = 0;
         double zPoint = 0;
-        List<Double[]> points = new ArrayList<>();
+        List<double[]> points = new ArrayList<>();
         for (int i = 0; i < rollers.size(); ++i) {
             TreadRoller roller = rollers.get(i);
             //Follow the curve of the roller from the start and end point.
@@ -599,7 +587,7 @@ public class RenderableModelObject {
             if (i == 0) {
                 yPoint = roller.centerPoint.y + roller.radius * Math.cos(Math.toRadians(currentAngle));
                 zPoint = roller.centerPoint.z + roller.radius * Math.sin(Math.toRadians(currentAngle));
-                points.add(new Double[]{yPoint, zPoint, currentAngle + 180});
+                points.add(new double[]{yPoint, zPoint, currentAngle + 180});
             }
 
             //If we have any leftover straight path, account for it here to keep spacing consistent.
@@ -624,7 +612,7 @@ public class RenderableModelObject {
                     currentAngle += 360D * (deltaDist / roller.circumference);
                     yPoint = roller.centerPoint.y + roller.radius * Math.cos(Math.toRadians(currentAngle));
                     zPoint = roller.centerPoint.z + roller.radius * Math.sin(Math.toRadians(currentAngle));
-                    points.add(new Double[]{yPoint, zPoint, currentAngle + 180});
+                    points.add(new double[]{yPoint, zPoint, currentAngle + 180});
                 }
             }
 
@@ -671,7 +659,7 @@ public class RenderableModelObject {
                     catenaryPointY = tread.placementDefinition.treadDroopConstant * Math.cosh(catenaryPointZ / tread.placementDefinition.treadDroopConstant);
                     yPoint = roller.endY + normalizedY * catenaryFunctionPercent + catenaryPointY - catenaryPathEdgeY;
                     zPoint = roller.endZ + catenaryPointZ + straightPathLength / 2D;
-                    points.add(new Double[]{yPoint, zPoint, currentAngle + 180 - Math.toDegrees(Math.asin(catenaryFunctionCurrent / tread.placementDefinition.treadDroopConstant))});
+                    points.add(new double[]{yPoint, zPoint, currentAngle + 180 - Math.toDegrees(Math.asin(catenaryFunctionCurrent / tread.placementDefinition.treadDroopConstant))});
                 }
                 leftoverPathLength = catenaryPathLength;
             } else {
@@ -687,94 +675,11 @@ public class RenderableModelObject {
                         zPoint += normalizedZ * deltaDist;
                         straightPathLength -= deltaDist;
                     }
-                    points.add(new Double[]{yPoint, zPoint, currentAngle + 180});
+                    points.add(new double[]{yPoint, zPoint, currentAngle + 180});
                 }
                 leftoverPathLength = straightPathLength;
             }
         }
-        return points;
-    }
-
-    /**
-     * Custom URL downloader class to prevent blocking of the main thread when downloading textures
-     * and to give more time for the downloader to run.
-     *
-     * @author don_bruce
-     */
-    private static class ConnectorThread extends Thread {
-        private final String urlString;
-        private final RenderableModelObject objectOn;
-
-        public ConnectorThread(String urlString, RenderableModelObject objectOn) {
-            this.urlString = urlString;
-            this.objectOn = objectOn;
-        }
-
-        @Override
-        public void run() {
-            //Parse the texture out into an InputStream, if possible, and bind it.
-            //FAR less jank than using MC's resource system.
-            //We try a few times here since sources can do dumb things.
-            int tryCount = 0;
-            String errorString = null;
-            do {
-                try {
-                    URL urlObject = new URL(urlString);
-                    HttpURLConnection connection = (HttpURLConnection) urlObject.openConnection();
-                    try {
-                        connection.connect();
-                        String contentType = connection.getContentType();
-                        String[] typeParams = contentType.split("/");
-                        if (typeParams[0].equals("text")) {
-                            errorString = "ERROR: Found only text at the URL.  This is not a direct image link, or you don't have permission to view this image (hosted behind a login).";
-                        } else {
-                            Iterator<ImageReader> iterator = ImageIO.getImageReadersByFormatName(typeParams[1]);
-                            if (iterator.hasNext()) {
-                                ImageReader reader = iterator.next();
-                                if (typeParams[1].equals("gif")) {
-                                    ImageInputStream stream = ImageIO.createImageInputStream(connection.getInputStream());
-                                    reader.setInput(stream);
-                                    ParsedGIF gif = GIFParser.parseGIF(reader);
-                                    if (gif != null) {
-                                        if (InterfaceManager.renderingInterface.bindURLGIF(urlString, gif)) {
-                                            objectOn.downloadedTextures.add(urlString);
-                                            objectOn.downloadingTextures.remove(urlString);
-                                            return;
-                                        } else {
-                                            errorString = "ERROR: Could not parse GIF due to an internal MC-system interface error.  Contact the mod author!";
-                                        }
-                                    } else {
-                                        errorString = "ERROR: Could not parse GIF due to no frames being present.  Is this a real direct link or a fake one?";
-                                    }
-                                } else {
-                                    if (InterfaceManager.renderingInterface.bindURLTexture(urlString, connection.getInputStream())) {
-                                        objectOn.downloadedTextures.add(urlString);
-                                        objectOn.downloadingTextures.remove(urlString);
-                                        return;
-                                    } else {
-                                        errorString = "ERROR: Got a correct image type, but was missing data for the image?  Likely partial data sent by the server source, try again later.";
-                                    }
-                                }
-                            } else {
-                                errorString = "ERROR: Invalid content type found.  Found:" + contentType + ", but the only valid types are: ";
-                                for (String imageSuffix : ImageIO.getReaderFileSuffixes()) {
-                                    errorString += ("image/" + imageSuffix + ", ");
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        errorString = "ERROR: Could not parse images.  Error was: " + e.getMessage();
-                    }
-                } catch (Exception e) {
-                    errorString = "ERROR: Could not open URL for processing.  Error was: " + e.getMessage();
-                }
-            } while (++tryCount < 10);
-
-            //Set missing texture if we failed to get anything.
-            InterfaceManager.renderingInterface.bindURLTexture(urlString, null);
-            erroredTextures.put(urlString, errorString);
-            objectOn.downloadingTextures.remove(urlString);
-            objectOn.downloadedTextures.add(urlString);
-        }
+        return bakeTreadLinks(points);
     }
 }
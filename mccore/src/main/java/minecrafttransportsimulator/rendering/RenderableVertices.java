@@ -105,6 +105,8 @@ public class RenderableVertices {
     private static final int FACES_PER_BEAM = 40;
     private static final float BEAM_OFFSET = -0.15F;
 
+    private static final Point3D spriteHelperPoint = new Point3D();
+
     /**General-use constructor with no special behavior except automatically noting vertices as translucent based on the name**/
     public RenderableVertices(String name, FloatBuffer vertexData, boolean cacheVertices) {
         this.name = name;
@@ -283,6 +285,19 @@ public class RenderableVertices {
         return offsetObject;
     }
 
+    /**
+     * Returns a copy of these vertices that can be modified.  This is required for vertices loaded from
+     * the {@link CompiledModelCache}, as those are mapped from the cache file and are read-only.
+     */
+    public RenderableVertices createWritableCopy() {
+        RenderableVertices copyObject = new RenderableVertices(name, FloatBuffer.allocate(vertices.limit()), cacheVertices);
+        FloatBuffer sourceVertices = vertices.duplicate();
+        sourceVertices.rewind();
+        copyObject.vertices.put(sourceVertices);
+        copyObject.vertices.flip();
+        return copyObject;
+    }
+
     /**
      * Returns a copy of these vertices in inverted order to create a back-face for this model.
      */
@@ -422,6 +437,61 @@ public class RenderableVertices {
         }
     }
 
+    /**
+     * Like {@link #setSpriteProperties(int, int, int, int, int, float, float, float, float)}, but also transforms the
+     * sprite's vertices by the passed-in transform.  This allows multiple sprites with their own transforms to be
+     * rendered as a single object.
+     */
+    public void setSpriteProperties(int spriteIndex, int offsetX, int offsetY, int width, int height, float u, float v, float U, float V, TransformationMatrix transform) {
+        setSpriteProperties(spriteIndex, offsetX, offsetY, width, height, u, v, U, V);
+        for (int vertexIndex = spriteIndex * VERTEXES_PER_QUAD; vertexIndex < (spriteIndex + 1) * VERTEXES_PER_QUAD; ++vertexIndex) {
+            int xOffset = vertexIndex * FLOATS_PER_VERTEX + VERTEX_BUFFER_X_OFFSET;
+            int yOffset = vertexIndex * FLOATS_PER_VERTEX + VERTEX_BUFFER_Y_OFFSET;
+            int zOffset = vertexIndex * FLOATS_PER_VERTEX + VERTEX_BUFFER_Z_OFFSET;
+            //Z is always 0 for sprites, so don't read it as it could be from a prior transform.
+            spriteHelperPoint.set(vertices.get(xOffset), vertices.get(yOffset), 0);
+            spriteHelperPoint.transform(transform);
+            vertices.put(xOffset, (float) spriteHelperPoint.x);
+            vertices.put(yOffset, (float) spriteHelperPoint.y);
+            vertices.put(zOffset, (float) spriteHelperPoint.z);
+        }
+    }
+
+    /**
+     * Creates a new object with space for the passed-in number of copies of this object's vertices.  Copies are added to it with
+     * {@link #addTransformedCopy(RenderableVertices, TransformationMatrix)}.  This allows many copies of an object, each with their
+     * own transform, to be rendered as a single object.  As the copies will change, the vertices of the new object aren't cached.
+     */
+    public RenderableVertices createCopyBuffer(int copies) {
+        return new RenderableVertices(name, FloatBuffer.allocate(vertices.limit() * copies), false);
+    }
+
+    /**
+     * Adds a copy of the vertices of the passed-in object to this object, transformed by the passed-in transform.
+     * Copies are added at the current position of the buffer, so the buffer should be cleared before adding the
+     * first copy, and flipped after adding the last one.
+     */
+    public void addTransformedCopy(RenderableVertices source, TransformationMatrix transform) {
+        FloatBuffer sourceVertices = source.vertices;
+        for (int i = 0; i < sourceVertices.limit(); i += FLOATS_PER_VERTEX) {
+            //Normals only get rotated, not translated.
+            float normalX = sourceVertices.get(i + VERTEX_BUFFER_NX_OFFSET);
+            float normalY = sourceVertices.get(i + VERTEX_BUFFER_NY_OFFSET);
+            float normalZ = sourceVertices.get(i + VERTEX_BUFFER_NZ_OFFSET);
+            vertices.put((float) (transform.m00 * normalX + transform.m01 * normalY + transform.m02 * normalZ));
+            vertices.put((float) (transform.m10 * normalX + transform.m11 * normalY + transform.m12 * normalZ));
+            vertices.put((float) (transform.m20 * normalX + transform.m21 * normalY + transform.m22 * normalZ));
+            vertices.put(sourceVertices.get(i + VERTEX_BUFFER_U_OFFSET));
+            vertices.put(sourceVertices.get(i + VERTEX_BUFFER_V_OFFSET));
+            float x = sourceVertices.get(i + VERTEX_BUFFER_X_OFFSET);
+            float y = sourceVertices.get(i + VERTEX_BUFFER_Y_OFFSET);
+            float z = sourceVertices.get(i + VERTEX_BUFFER_Z_OFFSET);
+            vertices.put((float) (transform.m00 * x + transform.m01 * y + transform.m02 * z + transform.m03));
+            vertices.put((float) (transform.m10 * x + transform.m11 * y + transform.m12 * z + transform.m13));
+            vertices.put((float) (transform.m20 * x + transform.m21 * y + transform.m22 * z + transform.m23));
+        }
+    }
+
     /**
      * Enum that defines what points exist for a bounding box.
      */
@@ -0,0 +1,447 @@
+package minecrafttransportsimulator.rendering;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.rendering.GIFParser.ParsedGIF;
+
+/**
+ * Class responsible for getting textures from URLs.  Textures are downloaded, decoded, and prepared for uploading
+ * on a small pool of background threads, so the render thread never waits on the network or converts pixels.
+ * Once prepared, textures are uploaded on the render thread the next time they are requested, with only a limited
+ * amount of time per frame being allowed for uploads.  Until then, the texture isn't ready, and callers should render something else.
+ * <br><br>
+ * Downloaded images are saved to disk, keyed by a hash of their URL, along with the ETag the server sent for them.
+ * On later fetches the server is asked if the image changed, and the saved image is used if it didn't, or if the server
+ * can't be reached.  Images over the size limit aren't downloaded, and the oldest saved images are removed once the
+ * cache is over its size limit.
+ *
+ * @author don_bruce
+ */
+public class URLTextureFetcher {
+    private static final String CACHE_FOLDER_NAME = "mts_urlcache";
+    /**Version of the cache file format.  Part of the file name, so changing it makes all old files unused.**/
+    private static final int CACHE_VERSION = 1;
+    private static final String CACHE_FILE_SUFFIX = "_v" + CACHE_VERSION + ".bin";
+    private static final int CACHE_HEADER = 0x4D545355;
+    private static final long MAX_UNUSED_TIME = TimeUnit.DAYS.toMillis(30);
+    private static final long MAX_CACHE_SIZE = 256L * 1024 * 1024;
+    private static final int MAX_IMAGE_SIZE = 16 * 1024 * 1024;
+    private static final int CONNECTION_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(10);
+    private static final int MAX_TRIES = 3;
+    private static final int FETCH_THREADS = 2;
+    private static final int MAX_QUEUED_FETCHES = 32;
+    /**Max time that may be spent uploading textures on the render thread per frame.  Textures are prepared before this, so it's just the upload.**/
+    private static final long UPLOAD_TIME_PER_FRAME = TimeUnit.MILLISECONDS.toNanos(2);
+    /**Length of a frame for upload purposes.  We don't get frame events here, so we go off time instead.**/
+    private static final long FRAME_TIME = TimeUnit.MILLISECONDS.toNanos(16);
+    private static final ExecutorService fetchThreads = new ThreadPoolExecutor(FETCH_THREADS, FETCH_THREADS, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(MAX_QUEUED_FETCHES), runnable -> {
+        Thread thread = new Thread(runnable, "MTS URL Texture Fetcher");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private static final Map<String, Future<FetchedTexture>> fetchingTextures = new HashMap<>();
+    private static final Set<String> boundTextures = new HashSet<>();
+    private static final Map<String, String> erroredTextures = new HashMap<>();
+    private static long frameStartTime;
+    private static long frameUploadTime;
+    private static File cacheFolder;
+
+    /**
+     * Returns true if the texture for the passed-in URL is bound, and can be rendered using the URL as the texture name.
+     * If the texture hasn't been fetched, it is queued for fetching here.  If it is fetched, it is uploaded here, provided
+     * there's time left to do so this frame.  Should only be called from the render thread.
+     */
+    public static boolean isTextureReady(String textureURL) {
+        if (boundTextures.contains(textureURL)) {
+            return true;
+        } else if (erroredTextures.containsKey(textureURL)) {
+            return false;
+        }
+
+        Future<FetchedTexture> fetch = fetchingTextures.get(textureURL);
+        if (fetch == null) {
+            try {
+                fetchingTextures.put(textureURL, fetchThreads.submit(() -> fetchAndPrepareTexture(textureURL)));
+            } catch (RejectedExecutionException e) {
+                //Too many textures being fetched.  We'll try again on the next request.
+            }
+            return false;
+        } else if (!fetch.isDone()) {
+            return false;
+        }
+
+        long currentTime = System.nanoTime();
+        if (currentTime - frameStartTime > FRAME_TIME) {
+            frameStartTime = currentTime;
+            frameUploadTime = 0;
+        }
+        if (frameUploadTime >= UPLOAD_TIME_PER_FRAME) {
+            return false;
+        }
+
+        //Fetch is done and we have time, upload the texture.
+        fetchingTextures.remove(textureURL);
+        String errorString;
+        try {
+            FetchedTexture texture = fetch.get();
+            errorString = texture.errorString;
+            if (errorString == null) {
+                boolean bound = texture.gif != null ? InterfaceManager.renderingInterface.bindURLGIF(textureURL, texture.gif) : InterfaceManager.renderingInterface.bindURLTexture(textureURL, texture.image);
+                if (!bound) {
+                    errorString = "ERROR: Could not bind image due to an internal MC-system interface error.  Contact the mod author!";
+                }
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            errorString = "ERROR: Could not fetch image.  Error was: " + e.getMessage();
+        }
+        frameUploadTime += System.nanoTime() - currentTime;
+
+        if (errorString == null) {
+            boundTextures.add(textureURL);
+            return true;
+        } else {
+            erroredTextures.put(textureURL, errorString);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the error for the passed-in URL, or null if its texture hasn't had an error.
+     * Errors start with "ERROR", and are meant to be shown to the player.
+     */
+    public static String getError(String textureURL) {
+        return erroredTextures.get(textureURL);
+    }
+
+    /**
+     * Fetches the texture at the passed-in URL, and prepares it for uploading if it's an image.
+     */
+    private static FetchedTexture fetchAndPrepareTexture(String textureURL) {
+        FetchedTexture texture = fetchTexture(textureURL);
+        if (texture.image != null) {
+            InterfaceManager.renderingInterface.prepareURLTexture(textureURL, texture.image);
+        }
+        return texture;
+    }
+
+    /**
+     * Fetches the texture at the passed-in URL, using the disk cache if the image there hasn't changed.
+     * Always returns a texture, which will have an error string if there was an error.
+     */
+    static FetchedTexture fetchTexture(String textureURL) {
+        String key = getKey(textureURL);
+        CachedImage cachedImage = loadCachedImage(key);
+        String errorString = null;
+        int tryCount = 0;
+        do {
+            try {
+                HttpURLConnection connection = (HttpURLConnection) new URL(textureURL).openConnection();
+                connection.setConnectTimeout(CONNECTION_TIMEOUT);
+                connection.setReadTimeout(CONNECTION_TIMEOUT);
+                if (cachedImage != null && cachedImage.eTag != null) {
+                    connection.setRequestProperty("If-None-Match", cachedImage.eTag);
+                }
+                try {
+                    connection.connect();
+                    if (cachedImage != null && connection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                        //Image didn't change, use the one we have.
+                        return decodeTexture(cachedImage.contentType, cachedImage.data);
+                    }
+                    if (connection.getContentLengthLong() > MAX_IMAGE_SIZE) {
+                        return new FetchedTexture("ERROR: Image is too large.  Images must be smaller than " + MAX_IMAGE_SIZE / 1024 / 1024 + "MB.");
+                    }
+                    byte[] data = readData(connection.getInputStream());
+                    if (data == null) {
+                        return new FetchedTexture("ERROR: Image is too large.  Images must be smaller than " + MAX_IMAGE_SIZE / 1024 / 1024 + "MB.");
+                    }
+                    String contentType = connection.getContentType();
+                    FetchedTexture texture = decodeTexture(contentType, data);
+                    if (texture.errorString == null) {
+                        saveCachedImage(key, new CachedImage(connection.getHeaderField("ETag"), contentType, data));
+                    }
+                    return texture;
+                } finally {
+                    connection.disconnect();
+                }
+            } catch (Exception e) {
+                errorString = "ERROR: Could not open URL for processing.  Error was: " + e.getMessage();
+            }
+        } while (++tryCount < MAX_TRIES);
+
+        //Couldn't get to the server.  Use the image we have if we have one.
+        if (cachedImage != null) {
+            return decodeTexture(cachedImage.contentType, cachedImage.data);
+        } else {
+            return new FetchedTexture(errorString);
+        }
+    }
+
+    /**
+     * Reads all data from the stream, returning null if it's more than the max image size.
+     */
+    private static byte[] readData(InputStream stream) throws IOException {
+        ByteArrayOutputStream dataStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int readBytes;
+        while ((readBytes = stream.read(buffer)) != -1) {
+            dataStream.write(buffer, 0, readBytes);
+            if (dataStream.size() > MAX_IMAGE_SIZE) {
+                return null;
+            }
+        }
+        return dataStream.toByteArray();
+    }
+
+    /**
+     * Decodes the passed-in image data of the passed-in content type.
+     */
+    private static FetchedTexture decodeTexture(String contentType, byte[] data) {
+        if (contentType == null) {
+            return new FetchedTexture("ERROR: No content type found.  This is not a direct image link.");
+        }
+        String[] typeParams = contentType.split(";")[0].trim().split("/");
+        if (typeParams[0].equals("text")) {
+            return new FetchedTexture("ERROR: Found only text at the URL.  This is not a direct image link, or you don't have permission to view this image (hosted behind a login).");
+        }
+        Iterator<ImageReader> iterator = typeParams.length == 2 ? ImageIO.getImageReadersByFormatName(typeParams[1]) : null;
+        if (iterator == null || !iterator.hasNext()) {
+            String errorString = "ERROR: Invalid content type found.  Found:" + contentType + ", but the only valid types are: ";
+            for (String imageSuffix : ImageIO.getReaderFileSuffixes()) {
+                errorString += ("image/" + imageSuffix + ", ");
+            }
+            return new FetchedTexture(errorString);
+        }
+
+        try {
+            if (typeParams[1].equals("gif")) {
+                ImageReader reader = iterator.next();
+                reader.setInput(ImageIO.createImageInputStream(new ByteArrayInputStream(data)));
+                ParsedGIF gif = GIFParser.parseGIF(reader);
+                if (gif != null) {
+                    return new FetchedTexture(null, gif);
+                } else {
+                    return new FetchedTexture("ERROR: Could not parse GIF due to no frames being present.  Is this a real direct link or a fake one?");
+                }
+            } else {
+                BufferedImage image = ImageIO.read(new ByteArrayInputStream(data));
+                if (image != null) {
+                    return new FetchedTexture(image, null);
+                } else {
+                    return new FetchedTexture("ERROR: Got a correct image type, but was missing data for the image?  Likely partial data sent by the server source, try again later.");
+                }
+            }
+        } catch (Exception e) {
+            return new FetchedTexture("ERROR: Could not parse images.  Error was: " + e.getMessage());
+        }
+    }
+
+    private static String getKey(String textureURL) {
+        try {
+            StringBuilder key = new StringBuilder();
+            for (byte hashByte : MessageDigest.getInstance("SHA-1").digest(textureURL.getBytes(StandardCharsets.UTF_8))) {
+                key.append(String.format("%02x", hashByte));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not supported by this JVM.  How did you even get this far?", e);
+        }
+    }
+
+    /**
+     * Loads the cached image for the passed-in key, or returns null if there isn't one, or it couldn't be read.
+     */
+    private static CachedImage loadCachedImage(String key) {
+        File cacheFile = getCacheFile(key);
+        if (cacheFile == null || !cacheFile.exists()) {
+            return null;
+        }
+        try {
+            ByteBuffer fileData = ByteBuffer.wrap(Files.readAllBytes(cacheFile.toPath()));
+            if (fileData.getInt() != CACHE_HEADER || fileData.getInt() != CACHE_VERSION) {
+                return null;
+            }
+            String eTag = getString(fileData);
+            String contentType = getString(fileData);
+            byte[] data = new byte[fileData.getInt()];
+            fileData.get(data);
+
+            //Mark this file as used so it doesn't get cleaned up.
+            cacheFile.setLastModified(System.currentTimeMillis());
+            return new CachedImage(eTag, contentType, data);
+        } catch (Exception e) {
+            InterfaceManager.coreInterface.logError("Could not load URL texture cache " + cacheFile.getName() + ", image will be downloaded again.  Error is: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Saves the passed-in image to the cache under the passed-in key.  Failures are logged, but otherwise ignored,
+     * as the image will just be downloaded again next time.
+     */
+    private static void saveCachedImage(String key, CachedImage image) {
+        File cacheFile = getCacheFile(key);
+        if (cacheFile == null) {
+            return;
+        }
+        byte[] eTagBytes = image.eTag != null ? image.eTag.getBytes(StandardCharsets.UTF_8) : null;
+        byte[] contentTypeBytes = image.contentType.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer fileData = ByteBuffer.allocate(5 * Integer.BYTES + (eTagBytes != null ? eTagBytes.length : 0) + contentTypeBytes.length + image.data.length);
+        fileData.putInt(CACHE_HEADER);
+        fileData.putInt(CACHE_VERSION);
+        putBytes(fileData, eTagBytes);
+        putBytes(fileData, contentTypeBytes);
+        putBytes(fileData, image.data);
+
+        //Write to a temp file first, so a partly-written file is never loaded.
+        Path tempPath = null;
+        try {
+            tempPath = Files.createTempFile(cacheFolder.toPath(), key, ".tmp");
+            Files.write(tempPath, fileData.array());
+            try {
+                Files.move(tempPath, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            trimCache();
+        } catch (IOException e) {
+            InterfaceManager.coreInterface.logError("Could not save URL texture cache " + cacheFile.getName() + ".  Error is: " + e.getMessage());
+            if (tempPath != null) {
+                tempPath.toFile().delete();
+            }
+        }
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        //Null arrays are saved with a length of -1 so they can be loaded as null.
+        if (bytes != null) {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        } else {
+            buffer.putInt(-1);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == -1) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the cache file for the passed-in key, or null if there's no game directory to cache to.
+     * The first call to this method also removes any old cache files.
+     */
+    private static synchronized File getCacheFile(String key) {
+        if (cacheFolder == null) {
+            if (InterfaceManager.gameDirectory == null) {
+                return null;
+            }
+            cacheFolder = new File(InterfaceManager.gameDirectory, CACHE_FOLDER_NAME);
+            cacheFolder.mkdirs();
+            File[] cacheFiles = cacheFolder.listFiles();
+            if (cacheFiles != null) {
+                long oldestUsedTime = System.currentTimeMillis() - MAX_UNUSED_TIME;
+                for (File cacheFile : cacheFiles) {
+                    if (!cacheFile.getName().endsWith(CACHE_FILE_SUFFIX) || cacheFile.lastModified() < oldestUsedTime) {
+                        cacheFile.delete();
+                    }
+                }
+            }
+            trimCache();
+        }
+        return new File(cacheFolder, key + CACHE_FILE_SUFFIX);
+    }
+
+    /**
+     * Removes the least-recently used cache files until the cache is under its size limit.
+     */
+    private static synchronized void trimCache() {
+        File[] cacheFiles = cacheFolder.listFiles();
+        if (cacheFiles != null) {
+            long cacheSize = 0;
+            for (File cacheFile : cacheFiles) {
+                cacheSize += cacheFile.length();
+            }
+            if (cacheSize > MAX_CACHE_SIZE) {
+                Arrays.sort(cacheFiles, Comparator.comparingLong(File::lastModified));
+                for (File cacheFile : cacheFiles) {
+                    if (cacheFile.getName().endsWith(CACHE_FILE_SUFFIX)) {
+                        cacheSize -= cacheFile.length();
+                        cacheFile.delete();
+                        if (cacheSize <= MAX_CACHE_SIZE) {
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static class CachedImage {
+        private final String eTag;
+        private final String contentType;
+        private final byte[] data;
+
+        private CachedImage(String eTag, String contentType, byte[] data) {
+            this.eTag = eTag;
+            this.contentType = contentType;
+            this.data = data;
+        }
+    }
+
+    static class FetchedTexture {
+        final BufferedImage image;
+        final ParsedGIF gif;
+        final String errorString;
+
+        private FetchedTexture(BufferedImage image, ParsedGIF gif) {
+            this.image = image;
+            this.gif = gif;
+            this.errorString = null;
+        }
+
+        private FetchedTexture(String errorString) {
+            this.image = null;
+            this.gif = null;
+            this.errorString = errorString;
+        }
+    }
+}
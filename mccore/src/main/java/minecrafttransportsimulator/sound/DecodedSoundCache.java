@@ -0,0 +1,253 @@
+package minecrafttransportsimulator.sound;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+
+/**
+ * Class responsible for decoding OGG sounds in jars to mono PCM data for the audio system.
+ * Sounds are decoded on a background thread the first time they are requested, so the audio system
+ * can keep going while they decode, and start them once they are ready.  Decoded data is also saved
+ * to disk, keyed by a hash of the OGG file, so later loads of the same sound just need to read the data.
+ * <br><br>
+ * Decoded data is only held here until the audio system takes it, as the audio system keeps its own
+ * copy once the data is loaded into it.
+ *
+ * @author don_bruce
+ */
+public class DecodedSoundCache {
+    private static final String CACHE_FOLDER_NAME = "mts_soundcache";
+    /**Version of the cache file format.  Part of the file name, so changing it makes all old files unused.**/
+    private static final int CACHE_VERSION = 1;
+    private static final String CACHE_FILE_SUFFIX = "_v" + CACHE_VERSION + ".pcm";
+    private static final int CACHE_HEADER = 0x4D545353;
+    private static final long MAX_UNUSED_TIME = TimeUnit.DAYS.toMillis(30);
+    private static final ExecutorService decodingThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MTS Sound Decoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Map<String, Future<DecodedSound>> decodedSounds = new ConcurrentHashMap<>();
+    private static File cacheFolder;
+
+    /**
+     * Returns true if the passed-in sound is done decoding, and can be obtained via {@link #takeSound(String)}.
+     * If the sound hasn't been queued for decoding, it is queued here.
+     */
+    public static boolean isDecoded(String soundName) {
+        return decodedSounds.computeIfAbsent(soundName, name -> decodingThread.submit(() -> decodeSound(name))).isDone();
+    }
+
+    /**
+     * Returns the decoded data for the passed-in sound, removing it from this cache.  If the sound
+     * is requested again, it will be re-loaded from the disk cache.  Returns null if the sound
+     * doesn't exist, or couldn't be decoded.  This should only be called once {@link #isDecoded(String)}
+     * has returned true for the sound.
+     */
+    public static DecodedSound takeSound(String soundName) {
+        try {
+            DecodedSound sound = decodedSounds.get(soundName).get();
+            if (sound != null) {
+                //Keep null entries, as there's no sense decoding a missing or bad sound twice.
+                decodedSounds.remove(soundName);
+            }
+            return sound;
+        } catch (InterruptedException | ExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decodes the passed-in sound.  Called on the decoding thread.
+     */
+    private static DecodedSound decodeSound(String soundName) {
+        //Get the OGG data.  We read it all at once as we need it for the cache key.
+        String soundDomain = soundName.substring(0, soundName.indexOf(':'));
+        String soundPath = soundName.substring(soundDomain.length() + 1);
+        byte[] oggData;
+        try (InputStream soundStream = InterfaceManager.coreInterface.getPackResource("/assets/" + soundDomain + "/sounds/" + soundPath + ".ogg")) {
+            if (soundStream == null) {
+                return null;
+            }
+            ByteArrayOutputStream dataStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = soundStream.read(buffer)) != -1) {
+                dataStream.write(buffer, 0, bytesRead);
+            }
+            oggData = dataStream.toByteArray();
+        } catch (IOException e) {
+            InterfaceManager.coreInterface.logError("Could not read sound " + soundName + ".  Error is: " + e.getMessage());
+            return null;
+        }
+
+        //Check the cache before decoding.
+        File cacheFile = getCacheFile(getKey(oggData));
+        DecodedSound sound = cacheFile != null ? loadSound(cacheFile) : null;
+        if (sound == null) {
+            try {
+                //Decode the whole file into one array, then copy it to a buffer for the audio system.
+                OGGDecoder decoder = new OGGDecoder(new ByteArrayInputStream(oggData));
+                byte[] decodedData = new byte[IStreamDecoder.BUFFER_SIZE];
+                int decodedBytes = 0;
+                ByteBuffer blockRead;
+                while ((blockRead = decoder.readBlock()) != null) {
+                    int blockBytes = blockRead.remaining();
+                    if (decodedBytes + blockBytes > decodedData.length) {
+                        decodedData = Arrays.copyOf(decodedData, Math.max(decodedBytes + blockBytes, decodedData.length * 2));
+                    }
+                    blockRead.get(decodedData, decodedBytes, blockBytes);
+                    decodedBytes += blockBytes;
+                }
+                ByteBuffer data = ByteBuffer.allocateDirect(decodedBytes);
+                data.put(decodedData, 0, decodedBytes).flip();
+                sound = new DecodedSound(data, decoder.getSampleRate());
+            } catch (Exception e) {
+                InterfaceManager.coreInterface.logError("Could not decode sound " + soundName + ".  Is the OGG file corrupt?  Error is: " + e.getMessage());
+                return null;
+            }
+            if (cacheFile != null) {
+                saveSound(cacheFile, sound);
+            }
+        }
+        return sound;
+    }
+
+    /**
+     * Loads the sound in the passed-in cache file.  Returns null if the file
+     * doesn't exist, or couldn't be read.
+     */
+    private static DecodedSound loadSound(File cacheFile) {
+        if (!cacheFile.exists()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(cacheFile.toPath(), StandardOpenOption.READ)) {
+            //Map the file rather than reading it, as the audio system only needs to copy the data out once.
+            MappedByteBuffer mappedData = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mappedData.order(ByteOrder.LITTLE_ENDIAN);
+            if (mappedData.remaining() < 3 * Integer.BYTES || mappedData.getInt() != CACHE_HEADER || mappedData.getInt() != CACHE_VERSION) {
+                return null;
+            }
+            int sampleRate = mappedData.getInt();
+
+            //Mark this file as used so it doesn't get cleaned up.
+            cacheFile.setLastModified(System.currentTimeMillis());
+            return new DecodedSound(mappedData.slice(), sampleRate);
+        } catch (Exception e) {
+            InterfaceManager.coreInterface.logError("Could not load decoded sound cache " + cacheFile.getName() + ", sound will be re-decoded.  Error is: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Saves the passed-in sound to the passed-in cache file.  Failures are logged, but
+     * otherwise ignored, as the sound will just be decoded again next time.
+     */
+    private static void saveSound(File cacheFile, DecodedSound sound) {
+        ByteBuffer header = ByteBuffer.allocate(3 * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(CACHE_HEADER);
+        header.putInt(CACHE_VERSION);
+        header.putInt(sound.sampleRate);
+        header.flip();
+        ByteBuffer data = sound.data.duplicate();
+
+        Path tempPath = null;
+        try {
+            tempPath = Files.createTempFile(cacheFolder.toPath(), cacheFile.getName(), ".tmp");
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            }
+            try {
+                Files.move(tempPath, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            InterfaceManager.coreInterface.logError("Could not save decoded sound cache " + cacheFile.getName() + ".  Error is: " + e.getMessage());
+            if (tempPath != null) {
+                tempPath.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * Returns the hash key for the passed-in OGG data.
+     */
+    private static String getKey(byte[] oggData) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            StringBuilder key = new StringBuilder();
+            for (byte hashByte : digest.digest(oggData)) {
+                key.append(String.format("%02x", hashByte));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not supported by this JVM.  How did you even get this far?", e);
+        }
+    }
+
+    /**
+     * Returns the cache file for the passed-in key, or null if there's no game directory to cache to.
+     * The first call to this method also removes any old cache files.
+     */
+    private static synchronized File getCacheFile(String key) {
+        if (cacheFolder == null) {
+            if (InterfaceManager.gameDirectory == null) {
+                return null;
+            }
+            cacheFolder = new File(InterfaceManager.gameDirectory, CACHE_FOLDER_NAME);
+            cacheFolder.mkdirs();
+            File[] cacheFiles = cacheFolder.listFiles();
+            if (cacheFiles != null) {
+                long oldestUsedTime = System.currentTimeMillis() - MAX_UNUSED_TIME;
+                for (File cacheFile : cacheFiles) {
+                    if (!cacheFile.getName().endsWith(CACHE_FILE_SUFFIX) || cacheFile.lastModified() < oldestUsedTime) {
+                        cacheFile.delete();
+                    }
+                }
+            }
+        }
+        return new File(cacheFolder, key + CACHE_FILE_SUFFIX);
+    }
+
+    /**
+     * Decoded mono 16-bit PCM data for a sound, and the sample rate to play it at.
+     */
+    public static class DecodedSound {
+        public final ByteBuffer data;
+        public final int sampleRate;
+
+        private DecodedSound(ByteBuffer data, int sampleRate) {
+            this.data = data;
+            this.sampleRate = sampleRate;
+        }
+    }
+}
@@ -43,22 +43,25 @@ public interface IStreamDecoder {
      * This allows us to use mono-only sounds that support attenuation.
      * This should be done prior to sending the finalized buffer returned in
      * {@link #readBlock()}, if the source sound file is non-mono as all systems
-     * expect a mono sound stream.
+     * expect a mono sound stream.  The samples are combined in-place, so the
+     * returned buffer is the passed-in buffer with its limit set to the mono data.
      */
     static ByteBuffer stereoToMono(ByteBuffer stereoBuffer) {
-        ByteBuffer monoBuffer = ByteBuffer.allocateDirect(stereoBuffer.limit() / 2);
-        while (stereoBuffer.hasRemaining()) {
-            //Combine samples using little-endian ordering.
-            byte[] sampleSet = new byte[4];
-            stereoBuffer.get(sampleSet);
-            int leftSample = (sampleSet[1] << 8) | (sampleSet[0] & 0xFF);
-            int rightSample = (sampleSet[3] << 8) | (sampleSet[2] & 0xFF);
+        //Combine samples using little-endian ordering.
+        //Mono samples take half the space of stereo samples, so we never write over samples we haven't read yet.
+        int startIndex = stereoBuffer.position();
+        int sampleSets = stereoBuffer.remaining() / 4;
+        for (int i = 0; i < sampleSets; ++i) {
+            int stereoIndex = startIndex + i * 4;
+            int leftSample = (stereoBuffer.get(stereoIndex + 1) << 8) | (stereoBuffer.get(stereoIndex) & 0xFF);
+            int rightSample = (stereoBuffer.get(stereoIndex + 3) << 8) | (stereoBuffer.get(stereoIndex + 2) & 0xFF);
             int combinedSample = (leftSample + rightSample) / 2;
-            monoBuffer.put((byte) (combinedSample & 0xFF));
-            monoBuffer.put((byte) (combinedSample >> 8));
+            int monoIndex = startIndex + i * 2;
+            stereoBuffer.put(monoIndex, (byte) (combinedSample & 0xFF));
+            stereoBuffer.put(monoIndex + 1, (byte) (combinedSample >> 8));
         }
-        monoBuffer.flip();
-        return monoBuffer;
+        stereoBuffer.limit(startIndex + sampleSets * 2);
+        return stereoBuffer;
     }
 
     int getSampleRate();
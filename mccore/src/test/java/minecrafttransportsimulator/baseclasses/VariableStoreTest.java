@@ -0,0 +1,180 @@
+package minecrafttransportsimulator.baseclasses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link VariableStore}.  Variables in the registry are stored by slot, all others in the
+ * overflow table, so most tests check both.
+ *
+ * @author don_bruce
+ */
+public class VariableStoreTest {
+    private static final double DELTA = 0;
+    private VariableStore store;
+
+    @Before
+    public void setUp() {
+        store = new VariableStore(new VariableRegistry(Arrays.asList("throttle", "brake", "engine_rpm_1")));
+    }
+
+    /**
+     * Returns strings that all have the same hash code, so they all probe from the same index of the overflow table.
+     */
+    private static List<String> createCollidingNames(int count) {
+        //"Aa" and "BB" have the same hash code, so any string made of them has the same hash code as any other of the same length.
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            StringBuilder builder = new StringBuilder();
+            for (int bit = 0; bit < 8; ++bit) {
+                builder.append((i & (1 << bit)) != 0 ? "BB" : "Aa");
+            }
+            names.add(builder.toString());
+        }
+        return names;
+    }
+
+    @Test
+    public void removedVariablesAreNotPresent() {
+        for (String variable : new String[] { "throttle", "custom_door" }) {
+            assertFalse(store.isActive(variable));
+            store.put(variable, 0);
+            assertTrue(store.isActive(variable));
+            assertEquals(0, store.get(variable, 5), DELTA);
+
+            assertTrue(store.remove(variable));
+            assertFalse(store.isActive(variable));
+            assertEquals(5, store.get(variable, 5), DELTA);
+            assertFalse(store.remove(variable));
+        }
+        assertTrue(store.isEmpty());
+    }
+
+    @Test
+    public void slotsMatchNames() {
+        int slot = store.getSlot("brake");
+        store.put("brake", 0.5);
+        assertTrue(store.isActive(slot));
+        assertEquals(0.5, store.get(slot, 0), DELTA);
+
+        store.put(slot, 0.75);
+        assertEquals(0.75, store.get("brake", 0), DELTA);
+
+        assertTrue(store.remove(slot));
+        assertFalse(store.isActive("brake"));
+        assertEquals(-1, store.getSlot("custom_door"));
+    }
+
+    @Test
+    public void overflowResizeKeepsVariables() {
+        //Enough variables to resize the overflow table several times.
+        for (int i = 0; i < 200; ++i) {
+            store.put("custom_" + i, i);
+        }
+        for (int i = 0; i < 200; ++i) {
+            assertTrue(store.isActive("custom_" + i));
+            assertEquals(i, store.get("custom_" + i, -1), DELTA);
+        }
+        assertEquals(200, store.getActiveVariables().size());
+
+        //Putting a present variable replaces its value rather than adding it again.
+        store.put("custom_10", 1000);
+        assertEquals(1000, store.get("custom_10", -1), DELTA);
+        assertEquals(200, store.getActiveVariables().size());
+    }
+
+    @Test
+    public void removalKeepsCollidingVariables() {
+        List<String> names = createCollidingNames(40);
+        for (int i = 0; i < names.size(); ++i) {
+            store.put(names.get(i), i);
+        }
+
+        //Remove every other variable.  Variables after each hole in the probe chain must still be found.
+        for (int i = 0; i < names.size(); i += 2) {
+            assertTrue(store.remove(names.get(i)));
+        }
+        for (int i = 0; i < names.size(); ++i) {
+            assertEquals(i % 2 != 0, store.isActive(names.get(i)));
+            assertEquals(i % 2 != 0 ? i : -1, store.get(names.get(i), -1), DELTA);
+        }
+        assertEquals(names.size() / 2, store.getActiveVariables().size());
+    }
+
+    @Test
+    public void reinsertionAfterRemoval() {
+        List<String> names = createCollidingNames(20);
+        names.add("throttle");
+        for (String name : names) {
+            store.put(name, 1);
+        }
+        for (String name : names) {
+            assertTrue(store.remove(name));
+        }
+        assertTrue(store.isEmpty());
+        assertTrue(store.getActiveVariables().isEmpty());
+
+        //Put the variables back in reverse order, so they end up in different places in the probe chain.
+        for (int i = names.size() - 1; i >= 0; --i) {
+            store.put(names.get(i), i);
+        }
+        for (int i = 0; i < names.size(); ++i) {
+            assertEquals(i, store.get(names.get(i), -1), DELTA);
+        }
+        assertEquals(new HashSet<>(names), new HashSet<>(store.getActiveVariables()));
+        assertEquals(names.size(), store.getActiveVariables().size());
+    }
+
+    @Test
+    public void removeIfRemovesMatches() {
+        store.put("throttle", 1);
+        store.put("brake", 1);
+        store.put("custom_door", 1);
+        store.put("custom_light", 1);
+
+        List<String> removed = store.removeIf(variable -> variable.startsWith("custom") || variable.equals("brake"));
+        assertEquals(new HashSet<>(Arrays.asList("brake", "custom_door", "custom_light")), new HashSet<>(removed));
+        assertEquals(Arrays.asList("throttle"), store.getActiveVariables());
+    }
+
+    @Test
+    public void matchesMap() {
+        //Random puts and removes, checked against the map this store replaced.
+        List<String> names = createCollidingNames(30);
+        names.addAll(Arrays.asList("throttle", "brake", "engine_rpm_1"));
+        for (int i = 0; i < 30; ++i) {
+            names.add("custom_" + i);
+        }
+        Map<String, Double> expected = new HashMap<>();
+        Random random = new Random(1234);
+        for (int i = 0; i < 5000; ++i) {
+            String name = names.get(random.nextInt(names.size()));
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(name) != null, store.remove(name));
+            } else {
+                double value = random.nextDouble();
+                expected.put(name, value);
+                store.put(name, value);
+            }
+        }
+        for (String name : names) {
+            assertEquals(expected.containsKey(name), store.isActive(name));
+            assertEquals(expected.getOrDefault(name, -1D), store.get(name, -1), DELTA);
+        }
+        assertEquals(expected.keySet(), new HashSet<>(store.getActiveVariables()));
+        assertEquals(expected.size(), store.getActiveVariables().size());
+        assertEquals(expected.isEmpty(), store.isEmpty());
+    }
+}
@@ -0,0 +1,139 @@
+package minecrafttransportsimulator.blocks.tileentities.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import minecrafttransportsimulator.baseclasses.BezierCurve;
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.RotationMatrix;
+
+/**
+ * Tests for {@link RoadLaneIndex}.  Lanes are made from straight curves going along the Z axis,
+ * so which cells their steps are in is known.
+ *
+ * @author don_bruce
+ */
+public class RoadLaneIndexTest {
+    private static final double DELTA = 1E-3;
+
+    /**
+     * Creates a straight curve going from the passed-in start to the passed-in end, both on the Z axis.
+     */
+    private static BezierCurve createCurve(double x, double startZ, double endZ) {
+        return new BezierCurve(new Point3D(x, 0, startZ), new Point3D(x, 0, endZ), new RotationMatrix().setToAngles(new Point3D(0, 0, 0)), new RotationMatrix().setToAngles(new Point3D(0, 180, 0)));
+    }
+
+    private static RoadLane createLane(BezierCurve... curves) {
+        return new RoadLane(new ArrayList<>(Arrays.asList(curves)));
+    }
+
+    @Test
+    public void findsInsertedLanes() {
+        BezierCurve leftCurve = createCurve(0.5, 0.5, 8.5);
+        BezierCurve rightCurve = createCurve(4.5, 0.5, 8.5);
+        RoadLane leftLane = createLane(leftCurve);
+        RoadLane rightLane = createLane(rightCurve);
+        RoadLaneIndex index = new RoadLaneIndex(Arrays.asList(leftLane, rightLane));
+
+        RoadFollowingState state = index.getFollowingState(new Point3D(0.5, 0, 4.5), 0);
+        assertEquals(new RoadFollowingState(leftLane, leftCurve, true, 0), state);
+        assertEquals(4.5, state.getCurrentPoint().z, DELTA);
+        assertEquals(0, state.getCurrentYaw(), DELTA);
+
+        state = index.getFollowingState(new Point3D(4.5, 0, 6.5), 0);
+        assertEquals(new RoadFollowingState(rightLane, rightCurve, true, 0), state);
+        assertEquals(6.5, state.getCurrentPoint().z, DELTA);
+    }
+
+    @Test
+    public void findsLanesGoingTheOtherWay() {
+        BezierCurve curve = createCurve(0.5, 0.5, 8.5);
+        RoadLane lane = createLane(curve);
+        RoadLaneIndex index = new RoadLaneIndex(Collections.singletonList(lane));
+
+        RoadFollowingState state = index.getFollowingState(new Point3D(0.5, 0, 4.5), 180);
+        assertEquals(new RoadFollowingState(lane, curve, false, 0), state);
+        assertEquals(180, state.getCurrentYaw(), DELTA);
+
+        //Facing across the lane isn't following it.
+        assertNull(index.getFollowingState(new Point3D(0.5, 0, 4.5), 90));
+    }
+
+    @Test
+    public void findsLanesInNeighbouringCells() {
+        //This lane is in negative cells, and crosses into positive ones at the end.
+        BezierCurve curve = createCurve(-0.25, -6.5, 1.5);
+        RoadLane lane = createLane(curve);
+        RoadLaneIndex index = new RoadLaneIndex(Collections.singletonList(lane));
+
+        //Positions are in cells next to the lane on the X or Y axis, and close enough to a step to be on it.
+        assertEquals(new RoadFollowingState(lane, curve, true, 0), index.getFollowingState(new Point3D(0.5, 0, -3.9), 0));
+        assertEquals(new RoadFollowingState(lane, curve, true, 0), index.getFollowingState(new Point3D(0.5, 0, 0.1), 0));
+        assertEquals(new RoadFollowingState(lane, curve, true, 0), index.getFollowingState(new Point3D(-0.25, -0.5, -5.5), 0));
+
+        //Positions more than a block from every step aren't on the lane, even if their cell is next to a step's cell.
+        assertNull(index.getFollowingState(new Point3D(1.9, 0, -3.5), 0));
+        assertNull(index.getFollowingState(new Point3D(-0.25, 0, 3.9), 0));
+        assertNull(index.getFollowingState(new Point3D(-0.25, -1.5, -3.5), 0));
+    }
+
+    @Test
+    public void findsLaneCurvesInOrder() {
+        BezierCurve firstCurve = createCurve(0.5, 0.5, 4.5);
+        BezierCurve secondCurve = createCurve(0.5, 4.5, 8.5);
+        RoadLane lane = createLane(firstCurve, secondCurve);
+        RoadLaneIndex index = new RoadLaneIndex(Collections.singletonList(lane));
+
+        assertEquals(new RoadFollowingState(lane, firstCurve, true, 0), index.getFollowingState(new Point3D(0.5, 0, 2.5), 0));
+        assertEquals(new RoadFollowingState(lane, secondCurve, true, 0), index.getFollowingState(new Point3D(0.5, 0, 7.5), 0));
+    }
+
+    @Test
+    public void findsFirstLaneWhereLanesOverlap() {
+        BezierCurve firstCurve = createCurve(0.5, 0.5, 8.5);
+        BezierCurve secondCurve = createCurve(0.5, 0.5, 8.5);
+        RoadLane firstLane = createLane(firstCurve);
+        RoadLane secondLane = createLane(secondCurve);
+
+        RoadFollowingState state = new RoadLaneIndex(Arrays.asList(firstLane, secondLane)).getFollowingState(new Point3D(0.5, 0, 4.5), 0);
+        assertEquals(new RoadFollowingState(firstLane, firstCurve, true, 0), state);
+        state = new RoadLaneIndex(Arrays.asList(secondLane, firstLane)).getFollowingState(new Point3D(0.5, 0, 4.5), 0);
+        assertEquals(new RoadFollowingState(secondLane, secondCurve, true, 0), state);
+    }
+
+    @Test
+    public void removedLanesAreNotFound() {
+        //Indexes don't change once made, so lanes are removed by making a new index without them.
+        BezierCurve keptCurve = createCurve(0.5, 0.5, 8.5);
+        BezierCurve removedCurve = createCurve(0.5, 0.5, 8.5);
+        RoadLane keptLane = createLane(keptCurve);
+        RoadLane removedLane = createLane(removedCurve);
+        RoadLane removedOnlyLane = createLane(createCurve(12.5, 0.5, 8.5));
+        List<RoadLane> lanes = new ArrayList<>(Arrays.asList(removedLane, keptLane, removedOnlyLane));
+        RoadLaneIndex index = new RoadLaneIndex(lanes);
+        assertEquals(new RoadFollowingState(removedLane, removedCurve, true, 0), index.getFollowingState(new Point3D(0.5, 0, 4.5), 0));
+        assertNotNull(index.getFollowingState(new Point3D(12.5, 0, 4.5), 0));
+
+        lanes.remove(removedLane);
+        lanes.remove(removedOnlyLane);
+        index = new RoadLaneIndex(lanes);
+        RoadFollowingState state = index.getFollowingState(new Point3D(0.5, 0, 4.5), 0);
+        assertEquals(new RoadFollowingState(keptLane, keptCurve, true, 0), state);
+        assertNotEquals(new RoadFollowingState(removedLane, removedCurve, true, 0), state);
+        assertNull(index.getFollowingState(new Point3D(12.5, 0, 4.5), 0));
+    }
+
+    @Test
+    public void emptyIndexFindsNothing() {
+        assertNull(new RoadLaneIndex(Collections.emptyList()).getFollowingState(new Point3D(), 0));
+    }
+}
@@ -0,0 +1,92 @@
+package minecrafttransportsimulator.packets.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+
+/**
+ * Tests for {@link PacketBatch}.
+ *
+ * @author don_bruce
+ */
+public class PacketBatchTest {
+
+    private static ByteBuf createData(int value) {
+        ByteBuf data = Unpooled.buffer();
+        data.writeInt(value);
+        return data;
+    }
+
+    @Test
+    public void replacedStateIsDroppedAndReleased() {
+        PacketBatch batch = new PacketBatch();
+        ByteBuf firstSet = createData(1);
+        ByteBuf increment = createData(2);
+        ByteBuf secondSet = createData(3);
+        batch.add(new TestPacket("speed", true), firstSet);
+        batch.add(new TestPacket("speed", false), increment);
+        batch.add(new TestPacket("speed", true), secondSet);
+
+        //Increments depend on the state before them, so only a set right before another set is dropped.
+        assertSame(firstSet, batch.getPacketData().get(0));
+        assertSame(increment, batch.getPacketData().get(1));
+        assertSame(secondSet, batch.getPacketData().get(2));
+
+        ByteBuf thirdSet = createData(4);
+        batch.add(new TestPacket("speed", true), thirdSet);
+        assertNull(batch.getPacketData().get(2));
+        assertEquals(0, secondSet.refCnt());
+        assertEquals(1, thirdSet.refCnt());
+    }
+
+    @Test
+    public void sharedDataIsReleasedByEachBatch() {
+        ByteBuf data = createData(5);
+        PacketBatch firstBatch = new PacketBatch();
+        PacketBatch secondBatch = new PacketBatch();
+        firstBatch.add(new TestPacket(null, false), data.retainedSlice());
+        secondBatch.add(new TestPacket(null, false), data.retainedSlice());
+        data.release();
+
+        //Data must live until the last batch holding it is cleared.
+        firstBatch.clear();
+        assertTrue(firstBatch.isEmpty());
+        assertEquals(1, data.refCnt());
+        ByteBuf queuedData = secondBatch.getPacketData().get(0);
+        assertEquals(5, queuedData.getInt(queuedData.readerIndex()));
+        secondBatch.clear();
+        assertEquals(0, data.refCnt());
+    }
+
+    private static class TestPacket extends APacketBase {
+        private final String stateKey;
+        private final boolean replacesState;
+
+        private TestPacket(String stateKey, boolean replacesState) {
+            super(null);
+            this.stateKey = stateKey;
+            this.replacesState = replacesState;
+        }
+
+        @Override
+        public String getStateKey() {
+            return stateKey;
+        }
+
+        @Override
+        public boolean replacesState() {
+            return replacesState;
+        }
+
+        @Override
+        public void handle(AWrapperWorld world) {
+        }
+    }
+}
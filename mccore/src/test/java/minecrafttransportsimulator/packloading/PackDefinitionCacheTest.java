@@ -0,0 +1,192 @@
+package minecrafttransportsimulator.packloading;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.ZipEntry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import minecrafttransportsimulator.baseclasses.ColorRGB;
+import minecrafttransportsimulator.items.components.AItemBase;
+import minecrafttransportsimulator.jsondefs.JSONPanel;
+import minecrafttransportsimulator.jsondefs.JSONPanel.JSONPanelMain;
+import minecrafttransportsimulator.mcinterface.IInterfaceCore;
+import minecrafttransportsimulator.mcinterface.IWrapperItemStack;
+import minecrafttransportsimulator.mcinterface.IWrapperNBT;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+
+/**
+ * Tests for {@link PackDefinitionCache}, using a temporary game directory.
+ *
+ * @author don_bruce
+ */
+public class PackDefinitionCacheTest {
+    private static final String ENTRY_NAME = "assets/testpack/jsondefs/panels/panel.json";
+
+    @Rule
+    public final TemporaryFolder gameFolder = new TemporaryFolder();
+    private String priorGameDirectory;
+    private IInterfaceCore priorCoreInterface;
+
+    @Before
+    public void setUp() {
+        priorGameDirectory = InterfaceManager.gameDirectory;
+        priorCoreInterface = InterfaceManager.coreInterface;
+        InterfaceManager.gameDirectory = gameFolder.getRoot().getAbsolutePath();
+        InterfaceManager.coreInterface = new TestInterfaceCore();
+    }
+
+    @After
+    public void tearDown() {
+        InterfaceManager.gameDirectory = priorGameDirectory;
+        InterfaceManager.coreInterface = priorCoreInterface;
+    }
+
+    private static JSONPanel createPanel() {
+        JSONPanel panel = new JSONPanel();
+        panel.panel = new JSONPanelMain();
+        panel.panel.texture = "testpack:textures/panel.png";
+        panel.panel.textColor = new ColorRGB(200, 50, 80, true);
+        panel.panel.litTextColor = new ColorRGB(0.123F, 0.456F, 0.789F, false);
+        return panel;
+    }
+
+    private static PackDefinitionCache createCache(File packJar) {
+        PackDefinitionCache cache = new PackDefinitionCache(packJar);
+        ZipEntry entry = new ZipEntry(ENTRY_NAME);
+        entry.setSize(100);
+        entry.setCrc(12345);
+        cache.addEntry(entry);
+        return cache;
+    }
+
+    private static void assertColorEquals(ColorRGB expected, ColorRGB actual) {
+        assertNotNull(actual);
+        assertEquals(expected.red, actual.red, 0);
+        assertEquals(expected.green, actual.green, 0);
+        assertEquals(expected.blue, actual.blue, 0);
+        assertEquals(expected.rgbInt, actual.rgbInt);
+        assertArrayEquals(expected.hsv, actual.hsv);
+    }
+
+    @Test
+    public void colorsSurviveExport() throws IOException {
+        JSONPanel panel = createPanel();
+        JSONPanel cachedPanel = JSONParser.parseCachedDefinition(JSONParser.exportCachedDefinition(panel), JSONPanel.class);
+        assertEquals(panel.panel.texture, cachedPanel.panel.texture);
+        assertColorEquals(panel.panel.textColor, cachedPanel.panel.textColor);
+        assertColorEquals(panel.panel.litTextColor, cachedPanel.panel.litTextColor);
+    }
+
+    @Test
+    public void definitionsSurviveSaveAndLoad() throws IOException {
+        File packJar = gameFolder.newFile("testpack.jar");
+        PackDefinitionCache cache = createCache(packJar);
+        cache.load();
+        assertNull(cache.getDefinition(ENTRY_NAME, JSONPanel.class));
+        JSONPanel panel = createPanel();
+        cache.putDefinition(ENTRY_NAME, panel);
+        cache.save();
+
+        PackDefinitionCache loadedCache = createCache(packJar);
+        loadedCache.load();
+        JSONPanel cachedPanel = loadedCache.getDefinition(ENTRY_NAME, JSONPanel.class);
+        assertNotNull(cachedPanel);
+        assertColorEquals(panel.panel.textColor, cachedPanel.panel.textColor);
+        assertColorEquals(panel.panel.litTextColor, cachedPanel.panel.litTextColor);
+    }
+
+    @Test
+    public void jarsWithSameNameHaveSeparateCaches() throws IOException {
+        File firstJar = new File(gameFolder.newFolder("mods"), "testpack.jar");
+        File secondJar = new File(gameFolder.newFolder("othermods"), "testpack.jar");
+        PackDefinitionCache firstCache = createCache(firstJar);
+        firstCache.putDefinition(ENTRY_NAME, createPanel());
+        firstCache.save();
+
+        PackDefinitionCache secondCache = createCache(secondJar);
+        secondCache.load();
+        assertNull(secondCache.getDefinition(ENTRY_NAME, JSONPanel.class));
+    }
+
+    /**
+     * Core interface with just enough to make caches.
+     */
+    private static class TestInterfaceCore implements IInterfaceCore {
+        @Override
+        public boolean isGameFlattened() {
+            return false;
+        }
+
+        @Override
+        public boolean isModPresent(String modID) {
+            return false;
+        }
+
+        @Override
+        public boolean isFluidValid(String fluidID) {
+            return false;
+        }
+
+        @Override
+        public String getModName(String modID) {
+            return modID;
+        }
+
+        @Override
+        public String getModVersion(String modID) {
+            return "test";
+        }
+
+        @Override
+        public InputStream getPackResource(String resource) {
+            return null;
+        }
+
+        @Override
+        public void logError(String message) {
+            throw new AssertionError(message);
+        }
+
+        @Override
+        public IWrapperNBT getNewNBTWrapper() {
+            return null;
+        }
+
+        @Override
+        public IWrapperItemStack getAutoGeneratedStack(AItemBase item, IWrapperNBT data) {
+            return null;
+        }
+
+        @Override
+        public IWrapperItemStack getStackForProperties(String name, int meta, int qty) {
+            return null;
+        }
+
+        @Override
+        public String getStackItemName(IWrapperItemStack stack) {
+            return null;
+        }
+
+        @Override
+        public boolean isOredictMatch(IWrapperItemStack stackA, IWrapperItemStack stackB) {
+            return false;
+        }
+
+        @Override
+        public List<IWrapperItemStack> getOredictMaterials(String oreName, int stackSize) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package minecrafttransportsimulator.rendering;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+
+/**
+ * Tests for {@link CompiledModelCache}, using a temporary game directory.
+ *
+ * @author don_bruce
+ */
+public class CompiledModelCacheTest {
+    private static final int FLOATS_PER_VERTEX = 8;
+    private static final int VERTICES_PER_QUAD = 6;
+
+    @Rule
+    public final TemporaryFolder gameFolder = new TemporaryFolder();
+    private String priorGameDirectory;
+
+    @Before
+    public void setUp() {
+        priorGameDirectory = InterfaceManager.gameDirectory;
+        InterfaceManager.gameDirectory = gameFolder.getRoot().getAbsolutePath();
+    }
+
+    @After
+    public void tearDown() {
+        InterfaceManager.gameDirectory = priorGameDirectory;
+    }
+
+    private static RenderableVertices createQuad(String name) {
+        FloatBuffer vertices = FloatBuffer.allocate(VERTICES_PER_QUAD * FLOATS_PER_VERTEX);
+        for (int i = 0; i < vertices.capacity(); ++i) {
+            vertices.put(i);
+        }
+        vertices.flip();
+        return new RenderableVertices(name, vertices, true);
+    }
+
+    @Test
+    public void loadedWindowsCanBeModifiedOnceCopied() {
+        String key = CompiledModelCache.getKey(".obj", new byte[] { 1, 2, 3 });
+        List<RenderableVertices> objects = new ArrayList<>();
+        objects.add(createQuad("window_front"));
+        CompiledModelCache.save(key, objects);
+
+        List<RenderableVertices> loadedObjects = CompiledModelCache.load(key);
+        assertNotNull(loadedObjects);
+        RenderableVertices loadedWindow = loadedObjects.get(0);
+        assertTrue(loadedWindow.vertices.isReadOnly());
+
+        RenderableVertices window = loadedWindow.createWritableCopy();
+        assertFalse(window.vertices.isReadOnly());
+        assertEquals(loadedWindow.vertices.limit(), window.vertices.limit());
+        assertEquals(0, window.vertices.position());
+        for (int i = 0; i < window.vertices.limit(); ++i) {
+            assertEquals(i, window.vertices.get(i), 0);
+        }
+
+        window.setTextureBounds(0, 1, 0, 1);
+        for (int vertex = 0; vertex < VERTICES_PER_QUAD; ++vertex) {
+            float u = window.vertices.get(vertex * FLOATS_PER_VERTEX + 3);
+            float v = window.vertices.get(vertex * FLOATS_PER_VERTEX + 4);
+            assertTrue(u == 0 || u == 1);
+            assertTrue(v == 0 || v == 1);
+        }
+
+        //Backfaces are made from the copy after bounds are set, and the loaded data must not change.
+        assertEquals(window.vertices.limit(), window.createBackface().vertices.limit());
+        assertEquals(3, loadedWindow.vertices.get(3), 0);
+    }
+}
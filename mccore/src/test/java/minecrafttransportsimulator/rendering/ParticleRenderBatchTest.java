@@ -0,0 +1,166 @@
+package minecrafttransportsimulator.rendering;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.RotationMatrix;
+import minecrafttransportsimulator.mcinterface.IInterfaceRender;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.rendering.RecordingInterfaceRender.CallType;
+import minecrafttransportsimulator.rendering.RecordingInterfaceRender.RecordedCall;
+
+/**
+ * Tests for {@link ParticleRenderBatch}, checked against a {@link RecordingInterfaceRender}.
+ *
+ * @author don_bruce
+ */
+public class ParticleRenderBatchTest {
+    private static final int FLOATS_PER_VERTEX = 8;
+    private static final int FLOATS_PER_SPRITE = 6 * FLOATS_PER_VERTEX;
+    private static final float DELTA = 1E-4F;
+    private static final RenderableVertices SPRITE = RenderableVertices.createSprite(1, null, null);
+
+    private RecordingInterfaceRender renderer;
+    private IInterfaceRender priorRenderer;
+    private ParticleRenderBatch batch;
+
+    @Before
+    public void setUp() {
+        priorRenderer = InterfaceManager.renderingInterface;
+        renderer = new RecordingInterfaceRender();
+        InterfaceManager.renderingInterface = renderer;
+        batch = new ParticleRenderBatch();
+    }
+
+    @After
+    public void tearDown() {
+        InterfaceManager.renderingInterface = priorRenderer;
+    }
+
+    private static RenderableData createParticle(double x, double y, double z) {
+        RenderableData data = new RenderableData(SPRITE, "smoke");
+        data.transform.setTranslation(x, y, z);
+        return data;
+    }
+
+    private List<RecordedCall> getRenders() {
+        List<RecordedCall> renders = new ArrayList<>();
+        for (RecordedCall call : renderer.calls) {
+            if (call.type == CallType.RENDER) {
+                renders.add(call);
+            }
+        }
+        return renders;
+    }
+
+    @Test
+    public void sameStateRendersInOneCall() {
+        batch.add(createParticle(1, 0, 0));
+        batch.add(createParticle(0, 5, 0));
+        assertEquals(1, batch.getRenderCount());
+        batch.render();
+
+        List<RecordedCall> renders = getRenders();
+        assertEquals(1, renders.size());
+        float[] vertices = renders.get(0).vertices;
+        assertEquals(2 * FLOATS_PER_SPRITE, vertices.length);
+        for (int index = 0; index < FLOATS_PER_SPRITE; index += FLOATS_PER_VERTEX) {
+            assertEquals(SPRITE.vertices.get(index + 5) + 1, vertices[index + 5], DELTA);
+            assertEquals(SPRITE.vertices.get(index + 6) + 5, vertices[FLOATS_PER_SPRITE + index + 6], DELTA);
+        }
+
+        //The batch is rendered where it is, the particles' transforms are already in the vertices.
+        assertEquals(0, renders.get(0).renderTransform.m03, 0);
+        assertEquals(0, renders.get(0).renderTransform.m13, 0);
+    }
+
+    @Test
+    public void differentStatesRenderSeparately() {
+        RenderableData fadedParticle = createParticle(0, 0, 0);
+        fadedParticle.setAlpha(0.5F);
+        RenderableData otherTextureParticle = createParticle(0, 0, 0);
+        otherTextureParticle.setTexture("flame");
+        batch.add(createParticle(0, 0, 0));
+        batch.add(fadedParticle);
+        batch.add(otherTextureParticle);
+        batch.add(createParticle(0, 0, 0));
+        batch.render();
+
+        List<RecordedCall> renders = getRenders();
+        assertEquals(3, renders.size());
+        assertEquals(2 * FLOATS_PER_SPRITE, renders.get(0).vertices.length);
+        assertEquals("smoke", renders.get(1).texture);
+        assertTrue(renders.get(1).isTranslucent);
+        assertEquals("flame", renders.get(2).texture);
+    }
+
+    @Test
+    public void batchIsEmptyAfterRender() {
+        batch.add(createParticle(0, 0, 0));
+        batch.render();
+        renderer.calls.clear();
+
+        batch.render();
+        assertEquals(0, renderer.calls.size());
+
+        //Re-used buffers must not keep vertices or forced state from the last render.
+        RenderableData solidParticle = createParticle(0, 0, 0);
+        batch.add(solidParticle);
+        batch.render();
+        assertEquals(FLOATS_PER_SPRITE, getRenders().get(0).vertices.length);
+        assertEquals(solidParticle.isTranslucent, getRenders().get(0).isTranslucent);
+    }
+
+    @Test
+    public void batchGrowsPastInitialSize() {
+        for (int i = 0; i < 100; ++i) {
+            batch.add(createParticle(i, 0, 0));
+        }
+        batch.render();
+
+        List<RecordedCall> renders = getRenders();
+        assertEquals(1, renders.size());
+        float[] vertices = renders.get(0).vertices;
+        assertEquals(100 * FLOATS_PER_SPRITE, vertices.length);
+        assertEquals(SPRITE.vertices.get(5) + 99, vertices[99 * FLOATS_PER_SPRITE + 5], DELTA);
+    }
+
+    @Test
+    public void verticesAreTransformed() {
+        RenderableData data = createParticle(3, -2, 7);
+        data.transform.applyRotation(new RotationMatrix().setToAngles(new Point3D(30, 45, 60)));
+        data.transform.applyScaling(2, 2, 2);
+        batch.add(data);
+        batch.render();
+
+        float[] vertices = getRenders().get(0).vertices;
+        FloatBuffer spriteVertices = SPRITE.vertices;
+        Point3D expected = new Point3D();
+        for (int index = 0; index < FLOATS_PER_SPRITE; index += FLOATS_PER_VERTEX) {
+            expected.set(spriteVertices.get(index), spriteVertices.get(index + 1), spriteVertices.get(index + 2)).rotate(data.transform).normalize();
+            assertEquals(expected.x, vertices[index], DELTA);
+            assertEquals(expected.y, vertices[index + 1], DELTA);
+            assertEquals(expected.z, vertices[index + 2], DELTA);
+            assertEquals(spriteVertices.get(index + 3), vertices[index + 3], 0);
+            assertEquals(spriteVertices.get(index + 4), vertices[index + 4], 0);
+            expected.set(spriteVertices.get(index + 5), spriteVertices.get(index + 6), spriteVertices.get(index + 7)).transform(data.transform);
+            assertEquals(expected.x, vertices[index + 5], DELTA);
+            assertEquals(expected.y, vertices[index + 6], DELTA);
+            assertEquals(expected.z, vertices[index + 7], DELTA);
+        }
+
+        //Source vertices must be left where they were, as they're shared between particles.
+        assertEquals(0, spriteVertices.position());
+        assertNotEquals(0, spriteVertices.limit());
+    }
+}
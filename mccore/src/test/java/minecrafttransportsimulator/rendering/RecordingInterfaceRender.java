@@ -0,0 +1,191 @@
+package minecrafttransportsimulator.rendering;
+
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.guis.components.GUIComponentItem;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.mcinterface.IInterfaceRender;
+import minecrafttransportsimulator.rendering.GIFParser.ParsedGIF;
+
+/**
+ * Headless render interface that records render calls rather than making them.
+ * Cached objects are queued the same way the 1.12.2 interface does it, so the queue can be
+ * checked without a game.  Positioning of entities is tracked as an offset, as OpenGL would
+ * have done it, and recorded renders have their final position relative to the camera.
+ *
+ * @author don_bruce
+ */
+public class RecordingInterfaceRender implements IInterfaceRender, RenderQueue.IQueueRenderer {
+    public final List<RecordedCall> calls = new ArrayList<>();
+    /**Threads that prepared and bound URL textures, keyed by URL.**/
+    public final Map<String, Thread> preparedURLTextures = new ConcurrentHashMap<>();
+    public final Map<String, Thread> boundURLTextures = new ConcurrentHashMap<>();
+    private final RenderQueue renderQueue = new RenderQueue();
+    private final TransformationMatrix currentOffset = new TransformationMatrix();
+    private boolean queueRenders;
+
+    /**
+     * Starts queueing renders of cached objects.
+     */
+    public void startRenderQueue() {
+        queueRenders = true;
+    }
+
+    /**
+     * Translates to the passed-in entity offset, like OpenGL would before rendering an entity.
+     */
+    public void setEntityOffset(double x, double y, double z) {
+        currentOffset.resetTransforms().setTranslation(x, y, z);
+        renderQueue.setOffset(x, y, z);
+    }
+
+    /**
+     * Renders all queued renders, and stops queueing.  Like OpenGL, the entity offset
+     * has been popped by the time the queue is flushed.
+     */
+    public void flushRenderQueue() {
+        queueRenders = false;
+        currentOffset.resetTransforms();
+        renderQueue.flush(this);
+    }
+
+    /**
+     * Returns the number of recorded calls of the passed-in type.
+     */
+    public int countCalls(CallType type) {
+        int count = 0;
+        for (RecordedCall call : calls) {
+            if (call.type == type) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void renderVertices(RenderableData data, boolean changedSinceLastRender) {
+        if (queueRenders && data.vertexObject.cacheVertices) {
+            renderQueue.queue(data, changedSinceLastRender);
+        } else {
+            setRenderState(data);
+            renderQueued(data, changedSinceLastRender);
+            clearRenderState(data);
+        }
+    }
+
+    @Override
+    public void setRenderState(RenderableData data) {
+        calls.add(new RecordedCall(CallType.SET_STATE, data, null));
+    }
+
+    @Override
+    public void renderQueued(RenderableData data, boolean changedSinceLastRender) {
+        calls.add(new RecordedCall(CallType.RENDER, data, new TransformationMatrix(currentOffset).multiply(data.transform)));
+    }
+
+    @Override
+    public void clearRenderState(RenderableData data) {
+        calls.add(new RecordedCall(CallType.CLEAR_STATE, data, null));
+    }
+
+    @Override
+    public void deleteVertices(RenderableData data) {
+        renderQueue.remove(data);
+    }
+
+    @Override
+    public float[] getBlockBreakTexture(AWrapperWorld world, Point3D position) {
+        return new float[4];
+    }
+
+    @Override
+    public float[] getDefaultBlockTexture(String name) {
+        return new float[4];
+    }
+
+    @Override
+    public boolean isBoxInView(BoundingBox box) {
+        return true;
+    }
+
+    @Override
+    public InputStream getTextureStream(String name) {
+        return null;
+    }
+
+    @Override
+    public void prefetchTexture(String textureLocation) {
+    }
+
+    @Override
+    public void renderItemModel(GUIComponentItem component) {
+    }
+
+    @Override
+    public void prepareURLTexture(String textureURL, BufferedImage image) {
+        preparedURLTextures.put(textureURL, Thread.currentThread());
+    }
+
+    @Override
+    public boolean bindURLTexture(String textureURL, BufferedImage image) {
+        boundURLTextures.put(textureURL, Thread.currentThread());
+        return image != null;
+    }
+
+    @Override
+    public boolean bindURLGIF(String textureURL, ParsedGIF gif) {
+        return true;
+    }
+
+    @Override
+    public int getLightingAtPosition(Point3D position) {
+        return 0;
+    }
+
+    @Override
+    public boolean shouldRenderBoundingBoxes() {
+        return false;
+    }
+
+    public static enum CallType {
+        SET_STATE,
+        RENDER,
+        CLEAR_STATE;
+    }
+
+    /**
+     * A recorded call.  State is copied from the data at the time of the call, as the data may change after.
+     */
+    public static class RecordedCall {
+        public final CallType type;
+        public final RenderableData data;
+        public final String texture;
+        public final RenderableData.LightingMode lightingMode;
+        public final boolean isTranslucent;
+        public final TransformationMatrix renderTransform;
+        public final float[] vertices;
+
+        private RecordedCall(CallType type, RenderableData data, TransformationMatrix renderTransform) {
+            this.type = type;
+            this.data = data;
+            this.texture = data.texture;
+            this.lightingMode = data.lightingMode;
+            this.isTranslucent = data.isTranslucent;
+            this.renderTransform = renderTransform;
+            if (type == CallType.RENDER) {
+                this.vertices = new float[data.vertexObject.vertices.remaining()];
+                data.vertexObject.vertices.duplicate().get(vertices);
+            } else {
+                this.vertices = null;
+            }
+        }
+    }
+}
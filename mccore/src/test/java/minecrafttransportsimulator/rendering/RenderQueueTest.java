@@ -0,0 +1,240 @@
+package minecrafttransportsimulator.rendering;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import minecrafttransportsimulator.rendering.RecordingInterfaceRender.CallType;
+import minecrafttransportsimulator.rendering.RecordingInterfaceRender.RecordedCall;
+import minecrafttransportsimulator.rendering.RenderableData.LightingMode;
+
+/**
+ * Tests for {@link RenderQueue}, checked against a {@link RecordingInterfaceRender}.
+ *
+ * @author don_bruce
+ */
+public class RenderQueueTest {
+    private static final double DELTA = 1E-9;
+    private RecordingInterfaceRender renderer;
+
+    @Before
+    public void setUp() {
+        renderer = new RecordingInterfaceRender();
+    }
+
+    private static RenderableData createData(String name, String texture, boolean cacheVertices) {
+        return new RenderableData(new RenderableVertices(name, FloatBuffer.allocate(8), cacheVertices), texture);
+    }
+
+    private List<RecordedCall> getRenders() {
+        List<RecordedCall> renders = new ArrayList<>();
+        for (RecordedCall call : renderer.calls) {
+            if (call.type == CallType.RENDER) {
+                renders.add(call);
+            }
+        }
+        return renders;
+    }
+
+    @Test
+    public void queuedRendersKeepEntityOffset() {
+        RenderableData data = createData("body", "texture_a", true);
+        data.transform.resetTransforms().setTranslation(1, 2, 3);
+
+        renderer.startRenderQueue();
+        renderer.setEntityOffset(100, 200, 300);
+        renderer.renderVertices(data, false);
+        assertEquals(0, renderer.calls.size());
+        renderer.flushRenderQueue();
+
+        List<RecordedCall> renders = getRenders();
+        assertEquals(1, renders.size());
+        assertEquals(101, renders.get(0).renderTransform.m03, DELTA);
+        assertEquals(202, renders.get(0).renderTransform.m13, DELTA);
+        assertEquals(303, renders.get(0).renderTransform.m23, DELTA);
+
+        //The offset is only for rendering, the data should be as it was.
+        assertEquals(1, data.transform.m03, DELTA);
+        assertEquals(2, data.transform.m13, DELTA);
+        assertEquals(3, data.transform.m23, DELTA);
+    }
+
+    @Test
+    public void sameDataQueuedFromTwoEntitiesRendersAtBoth() {
+        RenderableData data = createData("wheel", "texture_a", true);
+
+        renderer.startRenderQueue();
+        renderer.setEntityOffset(10, 0, 0);
+        renderer.renderVertices(data, false);
+        renderer.setEntityOffset(-10, 0, 0);
+        renderer.renderVertices(data, false);
+        renderer.flushRenderQueue();
+
+        List<RecordedCall> renders = getRenders();
+        assertEquals(2, renders.size());
+        assertEquals(10, renders.get(0).renderTransform.m03, DELTA);
+        assertEquals(-10, renders.get(1).renderTransform.m03, DELTA);
+    }
+
+    @Test
+    public void rendersAreGroupedByState() {
+        List<RenderableData> datas = new ArrayList<>();
+        for (int i = 0; i < 6; ++i) {
+            datas.add(createData("object" + i, i % 2 == 0 ? "texture_a" : "texture_b", true));
+        }
+        datas.get(5).setLightMode(LightingMode.IGNORE_ALL_LIGHTING);
+
+        renderer.startRenderQueue();
+        for (int i = 0; i < datas.size(); ++i) {
+            renderer.setEntityOffset(i, 0, 0);
+            renderer.renderVertices(datas.get(i), false);
+        }
+        renderer.flushRenderQueue();
+
+        //Three states: texture_a, texture_b, and texture_b without lighting.
+        assertEquals(3, renderer.countCalls(CallType.SET_STATE));
+        assertEquals(3, renderer.countCalls(CallType.CLEAR_STATE));
+        assertEquals(6, renderer.countCalls(CallType.RENDER));
+
+        //Every render must be between a set and clear of the same state.
+        RecordedCall stateCall = null;
+        for (RecordedCall call : renderer.calls) {
+            if (call.type == CallType.SET_STATE) {
+                stateCall = call;
+            } else {
+                assertEquals(stateCall.texture, call.texture);
+                assertSame(stateCall.lightingMode, call.lightingMode);
+                if (call.type == CallType.CLEAR_STATE) {
+                    stateCall = null;
+                }
+            }
+        }
+
+        //Renders with the same state stay in queue order, and keep their own offset.
+        List<RecordedCall> renders = getRenders();
+        assertSame(datas.get(0), renders.get(0).data);
+        assertSame(datas.get(2), renders.get(1).data);
+        assertSame(datas.get(4), renders.get(2).data);
+        for (RecordedCall render : renders) {
+            assertEquals(datas.indexOf(render.data), render.renderTransform.m03, DELTA);
+        }
+    }
+
+    @Test
+    public void translucentRendersAreLast() {
+        RenderableData translucentData = createData("window_translucent", "texture_a", true);
+        RenderableData solidData = createData("body", "texture_a", true);
+
+        renderer.startRenderQueue();
+        renderer.renderVertices(translucentData, false);
+        renderer.renderVertices(solidData, false);
+        renderer.flushRenderQueue();
+
+        List<RecordedCall> renders = getRenders();
+        assertSame(solidData, renders.get(0).data);
+        assertSame(translucentData, renders.get(1).data);
+        assertEquals(2, renderer.countCalls(CallType.SET_STATE));
+    }
+
+    @Test
+    public void translucentRendersKeepQueueOrder() {
+        RenderableData glassA = createData("glass_translucent", "texture_a", true);
+        RenderableData glassB = createData("glass_translucent", "texture_b", true);
+        RenderableData otherGlassA = createData("other_translucent", "texture_a", true);
+        RenderableData lastGlassA = createData("last_translucent", "texture_a", true);
+
+        renderer.startRenderQueue();
+        renderer.renderVertices(glassA, false);
+        renderer.renderVertices(glassB, false);
+        renderer.renderVertices(otherGlassA, false);
+        renderer.renderVertices(lastGlassA, false);
+        renderer.flushRenderQueue();
+
+        //Translucent renders must not be grouped out of order, as that changes how they blend.
+        //Only the adjacent renders with texture_a at the end share their state.
+        List<RecordedCall> renders = getRenders();
+        assertSame(glassA, renders.get(0).data);
+        assertSame(glassB, renders.get(1).data);
+        assertSame(otherGlassA, renders.get(2).data);
+        assertSame(lastGlassA, renders.get(3).data);
+        assertEquals(3, renderer.countCalls(CallType.SET_STATE));
+        assertEquals(3, renderer.countCalls(CallType.CLEAR_STATE));
+    }
+
+    @Test
+    public void queuedStateIsSnapshotted() {
+        RenderableData data = createData("body", "texture_a", true);
+
+        renderer.startRenderQueue();
+        renderer.renderVertices(data, false);
+        data.setTexture("texture_b");
+        data.transform.setTranslation(5, 5, 5);
+        renderer.renderVertices(data, false);
+        renderer.flushRenderQueue();
+
+        List<RecordedCall> renders = getRenders();
+        assertEquals("texture_a", renders.get(0).texture);
+        assertEquals(0, renders.get(0).renderTransform.m03, DELTA);
+        assertEquals("texture_b", renders.get(1).texture);
+        assertEquals(5, renders.get(1).renderTransform.m03, DELTA);
+
+        //Data should be left as it was last queued.
+        assertEquals("texture_b", data.texture);
+        assertEquals(5, data.transform.m03, DELTA);
+    }
+
+    @Test
+    public void uncachedRendersAreNotQueued() {
+        RenderableData data = createData("text", "texture_a", false);
+
+        renderer.startRenderQueue();
+        renderer.setEntityOffset(7, 0, 0);
+        renderer.renderVertices(data, false);
+        assertEquals(1, renderer.countCalls(CallType.RENDER));
+        assertEquals(7, getRenders().get(0).renderTransform.m03, DELTA);
+        renderer.flushRenderQueue();
+        assertEquals(1, renderer.countCalls(CallType.RENDER));
+    }
+
+    @Test
+    public void deletedDataIsNotRendered() {
+        RenderableData deletedData = createData("deleted", "texture_a", true);
+        RenderableData keptData = createData("kept", "texture_a", true);
+
+        renderer.startRenderQueue();
+        renderer.renderVertices(deletedData, false);
+        renderer.renderVertices(keptData, false);
+        renderer.renderVertices(deletedData, false);
+        renderer.deleteVertices(deletedData);
+        renderer.flushRenderQueue();
+
+        List<RecordedCall> renders = getRenders();
+        assertEquals(1, renders.size());
+        assertSame(keptData, renders.get(0).data);
+    }
+
+    @Test
+    public void offsetIsResetAfterFlush() {
+        RenderableData data = createData("body", "texture_a", true);
+
+        renderer.startRenderQueue();
+        renderer.setEntityOffset(50, 0, 0);
+        renderer.renderVertices(data, false);
+        renderer.flushRenderQueue();
+
+        renderer.startRenderQueue();
+        renderer.renderVertices(data, false);
+        renderer.flushRenderQueue();
+
+        List<RecordedCall> renders = getRenders();
+        assertEquals(50, renders.get(0).renderTransform.m03, DELTA);
+        assertNotEquals(50, renders.get(1).renderTransform.m03, DELTA);
+    }
+}
@@ -0,0 +1,125 @@
+package minecrafttransportsimulator.rendering;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.RotationMatrix;
+import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+
+/**
+ * Tests for the baked tread links of {@link RenderableModelObject}.  Links are checked against
+ * the running transform treads used before they were baked, which rendered each link on its own.
+ *
+ * @author don_bruce
+ */
+public class TreadLinksTest {
+    private static final int FLOATS_PER_VERTEX = 8;
+    private static final float DELTA = 1E-4F;
+    private static final RenderableVertices LINK = RenderableVertices.createSprite(1, null, null);
+
+    /**
+     * Creates points around a loop.  Angles wrap past 360 partway around, like real treads do.
+     */
+    private static List<double[]> createPoints() {
+        List<double[]> points = new ArrayList<>();
+        for (int i = 0; i <= 12; ++i) {
+            double angle = (200 + 30 * i) % 360;
+            points.add(new double[] { 2 * Math.cos(Math.toRadians(angle)), 3 * Math.sin(Math.toRadians(angle)), angle });
+        }
+        return points;
+    }
+
+    /**
+     * Returns the transform of each link the way treads did before links were baked: a running translation
+     * from point to point, with each link rotated on its own.
+     */
+    private static List<TransformationMatrix> getUnbakedTransforms(List<double[]> points, float treadMovementPercentage) {
+        List<TransformationMatrix> transforms = new ArrayList<>();
+        TransformationMatrix transform = new TransformationMatrix();
+        RotationMatrix rotation = new RotationMatrix();
+        transform.applyTranslation(0, points.get(0)[0], points.get(0)[1]);
+        for (int i = 0; i < points.size() - 1; ++i) {
+            double[] point = points.get(i);
+            double[] nextPoint = points.get(i + 1);
+            double angleDelta = nextPoint[2] - point[2];
+            double yDelta = nextPoint[0] - point[0];
+            double zDelta = nextPoint[1] - point[1];
+            if (angleDelta > 180) {
+                angleDelta -= 360;
+            } else if (angleDelta < -180) {
+                angleDelta += 360;
+            }
+            transform.applyTranslation(0, yDelta * treadMovementPercentage, zDelta * treadMovementPercentage);
+            TransformationMatrix linkTransform = new TransformationMatrix().set(transform);
+            linkTransform.applyRotation(rotation.setToAxisAngle(1, 0, 0, point[2] + angleDelta * treadMovementPercentage));
+            transforms.add(linkTransform);
+            transform.applyTranslation(0, yDelta * (1 - treadMovementPercentage), zDelta * (1 - treadMovementPercentage));
+        }
+        return transforms;
+    }
+
+    @Test
+    public void bakedLinksMatchUnbakedTransforms() {
+        List<double[]> points = createPoints();
+        float[] links = RenderableModelObject.bakeTreadLinks(points);
+        TransformationMatrix linkTransform = new TransformationMatrix();
+        for (float treadMovementPercentage : new float[] { 0, 0.25F, 0.8F }) {
+            List<TransformationMatrix> unbakedTransforms = getUnbakedTransforms(points, treadMovementPercentage);
+            for (int link = 0; link < unbakedTransforms.size(); ++link) {
+                RenderableModelObject.setTreadLinkTransform(links, link, treadMovementPercentage, linkTransform);
+                TransformationMatrix expected = unbakedTransforms.get(link);
+                assertEquals(expected.m00, linkTransform.m00, DELTA);
+                assertEquals(expected.m11, linkTransform.m11, DELTA);
+                assertEquals(expected.m12, linkTransform.m12, DELTA);
+                assertEquals(expected.m21, linkTransform.m21, DELTA);
+                assertEquals(expected.m22, linkTransform.m22, DELTA);
+                assertEquals(expected.m13, linkTransform.m13, DELTA);
+                assertEquals(expected.m23, linkTransform.m23, DELTA);
+            }
+        }
+    }
+
+    @Test
+    public void treadMeshMatchesUnbakedLinks() {
+        List<double[]> points = createPoints();
+        float[] links = RenderableModelObject.bakeTreadLinks(points);
+        float treadMovementPercentage = 0.4F;
+        List<TransformationMatrix> unbakedTransforms = getUnbakedTransforms(points, treadMovementPercentage);
+
+        RenderableVertices mesh = LINK.createCopyBuffer(unbakedTransforms.size());
+        TransformationMatrix linkTransform = new TransformationMatrix();
+        mesh.vertices.clear();
+        for (int link = 0; link < unbakedTransforms.size(); ++link) {
+            RenderableModelObject.setTreadLinkTransform(links, link, treadMovementPercentage, linkTransform);
+            mesh.addTransformedCopy(LINK, linkTransform);
+        }
+        mesh.vertices.flip();
+
+        FloatBuffer linkVertices = LINK.vertices;
+        FloatBuffer meshVertices = mesh.vertices;
+        assertEquals(linkVertices.limit() * unbakedTransforms.size(), meshVertices.limit());
+        Point3D expected = new Point3D();
+        for (int link = 0; link < unbakedTransforms.size(); ++link) {
+            TransformationMatrix transform = unbakedTransforms.get(link);
+            for (int index = 0; index < linkVertices.limit(); index += FLOATS_PER_VERTEX) {
+                int meshIndex = link * linkVertices.limit() + index;
+                expected.set(linkVertices.get(index), linkVertices.get(index + 1), linkVertices.get(index + 2)).rotate(transform);
+                assertEquals(expected.x, meshVertices.get(meshIndex), DELTA);
+                assertEquals(expected.y, meshVertices.get(meshIndex + 1), DELTA);
+                assertEquals(expected.z, meshVertices.get(meshIndex + 2), DELTA);
+                assertEquals(linkVertices.get(index + 3), meshVertices.get(meshIndex + 3), 0);
+                assertEquals(linkVertices.get(index + 4), meshVertices.get(meshIndex + 4), 0);
+                expected.set(linkVertices.get(index + 5), linkVertices.get(index + 6), linkVertices.get(index + 7)).transform(transform);
+                assertEquals(expected.x, meshVertices.get(meshIndex + 5), DELTA);
+                assertEquals(expected.y, meshVertices.get(meshIndex + 6), DELTA);
+                assertEquals(expected.z, meshVertices.get(meshIndex + 7), DELTA);
+            }
+        }
+    }
+}
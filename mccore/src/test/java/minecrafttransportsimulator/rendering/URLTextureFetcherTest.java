@@ -0,0 +1,212 @@
+package minecrafttransportsimulator.rendering;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import minecrafttransportsimulator.mcinterface.IInterfaceRender;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.rendering.URLTextureFetcher.FetchedTexture;
+
+/**
+ * Tests for {@link URLTextureFetcher}, using a local HTTP server in place of an image host.
+ * The fetcher's disk cache is only set up once, so all tests share one game directory.
+ *
+ * @author don_bruce
+ */
+public class URLTextureFetcherTest {
+    private static final String ETAG = "\"version1\"";
+    private static final long MAX_WAIT_TIME = TimeUnit.SECONDS.toMillis(10);
+
+    @ClassRule
+    public static final TemporaryFolder gameFolder = new TemporaryFolder();
+    private static String priorGameDirectory;
+    private static byte[] imageData;
+
+    private HttpServer server;
+    private String serverAddress;
+    private final AtomicInteger imageRequests = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+    private volatile boolean imageServerDown;
+    private IInterfaceRender priorRenderer;
+    private RecordingInterfaceRender renderer;
+
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        priorGameDirectory = InterfaceManager.gameDirectory;
+        InterfaceManager.gameDirectory = gameFolder.getRoot().getAbsolutePath();
+
+        BufferedImage image = new BufferedImage(4, 2, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(1, 1, 0xFF336699);
+        ByteArrayOutputStream imageStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", imageStream);
+        imageData = imageStream.toByteArray();
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        InterfaceManager.gameDirectory = priorGameDirectory;
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        priorRenderer = InterfaceManager.renderingInterface;
+        renderer = new RecordingInterfaceRender();
+        InterfaceManager.renderingInterface = renderer;
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/image.png", exchange -> {
+            imageRequests.incrementAndGet();
+            if (imageServerDown) {
+                sendResponse(exchange, 500, "text/plain", new byte[0]);
+            } else if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            } else {
+                exchange.getResponseHeaders().add("ETag", ETAG);
+                sendResponse(exchange, 200, "image/png", imageData);
+            }
+        });
+        server.createContext("/page.html", exchange -> sendResponse(exchange, 200, "text/html", "<html></html>".getBytes()));
+        server.createContext("/huge.png", exchange -> {
+            //Only say how big we are, the fetcher should stop there.
+            exchange.getResponseHeaders().add("Content-Type", "image/png");
+            exchange.sendResponseHeaders(200, 64L * 1024 * 1024);
+            exchange.close();
+        });
+        server.createContext("/endless.png", exchange -> {
+            //No length, just keep sending until the fetcher hangs up.
+            exchange.getResponseHeaders().add("Content-Type", "image/png");
+            exchange.sendResponseHeaders(200, 0);
+            byte[] chunk = new byte[64 * 1024];
+            try (OutputStream body = exchange.getResponseBody()) {
+                for (int i = 0; i < 1024; ++i) {
+                    body.write(chunk);
+                }
+            } catch (IOException e) {
+                //Fetcher stopped reading.
+            }
+        });
+        server.start();
+        serverAddress = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        InterfaceManager.renderingInterface = priorRenderer;
+    }
+
+    private static void sendResponse(HttpExchange exchange, int code, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(code, body.length == 0 ? -1 : body.length);
+        try (OutputStream stream = exchange.getResponseBody()) {
+            stream.write(body);
+        }
+    }
+
+    @Test
+    public void unchangedImageIsLoadedFromCache() {
+        String url = serverAddress + "/image.png?etag";
+        FetchedTexture firstTexture = URLTextureFetcher.fetchTexture(url);
+        assertNull(firstTexture.errorString);
+        assertEquals(4, firstTexture.image.getWidth());
+        assertEquals(0, notModifiedResponses.get());
+
+        //The second fetch should send the ETag, and get the image from the cache when the server says it's not modified.
+        FetchedTexture secondTexture = URLTextureFetcher.fetchTexture(url);
+        assertNull(secondTexture.errorString);
+        assertEquals(1, notModifiedResponses.get());
+        assertNotSame(firstTexture.image, secondTexture.image);
+        assertEquals(0xFF336699, secondTexture.image.getRGB(1, 1));
+    }
+
+    @Test
+    public void cachedImageIsUsedWhenServerFails() {
+        String url = serverAddress + "/image.png?fallback";
+        assertNull(URLTextureFetcher.fetchTexture(url).errorString);
+
+        imageServerDown = true;
+        imageRequests.set(0);
+        FetchedTexture texture = URLTextureFetcher.fetchTexture(url);
+        assertNull(texture.errorString);
+        assertEquals(0xFF336699, texture.image.getRGB(1, 1));
+        assertEquals(3, imageRequests.get());
+    }
+
+    @Test
+    public void serverErrorWithoutCacheIsAnError() {
+        imageServerDown = true;
+        FetchedTexture texture = URLTextureFetcher.fetchTexture(serverAddress + "/image.png?uncached");
+        assertNull(texture.image);
+        assertTrue(texture.errorString, texture.errorString.startsWith("ERROR: Could not open URL"));
+    }
+
+    @Test
+    public void unreachableServerIsAnError() {
+        String url = serverAddress + "/image.png?unreachable";
+        server.stop(0);
+        FetchedTexture texture = URLTextureFetcher.fetchTexture(url);
+        assertNull(texture.image);
+        assertTrue(texture.errorString, texture.errorString.startsWith("ERROR: Could not open URL"));
+    }
+
+    @Test
+    public void textIsNotAnImage() {
+        FetchedTexture texture = URLTextureFetcher.fetchTexture(serverAddress + "/page.html");
+        assertNull(texture.image);
+        assertTrue(texture.errorString, texture.errorString.startsWith("ERROR: Found only text"));
+    }
+
+    @Test
+    public void largeImagesAreNotDownloaded() {
+        FetchedTexture texture = URLTextureFetcher.fetchTexture(serverAddress + "/huge.png");
+        assertNull(texture.image);
+        assertTrue(texture.errorString, texture.errorString.startsWith("ERROR: Image is too large"));
+
+        texture = URLTextureFetcher.fetchTexture(serverAddress + "/endless.png");
+        assertNull(texture.image);
+        assertTrue(texture.errorString, texture.errorString.startsWith("ERROR: Image is too large"));
+    }
+
+    @Test
+    public void readyTexturesArePreparedOffRenderThread() throws InterruptedException {
+        String url = serverAddress + "/image.png?ready";
+        long endTime = System.currentTimeMillis() + MAX_WAIT_TIME;
+        while (!URLTextureFetcher.isTextureReady(url)) {
+            assertNull(URLTextureFetcher.getError(url));
+            assertTrue("Texture was not ready in time", System.currentTimeMillis() < endTime);
+            Thread.sleep(10);
+        }
+
+        Thread preparingThread = renderer.preparedURLTextures.get(url);
+        assertNotNull(preparingThread);
+        assertNotSame(Thread.currentThread(), preparingThread);
+        assertEquals(Thread.currentThread(), renderer.boundURLTextures.get(url));
+    }
+}
@@ -87,6 +87,7 @@ public abstract class ABuilderEntityBase extends Entity {
                     IWrapperNBT data = InterfaceManager.coreInterface.getNewNBTWrapper();
                     writeToNBT(((WrapperNBT) data).tag);
                     player.sendPacket(new PacketEntityCSHandshakeServer(this, data));
+                    onDataSent(player);
                 }
                 playersRequestingData.clear();
             }
@@ -98,6 +99,13 @@ public abstract class ABuilderEntityBase extends Entity {
         }
     }
 
+    /**
+     * Called after the passed-in player has been sent the full data for this builder.
+     * Used to let the entity know what that player has, to prevent re-sending the same data.
+     */
+    protected void onDataSent(IWrapperPlayer player) {
+    }
+
     @Override
     public void setPositionAndRotationDirect(double posX, double posY, double posZ, float yaw, float pitch, int posRotationIncrements, boolean teleport) {
         //Overridden due to stupid tracker behavior.
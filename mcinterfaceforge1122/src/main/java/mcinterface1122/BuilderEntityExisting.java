@@ -20,6 +20,7 @@ import minecrafttransportsimulator.items.components.IItemEntityProvider;
 import minecrafttransportsimulator.items.components.IItemEntityProvider.IItemEntityFactory;
 import minecrafttransportsimulator.jsondefs.JSONCollisionGroup.CollisionType;
 import minecrafttransportsimulator.mcinterface.IWrapperItemStack;
+import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packloading.PackParser;
 import minecrafttransportsimulator.systems.ConfigSystem;
@@ -35,6 +36,7 @@ import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import net.minecraftforge.event.RegistryEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.world.ExplosionEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
@@ -246,6 +248,14 @@ public class BuilderEntityExisting extends ABuilderEntityBase {
         return collisionBoxes != null && !collisionBoxes.getBoxes().isEmpty();
     }
 
+    @Override
+    protected void onDataSent(IWrapperPlayer player) {
+        //Client has all our server deltas in this data, so don't send them again.
+        if (entity instanceof EntityVehicleF_Physics) {
+            ((EntityVehicleF_Physics) entity).resetServerDeltas(player);
+        }
+    }
+
     @Override
     public NBTTagCompound writeToNBT(NBTTagCompound tag) {
         super.writeToNBT(tag);
@@ -271,6 +281,20 @@ public class BuilderEntityExisting extends ABuilderEntityBase {
         }
     }
 
+    /**
+     * Vehicles send movement to the players tracking them, so tell them when a player stops tracking them.
+     * Players start tracking them when they are sent the vehicle's data, which is done in {@link #onDataSent(IWrapperPlayer)}.
+     */
+    @SubscribeEvent
+    public static void onIVStopTracking(PlayerEvent.StopTracking event) {
+        if (event.getTarget() instanceof BuilderEntityExisting) {
+            AEntityB_Existing entity = ((BuilderEntityExisting) event.getTarget()).entity;
+            if (entity instanceof EntityVehicleF_Physics) {
+                ((EntityVehicleF_Physics) entity).removeServerDeltas(WrapperPlayer.getWrapperFor(event.getEntityPlayer()));
+            }
+        }
+    }
+
     /**
      * Registers all builder instances that build our own entities into the game.
      */
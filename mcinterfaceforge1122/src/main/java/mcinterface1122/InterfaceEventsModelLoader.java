@@ -16,6 +16,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.lwjgl.opengl.GL11;
 
+import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.entities.components.AEntityC_Renderable;
 import minecrafttransportsimulator.items.components.AItemBase;
 import minecrafttransportsimulator.items.components.AItemPack;
@@ -55,6 +56,7 @@ import net.minecraftforge.fml.relauncher.Side;
 @EventBusSubscriber(Side.CLIENT)
 public class InterfaceEventsModelLoader {
     private static boolean enableDebug = true;
+    private static final Point3D particleCameraPosition = new Point3D();
 
     /**
      * Event that's called to register models.  We register our render wrapper
@@ -73,6 +75,8 @@ public class InterfaceEventsModelLoader {
             @Override
             public boolean shouldRender(BuilderEntityRenderForwarder builder, ICamera camera, double camX, double camY, double camZ) {
                 //Always render the forwarder, no matter where the camera is.
+                //Save the camera though, as we need it to cull the entities we render.
+                InterfaceRender.renderCamera = camera;
                 return true;
             }
 
@@ -99,15 +103,32 @@ public class InterfaceEventsModelLoader {
                         GlStateManager.enableRescaleNormal();
 
                         //Start master profiling section.
+                        //Cached models are queued while rendering entities, and rendered together by state once all entities are done.
+                        InterfaceRender.startRenderQueue();
                         for (AEntityC_Renderable entity : allEntities) {
                             //Rendering system expects coordinates to be at center of entity when called, translate us so that's the case.
+                            //The queue needs to know this too, as the translation will be popped before the queue renders.
                             world.beginProfiling("MTSRendering", true);
+                            double entityOffsetX = entity.position.x - (cameraEntity.lastTickPosX + (cameraEntity.posX - cameraEntity.lastTickPosX) * partialTicks);
+                            double entityOffsetY = entity.position.y - (cameraEntity.lastTickPosY + (cameraEntity.posY - cameraEntity.lastTickPosY) * partialTicks);
+                            double entityOffsetZ = entity.position.z - (cameraEntity.lastTickPosZ + (cameraEntity.posZ - cameraEntity.lastTickPosZ) * partialTicks);
                             GL11.glPushMatrix();
-                            GL11.glTranslated(entity.position.x - (cameraEntity.lastTickPosX + (cameraEntity.posX - cameraEntity.lastTickPosX) * partialTicks), entity.position.y - (cameraEntity.lastTickPosY + (cameraEntity.posY - cameraEntity.lastTickPosY) * partialTicks), entity.position.z - (cameraEntity.lastTickPosZ + (cameraEntity.posZ - cameraEntity.lastTickPosZ) * partialTicks));
+                            GL11.glTranslated(entityOffsetX, entityOffsetY, entityOffsetZ);
+                            InterfaceRender.setRenderQueueOffset(entityOffsetX, entityOffsetY, entityOffsetZ);
                             entity.render(blendingEnabled, partialTicks);
                             GL11.glPopMatrix();
                             world.endProfiling();
                         }
+                        world.beginProfiling("MTSRendering_Queue", true);
+                        InterfaceRender.flushRenderQueue();
+                        world.endProfiling();
+
+                        //Render particles.  These aren't in the entity list, as they are handled by their own manager.
+                        world.beginProfiling("MTSRendering_Particles", true);
+                        //They are rendered in batches relative to the camera, so no translation is done here.
+                        particleCameraPosition.set(cameraEntity.lastTickPosX + (cameraEntity.posX - cameraEntity.lastTickPosX) * partialTicks, cameraEntity.lastTickPosY + (cameraEntity.posY - cameraEntity.lastTickPosY) * partialTicks, cameraEntity.lastTickPosZ + (cameraEntity.posZ - cameraEntity.lastTickPosZ) * partialTicks);
+                        world.particles.render(particleCameraPosition, blendingEnabled, partialTicks);
+                        world.endProfiling();
 
                         //Reset states.
                         GL11.glShadeModel(GL11.GL_FLAT);
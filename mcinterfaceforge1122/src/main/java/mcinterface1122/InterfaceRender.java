@@ -1,6 +1,7 @@
 package mcinterface1122;
 
 import java.awt.image.BufferedImage;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -13,9 +14,11 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.lwjgl.opengl.GL11;
 
+import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
 import minecrafttransportsimulator.guis.components.AGUIBase;
@@ -25,6 +28,7 @@ import minecrafttransportsimulator.mcinterface.IInterfaceRender;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.rendering.GIFParser.GIFImageFrame;
 import minecrafttransportsimulator.rendering.GIFParser.ParsedGIF;
+import minecrafttransportsimulator.rendering.RenderQueue;
 import minecrafttransportsimulator.rendering.RenderableData;
 import minecrafttransportsimulator.rendering.RenderableVertices;
 import net.minecraft.block.state.IBlockState;
@@ -32,10 +36,14 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.OpenGlHelper;
 import net.minecraft.client.renderer.RenderHelper;
+import net.minecraft.client.renderer.culling.ICamera;
+import net.minecraft.client.renderer.texture.SimpleTexture;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.client.renderer.texture.TextureMap;
 import net.minecraft.client.renderer.texture.TextureUtil;
+import net.minecraft.client.resources.IResourceManager;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraftforge.client.event.RenderWorldLastEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
@@ -49,10 +57,16 @@ import net.minecraftforge.fml.relauncher.Side;
  * @author don_bruce
  */
 @EventBusSubscriber(Side.CLIENT)
-public class InterfaceRender implements IInterfaceRender {
+public class InterfaceRender implements IInterfaceRender, RenderQueue.IQueueRenderer {
     private static final DoubleBuffer buffer = ByteBuffer.allocateDirect(16 * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+    /**Size of each vertex in {@link #vertexArrayBuffer}, in bytes.  This is the normal, UV, and position floats.**/
+    private static final int VERTEX_ARRAY_STRIDE = 8 * Float.BYTES;
+    private static FloatBuffer vertexArrayBuffer = createVertexArrayBuffer(6 * 8 * 256);
     private static final Map<String, ResourceLocation> internalTextures = new HashMap<>();
     private static final Map<String, Integer> onlineTextures = new HashMap<>();
+    private static final Map<String, BufferedImage> prefetchedTextures = new ConcurrentHashMap<>();
+    private static final Set<String> boundTextures = ConcurrentHashMap.newKeySet();
+    private static final Map<String, int[]> preparedURLTextures = new ConcurrentHashMap<>();
     private static final Map<String, ParsedGIF> animatedGIFs = new HashMap<>();
     private static final Map<ParsedGIF, Map<GIFImageFrame, Integer>> animatedGIFFrames = new LinkedHashMap<>();
     private static final List<GUIComponentItem> stacksToRender = new ArrayList<>();
@@ -62,6 +76,9 @@ public class InterfaceRender implements IInterfaceRender {
     private static final Map<RenderableVertices, Set<RenderableData>> objectMap = new HashMap<>();
     private static final Map<RenderableVertices, Integer> cachedIndexMap = new HashMap<>();
     protected static int lastRenderPassActualPass;
+    protected static ICamera renderCamera;
+    private static final RenderQueue renderQueue = new RenderQueue();
+    private static boolean queueRenders;
 
     @Override
     public float[] getBlockBreakTexture(AWrapperWorld world, Point3D position) {
@@ -77,6 +94,11 @@ public class InterfaceRender implements IInterfaceRender {
         return new float[]{sprite.getMinU(), sprite.getMaxU(), sprite.getMinV(), sprite.getMaxV()};
     }
 
+    @Override
+    public boolean isBoxInView(BoundingBox box) {
+        return renderCamera == null || renderCamera.isBoundingBoxInFrustum(new AxisAlignedBB(box.globalCenter.x - box.widthRadius, box.globalCenter.y - box.heightRadius, box.globalCenter.z - box.depthRadius, box.globalCenter.x + box.widthRadius, box.globalCenter.y + box.heightRadius, box.globalCenter.z + box.depthRadius));
+    }
+
     @Override
     public InputStream getTextureStream(String name) {
         try {
@@ -88,6 +110,28 @@ public class InterfaceRender implements IInterfaceRender {
         }
     }
 
+    @Override
+    public void prefetchTexture(String textureLocation) {
+        if (boundTextures.contains(textureLocation)) {
+            return;
+        }
+        String formattedLocation = textureLocation;
+        if (textureLocation.contains(":")) {
+            formattedLocation = "/assets/" + textureLocation.replace(":", "/");
+        }
+        try (InputStream stream = getTextureStream(formattedLocation)) {
+            if (stream != null) {
+                prefetchedTextures.put(textureLocation, TextureUtil.readBufferedImage(stream));
+                //If the texture was bound while we were decoding it, it was loaded without our image, so drop it.
+                if (boundTextures.contains(textureLocation)) {
+                    prefetchedTextures.remove(textureLocation);
+                }
+            }
+        } catch (IOException e) {
+            //Bad texture, let the normal loading system handle it when it's bound.
+        }
+    }
+
     @Override
     public void renderItemModel(GUIComponentItem component) {
         stacksToRender.add(component);
@@ -95,6 +139,42 @@ public class InterfaceRender implements IInterfaceRender {
 
     @Override
     public void renderVertices(RenderableData data, boolean changedSinceLastRender) {
+        //Cached objects are queued while we are queueing, as their vertices won't change before the queue is flushed.
+        if (queueRenders && data.vertexObject.cacheVertices) {
+            renderQueue.queue(data, changedSinceLastRender);
+        } else {
+            setRenderState(data);
+            renderQueued(data, changedSinceLastRender);
+            clearRenderState(data);
+        }
+    }
+
+    /**
+     * Starts queueing renders of cached objects, rather than rendering them when they come in.
+     * {@link #flushRenderQueue()} must be called to render them and stop queueing.
+     */
+    protected static void startRenderQueue() {
+        queueRenders = true;
+    }
+
+    /**
+     * Sets the offset of renders queued after this call.  This should be the translation that's applied
+     * via OpenGL prior to rendering each entity, as that translation won't be present when the queue is flushed.
+     */
+    protected static void setRenderQueueOffset(double x, double y, double z) {
+        renderQueue.setOffset(x, y, z);
+    }
+
+    /**
+     * Renders all queued renders, grouped by their state, and stops queueing renders.
+     */
+    protected static void flushRenderQueue() {
+        queueRenders = false;
+        renderQueue.flush((InterfaceRender) InterfaceManager.renderingInterface);
+    }
+
+    @Override
+    public void setRenderState(RenderableData data) {
         if (data.lightingMode.disableWorldLighting || data.vertexObject.isLines) {
             setLightingState(false);
         }
@@ -109,6 +189,10 @@ public class InterfaceRender implements IInterfaceRender {
         } else {
             GL11.glDisable(GL11.GL_TEXTURE_2D);
         }
+    }
+
+    @Override
+    public void renderQueued(RenderableData data, boolean changedSinceLastRender) {
         GlStateManager.color(data.color.red, data.color.green, data.color.blue, data.alpha);
         if (!data.lightingMode.disableWorldLighting && !data.vertexObject.isLines) {
             OpenGlHelper.setLightmapTextureCoords(OpenGlHelper.lightmapTexUnit, data.worldLightValue % 65536, data.worldLightValue / 65536);
@@ -130,10 +214,13 @@ public class InterfaceRender implements IInterfaceRender {
         } else if (data.vertexObject.isLines) {
             renderLines(data.vertexObject.vertices);
         } else {
-            renderVertices(data.vertexObject.vertices);
+            renderVertexArray(data.vertexObject.vertices);
         }
         GL11.glPopMatrix();
+    }
 
+    @Override
+    public void clearRenderState(RenderableData data) {
         if (data.texture == null) {
             GL11.glEnable(GL11.GL_TEXTURE_2D);
         }
@@ -148,6 +235,8 @@ public class InterfaceRender implements IInterfaceRender {
     @Override
     public void deleteVertices(RenderableData data) {
         if (data.vertexObject.cacheVertices) {
+            renderQueue.remove(data);
+
             //Only delete display list if no data objects are using it.
             Set<RenderableData> set = objectMap.get(data.vertexObject);
             if (set != null) {
@@ -161,12 +250,22 @@ public class InterfaceRender implements IInterfaceRender {
     }
 
     @Override
-    public boolean bindURLTexture(String textureURL, InputStream stream) {
-        if (stream != null) {
+    public void prepareURLTexture(String textureURL, BufferedImage image) {
+        preparedURLTextures.put(textureURL, image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth()));
+    }
+
+    @Override
+    public boolean bindURLTexture(String textureURL, BufferedImage image) {
+        if (image != null) {
             try {
-                BufferedImage image = TextureUtil.readBufferedImage(stream);
+                //Use the prepared pixels if we have them, so we only need to upload them here.
+                int[] pixels = preparedURLTextures.remove(textureURL);
+                if (pixels == null) {
+                    pixels = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+                }
                 int glTexturePointer = TextureUtil.glGenTextures();
-                TextureUtil.uploadTextureImageAllocate(glTexturePointer, image, false, false);
+                TextureUtil.allocateTexture(glTexturePointer, image.getWidth(), image.getHeight());
+                TextureUtil.uploadTexture(glTexturePointer, pixels, image.getWidth(), image.getHeight());
                 onlineTextures.put(textureURL, glTexturePointer);
                 return true;
             } catch (Exception e) {
@@ -216,6 +315,43 @@ public class InterfaceRender implements IInterfaceRender {
         vertices.rewind();
     }
 
+    /**
+     * Renders a set of raw vertices without any caching, as a vertex array.  Vertices that aren't cached
+     * normally change every frame, and can be entire meshes, such as treads and particle batches.
+     * Sending these a vertex at a time like {@link #renderVertices(FloatBuffer)} does is far too slow,
+     * so they are copied into a direct buffer and drawn in one call.
+     */
+    private static void renderVertexArray(FloatBuffer vertices) {
+        if (vertexArrayBuffer.capacity() < vertices.limit()) {
+            vertexArrayBuffer = createVertexArrayBuffer(Math.max(vertices.limit(), vertexArrayBuffer.capacity() * 2));
+        }
+        vertexArrayBuffer.clear();
+        vertexArrayBuffer.put(vertices);
+        vertexArrayBuffer.flip();
+        //Rewind buffer for next read.
+        vertices.rewind();
+
+        //Pointers can't be from buffers if MC left a vertex buffer object bound.
+        OpenGlHelper.glBindBuffer(OpenGlHelper.GL_ARRAY_BUFFER, 0);
+        vertexArrayBuffer.position(0);
+        GL11.glNormalPointer(VERTEX_ARRAY_STRIDE, vertexArrayBuffer);
+        vertexArrayBuffer.position(3);
+        GL11.glTexCoordPointer(2, VERTEX_ARRAY_STRIDE, vertexArrayBuffer);
+        vertexArrayBuffer.position(5);
+        GL11.glVertexPointer(3, VERTEX_ARRAY_STRIDE, vertexArrayBuffer);
+        GL11.glEnableClientState(GL11.GL_NORMAL_ARRAY);
+        GL11.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        GL11.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+        GL11.glDrawArrays(GL11.GL_TRIANGLES, 0, vertexArrayBuffer.limit() / 8);
+        GL11.glDisableClientState(GL11.GL_NORMAL_ARRAY);
+        GL11.glDisableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        GL11.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+    }
+
+    private static FloatBuffer createVertexArrayBuffer(int floats) {
+        return ByteBuffer.allocateDirect(floats * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
     /**
      * Renders a set of raw lines without any caching.
      */
@@ -287,7 +423,16 @@ public class InterfaceRender implements IInterfaceRender {
                     //Convert the classpath-location to a domain-location path for MC.
                     String domain = formattedLocation.substring("/assets/".length(), formattedLocation.indexOf("/", "/assets/".length()));
                     String location = formattedLocation.substring("/assets/".length() + domain.length() + 1);
-                    internalTextures.put(textureLocation, new ResourceLocation(domain, location));
+                    ResourceLocation textureResource = new ResourceLocation(domain, location);
+
+                    //If we prefetched the texture, load it from the decoded image rather than having MC decode it now.
+                    //Mark it as bound first so any prefetch still running knows not to keep its image.
+                    boundTextures.add(textureLocation);
+                    BufferedImage prefetchedImage = prefetchedTextures.remove(textureLocation);
+                    if (prefetchedImage != null && Minecraft.getMinecraft().getTextureManager().getTexture(textureResource) == null) {
+                        Minecraft.getMinecraft().getTextureManager().loadTexture(textureResource, new PrefetchedTexture(textureResource, prefetchedImage));
+                    }
+                    internalTextures.put(textureLocation, textureResource);
                 } else {
                     InterfaceManager.coreInterface.logError("Could not find texture: " + formattedLocation + " Reverting to fallback texture.");
                     internalTextures.put(textureLocation, MISSING_TEXTURE);
@@ -478,4 +623,28 @@ public class InterfaceRender implements IInterfaceRender {
             GlStateManager.blendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
         }
     }
+
+    /**
+     * Texture that uses an image decoded by {@link #prefetchTexture(String)} for its first load.
+     * Any later loads, such as from resource reloads, are done normally.
+     */
+    private static class PrefetchedTexture extends SimpleTexture {
+        private BufferedImage prefetchedImage;
+
+        private PrefetchedTexture(ResourceLocation textureResource, BufferedImage prefetchedImage) {
+            super(textureResource);
+            this.prefetchedImage = prefetchedImage;
+        }
+
+        @Override
+        public void loadTexture(IResourceManager resourceManager) throws IOException {
+            if (prefetchedImage != null) {
+                deleteGlTexture();
+                TextureUtil.uploadTextureImageAllocate(getGlTextureId(), prefetchedImage, false, false);
+                prefetchedImage = null;
+            } else {
+                super.loadTexture(resourceManager);
+            }
+        }
+    }
 }
@@ -7,6 +7,7 @@ import javax.annotation.Nullable;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.BoundingBoxHitResult;
+import minecrafttransportsimulator.baseclasses.CollisionBoxRegistry;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
@@ -37,17 +38,27 @@ class WrapperAABBCollective extends AxisAlignedBB {
 
     public Set<BoundingBox> getBoxes() {
         if (boxes.isEmpty()) {
-            (interactable instanceof AEntityF_Multipart ? ((AEntityF_Multipart<?>) interactable).allCollisionBoxes : interactable.collisionBoxes).forEach(box -> {
+            if (interactable instanceof AEntityF_Multipart) {
+                CollisionBoxRegistry registry = ((AEntityF_Multipart<?>) interactable).collisionBoxRegistry;
                 if (collision) {
-                    if (box.collisionTypes.contains(CollisionType.ENTITY)) {
-                        boxes.add(box);
-                    }
+                    registry.addBoxes(CollisionType.ENTITY, boxes);
                 } else {
-                    if (box.collisionTypes.contains(CollisionType.ATTACK) || box.collisionTypes.contains(CollisionType.CLICK)) {
-                        boxes.add(box);
-                    }
+                    registry.addBoxes(CollisionType.ATTACK, boxes);
+                    registry.addBoxes(CollisionType.CLICK, boxes);
                 }
-            });
+            } else {
+                interactable.collisionBoxes.forEach(box -> {
+                    if (collision) {
+                        if (box.collisionTypes.contains(CollisionType.ENTITY)) {
+                            boxes.add(box);
+                        }
+                    } else {
+                        if (box.collisionTypes.contains(CollisionType.ATTACK) || box.collisionTypes.contains(CollisionType.CLICK)) {
+                            boxes.add(box);
+                        }
+                    }
+                });
+            }
         }
         return boxes;
     }
@@ -1,16 +1,25 @@
 package mcinterface1122;
 
 import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import minecrafttransportsimulator.baseclasses.BlockHitResult;
+import minecrafttransportsimulator.baseclasses.BlockPositionSet;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Damage;
@@ -67,6 +76,8 @@ import net.minecraft.item.Item;
 import net.minecraft.item.ItemDye;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumHand;
@@ -78,6 +89,7 @@ import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.EnumSkyBlock;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.common.IPlantable;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.world.WorldEvent;
@@ -101,10 +113,24 @@ public class WrapperWorld extends AWrapperWorld {
     private final Map<UUID, BuilderEntityExisting> playerServerGunBuilders = new HashMap<>();
     private final Map<UUID, Integer> ticksSincePlayerJoin = new HashMap<>();
     private final List<AxisAlignedBB> mutableCollidingAABBs = new ArrayList<>();
-    private final Set<BlockPos> knownAirBlocks = new HashSet<>();
+    private final BlockPositionSet knownAirBlocks = new BlockPositionSet();
+    private final Chunk[] cachedChunks = new Chunk[16];
+    private long chunkCacheTime = -1;
 
     protected final World world;
     private final IWrapperNBT savedData;
+    /**Top-level saved data keys that have changed since the last flush.  Only used on the main thread.**/
+    private final Set<String> dirtySavedDataKeys = new HashSet<>();
+    /**Copies of changed saved data waiting to be written.  Null values are removed keys.  Guarded by itself.**/
+    private final Map<String, NBTBase> pendingSavedData = new HashMap<>();
+    /**Copy of the saved data as it is on disk.  Only used on the writer thread after construction.**/
+    private NBTTagCompound diskSavedData;
+    private boolean savedDataWriteQueued;
+    private static final ExecutorService savedDataWriter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MTS Saved Data Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
      * Returns a wrapper instance for the passed-in world instance.
@@ -142,6 +168,7 @@ public class WrapperWorld extends AWrapperWorld {
                 e.printStackTrace();
                 throw new IllegalStateException("Could not load saved data from disk!  This will result in data loss if we continue!");
             }
+            this.diskSavedData = ((WrapperNBT) savedData).tag.copy();
         }
         MinecraftForge.EVENT_BUS.register(this);
     }
@@ -198,16 +225,74 @@ public class WrapperWorld extends AWrapperWorld {
     public void setData(String name, IWrapperNBT value) {
         savedData.setData(name, value);
         if (!isClient()) {
+            //Don't write here, as this may be called many times a tick.  Instead, flush at the end of the tick.
+            dirtySavedDataKeys.add(name);
+            InterfaceManager.packetInterface.sendToAllClients(new PacketWorldSavedDataUpdate(name, value));
+        }
+    }
+
+    /**
+     * Queues all changed saved data to be written to disk on the writer thread.  Only the changed keys are copied here,
+     * so this is cheap even with large amounts of data.  If wait is true, this blocks until all queued data is on disk.
+     */
+    private void flushSavedData(boolean wait) {
+        if (!dirtySavedDataKeys.isEmpty()) {
+            NBTTagCompound tag = ((WrapperNBT) savedData).tag;
+            synchronized (pendingSavedData) {
+                for (String name : dirtySavedDataKeys) {
+                    pendingSavedData.put(name, tag.hasKey(name) ? tag.getTag(name).copy() : null);
+                }
+                dirtySavedDataKeys.clear();
+                if (!savedDataWriteQueued) {
+                    savedDataWriteQueued = true;
+                    savedDataWriter.execute(this::writeSavedData);
+                }
+            }
+        }
+        if (wait) {
             try {
-                CompressedStreamTools.writeCompressed(((WrapperNBT) savedData).tag, Files.newOutputStream(getDataFile().toPath()));
-                InterfaceManager.packetInterface.sendToAllClients(new PacketWorldSavedDataUpdate(name, value));
+                savedDataWriter.submit(() -> {
+                }).get();
             } catch (Exception e) {
                 e.printStackTrace();
-                throw new IllegalStateException("Could not save data to disk!  This will result in data loss if we continue!");
             }
         }
     }
 
+    /**
+     * Writes pending saved data to disk.  Only called on the writer thread.  Data is written to a temp file
+     * that then replaces the existing file, so a crash while writing can't leave a partial file behind.
+     */
+    private void writeSavedData() {
+        synchronized (pendingSavedData) {
+            for (Entry<String, NBTBase> dataEntry : pendingSavedData.entrySet()) {
+                if (dataEntry.getValue() != null) {
+                    diskSavedData.setTag(dataEntry.getKey(), dataEntry.getValue());
+                } else {
+                    diskSavedData.removeTag(dataEntry.getKey());
+                }
+            }
+            pendingSavedData.clear();
+            savedDataWriteQueued = false;
+        }
+        try {
+            Path dataPath = getDataFile().toPath();
+            Path tempPath = dataPath.resolveSibling(dataPath.getFileName() + ".tmp");
+            try (OutputStream stream = Files.newOutputStream(tempPath)) {
+                CompressedStreamTools.writeCompressed(diskSavedData, stream);
+            }
+            try {
+                Files.move(tempPath, dataPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, dataPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (Exception e) {
+            //Data is still in memory, and will be in the next write, so just log this.
+            e.printStackTrace();
+            InterfaceManager.coreInterface.logError("Could not save data to disk!  Will try again on the next change or world save.");
+        }
+    }
+
     @Override
     public File getDataFile() {
         return new File(world.getSaveHandler().getWorldDirectory(), "mtsdata.dat");
@@ -531,22 +616,24 @@ public class WrapperWorld extends AWrapperWorld {
         AxisAlignedBB mcBox = WrapperWorld.convert(box);
         box.collidingBlockPositions.clear();
         mutableCollidingAABBs.clear();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
         for (int i = (int) Math.floor(mcBox.minX); i < Math.ceil(mcBox.maxX); ++i) {
             for (int j = (int) Math.floor(mcBox.minY); j < Math.ceil(mcBox.maxY); ++j) {
                 for (int k = (int) Math.floor(mcBox.minZ); k < Math.ceil(mcBox.maxZ); ++k) {
-                    BlockPos pos = new BlockPos(i, j, k);
-                    if (world.isBlockLoaded(pos)) {
-                        IBlockState state = world.getBlockState(pos);
+                    Chunk chunk = getLoadedChunk(i, k);
+                    if (chunk != null) {
+                        pos.setPos(i, j, k);
+                        IBlockState state = chunk.getBlockState(pos);
                         if (state.getBlock().canCollideCheck(state, false) && state.getCollisionBoundingBox(world, pos) != null && state.getMaterial() != Material.LEAVES) {
                             int oldCollidingBlockCount = mutableCollidingAABBs.size();
                             state.addCollisionBoxToList(world, pos, mcBox, mutableCollidingAABBs, null, false);
                             if (mutableCollidingAABBs.size() > oldCollidingBlockCount) {
-                                box.collidingBlockPositions.add(new Point3D(i, j, k));
+                                box.collidingBlockPositions.add(i, j, k);
                             }
                         }
                         if (box.collidesWithLiquids && state.getMaterial().isLiquid()) {
                             mutableCollidingAABBs.add(state.getBoundingBox(world, pos).offset(pos));
-                            box.collidingBlockPositions.add(new Point3D(i, j, k));
+                            box.collidingBlockPositions.add(i, j, k);
                         }
                     }
                 }
@@ -622,13 +709,15 @@ public class WrapperWorld extends AWrapperWorld {
         }
         mutableCollidingAABBs.clear();
         AxisAlignedBB mcBox = WrapperWorld.convertWithOffset(box, offset.x, offset.y, offset.z);
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
         for (int i = (int) Math.floor(mcBox.minX); i < Math.ceil(mcBox.maxX); ++i) {
             for (int j = (int) Math.floor(mcBox.minY); j < Math.ceil(mcBox.maxY); ++j) {
                 for (int k = (int) Math.floor(mcBox.minZ); k < Math.ceil(mcBox.maxZ); ++k) {
-                    BlockPos pos = new BlockPos(i, j, k);
-                    if (!knownAirBlocks.contains(pos)) {
-                        if (world.isBlockLoaded(pos)) {
-                            IBlockState state = world.getBlockState(pos);
+                    if (!knownAirBlocks.contains(i, j, k)) {
+                        Chunk chunk = getLoadedChunk(i, k);
+                        if (chunk != null) {
+                            pos.setPos(i, j, k);
+                            IBlockState state = chunk.getBlockState(pos);
                             if (state.getMaterial() != Material.LEAVES) {
                                 if (state.getBlock().canCollideCheck(state, false) && state.getCollisionBoundingBox(world, pos) != null) {
                                     int oldCollidingBlockCount = mutableCollidingAABBs.size();
@@ -637,7 +726,7 @@ public class WrapperWorld extends AWrapperWorld {
                                         return true;
                                     }
                                 } else {
-                                    knownAirBlocks.add(pos);
+                                    knownAirBlocks.add(i, j, k);
                                 }
                                 if (box.collidesWithLiquids && state.getMaterial().isLiquid()) {
                                     if (mcBox.intersects(state.getBoundingBox(world, pos).offset(pos))) {
@@ -645,9 +734,9 @@ public class WrapperWorld extends AWrapperWorld {
                                     }
                                 }
                             } else if (breakLeaves) {
-                                world.destroyBlock(pos, false);
+                                world.destroyBlock(pos.toImmutable(), false);
                             } else {
-                                knownAirBlocks.add(pos);
+                                knownAirBlocks.add(i, j, k);
                             }
                         }
                     }
@@ -657,6 +746,28 @@ public class WrapperWorld extends AWrapperWorld {
         return false;
     }
 
+    /**
+     * Returns the chunk for the passed-in block coordinates, or null if it isn't loaded.
+     * Chunks are cached for the current tick, as collision sweeps check many blocks in the same
+     * few chunks, and this lets them skip the chunk provider lookup on every block.
+     */
+    private Chunk getLoadedChunk(int x, int z) {
+        long worldTime = world.getTotalWorldTime();
+        if (worldTime != chunkCacheTime) {
+            Arrays.fill(cachedChunks, null);
+            chunkCacheTime = worldTime;
+        }
+        int chunkX = x >> 4;
+        int chunkZ = z >> 4;
+        int index = ((chunkX & 3) << 2) | (chunkZ & 3);
+        Chunk chunk = cachedChunks[index];
+        if (chunk == null || chunk.x != chunkX || chunk.z != chunkZ) {
+            chunk = world.getChunkProvider().getLoadedChunk(chunkX, chunkZ);
+            cachedChunks[index] = chunk;
+        }
+        return chunk;
+    }
+
     @Override
     public int getRedstonePower(Point3D position) {
         return world.getRedstonePowerFromNeighbors(new BlockPos(position.x, position.y, position.z));
@@ -1064,11 +1175,25 @@ public class WrapperWorld extends AWrapperWorld {
                     gun.update();
                     gun.doPostUpdateLogic();
                 }
+
+                //Write any saved data that changed this tick.
+                flushSavedData(false);
             }
             endProfiling();
         }
     }
 
+    /**
+     * Make sure all saved data is on disk when the world saves, so it matches the rest of the world.
+     */
+    @SubscribeEvent
+    public void onIVWorldSave(WorldEvent.Save event) {
+        //Need to check if it's our world, because Forge is stupid like that.
+        if (event.getWorld() == world && !isClient()) {
+            flushSavedData(true);
+        }
+    }
+
     /**
      * Remove all entities from our maps if we unload the world.  This will cause duplicates if we don't.
      * Also remove this wrapper from the created lists, as it's invalid.
@@ -1077,6 +1202,9 @@ public class WrapperWorld extends AWrapperWorld {
     public void onIVWorldUnload(WorldEvent.Unload event) {
         //Need to check if it's our world, because Forge is stupid like that.
         if (event.getWorld() == world) {
+            if (!isClient()) {
+                flushSavedData(true);
+            }
             for (AEntityA_Base entity : allEntities) {
                 entity.remove();
             }
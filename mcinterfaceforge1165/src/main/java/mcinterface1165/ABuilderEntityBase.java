@@ -100,6 +100,7 @@ public abstract class ABuilderEntityBase extends Entity {
                     IWrapperNBT data = InterfaceManager.coreInterface.getNewNBTWrapper();
                     saveWithoutId(((WrapperNBT) data).tag);
                     player.sendPacket(new PacketEntityCSHandshakeServer(this, data));
+                    onDataSent(player);
                 }
                 playersRequestingData.clear();
             }
@@ -111,6 +112,13 @@ public abstract class ABuilderEntityBase extends Entity {
         }
     }
 
+    /**
+     * Called after the passed-in player has been sent the full data for this builder.
+     * Used to let the entity know what that player has, to prevent re-sending the same data.
+     */
+    protected void onDataSent(IWrapperPlayer player) {
+    }
+
     @Override
     public void absMoveTo(double pX, double pY, double pZ, float pYRot, float pXRot) {
         //Overridden due to stupid tracker behavior.
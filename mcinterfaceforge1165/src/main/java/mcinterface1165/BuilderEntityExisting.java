@@ -13,6 +13,7 @@ import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.items.components.IItemEntityProvider.IItemEntityFactory;
+import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.systems.ConfigSystem;
 import net.minecraft.entity.Entity;
@@ -26,6 +27,7 @@ import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.vector.Vector3d;
 import net.minecraft.world.World;
+import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.world.ExplosionEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.RegistryObject;
@@ -232,6 +234,14 @@ public class BuilderEntityExisting extends ABuilderEntityBase {
         return true;
     }
 
+    @Override
+    protected void onDataSent(IWrapperPlayer player) {
+        //Client has all our server deltas in this data, so don't send them again.
+        if (entity instanceof EntityVehicleF_Physics) {
+            ((EntityVehicleF_Physics) entity).resetServerDeltas(player);
+        }
+    }
+
     @Override
     public CompoundNBT saveWithoutId(CompoundNBT tag) {
         super.saveWithoutId(tag);
@@ -256,4 +266,18 @@ public class BuilderEntityExisting extends ABuilderEntityBase {
             lastExplosionPosition = new Point3D(event.getExplosion().getPosition().x, event.getExplosion().getPosition().y, event.getExplosion().getPosition().z);
         }
     }
+
+    /**
+     * Vehicles send movement to the players tracking them, so tell them when a player stops tracking them.
+     * Players start tracking them when they are sent the vehicle's data, which is done in {@link #onDataSent(IWrapperPlayer)}.
+     */
+    @SubscribeEvent
+    public static void onIVStopTracking(PlayerEvent.StopTracking event) {
+        if (event.getTarget() instanceof BuilderEntityExisting) {
+            AEntityB_Existing entity = ((BuilderEntityExisting) event.getTarget()).entity;
+            if (entity instanceof EntityVehicleF_Physics) {
+                ((EntityVehicleF_Physics) entity).removeServerDeltas(WrapperPlayer.getWrapperFor(event.getPlayer()));
+            }
+        }
+    }
 }
@@ -1,30 +1,52 @@
 package mcinterface1165;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IInterfacePacket;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.components.APacketBase;
+import minecrafttransportsimulator.packets.components.PacketBatch;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.TickEvent.Phase;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.fml.network.NetworkDirection;
 import net.minecraftforge.fml.network.NetworkEvent.Context;
 import net.minecraftforge.fml.network.NetworkRegistry;
 import net.minecraftforge.fml.network.PacketDistributor;
 import net.minecraftforge.fml.network.simple.SimpleChannel;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
 
-class InterfacePacket implements IInterfacePacket {
+@EventBusSubscriber
+public class InterfacePacket implements IInterfacePacket {
     private static final String PROTOCOL_VERSION = "1";
     private static final SimpleChannel network = NetworkRegistry.newSimpleChannel(new ResourceLocation(InterfaceLoader.MODID, "main"), () -> PROTOCOL_VERSION, PROTOCOL_VERSION::equals, PROTOCOL_VERSION::equals);
     private static final BiMap<Byte, Class<? extends APacketBase>> packetMappings = HashBiMap.create();
+    @SuppressWarnings("unchecked")
+    private static final Function<ByteBuf, APacketBase>[] packetFactories = new Function[256];
+    private static final Map<ServerPlayerEntity, PacketBatch> playerBatches = new HashMap<>();
+    /**Max size of a single frame of packets.  Batches larger than this are split into multiple frames.**/
+    private static final int MAX_FRAME_SIZE = 256 * 1024;
 
     /**
      * Called to init this network.  Needs to be done after networking is ready.
@@ -44,6 +66,20 @@ class InterfacePacket implements IInterfacePacket {
     @Override
     public void registerPacket(byte packetIndex, Class<? extends APacketBase> packetClass) {
         packetMappings.put(packetIndex, packetClass);
+
+        //Look up the constructor now, so we don't have to use reflection for every packet we get.
+        try {
+            MethodHandle constructor = MethodHandles.publicLookup().findConstructor(packetClass, MethodType.methodType(void.class, ByteBuf.class));
+            packetFactories[packetIndex & 0xFF] = buf -> {
+                try {
+                    return (APacketBase) constructor.invoke(buf);
+                } catch (Throwable e) {
+                    throw new RuntimeException(e);
+                }
+            };
+        } catch (Exception e) {
+            throw new IllegalStateException("Packet class " + packetClass.getSimpleName() + " does not have a public buffer constructor!", e);
+        }
     }
 
     @Override
@@ -53,17 +89,101 @@ class InterfacePacket implements IInterfacePacket {
 
     @Override
     public void sendToServer(APacketBase packet) {
-        network.sendToServer(new WrapperPacket(packet));
+        PacketBuffer frame = createFrame();
+        packet.writeToBuffer(frame);
+        frame.setShort(0, 1);
+        network.sendToServer(new WrapperPacket(frame));
     }
 
     @Override
     public void sendToAllClients(APacketBase packet) {
-        network.send(PacketDistributor.ALL.noArg(), new WrapperPacket(packet));
+        //Queue the packet for every player, rather than sending it to all directly, to keep it in order with packets sent to single players.
+        //The packet is only written once, and every player's batch gets a slice of the same data.
+        List<ServerPlayerEntity> players = ServerLifecycleHooks.getCurrentServer().getPlayerList().getPlayers();
+        if (!players.isEmpty()) {
+            ByteBuf data = writePacket(packet);
+            synchronized (playerBatches) {
+                for (ServerPlayerEntity player : players) {
+                    playerBatches.computeIfAbsent(player, k -> new PacketBatch()).add(packet, data.retainedSlice());
+                }
+            }
+            data.release();
+        }
     }
 
     @Override
     public void sendToPlayer(APacketBase packet, IWrapperPlayer player) {
-        network.send(PacketDistributor.PLAYER.with(() -> (ServerPlayerEntity) ((WrapperPlayer) player).player), new WrapperPacket(packet));
+        ByteBuf data = writePacket(packet);
+        synchronized (playerBatches) {
+            playerBatches.computeIfAbsent((ServerPlayerEntity) ((WrapperPlayer) player).player, k -> new PacketBatch()).add(packet, data);
+        }
+    }
+
+    /**
+     * Sends all packets queued for players this tick.  Packets for each player are sent in as few frames as possible,
+     * rather than one at a time, as most packets are far smaller than the overhead of sending them on their own.
+     */
+    @SubscribeEvent
+    public static void onIVServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase.equals(Phase.END)) {
+            synchronized (playerBatches) {
+                for (Entry<ServerPlayerEntity, PacketBatch> batchEntry : playerBatches.entrySet()) {
+                    ServerPlayerEntity player = batchEntry.getKey();
+                    if (player.connection != null) {
+                        PacketBuffer frame = createFrame();
+                        int framePackets = 0;
+                        for (ByteBuf data : batchEntry.getValue().getPacketData()) {
+                            if (data != null) {
+                                //Send what we have before the frame gets too big.  Packets that are too big on their own get a frame to themselves.
+                                if (framePackets != 0 && frame.writerIndex() + data.readableBytes() > MAX_FRAME_SIZE) {
+                                    sendFrame(frame, framePackets, player);
+                                    frame = createFrame();
+                                    framePackets = 0;
+                                }
+                                frame.writeBytes(data, data.readerIndex(), data.readableBytes());
+                                if (++framePackets == Short.MAX_VALUE) {
+                                    sendFrame(frame, framePackets, player);
+                                    frame = createFrame();
+                                    framePackets = 0;
+                                }
+                            }
+                        }
+                        if (framePackets != 0) {
+                            sendFrame(frame, framePackets, player);
+                        }
+                    }
+                    batchEntry.getValue().clear();
+                }
+                playerBatches.clear();
+            }
+        }
+    }
+
+    /**
+     * Sets the packet count of the frame, and sends it to the player.
+     */
+    private static void sendFrame(PacketBuffer frame, int framePackets, ServerPlayerEntity player) {
+        frame.setShort(0, framePackets);
+        network.send(PacketDistributor.PLAYER.with(() -> player), new WrapperPacket(frame));
+    }
+
+    /**
+     * Writes the packet to a new buffer.  This is done when the packet is queued, not when it is sent,
+     * so changes to the packet's state after it is queued don't change what is sent.
+     */
+    private static ByteBuf writePacket(APacketBase packet) {
+        ByteBuf data = new PacketBuffer(Unpooled.buffer());
+        packet.writeToBuffer(data);
+        return data;
+    }
+
+    /**
+     * Creates a new frame buffer, with space at the start for the packet count.
+     */
+    private static PacketBuffer createFrame() {
+        PacketBuffer frame = new PacketBuffer(Unpooled.buffer());
+        frame.writeShort(0);
+        return frame;
     }
 
     /**
@@ -87,13 +207,15 @@ class InterfacePacket implements IInterfacePacket {
 
     /**
      * Custom class for packets.  Allows for a common packet to be used for all MC versions,
-     * as well as less boilerplate code due to thread operations.  Note that when this packet
+     * as well as less boilerplate code due to thread operations.  Each of these is a frame
+     * of one or more of our packets, prefixed by the number of packets in the frame.  Note that when this packet
      * arrives on the other side of the pipeline, MC won't know what class to construct.
      * That's up to us to handle via the packet's first byte.  Also note that this class
      * must be public, as if it is private MC won't be able to construct it due to access violations.
      */
     public static class WrapperPacket {
-        private APacketBase packet;
+        private PacketBuffer frame;
+        private final List<APacketBase> packets = new ArrayList<>();
 
         /**
          * Do NOT call!  Required to keep Forge from crashing.
@@ -101,28 +223,44 @@ class InterfacePacket implements IInterfacePacket {
         public WrapperPacket() {
         }
 
-        public WrapperPacket(APacketBase packet) {
-            this.packet = packet;
+        public WrapperPacket(PacketBuffer frame) {
+            this.frame = frame;
         }
 
         public static WrapperPacket fromBytes(PacketBuffer buf) {
-            byte packetIndex = buf.readByte();
-            try {
-                Class<? extends APacketBase> packetClass = packetMappings.get(packetIndex);
-                return new WrapperPacket(packetClass.getConstructor(ByteBuf.class).newInstance(buf));
-            } catch (Exception e) {
-                e.printStackTrace();
-                throw new IndexOutOfBoundsException("Was asked to create packet of index " + packetIndex + " but we haven't registered that one yet!");
+            WrapperPacket message = new WrapperPacket();
+            int packetCount = buf.readShort();
+            for (int i = 0; i < packetCount; ++i) {
+                byte packetIndex = buf.readByte();
+                Function<ByteBuf, APacketBase> packetFactory = packetFactories[packetIndex & 0xFF];
+                if (packetFactory == null) {
+                    throw new IndexOutOfBoundsException("Was asked to create packet of index " + packetIndex + " but we haven't registered that one yet!");
+                }
+                message.packets.add(packetFactory.apply(buf));
             }
+            return message;
         }
 
         public static void toBytes(WrapperPacket message, PacketBuffer buf) {
-            message.packet.writeToBuffer(buf);
+            buf.writeBytes(message.frame, message.frame.readerIndex(), message.frame.readableBytes());
         }
 
         public static void handle(WrapperPacket message, Supplier<Context> ctx) {
-            if (message.packet.runOnMainThread()) {
+            List<APacketBase> mainThreadPackets = new ArrayList<>();
+            for (APacketBase packet : message.packets) {
+                if (packet.runOnMainThread()) {
+                    mainThreadPackets.add(packet);
+                } else {
+                    if (ctx.get().getDirection() == NetworkDirection.PLAY_TO_SERVER) {
+                        packet.handle(getServerWorld(ctx));
+                    } else {
+                        packet.handle(InterfaceManager.clientInterface.getClientWorld());
+                    }
+                }
+            }
+            if (!mainThreadPackets.isEmpty()) {
                 //Need to put this in a runnable to not run it on the network thread and get a CME.
+                //All packets in the frame go in one runnable to keep them in order and save on scheduling.
                 ctx.get().enqueueWork(() -> {
                     //We need to use side-specific getters here to avoid side-specific classes from trying to be loaded
                     //by the JVM when this method is created.  Failure to do this will result in network faults.
@@ -134,15 +272,11 @@ class InterfacePacket implements IInterfacePacket {
                         world = InterfaceManager.clientInterface.getClientWorld();
                     }
                     if (world != null) {
-                        message.packet.handle(world);
+                        for (APacketBase packet : mainThreadPackets) {
+                            packet.handle(world);
+                        }
                     }
                 });
-            } else {
-                if (ctx.get().getDirection() == NetworkDirection.PLAY_TO_SERVER) {
-                    message.packet.handle(getServerWorld(ctx));
-                } else {
-                    message.packet.handle(InterfaceManager.clientInterface.getClientWorld());
-                }
             }
             ctx.get().setPacketHandled(true);
         }
@@ -3,6 +3,7 @@ package mcinterface1165;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -10,6 +11,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.imageio.ImageIO;
@@ -21,6 +24,7 @@ import com.mojang.blaze3d.platform.GlStateManager;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.IVertexBuilder;
 
+import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
 import minecrafttransportsimulator.entities.components.AEntityC_Renderable;
@@ -48,12 +52,15 @@ import net.minecraft.client.renderer.texture.AtlasTexture;
 import net.minecraft.client.renderer.texture.DynamicTexture;
 import net.minecraft.client.renderer.texture.NativeImage;
 import net.minecraft.client.renderer.texture.OverlayTexture;
+import net.minecraft.client.renderer.texture.SimpleTexture;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.client.renderer.vertex.VertexBuffer;
 import net.minecraft.client.renderer.vertex.VertexFormat;
 import net.minecraft.inventory.container.PlayerContainer;
+import net.minecraft.resources.IResourceManager;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.vector.Matrix4f;
@@ -69,6 +76,9 @@ import net.minecraftforge.fml.event.lifecycle.FMLClientSetupEvent;
  */
 public class InterfaceRender implements IInterfaceRender {
     private static final Map<String, ResourceLocation> onlineTextures = new HashMap<>();
+    private static final Map<String, NativeImage> prefetchedTextures = new ConcurrentHashMap<>();
+    private static final Set<String> boundTextures = ConcurrentHashMap.newKeySet();
+    private static final Map<String, NativeImage> preparedURLTextures = new ConcurrentHashMap<>();
     private static final Map<String, ParsedGIF> animatedGIFs = new HashMap<>();
     private static final Map<ParsedGIF, Map<GIFImageFrame, ResourceLocation>> animatedGIFFrames = new LinkedHashMap<>();
 
@@ -85,6 +95,7 @@ public class InterfaceRender implements IInterfaceRender {
     private static IRenderTypeBuffer renderBuffer;
     public static Point3D renderCameraOffset = new Point3D();
     private static boolean renderingGUI;
+    private static ClippingHelper renderCamera;
     private static float[] matrixConvertArray = new float[16];
 
     @Override
@@ -103,6 +114,11 @@ public class InterfaceRender implements IInterfaceRender {
         return new float[] { sprite.getU0(), sprite.getU1(), sprite.getV0(), sprite.getV1() };
     }
 
+    @Override
+    public boolean isBoxInView(BoundingBox box) {
+        return renderCamera == null || renderCamera.isVisible(new AxisAlignedBB(box.globalCenter.x - box.widthRadius, box.globalCenter.y - box.heightRadius, box.globalCenter.z - box.depthRadius, box.globalCenter.x + box.widthRadius, box.globalCenter.y + box.heightRadius, box.globalCenter.z + box.depthRadius));
+    }
+
     @Override
     public InputStream getTextureStream(String name) {
         try {
@@ -114,6 +130,31 @@ public class InterfaceRender implements IInterfaceRender {
         }
     }
 
+    @Override
+    public void prefetchTexture(String textureLocation) {
+        if (boundTextures.contains(textureLocation)) {
+            return;
+        }
+        String formattedLocation = textureLocation;
+        if (textureLocation.contains(":")) {
+            formattedLocation = "/assets/" + textureLocation.replace(":", "/");
+        }
+        try (InputStream stream = getTextureStream(formattedLocation)) {
+            if (stream != null) {
+                prefetchedTextures.put(textureLocation, NativeImage.read(stream));
+                //If the texture was bound while we were decoding it, it was loaded without our image, so free it.
+                if (boundTextures.contains(textureLocation)) {
+                    NativeImage unusedImage = prefetchedTextures.remove(textureLocation);
+                    if (unusedImage != null) {
+                        unusedImage.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            //Bad texture, let the normal loading system handle it when it's bound.
+        }
+    }
+
     @Override
     public void renderItemModel(GUIComponentItem component) {
         stacksToRender.add(component);
@@ -252,15 +293,30 @@ public class InterfaceRender implements IInterfaceRender {
     }
 
     @Override
-    public boolean bindURLTexture(String textureURL, InputStream stream) {
-        if (stream != null) {
+    public void prepareURLTexture(String textureURL, BufferedImage image) {
+        NativeImage oldImage = preparedURLTextures.put(textureURL, createNativeImage(image));
+        if (oldImage != null) {
+            oldImage.close();
+        }
+    }
+
+    @Override
+    public boolean bindURLTexture(String textureURL, BufferedImage image) {
+        if (image != null) {
+            //Use the prepared image if we have one, so we only need to upload it here.
+            NativeImage nativeImage = preparedURLTextures.remove(textureURL);
             try {
-                NativeImage image = NativeImage.read(NativeImage.PixelFormat.RGB, stream);
-                DynamicTexture texture = new DynamicTexture(image);
+                if (nativeImage == null) {
+                    nativeImage = createNativeImage(image);
+                }
+                DynamicTexture texture = new DynamicTexture(nativeImage);
                 ResourceLocation textureLocation = Minecraft.getInstance().textureManager.register("mts-url", texture);
                 onlineTextures.put(textureURL, textureLocation);
                 return true;
             } catch (Exception e) {
+                if (nativeImage != null) {
+                    nativeImage.close();
+                }
                 return false;
             }
         } else {
@@ -269,6 +325,24 @@ public class InterfaceRender implements IInterfaceRender {
         }
     }
 
+    /**
+     * Copies the pixels of the image into a new NativeImage.  This doesn't touch OpenGL, so it can be done on any thread.
+     */
+    private static NativeImage createNativeImage(BufferedImage image) {
+        //Images are already decoded, so just copy the pixels over.  NativeImage wants ABGR, not ARGB.
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        NativeImage nativeImage = new NativeImage(width, height, false);
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                int argb = pixels[y * width + x];
+                nativeImage.setPixelRGBA(x, y, (argb & 0xFF00FF00) | ((argb >> 16) & 0xFF) | ((argb & 0xFF) << 16));
+            }
+        }
+        return nativeImage;
+    }
+
     @Override
     public boolean bindURLGIF(String textureURL, ParsedGIF gif) {
         Map<GIFImageFrame, ResourceLocation> gifFrameIndexes = new HashMap<>();
@@ -325,7 +399,20 @@ public class InterfaceRender implements IInterfaceRender {
                 //Convert the classpath-location to a domain-location path for MC.
                 String domain = formattedLocation.substring("/assets/".length(), formattedLocation.indexOf("/", "/assets/".length()));
                 String location = formattedLocation.substring("/assets/".length() + domain.length() + 1);
-                return new RenderState.TextureState(new ResourceLocation(domain, location), false, false);
+                ResourceLocation textureResource = new ResourceLocation(domain, location);
+
+                //If we prefetched the texture, load it from the decoded image rather than having MC decode it now.
+                //Mark it as bound first so any prefetch still running knows not to keep its image.
+                boundTextures.add(textureLocation);
+                NativeImage prefetchedImage = prefetchedTextures.remove(textureLocation);
+                if (prefetchedImage != null) {
+                    if (Minecraft.getInstance().textureManager.getTexture(textureResource) == null) {
+                        Minecraft.getInstance().textureManager.register(textureResource, new PrefetchedTexture(textureResource, prefetchedImage));
+                    } else {
+                        prefetchedImage.close();
+                    }
+                }
+                return new RenderState.TextureState(textureResource, false, false);
             } else {
                 InterfaceManager.coreInterface.logError("Could not find texture: " + formattedLocation + " Reverting to fallback texture.");
                 return MISSING_STATE;
@@ -444,6 +531,8 @@ public class InterfaceRender implements IInterfaceRender {
             @Override
             public boolean shouldRender(BuilderEntityRenderForwarder builder, ClippingHelper camera, double camX, double camY, double camZ) {
                 //Always render the forwarder, no matter where the camera is.
+                //Save the camera though, as we need it to cull the entities we render.
+                renderCamera = camera;
                 return true;
             }
 
@@ -482,6 +571,10 @@ public class InterfaceRender implements IInterfaceRender {
                 matrixStack.popPose();
             }
 
+            //Render particles.  These aren't in the entity list, as they are handled by their own manager.
+            //They are rendered in batches relative to the camera, so no translation is done here.
+            world.particles.render(renderCameraOffset, blendingEnabled, partialTicks);
+
             //Need to tell the immediate buffer  it's done rendering, else it'll hold onto the data and crash other systems.
             if (renderBuffer instanceof IRenderTypeBuffer.Impl) {
                 ((IRenderTypeBuffer.Impl) renderBuffer).endBatch();
@@ -582,6 +675,30 @@ public class InterfaceRender implements IInterfaceRender {
         }
     }
 
+    /**
+     * Texture that uses an image decoded by {@link #prefetchTexture(String)} for its first load.
+     * Any later loads, such as from resource reloads, are done normally.
+     */
+    private static class PrefetchedTexture extends SimpleTexture {
+        private NativeImage prefetchedImage;
+
+        private PrefetchedTexture(ResourceLocation textureResource, NativeImage prefetchedImage) {
+            super(textureResource);
+            this.prefetchedImage = prefetchedImage;
+        }
+
+        @Override
+        protected SimpleTexture.TextureImage getTextureImage(IResourceManager resourceManager) {
+            if (prefetchedImage != null) {
+                SimpleTexture.TextureImage textureImage = new SimpleTexture.TextureImage(null, prefetchedImage);
+                prefetchedImage = null;
+                return textureImage;
+            } else {
+                return super.getTextureImage(resourceManager);
+            }
+        }
+    }
+
     private static class RenderData {
         private final Matrix4f matrix;
         private final VertexBuffer buffer;
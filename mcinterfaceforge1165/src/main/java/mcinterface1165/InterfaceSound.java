@@ -1,6 +1,5 @@
 package mcinterface1165;
 
-import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
@@ -20,8 +19,9 @@ import minecrafttransportsimulator.entities.instances.EntityRadio;
 import minecrafttransportsimulator.mcinterface.IInterfaceSound;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.sound.DecodedSoundCache;
+import minecrafttransportsimulator.sound.DecodedSoundCache.DecodedSound;
 import minecrafttransportsimulator.sound.IStreamDecoder;
-import minecrafttransportsimulator.sound.OGGDecoder;
 import minecrafttransportsimulator.sound.RadioStation;
 import minecrafttransportsimulator.sound.SoundInstance;
 import minecrafttransportsimulator.systems.ConfigSystem;
@@ -67,6 +67,11 @@ public class InterfaceSound implements IInterfaceSound {
      **/
     private static final List<SoundInstance> queuedSounds = new ArrayList<>();
 
+    /**
+     * List of sounds waiting on their data to be decoded.  These are started once their data is ready.
+     **/
+    private static final List<SoundInstance> decodingSounds = new ArrayList<>();
+
     /**
      * This gets incremented whenever we try to get a source and fail.  If we get to 10, the sound system
      * will stop attempting to play sounds.  Used for when mods take all the sources.
@@ -117,6 +122,24 @@ public class InterfaceSound implements IInterfaceSound {
             for (SoundInstance sound : playingSounds) {
                 sound.stopSound = true;
             }
+            for (SoundInstance sound : decodingSounds) {
+                sound.stopSound = true;
+            }
+        }
+
+        //Start any sounds that were waiting on their data to be decoded, or remove them if they were stopped.
+        if (!decodingSounds.isEmpty()) {
+            Iterator<SoundInstance> decodingIterator = decodingSounds.iterator();
+            while (decodingIterator.hasNext()) {
+                SoundInstance sound = decodingIterator.next();
+                if (sound.stopSound || dataSourceBuffers.containsKey(sound.soundPlayingName) || DecodedSoundCache.isDecoded(sound.soundPlayingName)) {
+                    decodingIterator.remove();
+                    sound.entity.sounds.remove(sound);
+                    if (!sound.stopSound) {
+                        playQuickSound(sound);
+                    }
+                }
+            }
         }
 
         //Start playing all queued sounds.
@@ -212,6 +235,14 @@ public class InterfaceSound implements IInterfaceSound {
     @Override
     public void playQuickSound(SoundInstance sound) {
         if (ALC.getFunctionProvider() != null && sourceGetFailures < 10) {
+            //If the sound data is still being decoded, hold onto the sound until it's done.
+            //We add it to the entity now so the entity knows it's going to be playing.
+            if (!dataSourceBuffers.containsKey(sound.soundPlayingName) && !DecodedSoundCache.isDecoded(sound.soundPlayingName)) {
+                decodingSounds.add(sound);
+                sound.entity.sounds.add(sound);
+                return;
+            }
+
             //First get the IntBuffer pointer to where this sound data is stored.
             Integer dataBufferPointer = loadOGGJarSound(sound.soundPlayingName);
             if (dataBufferPointer != null) {
@@ -350,37 +381,27 @@ public class InterfaceSound implements IInterfaceSound {
     }
 
     /**
-     * Loads an OGG file in its entirety using the {@link InterfaceOGGDecoder}.
+     * Loads an OGG file decoded by the {@link DecodedSoundCache} into OpenAL.
      * The sound is then stored in a dataBuffer keyed by soundName located in {@link #dataSourceBuffers}.
      * The pointer to the dataBuffer is returned for convenience as it allows for transparent sound caching.
      * If a sound with the same name is passed-in at a later time, it is assumed to be the same and rather
-     * than re-parse the sound the system will simply return the same pointer index to be bound.
+     * than re-load the sound the system will simply return the same pointer index to be bound.
+     * The sound must be done decoding before this method is called.
      */
     private static Integer loadOGGJarSound(String soundName) {
         if (dataSourceBuffers.containsKey(soundName)) {
-            //Already parsed the data.  Return the buffer.
+            //Already loaded the data.  Return the buffer.
             return dataSourceBuffers.get(soundName);
         } else {
-            //Need to parse the data.  Do so now.
-            String soundDomain = soundName.substring(0, soundName.indexOf(':'));
-            String soundPath = soundName.substring(soundDomain.length() + 1);
-            InputStream soundStream = InterfaceManager.coreInterface.getPackResource("/assets/" + soundDomain + "/sounds/" + soundPath + ".ogg");
-            if (soundStream != null) {
-                //Create decoder and decode whole file.
-                OGGDecoder decoder = new OGGDecoder(soundStream);
-                ByteBuffer decodedData = ByteBuffer.allocateDirect(0);
-                ByteBuffer blockRead;
-                while ((blockRead = decoder.readBlock()) != null) {
-                    decodedData = ByteBuffer.allocateDirect(decodedData.capacity() + blockRead.limit()).put(decodedData).put(blockRead);
-                    decodedData.rewind();
-                }
-
+            //Need to load the data.  Get it from the decoder.
+            DecodedSound decodedSound = DecodedSoundCache.takeSound(soundName);
+            if (decodedSound != null) {
                 //Generate an IntBuffer to store a pointer to the data buffer.
                 IntBuffer dataBufferPointers = BufferUtils.createIntBuffer(1);
                 AL10.alGenBuffers(dataBufferPointers);
 
-                //Bind the decoder output buffer to the data buffer pointer.
-                AL10.alBufferData(dataBufferPointers.get(0), AL10.AL_FORMAT_MONO16, decodedData, decoder.getSampleRate());
+                //Bind the decoded data to the data buffer pointer.
+                AL10.alBufferData(dataBufferPointers.get(0), AL10.AL_FORMAT_MONO16, decodedSound.data, decodedSound.sampleRate);
 
                 //Done parsing.  Map the dataBuffer(s) to the soundName and return the index.
                 dataSourceBuffers.put(soundName, dataBufferPointers.get(0));
@@ -393,6 +414,9 @@ public class InterfaceSound implements IInterfaceSound {
 
     public static void stopAllSounds() {
         queuedSounds.clear();
+        for (SoundInstance sound : decodingSounds) {
+            sound.stopSound = true;
+        }
         for (SoundInstance sound : playingSounds) {
             if (sound.radio != null) {
                 sound.radio.stop();
@@ -430,6 +454,11 @@ public class InterfaceSound implements IInterfaceSound {
     public static void onIVWorldUnload(WorldEvent.Unload event) {
         if (event.getWorld().isClientSide()) {
             queuedSounds.removeIf(soundInstance -> event.getWorld() == ((WrapperWorld) soundInstance.entity.world).world);
+            for (SoundInstance sound : decodingSounds) {
+                if (event.getWorld() == ((WrapperWorld) sound.entity.world).world) {
+                    sound.stopSound = true;
+                }
+            }
             for (SoundInstance sound : playingSounds) {
                 if (event.getWorld() == ((WrapperWorld) sound.entity.world).world) {
                     if (sound.radio != null) {